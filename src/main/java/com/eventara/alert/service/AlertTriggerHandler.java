@@ -4,6 +4,7 @@ import com.eventara.alert.entity.AlertHistory;
 import com.eventara.alert.enums.AlertSeverity;
 import com.eventara.alert.enums.AlertStatus;
 import com.eventara.alert.repository.AlertHistoryRepository;
+import com.eventara.instrumentation.PipelineMetrics;
 import com.eventara.rule.entity.AlertRule;
 import com.eventara.rule.repository.RuleRepository;
 import lombok.extern.slf4j.Slf4j;
@@ -25,15 +26,18 @@ public class AlertTriggerHandler {
     private final AlertHistoryRepository alertHistoryRepository;
     private final RuleRepository ruleRepository;
     private final com.eventara.notification.service.NotificationService notificationService;
+    private final PipelineMetrics pipelineMetrics;
 
     @Autowired
     public AlertTriggerHandler(
             AlertHistoryRepository alertHistoryRepository,
             RuleRepository ruleRepository,
-            com.eventara.notification.service.NotificationService notificationService) {
+            com.eventara.notification.service.NotificationService notificationService,
+            PipelineMetrics pipelineMetrics) {
         this.alertHistoryRepository = alertHistoryRepository;
         this.ruleRepository = ruleRepository;
         this.notificationService = notificationService;
+        this.pipelineMetrics = pipelineMetrics;
     }
 
     /**
@@ -72,7 +76,9 @@ public class AlertTriggerHandler {
                 .context(buildContext(ruleName, thresholdValue, actualValue))
                 .build();
 
+        long persistStart = System.nanoTime();
         alertHistoryRepository.save(alert);
+        pipelineMetrics.record(PipelineMetrics.Stage.ALERT_PERSIST, persistStart);
 
         // Update rule trigger count
         if (ruleId != null) {
@@ -1,25 +1,100 @@
 package com.eventara.analytics.config;
+import com.eventara.ingestion.config.IngestionProperties;
+import com.eventara.ingestion.mapper.EventMapper;
+import com.eventara.ingestion.model.entity.Event;
+import com.eventara.ingestion.serde.AvroEventCodec;
+import com.eventara.metrics.config.MetricsProperties;
+import com.eventara.metrics.model.BucketAggregate;
+import com.eventara.metrics.service.RedisMetricsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.errors.LogAndContinueExceptionHandler;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
 import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.kstream.Suppressed;
+import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.state.WindowStore;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafkaStreams;
 import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
 import org.springframework.kafka.config.KafkaStreamsConfiguration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.support.serializer.JsonSerde;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Metrics bucket aggregation in Kafka Streams.
+ *
+ * Reads the persisted events topic, to which the consumer publishes the events
+ * it actually inserted (duplicates, client retries and DLQ replays that the
+ * INSERT skipped never reach it), and folds every record into a tumbling
+ * window of the metrics bucket size, kept in a RocksDB window store (so open
+ * buckets survive restarts via the changelog topic). A bucket is emitted when
+ * its window closes (bucket end + grace): it is written to Redis and published
+ * to the processed events topic. The scheduled rollup then copies it to
+ * TimescaleDB, as for consumer-written buckets.
+ *
+ * Emission is at-least-once: after a crash a closed window can be emitted
+ * again. The Redis write is idempotent per window (see
+ * RedisMetricsService.recordBucket); the processed events topic may see the
+ * window twice.
+ *
+ * Records are keyed by source, and windows are per key, so no repartition
+ * topic is needed: each closed bucket is one write per source.
+ */
 @Configuration
-//@EnableKafkaStreams
+@EnableKafkaStreams
+@ConditionalOnProperty(name = "eventara.metrics.streams.enabled", havingValue = "true")
 public class KafkaStreamsConfig {
 
+    public static final String BUCKET_STORE = "metrics-buckets";
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${eventara.kafka.topics.events-persisted}")
+    private String persistedEventsTopic;
+
+    @Value("${eventara.kafka.topics.events-processed}")
+    private String processedEventsTopic;
+
+    @Autowired
+    private MetricsProperties metricsProperties;
+
+    @Autowired
+    private RedisMetricsService redisMetricsService;
+
+    @Autowired
+    private EventMapper eventMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IngestionProperties ingestionProperties;
+
+    @Autowired
+    private AvroEventCodec avroEventCodec;
+
     @Bean(name = KafkaStreamsDefaultConfiguration.DEFAULT_STREAMS_CONFIG_BEAN_NAME)
     public KafkaStreamsConfiguration kStreamsConfig() {
         Map<String, Object> props = new HashMap<>();
@@ -27,27 +102,88 @@ public class KafkaStreamsConfig {
         // Basic configuration
         props.put(StreamsConfig.APPLICATION_ID_CONFIG, "eventara-analytics");
         props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(StreamsConfig.STATE_DIR_CONFIG, metricsProperties.getStreams().getStateDir());
 
         // Serialization
         props.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.String().getClass());
         props.put(StreamsConfig.DEFAULT_VALUE_SERDE_CLASS_CONFIG, Serdes.String().getClass());
+        // Unreadable payloads are logged and skipped
+        props.put(StreamsConfig.DEFAULT_DESERIALIZATION_EXCEPTION_HANDLER_CLASS_CONFIG,
+                LogAndContinueExceptionHandler.class);
 
         // Performance tuning
-        props.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG, 2);
+        props.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG, metricsProperties.getStreams().getThreads());
         props.put(StreamsConfig.COMMIT_INTERVAL_MS_CONFIG, 1000);
 
         return new KafkaStreamsConfiguration(props);
     }
 
+    @Bean
+    public NewTopic processedEventsTopicDeclaration() {
+        return TopicBuilder.name(processedEventsTopic).build();
+    }
+
+    @Bean
+    public NewTopic persistedEventsTopicDeclaration() {
+        return TopicBuilder.name(persistedEventsTopic).build();
+    }
+
+    @Bean
+    public KStream<String, Event> metricsBucketStream(StreamsBuilder builder) {
+        Duration bucketSize = Duration.ofMillis(metricsProperties.getBucketSizeMs());
+        Duration grace = Duration.ofSeconds(metricsProperties.getStreams().getGraceSeconds());
+
+        Serde<Event> eventSerde = eventSerde();
+        JsonSerde<BucketAggregate> bucketSerde = new JsonSerde<>(BucketAggregate.class, objectMapper)
+                .ignoreTypeHeaders().noTypeInfo();
 
+        KStream<String, Event> events = builder.stream(persistedEventsTopic,
+                Consumed.with(Serdes.String(), eventSerde));
 
-//    @Bean
-//    public KStream<String, String> analyticsStream(StreamsBuilder builder) {
-//        KStream<String, String> stream = builder.stream("eventara.events.raw");
-//        stream.peek((key, value) -> System.out.println("Received raw event: " + value));
-////        stream.peek((key, value) -> System.out.println("Received: " + value))
-////                .to("analytics-output");
-//
-//        return stream;
-//    }
+        events.filter((key, event) -> event != null)
+                .groupByKey(Grouped.with(Serdes.String(), eventSerde))
+                .windowedBy(TimeWindows.ofSizeAndGrace(bucketSize, grace))
+                .aggregate(BucketAggregate::new,
+                        (key, event, bucket) -> bucket.add(eventMapper.toDto(event)),
+                        Materialized.<String, BucketAggregate, WindowStore<Bytes, byte[]>>as(BUCKET_STORE)
+                                .withKeySerde(Serdes.String())
+                                .withValueSerde(bucketSerde)
+                                .withRetention(bucketSize.plus(grace)))
+                // Only closed buckets go downstream
+                .suppress(Suppressed.untilWindowCloses(Suppressed.BufferConfig.unbounded()))
+                .toStream()
+                .map((window, bucket) -> {
+                    bucket.setBucketStart(window.window().start());
+                    return KeyValue.pair(window.key() + "@" + window.window().start(), bucket);
+                })
+                .peek(redisMetricsService::recordBucket)
+                .to(processedEventsTopic, Produced.with(Serdes.String(), bucketSerde));
+
+        return events;
+    }
+
+    /**
+     * Events as written by EventProducer: JSON, or Avro when
+     * eventara.ingestion.serde.format=avro. Both are read, as in EventDeserializer.
+     */
+    private Serde<Event> eventSerde() {
+        IngestionProperties.Serde config = ingestionProperties.getSerde();
+        JsonSerde<Event> json = new JsonSerde<>(Event.class, objectMapper)
+                .ignoreTypeHeaders().noTypeInfo();
+        Serializer<Event> serializer = (topic, event) -> event != null
+                && config.getFormat() == IngestionProperties.Serde.Format.AVRO
+                ? avroEventCodec.encode(event)
+                : json.serializer().serialize(topic, event);
+        Deserializer<Event> deserializer = (topic, data) -> {
+            if (AvroEventCodec.isAvro(data)) {
+                return avroEventCodec.decode(data);
+            }
+            if (data != null && !config.isAcceptJson()) {
+                throw new SerializationException("JSON payload on " + topic
+                        + " while eventara.ingestion.serde.accept-json=false");
+            }
+            return json.deserializer().deserialize(topic, data);
+        };
+        return Serdes.serdeFrom(serializer, deserializer);
+    }
 }
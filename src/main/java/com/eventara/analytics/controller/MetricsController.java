@@ -2,14 +2,21 @@ package com.eventara.analytics.controller;
 
 import com.eventara.analytics.service.ComprehensiveMetricsService;
 import com.eventara.common.dto.ComprehensiveMetricsDto;
+import com.eventara.common.dto.MetricsBackfillRequest;
+import com.eventara.common.dto.MetricsBackfillStatus;
 import com.eventara.metrics.config.MetricsProperties;
 import com.eventara.metrics.service.DistributedMetricsService;
+import com.eventara.metrics.service.MetricsBackfillService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/v1/metrics")
 @Tag(name = "Analytics", description = "Comprehensive real-time event analytics")
@@ -24,6 +31,9 @@ public class MetricsController {
     @Autowired
     private MetricsProperties metricsProperties;
 
+    @Autowired
+    private MetricsBackfillService metricsBackfillService;
+
     @GetMapping
     @Operation(summary = "Get comprehensive metrics")
     public ResponseEntity<ComprehensiveMetricsDto> getMetrics() {
@@ -43,4 +53,40 @@ public class MetricsController {
         }
         return ResponseEntity.ok("Metrics reset successfully");
     }
+
+    @PostMapping("/backfill")
+    @Operation(summary = "Rebuild metric buckets",
+            description = "Replays events from Kafka or the events table into Redis and metrics_buckets, bucketed by event time")
+    public ResponseEntity<?> startBackfill(@RequestBody MetricsBackfillRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(metricsBackfillService.start(request));
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            return error(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    @GetMapping("/backfill")
+    @Operation(summary = "Get backfill progress", description = "Progress and throughput of the current or last backfill")
+    public ResponseEntity<MetricsBackfillStatus> getBackfill() {
+        MetricsBackfillStatus status = metricsBackfillService.status();
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping("/backfill")
+    @Operation(summary = "Cancel the running backfill", description = "Nothing is written for a cancelled backfill")
+    public ResponseEntity<?> cancelBackfill() {
+        if (!metricsBackfillService.cancel()) {
+            return error(HttpStatus.CONFLICT, "No backfill is running");
+        }
+        return ResponseEntity.ok(metricsBackfillService.status());
+    }
+
+    private ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("status", "error");
+        error.put("message", message);
+        return ResponseEntity.status(status).body(error);
+    }
 }
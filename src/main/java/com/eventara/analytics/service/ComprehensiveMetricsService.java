@@ -139,6 +139,13 @@ public class ComprehensiveMetricsService {
 
     }
 
+    //Record a consumed batch under a single lock acquisition
+    public synchronized void recordEvents(List<EventDto> events){
+        for (EventDto event : events){
+            recordEvent(event);
+        }
+    }
+
     //Get comprehensive metrics snapshot
 
     public ComprehensiveMetricsDto getComprehensiveMetrics(){
@@ -1,20 +1,23 @@
 package com.eventara.analytics.service;
 
 import com.eventara.drools.fact.MetricsFact;
+import com.eventara.common.repository.EventAggregateRepository;
 import com.eventara.common.repository.EventRepository;
-import com.eventara.ingestion.model.entity.Event;
+import com.eventara.metrics.model.LatencySketch;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
  * Calculates MetricsFact for Drools rule evaluation using REAL data from PostgreSQL/TimescaleDB.
  * This ensures rules are evaluated against accurate, persistent data (not volatile in-memory data).
+ * Counts and latencies come from the continuous aggregates of the events table (V10), so a call
+ * reads a few hundred pre-aggregated rows instead of scanning up to 24 hours of events.
  */
 @Service
 @Slf4j
@@ -22,45 +25,50 @@ import java.util.Map;
 public class MetricsCalculator {
 
     private final EventRepository eventRepository;
+    private final EventAggregateRepository eventAggregateRepository;
 
+    @Transactional(readOnly = true)
     public MetricsFact calculateCurrentMetrics() {
         Instant now = Instant.now();
 
-        // Define time windows
-        Instant oneMinuteAgo = now.minusSeconds(60);
-        Instant fiveMinutesAgo = now.minusSeconds(300);
-        Instant fifteenMinutesAgo = now.minusSeconds(900);
-        Instant oneHourAgo = now.minusSeconds(3600);
-        Instant twentyFourHoursAgo = now.minusSeconds(86400);
-
-        // ===== COUNT EVENTS IN TIME WINDOWS =====
-        long eventsLast1Minute = eventRepository.countByTimestampBetween(oneMinuteAgo, now);
-        long eventsLast5Minutes = eventRepository.countByTimestampBetween(fiveMinutesAgo, now);
-        long eventsLast15Minutes = eventRepository.countByTimestampBetween(fifteenMinutesAgo, now);
-        long eventsLast1Hour = eventRepository.countByTimestampBetween(oneHourAgo, now);
-        long eventsLast24Hours = eventRepository.countByTimestampBetween(twentyFourHoursAgo, now);
+        // Define time windows (ending now, so the current minute counts)
+        Instant end = now;
+        Instant oneMinuteAgo = end.minusSeconds(60);
+        Instant fiveMinutesAgo = end.minusSeconds(300);
+        Instant fifteenMinutesAgo = end.minusSeconds(900);
+        Instant oneHourAgo = end.minusSeconds(3600);
+        Instant twentyFourHoursAgo = end.minusSeconds(86400);
+
+        // ===== COUNT EVENTS IN TIME WINDOWS (continuous aggregates) =====
+        long eventsLast1Minute = eventAggregateRepository.totals(oneMinuteAgo, end).getEvents();
+        long eventsLast5Minutes = eventAggregateRepository.totals(fiveMinutesAgo, end).getEvents();
+        long eventsLast15Minutes = eventAggregateRepository.totals(fifteenMinutesAgo, end).getEvents();
+        EventAggregateRepository.Totals lastHour = eventAggregateRepository.totals(oneHourAgo, end);
+        EventAggregateRepository.Totals lastDay = eventAggregateRepository.totals(twentyFourHoursAgo, end);
+        long eventsLast1Hour = lastHour.getEvents();
+        long eventsLast24Hours = lastDay.getEvents();
 
         // ===== COUNT ERRORS (using CRITICAL + ERROR severity) =====
-        long criticalErrors = eventRepository.countBySeverityAndTimestampBetween(Event.Severity.CRITICAL, twentyFourHoursAgo, now);
-        long regularErrors = eventRepository.countBySeverityAndTimestampBetween(Event.Severity.ERROR, twentyFourHoursAgo, now);
-        long totalErrors = criticalErrors + regularErrors;
+        long totalErrors = lastDay.getErrors();
 
         // ===== CALCULATE ERROR RATE =====
         double errorRate = eventsLast24Hours > 0 ? (totalErrors * 100.0 / eventsLast24Hours) : 0.0;
 
         // ===== UNIQUE COUNTS =====
-        int uniqueSources = eventRepository.countDistinctSourceByTimestampBetween(twentyFourHoursAgo, now);
-        int uniqueEventTypes = eventRepository.countDistinctEventTypeByTimestampBetween(twentyFourHoursAgo, now);
-        int uniqueUsers = eventRepository.countDistinctUserIdByTimestampBetween(twentyFourHoursAgo, now);
-        int activeUsersLast1Hour = eventRepository.countDistinctUserIdByTimestampBetween(oneHourAgo, now);
-
-        // ===== LATENCY METRICS (from DB - accurate for rule evaluation) =====
-        Double avgLatency = eventRepository.findAvgLatencyBetween(oneHourAgo, now);
-        Double p50Latency = eventRepository.findP50LatencyBetween(oneHourAgo, now);
-        Double p95Latency = eventRepository.findP95LatencyBetween(oneHourAgo, now);
-        Double p99Latency = eventRepository.findP99LatencyBetween(oneHourAgo, now);
-        Double minLatency = eventRepository.findMinLatencyBetween(oneHourAgo, now);
-        Double maxLatency = eventRepository.findMaxLatencyBetween(oneHourAgo, now);
+        int uniqueSources = lastDay.getSources();
+        int uniqueEventTypes = lastDay.getEventTypes();
+        // Distinct users do not add up across buckets, so these still read the events
+        int uniqueUsers = eventRepository.countDistinctUserIdByTimestampBetween(twentyFourHoursAgo, end);
+        int activeUsersLast1Hour = eventRepository.countDistinctUserIdByTimestampBetween(oneHourAgo, end);
+
+        // ===== LATENCY METRICS (stored latency_ms, percentiles from the latency histograms) =====
+        LatencySketch latencies = eventAggregateRepository.latencySketch(oneHourAgo, end);
+        Double avgLatency = lastHour.getAvgLatency();
+        Double p50Latency = toDouble(latencies.quantile(0.50));
+        Double p95Latency = toDouble(latencies.quantile(0.95));
+        Double p99Latency = toDouble(latencies.quantile(0.99));
+        Double minLatency = lastHour.getLatencyMin();
+        Double maxLatency = lastHour.getLatencyMax();
 
         // ===== THROUGHPUT CALCULATIONS =====
         double eventsPerSecond = eventsLast1Minute / 60.0;
@@ -78,20 +86,17 @@ public class MetricsCalculator {
         Map<String, Double> sourceErrorRateMap = new HashMap<>();
         Map<String, Long> sourceErrorCountMap = new HashMap<>();
 
-        List<String> sources = eventRepository.findDistinctSourcesByTimestampBetween(oneHourAgo, now);
-        for (String source : sources) {
-            long sourceEventCount = eventRepository.countBySourceAndTimestampBetween(source, oneHourAgo, now);
-            long sourceCriticalErrors = eventRepository.countBySourceAndSeverityAndTimestampBetween(source, Event.Severity.CRITICAL, oneHourAgo, now);
-            long sourceRegularErrors = eventRepository.countBySourceAndSeverityAndTimestampBetween(source, Event.Severity.ERROR, oneHourAgo, now);
-            long sourceErrors = sourceCriticalErrors + sourceRegularErrors;
+        eventAggregateRepository.totalsBySource(oneHourAgo, end).forEach((source, totals) -> {
+            long sourceEventCount = totals.getEvents();
+            long sourceErrors = totals.getErrors();
 
             double sourceErrorRate = sourceEventCount > 0 ? (sourceErrors * 100.0 / sourceEventCount) : 0.0;
-            Double sourceAvgLatency = eventRepository.findAvgLatencyBySourceBetween(source, oneHourAgo, now);
+            Double sourceAvgLatency = totals.getAvgLatency();
 
             sourceErrorCountMap.put(source, sourceErrors);
             sourceErrorRateMap.put(source, sourceErrorRate);
             sourceHealthMap.put(source, determineSourceHealth(sourceErrorRate, sourceAvgLatency));
-        }
+        });
 
         // ===== BUILD METRICS FACT =====
         MetricsFact metrics = MetricsFact.builder()
@@ -151,6 +156,10 @@ public class MetricsCalculator {
         return metrics;
     }
 
+    private static Double toDouble(Long value) {
+        return value != null ? value.doubleValue() : null;
+    }
+
     /**
      * Determine overall system health based on error rate and latency
      */
@@ -0,0 +1,62 @@
+package com.eventara.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Connection pools: one for consumer inserts, one for all other writes
+ * (alerts, notifications, rules, migrations) and one for read-only work.
+ *
+ * A slow dashboard query can exhaust the read pool but never takes a
+ * connection the consumer inserts with. The DataSource everything uses is a
+ * lazy proxy: the physical connection is only taken at the first statement,
+ * once the transaction's read-only flag and the thread's DbWorkload are
+ * known. @Transactional(readOnly = true) work goes to the read pool, which
+ * may point at a replica (eventara.datasource.read.jdbc-url); replicas lag, so
+ * reads that must see their own writes should not be read-only. Under
+ * DbWorkload.INGEST read-only transactions stay on the ingest pool.
+ *
+ * Pools default to spring.datasource.*; each can be tuned with any Hikari
+ * property under eventara.datasource.{ingest,alerting,read}.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("eventara.datasource.ingest")
+    public HikariDataSource ingestDataSource(DataSourceProperties properties) {
+        return pool(properties, "ingest");
+    }
+
+    @Bean
+    @ConfigurationProperties("eventara.datasource.alerting")
+    public HikariDataSource alertingDataSource(DataSourceProperties properties) {
+        return pool(properties, "alerting");
+    }
+
+    @Bean
+    @ConfigurationProperties("eventara.datasource.read")
+    public HikariDataSource readDataSource(DataSourceProperties properties) {
+        return pool(properties, "read");
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties) {
+        return new LazyConnectionDataSourceProxy(new WorkloadRoutingDataSource(
+                ingestDataSource(properties), alertingDataSource(properties), readDataSource(properties)));
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String name) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(name);
+        return dataSource;
+    }
+}
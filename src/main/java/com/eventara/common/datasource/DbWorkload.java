@@ -0,0 +1,42 @@
+package com.eventara.common.datasource;
+
+/**
+ * Which write pool a thread's connections come from (DataSourceConfig).
+ *
+ * Threads that have not entered a workload write through the ALERTING pool,
+ * which serves everything except consumer inserts. Read-only transactions
+ * use the read pool, except under INGEST, where they stay on the ingest pool.
+ */
+public enum DbWorkload {
+    INGEST,
+    ALERTING;
+
+    private static final ThreadLocal<DbWorkload> CURRENT = new ThreadLocal<>();
+
+    public static DbWorkload current() {
+        DbWorkload workload = CURRENT.get();
+        return workload != null ? workload : ALERTING;
+    }
+
+    /**
+     * Route this thread's connections to the workload's pool until the scope
+     * is closed. Scopes nest; closing one restores the previous workload.
+     */
+    public Scope enter() {
+        DbWorkload previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
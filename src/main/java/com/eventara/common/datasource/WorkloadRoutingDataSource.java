@@ -0,0 +1,35 @@
+package com.eventara.common.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Hands out connections from the pool of the calling thread's DbWorkload.
+ *
+ * Read-only transactions go to the read pool, except under INGEST: the
+ * consumer's dedup lookups run in read-only repository transactions but must
+ * stay on the ingest pool (and see the primary, not a lagging replica).
+ */
+class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String READ = "read";
+
+    WorkloadRoutingDataSource(DataSource ingest, DataSource alerting, DataSource read) {
+        setTargetDataSources(Map.<Object, Object>of(
+                DbWorkload.INGEST, ingest, DbWorkload.ALERTING, alerting, READ, read));
+        setDefaultTargetDataSource(alerting);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        DbWorkload workload = DbWorkload.current();
+        if (workload != DbWorkload.INGEST && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return READ;
+        }
+        return workload;
+    }
+}
@@ -0,0 +1,105 @@
+package com.eventara.common.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admission control counters since startup.
+ */
+public class AdmissionStatsDto {
+
+    private boolean enabled;
+    private long admitted;
+    private long shed;
+    private long redisFailures;
+    private Map<String, SourceStats> sources = new LinkedHashMap<>();
+
+    public static class SourceStats {
+        private long admitted;
+        private long shed;
+        private double rate; // configured events/sec, 0 = unlimited
+        private long burst;
+
+        public SourceStats() {
+        }
+
+        public SourceStats(long admitted, long shed, double rate, long burst) {
+            this.admitted = admitted;
+            this.shed = shed;
+            this.rate = rate;
+            this.burst = burst;
+        }
+
+        public long getAdmitted() {
+            return admitted;
+        }
+
+        public void setAdmitted(long admitted) {
+            this.admitted = admitted;
+        }
+
+        public long getShed() {
+            return shed;
+        }
+
+        public void setShed(long shed) {
+            this.shed = shed;
+        }
+
+        public double getRate() {
+            return rate;
+        }
+
+        public void setRate(double rate) {
+            this.rate = rate;
+        }
+
+        public long getBurst() {
+            return burst;
+        }
+
+        public void setBurst(long burst) {
+            this.burst = burst;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getAdmitted() {
+        return admitted;
+    }
+
+    public void setAdmitted(long admitted) {
+        this.admitted = admitted;
+    }
+
+    public long getShed() {
+        return shed;
+    }
+
+    public void setShed(long shed) {
+        this.shed = shed;
+    }
+
+    public long getRedisFailures() {
+        return redisFailures;
+    }
+
+    public void setRedisFailures(long redisFailures) {
+        this.redisFailures = redisFailures;
+    }
+
+    public Map<String, SourceStats> getSources() {
+        return sources;
+    }
+
+    public void setSources(Map<String, SourceStats> sources) {
+        this.sources = sources;
+    }
+}
@@ -0,0 +1,77 @@
+package com.eventara.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a batch ingestion request.
+ * results[i] always describes request item i.
+ */
+public class BatchEventResponse {
+
+    private int total;
+    private int accepted;
+    private int rejected;
+    private List<EventResponse> results = new ArrayList<>();
+
+    //Set when items were shed by admission control
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long retryAfterSeconds;
+
+    public BatchEventResponse() {
+    }
+
+    public BatchEventResponse(List<EventResponse> results) {
+        this.results = results;
+        this.total = results.size();
+        for (EventResponse result : results) {
+            if ("failed".equals(result.getStatus())) {
+                rejected++;
+            } else {
+                accepted++;
+            }
+        }
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(int accepted) {
+        this.accepted = accepted;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<EventResponse> getResults() {
+        return results;
+    }
+
+    public void setResults(List<EventResponse> results) {
+        this.results = results;
+    }
+
+    public Long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public void setRetryAfterSeconds(Long retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
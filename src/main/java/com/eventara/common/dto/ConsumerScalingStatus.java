@@ -0,0 +1,177 @@
+package com.eventara.common.dto;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Current scaling state of the raw events listener and its recent changes.
+ */
+public class ConsumerScalingStatus {
+
+    private boolean enabled;
+    private String listenerId;
+    private int concurrency;
+    private int maxPollRecords;
+    private int partitions;
+    private long lag; // records behind, across all partitions, at the last check
+    private double recordTimeMs; // processing time per record, per thread, since the previous check
+    private Instant lastCheck;
+    private List<Change> history = new ArrayList<>(); // most recent first
+
+    public static class Change {
+        private Instant timestamp;
+        private String direction; // up or down
+        private String reason;
+        private int fromConcurrency;
+        private int toConcurrency;
+        private int fromPollRecords;
+        private int toPollRecords;
+        private long lag;
+        private double recordTimeMs;
+
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        public void setTimestamp(Instant timestamp) {
+            this.timestamp = timestamp;
+        }
+
+        public String getDirection() {
+            return direction;
+        }
+
+        public void setDirection(String direction) {
+            this.direction = direction;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public void setReason(String reason) {
+            this.reason = reason;
+        }
+
+        public int getFromConcurrency() {
+            return fromConcurrency;
+        }
+
+        public void setFromConcurrency(int fromConcurrency) {
+            this.fromConcurrency = fromConcurrency;
+        }
+
+        public int getToConcurrency() {
+            return toConcurrency;
+        }
+
+        public void setToConcurrency(int toConcurrency) {
+            this.toConcurrency = toConcurrency;
+        }
+
+        public int getFromPollRecords() {
+            return fromPollRecords;
+        }
+
+        public void setFromPollRecords(int fromPollRecords) {
+            this.fromPollRecords = fromPollRecords;
+        }
+
+        public int getToPollRecords() {
+            return toPollRecords;
+        }
+
+        public void setToPollRecords(int toPollRecords) {
+            this.toPollRecords = toPollRecords;
+        }
+
+        public long getLag() {
+            return lag;
+        }
+
+        public void setLag(long lag) {
+            this.lag = lag;
+        }
+
+        public double getRecordTimeMs() {
+            return recordTimeMs;
+        }
+
+        public void setRecordTimeMs(double recordTimeMs) {
+            this.recordTimeMs = recordTimeMs;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getListenerId() {
+        return listenerId;
+    }
+
+    public void setListenerId(String listenerId) {
+        this.listenerId = listenerId;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public int getMaxPollRecords() {
+        return maxPollRecords;
+    }
+
+    public void setMaxPollRecords(int maxPollRecords) {
+        this.maxPollRecords = maxPollRecords;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(int partitions) {
+        this.partitions = partitions;
+    }
+
+    public long getLag() {
+        return lag;
+    }
+
+    public void setLag(long lag) {
+        this.lag = lag;
+    }
+
+    public double getRecordTimeMs() {
+        return recordTimeMs;
+    }
+
+    public void setRecordTimeMs(double recordTimeMs) {
+        this.recordTimeMs = recordTimeMs;
+    }
+
+    public Instant getLastCheck() {
+        return lastCheck;
+    }
+
+    public void setLastCheck(Instant lastCheck) {
+        this.lastCheck = lastCheck;
+    }
+
+    public List<Change> getHistory() {
+        return history;
+    }
+
+    public void setHistory(List<Change> history) {
+        this.history = history;
+    }
+}
@@ -0,0 +1,145 @@
+package com.eventara.common.dto;
+
+import java.time.Instant;
+
+/**
+ * Event dedup filter counters since startup.
+ */
+public class DedupStatsDto {
+
+    private boolean enabled;
+    private boolean redisEnabled;
+    private long lookups;
+    private long maybeDuplicates; // filter hits, confirmed against the database
+    private long confirmedDuplicates;
+    private long falsePositives;
+    private long constraintDuplicates; // duplicates that passed the filter and hit the unique index
+    private long batchDuplicates; // repeated ids within one consumed batch
+    private long redisFailures;
+    private double observedFalsePositiveRate;
+    private double estimatedFalsePositiveRate; // theoretical, current generation at its current fill
+    private long currentInsertions;
+    private long bitSize;
+    private int hashFunctions;
+    private Instant generationStartedAt;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isRedisEnabled() {
+        return redisEnabled;
+    }
+
+    public void setRedisEnabled(boolean redisEnabled) {
+        this.redisEnabled = redisEnabled;
+    }
+
+    public long getLookups() {
+        return lookups;
+    }
+
+    public void setLookups(long lookups) {
+        this.lookups = lookups;
+    }
+
+    public long getMaybeDuplicates() {
+        return maybeDuplicates;
+    }
+
+    public void setMaybeDuplicates(long maybeDuplicates) {
+        this.maybeDuplicates = maybeDuplicates;
+    }
+
+    public long getConfirmedDuplicates() {
+        return confirmedDuplicates;
+    }
+
+    public void setConfirmedDuplicates(long confirmedDuplicates) {
+        this.confirmedDuplicates = confirmedDuplicates;
+    }
+
+    public long getFalsePositives() {
+        return falsePositives;
+    }
+
+    public void setFalsePositives(long falsePositives) {
+        this.falsePositives = falsePositives;
+    }
+
+    public long getConstraintDuplicates() {
+        return constraintDuplicates;
+    }
+
+    public void setConstraintDuplicates(long constraintDuplicates) {
+        this.constraintDuplicates = constraintDuplicates;
+    }
+
+    public long getBatchDuplicates() {
+        return batchDuplicates;
+    }
+
+    public void setBatchDuplicates(long batchDuplicates) {
+        this.batchDuplicates = batchDuplicates;
+    }
+
+    public long getRedisFailures() {
+        return redisFailures;
+    }
+
+    public void setRedisFailures(long redisFailures) {
+        this.redisFailures = redisFailures;
+    }
+
+    public double getObservedFalsePositiveRate() {
+        return observedFalsePositiveRate;
+    }
+
+    public void setObservedFalsePositiveRate(double observedFalsePositiveRate) {
+        this.observedFalsePositiveRate = observedFalsePositiveRate;
+    }
+
+    public double getEstimatedFalsePositiveRate() {
+        return estimatedFalsePositiveRate;
+    }
+
+    public void setEstimatedFalsePositiveRate(double estimatedFalsePositiveRate) {
+        this.estimatedFalsePositiveRate = estimatedFalsePositiveRate;
+    }
+
+    public long getCurrentInsertions() {
+        return currentInsertions;
+    }
+
+    public void setCurrentInsertions(long currentInsertions) {
+        this.currentInsertions = currentInsertions;
+    }
+
+    public long getBitSize() {
+        return bitSize;
+    }
+
+    public void setBitSize(long bitSize) {
+        this.bitSize = bitSize;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    public void setHashFunctions(int hashFunctions) {
+        this.hashFunctions = hashFunctions;
+    }
+
+    public Instant getGenerationStartedAt() {
+        return generationStartedAt;
+    }
+
+    public void setGenerationStartedAt(Instant generationStartedAt) {
+        this.generationStartedAt = generationStartedAt;
+    }
+}
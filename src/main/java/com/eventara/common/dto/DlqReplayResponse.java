@@ -0,0 +1,56 @@
+package com.eventara.common.dto;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Result of re-injecting dead-lettered events into the raw events topic.
+ */
+public class DlqReplayResponse {
+
+    private String dlqTopic;
+    private String targetTopic;
+    private long replayed;
+    private long remaining; // records still in the DLQ after this replay, across all partitions
+    private Map<String, Long> replayedByException = new HashMap<>(); // failure exception class -> count
+
+    public String getDlqTopic() {
+        return dlqTopic;
+    }
+
+    public void setDlqTopic(String dlqTopic) {
+        this.dlqTopic = dlqTopic;
+    }
+
+    public String getTargetTopic() {
+        return targetTopic;
+    }
+
+    public void setTargetTopic(String targetTopic) {
+        this.targetTopic = targetTopic;
+    }
+
+    public long getReplayed() {
+        return replayed;
+    }
+
+    public void setReplayed(long replayed) {
+        this.replayed = replayed;
+    }
+
+    public long getRemaining() {
+        return remaining;
+    }
+
+    public void setRemaining(long remaining) {
+        this.remaining = remaining;
+    }
+
+    public Map<String, Long> getReplayedByException() {
+        return replayedByException;
+    }
+
+    public void setReplayedByException(Map<String, Long> replayedByException) {
+        this.replayedByException = replayedByException;
+    }
+}
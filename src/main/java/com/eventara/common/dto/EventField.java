@@ -0,0 +1,60 @@
+package com.eventara.common.dto;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Fields of EventDto a read can be limited to (fields= on the event list
+ * APIs). Only the selected columns are read; fields that were not selected
+ * are null in the returned events.
+ */
+public enum EventField {
+    EVENT_ID("eventId"),
+    EVENT_TYPE("eventType"),
+    SOURCE("source"),
+    USER_ID("userId"),
+    SEVERITY("severity"),
+    TIMESTAMP("timestamp"),
+    RECEIVED_AT("receivedAt"),
+    TAGS("tags"),
+    METADATA("metadata");
+
+    private final String fieldName;
+
+    EventField(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Comma-separated field names, e.g. "eventId,eventType,timestamp"; every
+     * field when null or blank.
+     *
+     * @throws IllegalArgumentException for an unknown field
+     */
+    public static Set<EventField> parse(String fields) {
+        Set<EventField> selected = EnumSet.noneOf(EventField.class);
+        if (fields != null) {
+            for (String name : fields.split(",")) {
+                if (!name.isBlank()) {
+                    selected.add(byName(name.trim()));
+                }
+            }
+        }
+        return selected.isEmpty() ? EnumSet.allOf(EventField.class) : selected;
+    }
+
+    private static EventField byName(String name) {
+        for (EventField field : values()) {
+            if (field.fieldName.equalsIgnoreCase(name) || field.name().equals(name.toUpperCase(Locale.ROOT))) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown event field: " + name + " (one of eventId, eventType, source, "
+                + "userId, severity, timestamp, receivedAt, tags, metadata)");
+    }
+}
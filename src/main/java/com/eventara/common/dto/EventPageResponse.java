@@ -0,0 +1,56 @@
+package com.eventara.common.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of the keyset-paginated event browsing API, newest first.
+ */
+public class EventPageResponse {
+
+    private List<EventDto> events = new ArrayList<>();
+    private int limit;
+    private boolean hasMore;
+    private String nextCursor; // pass as after= to get the next page; null on the last page
+    private Long total; // only when includeTotal=true
+
+    public List<EventDto> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<EventDto> events) {
+        this.events = events;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+}
@@ -1,6 +1,7 @@
 package com.eventara.common.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.time.Instant;
 
@@ -8,13 +9,20 @@ public class EventResponse {
 
     private String eventId;
     private String eventType;
-    private String status; //example values: "accepted", "processing", "failed"
+    private String status; //example values: "accepted", "acknowledged", "processing", "failed"
 
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
     private Instant receivedAt;
 
     private String message;
 
+    //Only set when the client waited for a Kafka acknowledgement
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer partition;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long offset;
+
     public EventResponse(){}
 
     public EventResponse(String eventId, String eventType, String status){
@@ -29,6 +37,13 @@ public class EventResponse {
         return new EventResponse(eventId, eventType, "accepted");
     }
 
+    public static EventResponse acknowledged(String eventId, String eventType, int partition, long offset){
+        EventResponse response = new EventResponse(eventId, eventType, "acknowledged");
+        response.setPartition(partition);
+        response.setOffset(offset);
+        return response;
+    }
+
     public static EventResponse failed(String eventType, String message){
         EventResponse response = new EventResponse();
         response.setEventType(eventType);
@@ -79,4 +94,20 @@ public class EventResponse {
     public void setMessage(String message) {
         this.message = message;
     }
+
+    public Integer getPartition() {
+        return partition;
+    }
+
+    public void setPartition(Integer partition) {
+        this.partition = partition;
+    }
+
+    public Long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(Long offset) {
+        this.offset = offset;
+    }
 }
@@ -0,0 +1,86 @@
+package com.eventara.common.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Rebuild request for the metric buckets.
+ *
+ * from/to are widened to bucket boundaries. For KAFKA, they select records
+ * by their Kafka timestamp and are overridden per partition by
+ * startOffsets/endOffsets; without either, the whole raw topic is read. Events
+ * whose event time is outside from/to are dropped. For DATABASE, from/to
+ * select events by event time and are required. Events are always bucketed
+ * by event time.
+ */
+public class MetricsBackfillRequest {
+
+    public enum Source {
+        KAFKA,
+        DATABASE
+    }
+
+    private Source source = Source.KAFKA;
+    private Instant from;
+    private Instant to;
+    private Map<Integer, Long> startOffsets; // partition -> first offset to read
+    private Map<Integer, Long> endOffsets; // partition -> offset to stop at (exclusive)
+    private boolean redis = true; // rebuild the Redis buckets still within retention
+    private boolean timescale = true; // replace the metrics_buckets rows of the rebuilt buckets
+
+    public Source getSource() {
+        return source;
+    }
+
+    public void setSource(Source source) {
+        this.source = source;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public void setFrom(Instant from) {
+        this.from = from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public void setTo(Instant to) {
+        this.to = to;
+    }
+
+    public Map<Integer, Long> getStartOffsets() {
+        return startOffsets;
+    }
+
+    public void setStartOffsets(Map<Integer, Long> startOffsets) {
+        this.startOffsets = startOffsets;
+    }
+
+    public Map<Integer, Long> getEndOffsets() {
+        return endOffsets;
+    }
+
+    public void setEndOffsets(Map<Integer, Long> endOffsets) {
+        this.endOffsets = endOffsets;
+    }
+
+    public boolean isRedis() {
+        return redis;
+    }
+
+    public void setRedis(boolean redis) {
+        this.redis = redis;
+    }
+
+    public boolean isTimescale() {
+        return timescale;
+    }
+
+    public void setTimescale(boolean timescale) {
+        this.timescale = timescale;
+    }
+}
@@ -0,0 +1,153 @@
+package com.eventara.common.dto;
+
+import java.time.Instant;
+
+/**
+ * Progress and throughput of a metrics backfill job.
+ */
+public class MetricsBackfillStatus {
+
+    public enum State {
+        RUNNING,
+        WRITING,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+
+    private String jobId;
+    private State state;
+    private MetricsBackfillRequest.Source source;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private int workers; // partitions or time slices read in parallel
+    private long eventsRead;
+    private long eventsSkipped; // unreadable payloads, and Kafka events outside from/to or already read
+    private Long expectedEvents; // known for Kafka (offset ranges), null for the database
+    private Double progressPercent;
+    private double eventsPerSecond;
+    private long buckets;
+    private long redisBuckets;
+    private long timescaleBuckets;
+    private String error;
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public MetricsBackfillRequest.Source getSource() {
+        return source;
+    }
+
+    public void setSource(MetricsBackfillRequest.Source source) {
+        this.source = source;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public long getEventsRead() {
+        return eventsRead;
+    }
+
+    public void setEventsRead(long eventsRead) {
+        this.eventsRead = eventsRead;
+    }
+
+    public long getEventsSkipped() {
+        return eventsSkipped;
+    }
+
+    public void setEventsSkipped(long eventsSkipped) {
+        this.eventsSkipped = eventsSkipped;
+    }
+
+    public Long getExpectedEvents() {
+        return expectedEvents;
+    }
+
+    public void setExpectedEvents(Long expectedEvents) {
+        this.expectedEvents = expectedEvents;
+    }
+
+    public Double getProgressPercent() {
+        return progressPercent;
+    }
+
+    public void setProgressPercent(Double progressPercent) {
+        this.progressPercent = progressPercent;
+    }
+
+    public double getEventsPerSecond() {
+        return eventsPerSecond;
+    }
+
+    public void setEventsPerSecond(double eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+    }
+
+    public long getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(long buckets) {
+        this.buckets = buckets;
+    }
+
+    public long getRedisBuckets() {
+        return redisBuckets;
+    }
+
+    public void setRedisBuckets(long redisBuckets) {
+        this.redisBuckets = redisBuckets;
+    }
+
+    public long getTimescaleBuckets() {
+        return timescaleBuckets;
+    }
+
+    public void setTimescaleBuckets(long timescaleBuckets) {
+        this.timescaleBuckets = timescaleBuckets;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
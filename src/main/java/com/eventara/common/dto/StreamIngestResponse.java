@@ -0,0 +1,119 @@
+package com.eventara.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Summary of an NDJSON stream ingestion request.
+ * Only aggregate counts are kept (the body can be arbitrarily large);
+ * per-record errors are reported up to a configured limit.
+ */
+public class StreamIngestResponse {
+
+    private long records;
+    private long accepted;
+    private long rejected;
+    private boolean aborted;
+    private long rateLimited; // records shed by admission control (included in rejected)
+    private long pending; // sent, but not acknowledged by Kafka within the drain timeout (outcome unknown)
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long retryAfterSeconds;
+    private List<RecordError> errors = Collections.synchronizedList(new ArrayList<>());
+
+    public static class RecordError {
+        private long record; // 1-based position in the stream
+        private String message;
+
+        public RecordError() {
+        }
+
+        public RecordError(long record, String message) {
+            this.record = record;
+            this.message = message;
+        }
+
+        public long getRecord() {
+            return record;
+        }
+
+        public void setRecord(long record) {
+            this.record = record;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public void setRecords(long records) {
+        this.records = records;
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(long accepted) {
+        this.accepted = accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    public void setAborted(boolean aborted) {
+        this.aborted = aborted;
+    }
+
+    public long getRateLimited() {
+        return rateLimited;
+    }
+
+    public void setRateLimited(long rateLimited) {
+        this.rateLimited = rateLimited;
+    }
+
+    public long getPending() {
+        return pending;
+    }
+
+    public void setPending(long pending) {
+        this.pending = pending;
+    }
+
+    public Long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public void setRetryAfterSeconds(Long retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public List<RecordError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RecordError> errors) {
+        this.errors = errors;
+    }
+}
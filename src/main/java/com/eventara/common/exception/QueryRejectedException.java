@@ -0,0 +1,16 @@
+package com.eventara.common.exception;
+
+/**
+ * A query was refused or cancelled by EventQueryGuard because it would scan
+ * too much of the events table.
+ */
+public class QueryRejectedException extends EventaraException {
+
+    public QueryRejectedException(String message) {
+        super(message);
+    }
+
+    public QueryRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
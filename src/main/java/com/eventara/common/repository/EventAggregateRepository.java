@@ -0,0 +1,183 @@
+package com.eventara.common.repository;
+
+import com.eventara.metrics.model.LatencySketch;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the continuous aggregates of the events table (V10).
+ *
+ * A range is read from events_1h for its whole hours, from events_1m for
+ * the whole minutes at either end and from the events table for the partial
+ * minutes left over (under two minutes of rows), so any range costs a few
+ * hundred aggregate rows instead of a scan of its events and ranges ending
+ * now include the current minute. Recent buckets come from real-time
+ * aggregation, so results include events up to the end of the range.
+ *
+ * Rows inserted before V10 have no latency_ms; their latency is computed
+ * from received_at - timestamp instead.
+ */
+@Repository
+public class EventAggregateRepository {
+
+    private static final String COUNTS_COLUMNS =
+            "source, event_type, events, errors, latency_sum, latency_count, latency_min, latency_max";
+
+    private static final String LATENCY = "COALESCE(latency_ms, EXTRACT(EPOCH FROM (received_at - timestamp)) * 1000)";
+
+    private static final String PARTIAL_MINUTES = "(timestamp >= ? AND timestamp < ?) OR (timestamp >= ? AND timestamp < ?)";
+
+    private static final String COUNTS_RANGE = "SELECT " + COUNTS_COLUMNS + " FROM events_1h WHERE hour >= ? AND hour < ?"
+            + " UNION ALL SELECT " + COUNTS_COLUMNS + " FROM events_1m"
+            + " WHERE (minute >= ? AND minute < ?) OR (minute >= ? AND minute < ?)"
+            + " UNION ALL SELECT source, event_type, COUNT(*), SUM(CASE WHEN severity IN ('ERROR', 'CRITICAL') THEN 1 ELSE 0 END),"
+            + " SUM(" + LATENCY + "), COUNT(" + LATENCY + "), MIN(" + LATENCY + "), MAX(" + LATENCY + ")"
+            + " FROM events WHERE " + PARTIAL_MINUTES + " GROUP BY source, event_type";
+
+    // Same bins as V10's events_latency_1m
+    private static final String LATENCY_RANGE = "SELECT bin, events FROM events_latency_1h WHERE hour >= ? AND hour < ?"
+            + " UNION ALL SELECT bin, events FROM events_latency_1m"
+            + " WHERE (minute >= ? AND minute < ?) OR (minute >= ? AND minute < ?)"
+            + " UNION ALL SELECT CEIL(LN(" + LATENCY + ") / LN(1.01 / 0.99))::INT, COUNT(*)"
+            + " FROM events WHERE " + LATENCY + " > 0 AND (" + PARTIAL_MINUTES + ") GROUP BY 1";
+
+    private static final String TOTALS_COLUMNS = """
+            COALESCE(SUM(events), 0) AS events, COALESCE(SUM(errors), 0) AS errors,
+            COALESCE(SUM(latency_sum), 0) AS latency_sum, COALESCE(SUM(latency_count), 0) AS latency_count,
+            MIN(latency_min) AS latency_min, MAX(latency_max) AS latency_max,
+            COUNT(DISTINCT source) AS sources, COUNT(DISTINCT event_type) AS event_types
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Totals over [from, to).
+     */
+    public Totals totals(Instant from, Instant to) {
+        return jdbcTemplate.queryForObject("SELECT " + TOTALS_COLUMNS + " FROM (" + COUNTS_RANGE + ") r",
+                (rs, row) -> totals(rs), rangeArgs(from, to));
+    }
+
+    /**
+     * Totals over [from, to) per source.
+     */
+    public Map<String, Totals> totalsBySource(Instant from, Instant to) {
+        Map<String, Totals> bySource = new HashMap<>();
+        jdbcTemplate.query("SELECT source, " + TOTALS_COLUMNS + " FROM (" + COUNTS_RANGE + ") r GROUP BY source",
+                rs -> {
+                    bySource.put(rs.getString("source"), totals(rs));
+                }, rangeArgs(from, to));
+        return bySource;
+    }
+
+    /**
+     * Latency histogram of [from, to), for percentiles.
+     */
+    public LatencySketch latencySketch(Instant from, Instant to) {
+        LatencySketch sketch = new LatencySketch();
+        jdbcTemplate.query("SELECT bin, SUM(events) AS events FROM (" + LATENCY_RANGE + ") r GROUP BY bin",
+                rs -> {
+                    sketch.addBin(rs.getInt("bin"), rs.getLong("events"));
+                }, rangeArgs(from, to));
+        return sketch;
+    }
+
+    /**
+     * Arguments of COUNTS_RANGE / LATENCY_RANGE: the whole hours of the range,
+     * then the whole minutes before and after them, then the partial minutes
+     * before and after those.
+     */
+    static Object[] rangeArgs(Instant from, Instant to) {
+        Instant start = ceil(from, ChronoUnit.MINUTES);
+        Instant end = to.truncatedTo(ChronoUnit.MINUTES);
+        if (!start.isBefore(end)) {
+            // No whole minute in the range: events only
+            return new Object[]{ts(from), ts(from), ts(from), ts(from), ts(from), ts(from),
+                    ts(from), ts(to), ts(to), ts(to)};
+        }
+
+        Instant hoursStart = ceil(start, ChronoUnit.HOURS);
+        Instant hoursEnd = end.truncatedTo(ChronoUnit.HOURS);
+        if (!hoursStart.isBefore(hoursEnd)) {
+            // No whole hour in the range: minutes only
+            hoursStart = start;
+            hoursEnd = start;
+        }
+        return new Object[]{ts(hoursStart), ts(hoursEnd), ts(start), ts(hoursStart), ts(hoursEnd), ts(end),
+                ts(from), ts(start), ts(end), ts(to)};
+    }
+
+    private static Instant ceil(Instant instant, ChronoUnit unit) {
+        Instant truncated = instant.truncatedTo(unit);
+        return truncated.isBefore(instant) ? truncated.plus(unit.getDuration()) : truncated;
+    }
+
+    private static Timestamp ts(Instant instant) {
+        return Timestamp.from(instant);
+    }
+
+    private static Totals totals(ResultSet rs) throws SQLException {
+        Totals totals = new Totals();
+        totals.events = rs.getLong("events");
+        totals.errors = rs.getLong("errors");
+        totals.latencySum = rs.getDouble("latency_sum");
+        totals.latencyCount = rs.getLong("latency_count");
+        totals.latencyMin = (Double) rs.getObject("latency_min");
+        totals.latencyMax = (Double) rs.getObject("latency_max");
+        totals.sources = rs.getInt("sources");
+        totals.eventTypes = rs.getInt("event_types");
+        return totals;
+    }
+
+    /**
+     * Aggregated counters of a range.
+     */
+    public static class Totals {
+        private long events;
+        private long errors;
+        private double latencySum;
+        private long latencyCount;
+        private Double latencyMin;
+        private Double latencyMax;
+        private int sources;
+        private int eventTypes;
+
+        public long getEvents() {
+            return events;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public Double getAvgLatency() {
+            return latencyCount > 0 ? latencySum / latencyCount : null;
+        }
+
+        public Double getLatencyMin() {
+            return latencyMin;
+        }
+
+        public Double getLatencyMax() {
+            return latencyMax;
+        }
+
+        public int getSources() {
+            return sources;
+        }
+
+        public int getEventTypes() {
+            return eventTypes;
+        }
+    }
+}
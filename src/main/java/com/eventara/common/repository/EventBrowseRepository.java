@@ -0,0 +1,396 @@
+package com.eventara.common.repository;
+
+import com.eventara.common.dto.EventDto;
+import com.eventara.common.dto.EventField;
+import com.eventara.ingestion.model.entity.Event;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Keyset pagination and other list reads of the events table.
+ *
+ * Pages are ordered by (timestamp, id) descending and continue strictly after
+ * the last row of the previous page, so every page is one index range scan of
+ * limit rows however deep it is. Each filter has a (column, timestamp DESC,
+ * id DESC) index (V11); the redundant timestamp <= cursor bound lets the
+ * hypertable skip chunks newer than the cursor.
+ *
+ * Exports read the same filters through a server-side cursor instead, so a
+ * result of any size is held fetchSize rows at a time.
+ *
+ * Tag and metadata filters use the GIN indexes of V12 and go through
+ * EventQueryGuard first, since not every jsonpath can use them.
+ *
+ * Lists are read with JDBC straight into EventDto, outside the persistence
+ * context, and only the requested fields are selected: tags and metadata
+ * are only read and parsed when asked for.
+ */
+@Repository
+public class EventBrowseRepository {
+
+    private static final String EXPORT_COLUMNS = "event_id, event_type, timestamp, source, user_id, session_id, "
+            + "severity, tags::text AS tags, metadata::text AS metadata, received_at";
+
+    private static final TypeReference<Map<String, String>> TAGS_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StreamingQueries streamingQueries;
+
+    @Autowired
+    private EventQueryGuard queryGuard;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Up to limit events matching the filter, newest first, with only the
+     * given fields set.
+     */
+    public List<Row> find(Filter filter, int limit, Set<EventField> fields) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder sql = new StringBuilder("SELECT " + selectList(fields) + " FROM events WHERE true");
+        appendFilters(sql, params, filter);
+        if (filter.getAfterTimestamp() != null) {
+            sql.append(" AND timestamp <= :afterTs AND (timestamp, id) < (:afterTs, :afterId)");
+            params.put("afterTs", Timestamp.from(filter.getAfterTimestamp()));
+            params.put("afterId", filter.getAfterId());
+        }
+        sql.append(" ORDER BY timestamp DESC, id DESC LIMIT :limit");
+        params.put("limit", limit);
+
+        return guarded(filter, sql.toString(), params, () -> query(sql.toString(), params, fields));
+    }
+
+    /**
+     * One page of events matching the filter (cursor ignored), newest first,
+     * for offset pagination.
+     */
+    public List<Row> findPage(Filter filter, long offset, int size, Set<EventField> fields) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder sql = new StringBuilder("SELECT " + selectList(fields) + " FROM events WHERE true");
+        appendFilters(sql, params, filter);
+        sql.append(" ORDER BY timestamp DESC, id DESC LIMIT :limit OFFSET :offset");
+        params.put("limit", size);
+        params.put("offset", offset);
+
+        return guarded(filter, sql.toString(), params, () -> query(sql.toString(), params, fields));
+    }
+
+    /**
+     * Number of events matching the filter, ignoring the cursor.
+     */
+    public long count(Filter filter) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM events WHERE true");
+        appendFilters(sql, params, filter);
+
+        return guarded(filter, sql.toString(), params, () ->
+                new NamedParameterJdbcTemplate(jdbcTemplate).queryForObject(sql.toString(), params, Long.class));
+    }
+
+    /**
+     * Check the plan of an export before any of it is written: exports are not
+     * time-boxed, so an unindexed tag/metadata filter is rejected up front.
+     */
+    public void checkExport(Filter filter) {
+        if (filter.hasJsonFilters()) {
+            Map<String, Object> params = new HashMap<>();
+            queryGuard.check(exportSql(filter, params), params);
+        }
+    }
+
+    /**
+     * Pass every event matching the filter (cursor ignored), newest first, to
+     * the handler. Rows are fetched fetchSize at a time from a forward-only,
+     * read-only cursor; tags and metadata are returned as JSON text.
+     */
+    public void stream(Filter filter, int fetchSize, RowCallbackHandler handler) {
+        Map<String, Object> params = new HashMap<>();
+        String sql = exportSql(filter, params);
+
+        streamingQueries.stream(fetchSize, streaming ->
+                new NamedParameterJdbcTemplate(streaming).query(sql, params, handler));
+    }
+
+    private List<Row> query(String sql, Map<String, Object> params, Set<EventField> fields) {
+        return new NamedParameterJdbcTemplate(jdbcTemplate).query(sql, params, (rs, rowNum) -> row(rs, fields));
+    }
+
+    // id and timestamp are always read: they are the cursor
+    private static String selectList(Set<EventField> fields) {
+        StringBuilder columns = new StringBuilder("id, timestamp");
+        for (EventField field : fields) {
+            String column = switch (field) {
+                case EVENT_ID -> "event_id";
+                case EVENT_TYPE -> "event_type";
+                case SOURCE -> "source";
+                case USER_ID -> "user_id";
+                case SEVERITY -> "severity";
+                case TIMESTAMP -> null;
+                case RECEIVED_AT -> "received_at";
+                case TAGS -> "tags::text AS tags";
+                case METADATA -> "metadata::text AS metadata";
+            };
+            if (column != null) {
+                columns.append(", ").append(column);
+            }
+        }
+        return columns.toString();
+    }
+
+    private Row row(ResultSet rs, Set<EventField> fields) throws SQLException {
+        Instant timestamp = rs.getTimestamp("timestamp").toInstant();
+        EventDto event = new EventDto();
+        event.setTags(null);
+        event.setMetadata(null);
+        for (EventField field : fields) {
+            switch (field) {
+                case EVENT_ID -> event.setEventId(rs.getString("event_id"));
+                case EVENT_TYPE -> event.setEventType(rs.getString("event_type"));
+                case SOURCE -> event.setSource(rs.getString("source"));
+                case USER_ID -> event.setUserId(rs.getString("user_id"));
+                case SEVERITY -> event.setSeverity(rs.getString("severity"));
+                case TIMESTAMP -> event.setTimestamp(timestamp);
+                case RECEIVED_AT -> {
+                    Timestamp receivedAt = rs.getTimestamp("received_at");
+                    event.setReceivedAt(receivedAt != null ? receivedAt.toInstant() : null);
+                }
+                case TAGS -> event.setTags(readJson(rs.getString("tags"), TAGS_TYPE));
+                case METADATA -> event.setMetadata(readJson(rs.getString("metadata"), METADATA_TYPE));
+            }
+        }
+        return new Row(rs.getLong("id"), timestamp, event);
+    }
+
+    private <T> T readJson(String json, TypeReference<T> type) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable JSONB column: " + json, e);
+        }
+    }
+
+    private String exportSql(Filter filter, Map<String, Object> params) {
+        StringBuilder sql = new StringBuilder("SELECT " + EXPORT_COLUMNS + " FROM events WHERE true");
+        appendFilters(sql, params, filter);
+        sql.append(" ORDER BY timestamp DESC, id DESC");
+        return sql.toString();
+    }
+
+    // Plain filters are always index range scans; tag/metadata ones are checked and time-boxed
+    private <T> T guarded(Filter filter, String sql, Map<String, Object> params, Supplier<T> query) {
+        if (!filter.hasJsonFilters()) {
+            return query.get();
+        }
+        queryGuard.check(sql, params);
+        return queryGuard.timeBoxed(query);
+    }
+
+    private void appendFilters(StringBuilder sql, Map<String, Object> params, Filter filter) {
+        if (filter.getSource() != null) {
+            sql.append(" AND source = :source");
+            params.put("source", filter.getSource());
+        }
+        if (filter.getEventType() != null) {
+            sql.append(" AND event_type = :eventType");
+            params.put("eventType", filter.getEventType());
+        }
+        if (filter.getSeverity() != null) {
+            sql.append(" AND severity = :severity");
+            params.put("severity", filter.getSeverity().name());
+        }
+        if (filter.getUserId() != null) {
+            sql.append(" AND user_id = :userId");
+            params.put("userId", filter.getUserId());
+        }
+        if (filter.getFrom() != null) {
+            sql.append(" AND timestamp >= :from");
+            params.put("from", Timestamp.from(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND timestamp < :to");
+            params.put("to", Timestamp.from(filter.getTo()));
+        }
+        if (filter.getTags() != null && !filter.getTags().isEmpty()) {
+            sql.append(" AND tags @> CAST(:tags AS jsonb)");
+            params.put("tags", toJson(filter.getTags()));
+        }
+        if (filter.getMetadata() != null) {
+            sql.append(" AND metadata @> CAST(:metadata AS jsonb)");
+            params.put("metadata", filter.getMetadata());
+        }
+        if (filter.getMetadataPath() != null) {
+            sql.append(" AND metadata @@ CAST(:metadataPath AS jsonpath)");
+            params.put("metadataPath", filter.getMetadataPath());
+        }
+    }
+
+    private String toJson(Map<String, String> tags) {
+        try {
+            return objectMapper.writeValueAsString(tags);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid tags: " + tags, e);
+        }
+    }
+
+    /**
+     * An event read by find/findPage, with its position for the cursor.
+     */
+    public static class Row {
+        private final long id;
+        private final Instant timestamp;
+        private final EventDto event;
+
+        public Row(long id, Instant timestamp, EventDto event) {
+            this.id = id;
+            this.timestamp = timestamp;
+            this.event = event;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        public EventDto getEvent() {
+            return event;
+        }
+    }
+
+    /**
+     * Combinable filters; null fields are not applied.
+     */
+    public static class Filter {
+        private String source;
+        private String eventType;
+        private Event.Severity severity;
+        private String userId;
+        private Instant from; // inclusive
+        private Instant to; // exclusive
+        private Instant afterTimestamp; // cursor: last row of the previous page
+        private Long afterId;
+        private Map<String, String> tags; // events having all of these tags
+        private String metadata; // JSON object the metadata must contain
+        private String metadataPath; // jsonpath predicate on the metadata, e.g. $.plan == "pro"
+
+        public String getSource() {
+            return source;
+        }
+
+        public void setSource(String source) {
+            this.source = source;
+        }
+
+        public String getEventType() {
+            return eventType;
+        }
+
+        public void setEventType(String eventType) {
+            this.eventType = eventType;
+        }
+
+        public Event.Severity getSeverity() {
+            return severity;
+        }
+
+        public void setSeverity(Event.Severity severity) {
+            this.severity = severity;
+        }
+
+        public String getUserId() {
+            return userId;
+        }
+
+        public void setUserId(String userId) {
+            this.userId = userId;
+        }
+
+        public Instant getFrom() {
+            return from;
+        }
+
+        public void setFrom(Instant from) {
+            this.from = from;
+        }
+
+        public Instant getTo() {
+            return to;
+        }
+
+        public void setTo(Instant to) {
+            this.to = to;
+        }
+
+        public Instant getAfterTimestamp() {
+            return afterTimestamp;
+        }
+
+        public void setAfterTimestamp(Instant afterTimestamp) {
+            this.afterTimestamp = afterTimestamp;
+        }
+
+        public Long getAfterId() {
+            return afterId;
+        }
+
+        public void setAfterId(Long afterId) {
+            this.afterId = afterId;
+        }
+
+        public Map<String, String> getTags() {
+            return tags;
+        }
+
+        public void setTags(Map<String, String> tags) {
+            this.tags = tags;
+        }
+
+        public String getMetadata() {
+            return metadata;
+        }
+
+        public void setMetadata(String metadata) {
+            this.metadata = metadata;
+        }
+
+        public String getMetadataPath() {
+            return metadataPath;
+        }
+
+        public void setMetadataPath(String metadataPath) {
+            this.metadataPath = metadataPath;
+        }
+
+        public boolean hasJsonFilters() {
+            return (tags != null && !tags.isEmpty()) || metadata != null || metadataPath != null;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.eventara.common.repository;
+
+import com.eventara.ingestion.model.entity.Event;
+import com.eventara.instrumentation.PipelineMetrics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk writer for the events table.
+ *
+ * Events are written with multi-row INSERT ... ON CONFLICT (event_id, timestamp)
+ * DO NOTHING RETURNING event_id, so thousands of rows go in one statement and
+ * duplicates are resolved by the database in that same statement: the returned
+ * ids are exactly the rows that were inserted. events is a hypertable (V9), whose
+ * unique indexes must include the timestamp; a redelivered event carries the same
+ * timestamp, so it still conflicts, and only the index of its chunk is checked.
+ *
+ * Ids are assigned client-side from pre-allocated ranges of events_id_seq. The
+ * sequence increments by the block size (V8), so one nextval() reserves a whole
+ * range [value, value + increment) and no key has to be returned per row.
+ * Rows inserted through JPA still call nextval() once each and cannot collide
+ * with a reserved range.
+ */
+@Repository
+public class EventBulkWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventBulkWriter.class);
+
+    private static final String SEQUENCE = "events_id_seq";
+
+    private static final String INSERT_PREFIX = "INSERT INTO events (id, event_id, event_type, timestamp, source, "
+            + "user_id, session_id, severity, tags, metadata, received_at, latency_ms) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?::jsonb, ?, ?)";
+    private static final String INSERT_SUFFIX = " ON CONFLICT (event_id, timestamp) DO NOTHING RETURNING event_id";
+    private static final int COLUMNS = 12;
+
+    // PostgreSQL allows at most 65535 bind parameters per statement
+    public static final int MAX_ROWS_PER_STATEMENT = 65535 / COLUMNS;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Current reserved id range [nextId, rangeEnd)
+    private long nextId = 0;
+    private long rangeEnd = 0;
+    private long blockSize = 0;
+
+    /**
+     * Insert events, skipping any whose event_id already exists with the same timestamp.
+     * Each inserted event gets its database id set.
+     *
+     * @param rowsPerStatement rows per INSERT statement (capped at MAX_ROWS_PER_STATEMENT)
+     * @return the events that were inserted, in input order
+     */
+    public List<Event> insertIgnoringDuplicates(List<Event> events, int rowsPerStatement) {
+        if (events.isEmpty()) {
+            return events;
+        }
+
+        int chunkSize = Math.max(1, Math.min(rowsPerStatement, MAX_ROWS_PER_STATEMENT));
+        long[] ids = allocateIds(events.size());
+
+        List<Event> inserted = new ArrayList<>(events.size());
+        for (int from = 0; from < events.size(); from += chunkSize) {
+            List<Event> chunk = events.subList(from, Math.min(from + chunkSize, events.size()));
+            Set<String> insertedIds = insertChunk(chunk, ids, from);
+            for (Event event : chunk) {
+                if (insertedIds.contains(event.getEventId())) {
+                    inserted.add(event);
+                }
+            }
+        }
+
+        logger.debug("Bulk inserted {} of {} events", inserted.size(), events.size());
+        return inserted;
+    }
+
+    private Set<String> insertChunk(List<Event> chunk, long[] ids, int offset) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + chunk.size() * (ROW.length() + 2)
+                + INSERT_SUFFIX.length());
+        sql.append(INSERT_PREFIX);
+
+        Object[] args = new Object[chunk.size() * COLUMNS];
+        int arg = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            Event event = chunk.get(i);
+            event.setId(ids[offset + i]);
+
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW);
+
+            args[arg++] = event.getId();
+            args[arg++] = event.getEventId();
+            args[arg++] = event.getEventType();
+            args[arg++] = Timestamp.from(event.getTimestamp());
+            args[arg++] = event.getSource();
+            args[arg++] = event.getUserId();
+            args[arg++] = event.getSessionId();
+            args[arg++] = event.getSeverity() != null ? event.getSeverity().name() : null;
+            args[arg++] = toJson(event.getTags());
+            args[arg++] = toJson(event.getMetadata());
+            args[arg++] = Timestamp.from(event.getReceivedAt());
+            args[arg++] = latencyMs(event);
+        }
+        sql.append(INSERT_SUFFIX);
+
+        PipelineMetrics.countDbCall();
+        return new HashSet<>(jdbcTemplate.queryForList(sql.toString(), String.class, args));
+    }
+
+    /**
+     * Reserve count ids. Whole ranges are fetched with one query when the
+     * current range runs out; unused ids at the end of a range are kept for
+     * the next call.
+     */
+    private synchronized long[] allocateIds(int count) {
+        if (blockSize == 0) {
+            PipelineMetrics.countDbCall();
+            Long increment = jdbcTemplate.queryForObject(
+                    "SELECT increment_by FROM pg_sequences WHERE sequencename = ?", Long.class, SEQUENCE);
+            blockSize = increment != null && increment > 0 ? increment : 1;
+            logger.info("Bulk event inserts reserve ids in blocks of {}", blockSize);
+        }
+
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count && nextId < rangeEnd) {
+            ids[filled++] = nextId++;
+        }
+
+        if (filled < count) {
+            long blocks = (count - filled + blockSize - 1) / blockSize;
+            PipelineMetrics.countDbCall();
+            List<Long> starts = jdbcTemplate.queryForList(
+                    "SELECT nextval('" + SEQUENCE + "') FROM generate_series(1, ?)", Long.class, blocks);
+            for (Long start : starts) {
+                nextId = start;
+                rangeEnd = start + blockSize;
+                while (filled < count && nextId < rangeEnd) {
+                    ids[filled++] = nextId++;
+                }
+            }
+        }
+        return ids;
+    }
+
+    // Stored so rule metrics and the continuous aggregates (V10) do not compute it per row
+    private static double latencyMs(Event event) {
+        return Duration.between(event.getTimestamp(), event.getReceivedAt()).toNanos() / 1_000_000.0;
+    }
+
+    private String toJson(Map<String, ?> map) {
+        if (map == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(map);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Event payload is not serializable to JSON", e);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.eventara.common.repository;
+
+import com.eventara.common.exception.QueryRejectedException;
+import com.eventara.ingestion.config.IngestionProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Keeps tag and metadata filters from turning into scans of the events table.
+ *
+ * Containment and simple jsonpath predicates are answered by the GIN indexes
+ * of V12, but a jsonpath the index cannot serve (a range comparison, a
+ * regex) leaves PostgreSQL checking the predicate row by row. Before such a
+ * query runs, its plan is read with EXPLAIN, and the query is rejected when
+ * the scans filtering on tags or metadata together cost more than
+ * maxScanCost. Costs are added up because on the hypertable one unindexed
+ * scan becomes a scan per chunk, each of them cheap.
+ * Queries that pass run under a statement_timeout, so a bad estimate still
+ * cannot hold a connection for long.
+ */
+@Component
+public class EventQueryGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventQueryGuard.class);
+
+    private static final String QUERY_CANCELED = "57014"; // SQLSTATE of a statement_timeout
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private IngestionProperties ingestionProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * @throws QueryRejectedException when the plan scans for a tag/metadata
+     *                                predicate above the cost limit, or the
+     *                                predicate is invalid
+     */
+    public void check(String sql, Map<String, Object> params) {
+        JsonNode plan;
+        try {
+            String explain = readOnly().execute(status -> new NamedParameterJdbcTemplate(jdbcTemplate)
+                    .queryForObject("EXPLAIN (FORMAT JSON) " + sql, params, String.class));
+            plan = objectMapper.readTree(explain).path(0).path("Plan");
+        } catch (DataAccessException e) {
+            // e.g. a malformed jsonpath
+            throw new QueryRejectedException("Invalid tag/metadata filter: " + e.getMostSpecificCause().getMessage(), e);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable query plan", e);
+        }
+
+        double maxScanCost = ingestionProperties.getQueryGuard().getMaxScanCost();
+        List<JsonNode> scans = new ArrayList<>();
+        collectFilteringScans(plan, scans);
+        double cost = 0;
+        for (JsonNode scan : scans) {
+            cost += scan.path("Total Cost").asDouble();
+        }
+        if (cost > maxScanCost) {
+            JsonNode first = scans.get(0);
+            logger.warn("Rejected query: {} scans ({} on {}, ...) filter {} at total cost {}", scans.size(),
+                    first.path("Node Type").asText(), first.path("Relation Name").asText(),
+                    first.path("Filter").asText(), cost);
+            throw new QueryRejectedException(String.format(
+                    "Tag/metadata filter cannot use an index here (estimated scan cost %.0f, limit %.0f); "
+                            + "use a containment or equality filter, or narrow it with from/to, source or eventType",
+                    cost, maxScanCost));
+        }
+    }
+
+    /**
+     * Run the query in a read-only transaction under the configured
+     * statement_timeout.
+     *
+     * @throws QueryRejectedException when the timeout cancels it
+     */
+    public <T> T timeBoxed(Supplier<T> query) {
+        long timeoutMs = ingestionProperties.getQueryGuard().getTimeoutMs();
+        try {
+            return readOnly().execute(status -> {
+                if (timeoutMs > 0) {
+                    // Local to the transaction, so the pooled connection gets its default back
+                    jdbcTemplate.queryForObject("SELECT set_config('statement_timeout', ?, true)", String.class,
+                            timeoutMs + "ms");
+                }
+                return query.get();
+            });
+        } catch (RuntimeException e) {
+            if (isTimeout(e)) {
+                throw new QueryRejectedException("Tag/metadata query cancelled after " + timeoutMs
+                        + " ms; narrow it with from/to, source or eventType", e);
+            }
+            throw e;
+        }
+    }
+
+    // Read-only, so on the read pool like the queries it guards
+    private TransactionTemplate readOnly() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction;
+    }
+
+    // Every node that evaluates a tags/metadata predicate per row, e.g. one per hypertable chunk.
+    // A node's Total Cost includes its children, so those are not added again.
+    static void collectFilteringScans(JsonNode node, List<JsonNode> scans) {
+        String filter = node.path("Filter").asText("");
+        if (filter.contains("tags") || filter.contains("metadata")) {
+            scans.add(node);
+            return;
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectFilteringScans(child, scans);
+        }
+    }
+
+    // Translated differently by JDBC and JPA, so look for the SQLSTATE itself
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && QUERY_CANCELED.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -10,6 +10,11 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Events are stored in a TimescaleDB hypertable partitioned on timestamp (V9).
+ * Queries bounded on timestamp only scan the chunks of that range; lookups
+ * without a time bound (by eventId, type, source or user) visit every chunk.
+ */
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
     //Find event by eventId (our custom UUID, not database ID)
@@ -59,6 +64,9 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     //Check if event already exists (deduplication)
     boolean existsByEventId(String eventId);
 
+    // Same check within the chunk of the event's timestamp (events is a hypertable, V9)
+    boolean existsByEventIdAndTimestamp(String eventId, Instant timestamp);
+
     // ===== METRICS CALCULATION QUERIES FOR DROOLS RULE EVALUATION =====
 
     // Count events in time window
@@ -89,29 +97,29 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     // Count errors by source in time window
     long countBySourceAndSeverityAndTimestampBetween(String source, Event.Severity severity, Instant startTime, Instant endTime);
 
-    // Average processing latency (receivedAt - timestamp) in milliseconds
-    @Query(value = "SELECT AVG(EXTRACT(EPOCH FROM (received_at - timestamp)) * 1000) FROM events WHERE timestamp BETWEEN :startTime AND :endTime", nativeQuery = true)
+    // Average processing latency (receivedAt - timestamp, stored as latency_ms since V10) in milliseconds
+    @Query(value = "SELECT AVG(COALESCE(latency_ms, EXTRACT(EPOCH FROM (received_at - timestamp)) * 1000)) FROM events WHERE timestamp BETWEEN :startTime AND :endTime", nativeQuery = true)
     Double findAvgLatencyBetween(@Param("startTime") Instant startTime, @Param("endTime") Instant endTime);
 
     // Percentile latency queries (native SQL for TimescaleDB)
-    @Query(value = "SELECT PERCENTILE_CONT(0.50) WITHIN GROUP (ORDER BY EXTRACT(EPOCH FROM (received_at - timestamp)) * 1000) FROM events WHERE timestamp BETWEEN :startTime AND :endTime", nativeQuery = true)
+    @Query(value = "SELECT PERCENTILE_CONT(0.50) WITHIN GROUP (ORDER BY COALESCE(latency_ms, EXTRACT(EPOCH FROM (received_at - timestamp)) * 1000)) FROM events WHERE timestamp BETWEEN :startTime AND :endTime", nativeQuery = true)
     Double findP50LatencyBetween(@Param("startTime") Instant startTime, @Param("endTime") Instant endTime);
 
-    @Query(value = "SELECT PERCENTILE_CONT(0.95) WITHIN GROUP (ORDER BY EXTRACT(EPOCH FROM (received_at - timestamp)) * 1000) FROM events WHERE timestamp BETWEEN :startTime AND :endTime", nativeQuery = true)
+    @Query(value = "SELECT PERCENTILE_CONT(0.95) WITHIN GROUP (ORDER BY COALESCE(latency_ms, EXTRACT(EPOCH FROM (received_at - timestamp)) * 1000)) FROM events WHERE timestamp BETWEEN :startTime AND :endTime", nativeQuery = true)
     Double findP95LatencyBetween(@Param("startTime") Instant startTime, @Param("endTime") Instant endTime);
 
-    @Query(value = "SELECT PERCENTILE_CONT(0.99) WITHIN GROUP (ORDER BY EXTRACT(EPOCH FROM (received_at - timestamp)) * 1000) FROM events WHERE timestamp BETWEEN :startTime AND :endTime", nativeQuery = true)
+    @Query(value = "SELECT PERCENTILE_CONT(0.99) WITHIN GROUP (ORDER BY COALESCE(latency_ms, EXTRACT(EPOCH FROM (received_at - timestamp)) * 1000)) FROM events WHERE timestamp BETWEEN :startTime AND :endTime", nativeQuery = true)
     Double findP99LatencyBetween(@Param("startTime") Instant startTime, @Param("endTime") Instant endTime);
 
     // Min/Max latency
-    @Query(value = "SELECT MIN(EXTRACT(EPOCH FROM (received_at - timestamp)) * 1000) FROM events WHERE timestamp BETWEEN :startTime AND :endTime", nativeQuery = true)
+    @Query(value = "SELECT MIN(COALESCE(latency_ms, EXTRACT(EPOCH FROM (received_at - timestamp)) * 1000)) FROM events WHERE timestamp BETWEEN :startTime AND :endTime", nativeQuery = true)
     Double findMinLatencyBetween(@Param("startTime") Instant startTime, @Param("endTime") Instant endTime);
 
-    @Query(value = "SELECT MAX(EXTRACT(EPOCH FROM (received_at - timestamp)) * 1000) FROM events WHERE timestamp BETWEEN :startTime AND :endTime", nativeQuery = true)
+    @Query(value = "SELECT MAX(COALESCE(latency_ms, EXTRACT(EPOCH FROM (received_at - timestamp)) * 1000)) FROM events WHERE timestamp BETWEEN :startTime AND :endTime", nativeQuery = true)
     Double findMaxLatencyBetween(@Param("startTime") Instant startTime, @Param("endTime") Instant endTime);
 
     // Average latency by source
-    @Query(value = "SELECT AVG(EXTRACT(EPOCH FROM (received_at - timestamp)) * 1000) FROM events WHERE source = :source AND timestamp BETWEEN :startTime AND :endTime", nativeQuery = true)
+    @Query(value = "SELECT AVG(COALESCE(latency_ms, EXTRACT(EPOCH FROM (received_at - timestamp)) * 1000)) FROM events WHERE source = :source AND timestamp BETWEEN :startTime AND :endTime", nativeQuery = true)
     Double findAvgLatencyBySourceBetween(@Param("source") String source, @Param("startTime") Instant startTime, @Param("endTime") Instant endTime);
 
 }
@@ -0,0 +1,70 @@
+package com.eventara.common.repository;
+
+import com.eventara.ingestion.config.IngestionProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies eventara.ingestion.storage.* to the events hypertable (V9).
+ *
+ * The chunk interval only affects chunks created from now on. Compression and
+ * retention run as TimescaleDB background jobs; a policy is only replaced when
+ * its interval differs from the configured one, so restarts are no-ops.
+ * Retention drops whole chunks, so events go in steps of one chunk interval.
+ */
+@Component
+public class EventStoragePolicies {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventStoragePolicies.class);
+
+    private static final String TABLE = "events";
+
+    private static final String POLICY_MATCHES_SQL = """
+            SELECT count(*) FROM timescaledb_information.jobs
+            WHERE hypertable_name = ? AND proc_name = ? AND (config ->> ?)::interval = make_interval(days => ?)
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IngestionProperties ingestionProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void apply() {
+        IngestionProperties.Storage config = ingestionProperties.getStorage();
+        try {
+            jdbcTemplate.execute("SELECT set_chunk_time_interval('" + TABLE + "', INTERVAL '"
+                    + Math.max(1, config.getChunkIntervalHours()) + " hours')");
+            applyPolicy("policy_compression", "compress_after", "compression", config.getCompressAfterDays());
+            applyPolicy("policy_retention", "drop_after", "retention", config.getRetentionDays());
+
+            logger.info("Events hypertable: {}h chunks, compression after {} days, retention {} days",
+                    config.getChunkIntervalHours(), config.getCompressAfterDays(), config.getRetentionDays());
+        } catch (Exception e) {
+            logger.warn("Could not apply events storage policies: {}", e.getMessage());
+        }
+    }
+
+    private void applyPolicy(String proc, String setting, String policy, int days) {
+        if (days > 0) {
+            Integer matching = jdbcTemplate.queryForObject(POLICY_MATCHES_SQL, Integer.class, TABLE, proc, setting, days);
+            if (matching != null && matching > 0) {
+                return;
+            }
+        }
+
+        jdbcTemplate.execute("SELECT remove_" + policy + "_policy('" + TABLE + "', if_exists => TRUE)");
+        if (days > 0) {
+            jdbcTemplate.execute("SELECT add_" + policy + "_policy('" + TABLE + "', INTERVAL '" + days + " days')");
+            logger.info("Set {} policy of {} to {} days", policy, TABLE, days);
+        } else {
+            logger.info("Removed {} policy of {}", policy, TABLE);
+        }
+    }
+}
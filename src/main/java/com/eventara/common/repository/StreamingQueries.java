@@ -0,0 +1,40 @@
+package com.eventara.common.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Consumer;
+
+/**
+ * Runs queries whose results are too large to hold in memory, e.g. exports
+ * and metrics backfills, so rows are fetched fetchSize at a time.
+ *
+ * PostgreSQL only uses a cursor (fetch size) inside a transaction; otherwise
+ * it buffers the whole result. Queries therefore run in a read-only
+ * transaction, which also routes them to the read pool (DataSourceConfig).
+ */
+@Component
+public class StreamingQueries {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Run the query with a JdbcTemplate that fetches fetchSize rows at a time,
+     * inside a read-only transaction. Row callbacks may throw to stop early.
+     */
+    public void stream(int fetchSize, Consumer<JdbcTemplate> query) {
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(fetchSize);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        transaction.executeWithoutResult(status -> query.accept(streaming));
+    }
+}
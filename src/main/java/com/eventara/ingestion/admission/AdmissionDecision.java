@@ -0,0 +1,37 @@
+package com.eventara.ingestion.admission;
+
+/**
+ * Outcome of an admission check for one or more events.
+ */
+public class AdmissionDecision {
+
+    private final int admitted;
+    private final int shed;
+    private final long retryAfterSeconds; // 0 when nothing was shed
+
+    public AdmissionDecision(int admitted, int shed, long retryAfterSeconds) {
+        this.admitted = admitted;
+        this.shed = shed;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public static AdmissionDecision all(int count) {
+        return new AdmissionDecision(count, 0, 0);
+    }
+
+    public boolean isFullyAdmitted() {
+        return shed == 0;
+    }
+
+    public int getAdmitted() {
+        return admitted;
+    }
+
+    public int getShed() {
+        return shed;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
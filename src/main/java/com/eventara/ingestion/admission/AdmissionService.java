@@ -0,0 +1,343 @@
+package com.eventara.ingestion.admission;
+
+import com.eventara.common.dto.AdmissionStatsDto;
+import com.eventara.ingestion.config.IngestionProperties;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ingestion admission control: per-source and global rate limits checked
+ * before events are handed to Kafka.
+ *
+ * Limits are enforced locally with striped GCRA token buckets (no locks on the
+ * request path). With redis-coordination enabled the same limits are additionally
+ * enforced cluster-wide using per-second INCRBY counters, so N instances together
+ * stay under the configured rate; if Redis is unavailable admission falls back to
+ * the local buckets only (fail open).
+ *
+ * Limits can be changed at runtime through {@link #updateConfig}; buckets are
+ * rebuilt, which resets their state.
+ */
+@Service
+public class AdmissionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionService.class);
+
+    static final String UNKNOWN_SOURCE = "_unknown";
+    static final String OTHER_SOURCES = "_other"; // shared bucket once maxTrackedSources is reached
+    private static final String REDIS_KEY_PREFIX = "admission:";
+
+    @Autowired
+    private IngestionProperties ingestionProperties;
+
+    @Autowired
+    private RedisTemplate<String, String> stringRedisTemplate;
+
+    // Replaced as a whole on config updates, so admit() never mixes old limits with new buckets
+    private volatile Limits limits;
+    private final Map<String, Counters> sourceCounters = new ConcurrentHashMap<>();
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder redisFailures = new LongAdder();
+
+    // Marker for sources that have no limit, avoids a map miss per event
+    private static final StripedTokenBucket UNLIMITED = new StripedTokenBucket(1, 1, 1);
+
+    private static final class Counters {
+        final LongAdder admitted = new LongAdder();
+        final LongAdder shed = new LongAdder();
+    }
+
+    private static final class Limits {
+        final IngestionProperties.Admission config;
+        final StripedTokenBucket globalBucket; // null when unlimited
+        final Map<String, StripedTokenBucket> sourceBuckets = new ConcurrentHashMap<>();
+
+        Limits(IngestionProperties.Admission config) {
+            IngestionProperties.Admission.Limit global = config.getGlobal();
+            this.config = config;
+            this.globalBucket = global.isUnlimited()
+                    ? null
+                    : new StripedTokenBucket(global.getRate(), global.effectiveBurst(), config.getStripes());
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        applyConfig(ingestionProperties.getAdmission());
+    }
+
+    /**
+     * Admit up to count events from one source.
+     */
+    public AdmissionDecision admit(String source, int count) {
+        Limits currentLimits = limits;
+        IngestionProperties.Admission current = currentLimits.config;
+        if (!current.isEnabled() || count <= 0) {
+            return AdmissionDecision.all(count);
+        }
+
+        String key = trackedKey(source, current);
+        long now = System.nanoTime();
+        long waitNanos = 0;
+        int granted = count;
+
+        StripedTokenBucket sourceBucket = sourceBucket(key, currentLimits);
+        if (sourceBucket != UNLIMITED) {
+            granted = sourceBucket.tryAcquireUpTo(granted, now);
+            if (granted < count) {
+                waitNanos = sourceBucket.nanosUntilAvailable(now);
+            }
+        }
+
+        StripedTokenBucket global = currentLimits.globalBucket;
+        if (global != null && granted > 0) {
+            int globalGranted = global.tryAcquireUpTo(granted, now);
+            if (globalGranted < granted) {
+                waitNanos = Math.max(waitNanos, global.nanosUntilAvailable(now));
+                // Events shed here must not use up the source's own quota
+                release(sourceBucket, granted - globalGranted, now);
+            }
+            granted = globalGranted;
+        }
+
+        if (current.isRedisCoordination() && granted > 0) {
+            int coordinated = coordinate(key, limitFor(key, current), current.getGlobal(), granted);
+            if (coordinated < granted) {
+                // Fixed one-second windows: the next window opens within a second
+                waitNanos = Math.max(waitNanos, TimeUnit.SECONDS.toNanos(1));
+                release(sourceBucket, granted - coordinated, now);
+                if (global != null) {
+                    global.release(granted - coordinated, now);
+                }
+            }
+            granted = coordinated;
+        }
+
+        int rejected = count - granted;
+        record(key, granted, rejected);
+
+        long retryAfterSeconds = rejected > 0
+                ? Math.max(1L, (waitNanos + 999_999_999L) / 1_000_000_000L)
+                : 0;
+        return new AdmissionDecision(granted, rejected, retryAfterSeconds);
+    }
+
+    /**
+     * Admit a group of events given their sources (in request order).
+     * Events of the same source are admitted in order until that source runs out of tokens.
+     *
+     * @return per-position admitted flags, plus totals in the summary decision
+     */
+    public BatchAdmission admitEach(List<String> sources) {
+        boolean[] accepted = new boolean[sources.size()];
+        if (!limits.config.isEnabled()) {
+            Arrays.fill(accepted, true);
+            return new BatchAdmission(accepted, AdmissionDecision.all(sources.size()));
+        }
+
+        Map<String, List<Integer>> bySource = new HashMap<>();
+        for (int i = 0; i < sources.size(); i++) {
+            bySource.computeIfAbsent(sources.get(i), s -> new ArrayList<>()).add(i);
+        }
+
+        int totalAdmitted = 0;
+        long retryAfter = 0;
+        for (Map.Entry<String, List<Integer>> entry : bySource.entrySet()) {
+            List<Integer> indexes = entry.getValue();
+            AdmissionDecision decision = admit(entry.getKey(), indexes.size());
+            for (int i = 0; i < decision.getAdmitted(); i++) {
+                accepted[indexes.get(i)] = true;
+            }
+            totalAdmitted += decision.getAdmitted();
+            retryAfter = Math.max(retryAfter, decision.getRetryAfterSeconds());
+        }
+
+        return new BatchAdmission(accepted,
+                new AdmissionDecision(totalAdmitted, sources.size() - totalAdmitted, retryAfter));
+    }
+
+    public static class BatchAdmission {
+        private final boolean[] admitted;
+        private final AdmissionDecision summary;
+
+        BatchAdmission(boolean[] admitted, AdmissionDecision summary) {
+            this.admitted = admitted;
+            this.summary = summary;
+        }
+
+        public boolean isAdmitted(int index) {
+            return admitted[index];
+        }
+
+        public AdmissionDecision getSummary() {
+            return summary;
+        }
+    }
+
+    public IngestionProperties.Admission getConfig() {
+        return limits.config;
+    }
+
+    /**
+     * Replace the admission configuration at runtime. Bucket state is reset.
+     */
+    public synchronized void updateConfig(IngestionProperties.Admission newConfig) {
+        validate(newConfig);
+        ingestionProperties.setAdmission(newConfig);
+        applyConfig(newConfig);
+        logger.info("Admission control updated: enabled={}, global={}/s, perSource={}/s, overrides={}",
+                newConfig.isEnabled(), newConfig.getGlobal().getRate(), newConfig.getPerSource().getRate(),
+                newConfig.getSources().keySet());
+    }
+
+    public AdmissionStatsDto getStats() {
+        AdmissionStatsDto stats = new AdmissionStatsDto();
+        IngestionProperties.Admission config = limits.config;
+        stats.setEnabled(config.isEnabled());
+        stats.setAdmitted(admitted.sum());
+        stats.setShed(shed.sum());
+        stats.setRedisFailures(redisFailures.sum());
+
+        Map<String, AdmissionStatsDto.SourceStats> sources = new LinkedHashMap<>();
+        sourceCounters.forEach((source, counters) -> {
+            IngestionProperties.Admission.Limit limit = limitFor(source, config);
+            sources.put(source, new AdmissionStatsDto.SourceStats(
+                    counters.admitted.sum(), counters.shed.sum(), limit.getRate(),
+                    limit.isUnlimited() ? 0 : limit.effectiveBurst()));
+        });
+        stats.setSources(sources);
+
+        return stats;
+    }
+
+    public long getAdmittedTotal() {
+        return admitted.sum();
+    }
+
+    public long getShedTotal() {
+        return shed.sum();
+    }
+
+    private void applyConfig(IngestionProperties.Admission newConfig) {
+        limits = new Limits(newConfig);
+    }
+
+    private void validate(IngestionProperties.Admission newConfig) {
+        if (newConfig.getGlobal() == null || newConfig.getPerSource() == null || newConfig.getSources() == null) {
+            throw new IllegalArgumentException("global, perSource and sources must not be null");
+        }
+        if (newConfig.getStripes() < 1) {
+            throw new IllegalArgumentException("stripes must be at least 1");
+        }
+        if (newConfig.getMaxTrackedSources() < 1) {
+            throw new IllegalArgumentException("maxTrackedSources must be at least 1");
+        }
+    }
+
+    private String trackedKey(String source, IngestionProperties.Admission current) {
+        String key = source == null ? UNKNOWN_SOURCE : source;
+        if (sourceCounters.containsKey(key) || current.getSources().containsKey(key)) {
+            return key;
+        }
+        // Unbounded client-supplied names must not grow the maps forever
+        return sourceCounters.size() < current.getMaxTrackedSources() ? key : OTHER_SOURCES;
+    }
+
+    private StripedTokenBucket sourceBucket(String key, Limits current) {
+        return current.sourceBuckets.computeIfAbsent(key, k -> {
+            IngestionProperties.Admission.Limit limit = limitFor(k, current.config);
+            return limit.isUnlimited()
+                    ? UNLIMITED
+                    : new StripedTokenBucket(limit.getRate(), limit.effectiveBurst(), current.config.getStripes());
+        });
+    }
+
+    private IngestionProperties.Admission.Limit limitFor(String key, IngestionProperties.Admission current) {
+        IngestionProperties.Admission.Limit override = current.getSources().get(key);
+        return override != null ? override : current.getPerSource();
+    }
+
+    private static void release(StripedTokenBucket bucket, int tokens, long now) {
+        if (bucket != UNLIMITED) {
+            bucket.release(tokens, now);
+        }
+    }
+
+    private void record(String key, int admittedCount, int shedCount) {
+        admitted.add(admittedCount);
+        shed.add(shedCount);
+
+        Counters counters = sourceCounters.computeIfAbsent(key, k -> new Counters());
+        counters.admitted.add(admittedCount);
+        counters.shed.add(shedCount);
+
+        if (shedCount > 0) {
+            logger.debug("Shed {} events from source '{}'", shedCount, key);
+        }
+    }
+
+    /**
+     * Cluster-wide check using fixed one-second windows in Redis.
+     * Counts that were reserved but not granted are given back.
+     */
+    private int coordinate(String key, IngestionProperties.Admission.Limit sourceLimit,
+                           IngestionProperties.Admission.Limit globalLimit, int requested) {
+        long second = System.currentTimeMillis() / 1000;
+        try {
+            int granted = requested;
+            if (!sourceLimit.isUnlimited()) {
+                granted = reserve(REDIS_KEY_PREFIX + "source:" + key + ":" + second, sourceLimit, granted);
+            }
+            if (!globalLimit.isUnlimited() && granted > 0) {
+                int globalGranted = reserve(REDIS_KEY_PREFIX + "global:" + second, globalLimit, granted);
+                if (globalGranted < granted && !sourceLimit.isUnlimited()) {
+                    stringRedisTemplate.opsForValue().decrement(
+                            REDIS_KEY_PREFIX + "source:" + key + ":" + second, granted - globalGranted);
+                }
+                granted = globalGranted;
+            }
+            return granted;
+        } catch (Exception e) {
+            redisFailures.increment();
+            logger.debug("Redis admission check failed, using local limits only: {}", e.getMessage());
+            return requested;
+        }
+    }
+
+    private int reserve(String redisKey, IngestionProperties.Admission.Limit limit, int requested) {
+        Long count = stringRedisTemplate.opsForValue().increment(redisKey, requested);
+        if (count == null) {
+            return requested;
+        }
+        if (count == requested) {
+            stringRedisTemplate.expire(redisKey, Duration.ofSeconds(2));
+        }
+
+        long window = (long) Math.ceil(limit.getRate());
+        long over = count - window;
+        if (over <= 0) {
+            return requested;
+        }
+
+        int granted = (int) Math.max(0, requested - over);
+        stringRedisTemplate.opsForValue().decrement(redisKey, requested - granted);
+        return granted;
+    }
+}
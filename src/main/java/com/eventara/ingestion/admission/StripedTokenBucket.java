@@ -0,0 +1,73 @@
+package com.eventara.ingestion.admission;
+
+/**
+ * A rate limit split across several independent token buckets.
+ *
+ * Each stripe gets rate/stripes and burst/stripes. A thread starts at the stripe
+ * picked by its thread id, so concurrent request threads mostly CAS different
+ * cache lines; when its stripe runs dry it borrows from the others before giving up,
+ * so the total admitted rate still matches the configured limit.
+ */
+class StripedTokenBucket {
+
+    private final TokenBucket[] stripes;
+    private final double ratePerSecond;
+    private final long burst;
+
+    StripedTokenBucket(double ratePerSecond, long burst, int stripeCount) {
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+
+        // Never split below one token per second / one token of burst per stripe
+        int count = (int) Math.max(1, Math.min(stripeCount, Math.min((long) ratePerSecond, burst)));
+        this.stripes = new TokenBucket[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new TokenBucket(ratePerSecond / count, Math.max(1L, burst / count));
+        }
+    }
+
+    int tryAcquireUpTo(int n, long now) {
+        int home = homeStripe();
+        int granted = 0;
+
+        for (int i = 0; i < stripes.length && granted < n; i++) {
+            granted += stripes[(home + i) % stripes.length].tryAcquireUpTo(n - granted, now);
+        }
+        return granted;
+    }
+
+    /**
+     * Give back tokens that were acquired but not used, starting at the home stripe.
+     */
+    void release(int n, long now) {
+        int home = homeStripe();
+        int released = 0;
+
+        for (int i = 0; i < stripes.length && released < n; i++) {
+            released += stripes[(home + i) % stripes.length].release(n - released, now);
+        }
+    }
+
+    long nanosUntilAvailable(long now) {
+        long min = Long.MAX_VALUE;
+        for (TokenBucket stripe : stripes) {
+            min = Math.min(min, stripe.nanosUntilAvailable(now));
+        }
+        return min;
+    }
+
+    double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    long getBurst() {
+        return burst;
+    }
+
+    private int homeStripe() {
+        long id = Thread.currentThread().threadId();
+        // spread sequential thread ids
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (h >>> 1) % stripes.length;
+    }
+}
@@ -0,0 +1,74 @@
+package com.eventara.ingestion.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket implemented as GCRA (generic cell rate algorithm).
+ *
+ * The whole bucket state is one "theoretical arrival time" (TAT) in System.nanoTime()
+ * units: every admitted event pushes it forward by one emission interval, and an
+ * event is admitted while the TAT stays within burst intervals of now. Updates are a
+ * single CAS, so there is no lock and no background refill thread.
+ */
+class TokenBucket {
+
+    private final long intervalNanos; // time to earn one token
+    private final long toleranceNanos; // burst * interval
+    private final AtomicLong tat;
+
+    TokenBucket(double ratePerSecond, long burst) {
+        this.intervalNanos = Math.max(1L, Math.round(1_000_000_000d / ratePerSecond));
+        this.toleranceNanos = Math.max(1L, burst) * intervalNanos;
+        this.tat = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Take up to n tokens.
+     *
+     * @return the number of tokens granted (0..n)
+     */
+    int tryAcquireUpTo(int n, long now) {
+        while (true) {
+            long current = tat.get();
+            long base = Math.max(current, now);
+            long available = (now + toleranceNanos - base) / intervalNanos;
+            if (available <= 0) {
+                return 0;
+            }
+
+            int granted = (int) Math.min(n, available);
+            if (tat.compareAndSet(current, base + granted * intervalNanos)) {
+                return granted;
+            }
+        }
+    }
+
+    /**
+     * Give back up to n tokens that were acquired but not used. The bucket never
+     * holds more than its burst, so tokens beyond that are dropped.
+     *
+     * @return the number of tokens given back (0..n)
+     */
+    int release(int n, long now) {
+        while (true) {
+            long current = tat.get();
+            long held = (current - now) / intervalNanos; // tokens taken and not yet earned back
+            if (held <= 0 || n <= 0) {
+                return 0;
+            }
+
+            int released = (int) Math.min(n, held);
+            if (tat.compareAndSet(current, current - released * intervalNanos)) {
+                return released;
+            }
+        }
+    }
+
+    /**
+     * Nanoseconds until at least one token is available again.
+     */
+    long nanosUntilAvailable(long now) {
+        long wait = tat.get() + intervalNanos - toleranceNanos - now;
+        return Math.max(0L, wait);
+    }
+}
@@ -0,0 +1,50 @@
+package com.eventara.ingestion.config;
+
+import com.eventara.ingestion.id.EventIdGenerator;
+import com.eventara.ingestion.id.SnowflakeEventIdGenerator;
+import com.eventara.ingestion.id.UlidEventIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.InetAddress;
+
+/**
+ * Selects the event id generator from eventara.ingestion.id.strategy.
+ */
+@Configuration
+public class EventIdConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventIdConfig.class);
+
+    @Bean
+    public EventIdGenerator eventIdGenerator(IngestionProperties ingestionProperties) {
+        IngestionProperties.Id config = ingestionProperties.getId();
+
+        if (config.getStrategy() == IngestionProperties.Id.Strategy.ULID) {
+            logger.info("Using ULID event id generator");
+            return new UlidEventIdGenerator();
+        }
+
+        int nodeId = config.getNodeId() >= 0 ? config.getNodeId() : deriveNodeId();
+        return new SnowflakeEventIdGenerator(nodeId);
+    }
+
+    /**
+     * Fallback when no node id is configured: hash the hostname (container id under Docker).
+     * Two instances can collide, so set eventara.ingestion.id.node-id explicitly when scaling out.
+     */
+    private int deriveNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = String.valueOf(ProcessHandle.current().pid());
+        }
+
+        int nodeId = (host.hashCode() & 0x7FFFFFFF) % (SnowflakeEventIdGenerator.MAX_NODE_ID + 1);
+        logger.warn("eventara.ingestion.id.node-id not set, derived node id {} from '{}'", nodeId, host);
+        return nodeId;
+    }
+}
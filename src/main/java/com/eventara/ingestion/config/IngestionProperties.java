@@ -0,0 +1,762 @@
+package com.eventara.ingestion.config;
+
+import com.eventara.ingestion.model.AckLevel;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration properties for the ingestion API.
+ * Loaded from application.properties with prefix "eventara.ingestion"
+ */
+@Configuration
+@ConfigurationProperties(prefix = "eventara.ingestion")
+public class IngestionProperties {
+
+    private Batch batch = new Batch();
+    private Stream stream = new Stream();
+    private Ack ack = new Ack();
+    private Id id = new Id();
+    private Admission admission = new Admission();
+    private Dedup dedup = new Dedup();
+    private Passthrough passthrough = new Passthrough();
+    private Consumer consumer = new Consumer();
+    private Retry retry = new Retry();
+    private Partitioning partitioning = new Partitioning();
+    private Scaling scaling = new Scaling();
+    private Serde serde = new Serde();
+    private Storage storage = new Storage();
+    private Export export = new Export();
+    private QueryGuard queryGuard = new QueryGuard();
+
+    public static class Batch {
+        private int maxSize = 1000;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    public static class Stream {
+        private int chunkSize = 500; // records handed to the producer per pipelined send
+        private int maxInFlight = 5000; // unacknowledged records per request before the reader blocks
+        private int maxReportedErrors = 100;
+        private long drainTimeoutMs = 30000;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+
+        public int getMaxReportedErrors() {
+            return maxReportedErrors;
+        }
+
+        public void setMaxReportedErrors(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        public long getDrainTimeoutMs() {
+            return drainTimeoutMs;
+        }
+
+        public void setDrainTimeoutMs(long drainTimeoutMs) {
+            this.drainTimeoutMs = drainTimeoutMs;
+        }
+    }
+
+    public static class Ack {
+        private AckLevel defaultLevel = AckLevel.NONE;
+        private Map<String, AckLevel> perSource = new HashMap<>(); // source name -> level
+        private long timeoutMs = 10000;
+
+        public AckLevel getDefaultLevel() {
+            return defaultLevel;
+        }
+
+        public void setDefaultLevel(AckLevel defaultLevel) {
+            this.defaultLevel = defaultLevel;
+        }
+
+        public Map<String, AckLevel> getPerSource() {
+            return perSource;
+        }
+
+        public void setPerSource(Map<String, AckLevel> perSource) {
+            this.perSource = perSource;
+        }
+
+        public long getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        public void setTimeoutMs(long timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+    }
+
+    public static class Id {
+        private Strategy strategy = Strategy.SNOWFLAKE;
+        private int nodeId = -1; // -1 derives the node id from the hostname
+
+        public enum Strategy {
+            SNOWFLAKE, ULID
+        }
+
+        public Strategy getStrategy() {
+            return strategy;
+        }
+
+        public void setStrategy(Strategy strategy) {
+            this.strategy = strategy;
+        }
+
+        public int getNodeId() {
+            return nodeId;
+        }
+
+        public void setNodeId(int nodeId) {
+            this.nodeId = nodeId;
+        }
+    }
+
+    public static class Admission {
+        private boolean enabled = false;
+        private int stripes = 8; // independent buckets per limit, reduces CAS contention
+        private int maxTrackedSources = 10000; // sources beyond this share one bucket
+        private boolean redisCoordination = false; // enforce limits cluster-wide via Redis counters
+        private Limit global = new Limit();
+        private Limit perSource = new Limit(); // default applied to every source
+        private Map<String, Limit> sources = new HashMap<>(); // source name -> override
+
+        public static class Limit {
+            private double rate = 0; // events per second, 0 = unlimited
+            private long burst = 0; // 0 = one second worth of rate
+
+            public Limit() {
+            }
+
+            public Limit(double rate, long burst) {
+                this.rate = rate;
+                this.burst = burst;
+            }
+
+            public boolean isUnlimited() {
+                return rate <= 0;
+            }
+
+            public long effectiveBurst() {
+                return burst > 0 ? burst : Math.max(1L, (long) Math.ceil(rate));
+            }
+
+            public double getRate() {
+                return rate;
+            }
+
+            public void setRate(double rate) {
+                this.rate = rate;
+            }
+
+            public long getBurst() {
+                return burst;
+            }
+
+            public void setBurst(long burst) {
+                this.burst = burst;
+            }
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getStripes() {
+            return stripes;
+        }
+
+        public void setStripes(int stripes) {
+            this.stripes = stripes;
+        }
+
+        public int getMaxTrackedSources() {
+            return maxTrackedSources;
+        }
+
+        public void setMaxTrackedSources(int maxTrackedSources) {
+            this.maxTrackedSources = maxTrackedSources;
+        }
+
+        public boolean isRedisCoordination() {
+            return redisCoordination;
+        }
+
+        public void setRedisCoordination(boolean redisCoordination) {
+            this.redisCoordination = redisCoordination;
+        }
+
+        public Limit getGlobal() {
+            return global;
+        }
+
+        public void setGlobal(Limit global) {
+            this.global = global;
+        }
+
+        public Limit getPerSource() {
+            return perSource;
+        }
+
+        public void setPerSource(Limit perSource) {
+            this.perSource = perSource;
+        }
+
+        public Map<String, Limit> getSources() {
+            return sources;
+        }
+
+        public void setSources(Map<String, Limit> sources) {
+            this.sources = sources;
+        }
+    }
+
+    public static class Dedup {
+        private boolean enabled = true;
+        private long expectedInsertions = 1_000_000; // events per window, sizes the filter
+        private double falsePositiveRate = 0.001;
+        private int windowMinutes = 60; // how long an id is remembered (between 1 and 2 windows)
+        private boolean redisEnabled = false; // also check a filter shared by all instances
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getExpectedInsertions() {
+            return expectedInsertions;
+        }
+
+        public void setExpectedInsertions(long expectedInsertions) {
+            this.expectedInsertions = expectedInsertions;
+        }
+
+        public double getFalsePositiveRate() {
+            return falsePositiveRate;
+        }
+
+        public void setFalsePositiveRate(double falsePositiveRate) {
+            this.falsePositiveRate = falsePositiveRate;
+        }
+
+        public int getWindowMinutes() {
+            return windowMinutes;
+        }
+
+        public void setWindowMinutes(int windowMinutes) {
+            this.windowMinutes = windowMinutes;
+        }
+
+        public boolean isRedisEnabled() {
+            return redisEnabled;
+        }
+
+        public void setRedisEnabled(boolean redisEnabled) {
+            this.redisEnabled = redisEnabled;
+        }
+    }
+
+    public static class Passthrough {
+        private boolean enabled = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    public static class Consumer {
+        private boolean batchEnabled = true; // receive each poll as a list: one transaction and one ack per poll
+        private int concurrency = 3; // initial listener threads; adjusted at runtime when scaling is enabled
+        private int maxPollRecords = 100;
+        private int insertRowsPerStatement = 2000; // rows per multi-row INSERT (at most 5957)
+
+        public boolean isBatchEnabled() {
+            return batchEnabled;
+        }
+
+        public void setBatchEnabled(boolean batchEnabled) {
+            this.batchEnabled = batchEnabled;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public int getMaxPollRecords() {
+            return maxPollRecords;
+        }
+
+        public void setMaxPollRecords(int maxPollRecords) {
+            this.maxPollRecords = maxPollRecords;
+        }
+
+        public int getInsertRowsPerStatement() {
+            return insertRowsPerStatement;
+        }
+
+        public void setInsertRowsPerStatement(int insertRowsPerStatement) {
+            this.insertRowsPerStatement = insertRowsPerStatement;
+        }
+    }
+
+    public static class Retry {
+        private boolean enabled = true;
+        private List<Long> delaysMs = new ArrayList<>(List.of(1000L, 10000L, 60000L)); // one retry topic per delay
+        private int topicPartitions = 3;
+        private int replayMaxRecords = 10000; // upper bound for one DLQ replay request
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<Long> getDelaysMs() {
+            return delaysMs;
+        }
+
+        public void setDelaysMs(List<Long> delaysMs) {
+            this.delaysMs = delaysMs;
+        }
+
+        public int getTopicPartitions() {
+            return topicPartitions;
+        }
+
+        public void setTopicPartitions(int topicPartitions) {
+            this.topicPartitions = topicPartitions;
+        }
+
+        public int getReplayMaxRecords() {
+            return replayMaxRecords;
+        }
+
+        public void setReplayMaxRecords(int replayMaxRecords) {
+            this.replayMaxRecords = replayMaxRecords;
+        }
+    }
+
+    public static class Partitioning {
+        private Strategy strategy = Strategy.SOURCE;
+        private String tag; // tag name used by TAG (and by COMPOSITE when it includes TAG)
+        private List<Strategy> composite = new ArrayList<>(List.of(Strategy.SOURCE, Strategy.EVENT_TYPE));
+
+        // Which event field becomes the Kafka record key
+        public enum Strategy {
+            EVENT_ID, SOURCE, EVENT_TYPE, TAG, COMPOSITE
+        }
+
+        public Strategy getStrategy() {
+            return strategy;
+        }
+
+        public void setStrategy(Strategy strategy) {
+            this.strategy = strategy;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+
+        public void setTag(String tag) {
+            this.tag = tag;
+        }
+
+        public List<Strategy> getComposite() {
+            return composite;
+        }
+
+        public void setComposite(List<Strategy> composite) {
+            this.composite = composite;
+        }
+    }
+
+    /**
+     * Lag-driven scaling of the raw events listener: concurrency and poll size
+     * are raised while lag builds up and lowered again once it has drained.
+     */
+    public static class Scaling {
+        private boolean enabled = true;
+        private long intervalMs = 15000;
+        private int cooldownSeconds = 60; // minimum time between two changes (each one restarts the consumers)
+        private int minConcurrency = 1;
+        private int maxConcurrency = 12; // also capped by the partition count of the topic
+        private int minPollRecords = 50;
+        private int maxPollRecords = 1000;
+        private long scaleUpLag = 10000; // records behind, across all partitions
+        private long scaleDownLag = 500;
+        private int targetDrainSeconds = 60; // size concurrency so the current lag drains within this time
+        private int historySize = 50;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getIntervalMs() {
+            return intervalMs;
+        }
+
+        public void setIntervalMs(long intervalMs) {
+            this.intervalMs = intervalMs;
+        }
+
+        public int getCooldownSeconds() {
+            return cooldownSeconds;
+        }
+
+        public void setCooldownSeconds(int cooldownSeconds) {
+            this.cooldownSeconds = cooldownSeconds;
+        }
+
+        public int getMinConcurrency() {
+            return minConcurrency;
+        }
+
+        public void setMinConcurrency(int minConcurrency) {
+            this.minConcurrency = minConcurrency;
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        public int getMinPollRecords() {
+            return minPollRecords;
+        }
+
+        public void setMinPollRecords(int minPollRecords) {
+            this.minPollRecords = minPollRecords;
+        }
+
+        public int getMaxPollRecords() {
+            return maxPollRecords;
+        }
+
+        public void setMaxPollRecords(int maxPollRecords) {
+            this.maxPollRecords = maxPollRecords;
+        }
+
+        public long getScaleUpLag() {
+            return scaleUpLag;
+        }
+
+        public void setScaleUpLag(long scaleUpLag) {
+            this.scaleUpLag = scaleUpLag;
+        }
+
+        public long getScaleDownLag() {
+            return scaleDownLag;
+        }
+
+        public void setScaleDownLag(long scaleDownLag) {
+            this.scaleDownLag = scaleDownLag;
+        }
+
+        public int getTargetDrainSeconds() {
+            return targetDrainSeconds;
+        }
+
+        public void setTargetDrainSeconds(int targetDrainSeconds) {
+            this.targetDrainSeconds = targetDrainSeconds;
+        }
+
+        public int getHistorySize() {
+            return historySize;
+        }
+
+        public void setHistorySize(int historySize) {
+            this.historySize = historySize;
+        }
+    }
+
+    /**
+     * Encoding of Event payloads on the raw events topic.
+     */
+    public static class Serde {
+        public enum Format {
+            JSON,
+            AVRO
+        }
+
+        private Format format = Format.JSON; // what producers write
+        private boolean acceptJson = true; // consumers always read Avro; JSON only while this is on
+        private int writerSchemaVersion = 0; // 0 = latest registered version
+        private String schemaDir; // extra event-v{N}.avsc files on top of the bundled ones
+
+        public Format getFormat() {
+            return format;
+        }
+
+        public void setFormat(Format format) {
+            this.format = format;
+        }
+
+        public boolean isAcceptJson() {
+            return acceptJson;
+        }
+
+        public void setAcceptJson(boolean acceptJson) {
+            this.acceptJson = acceptJson;
+        }
+
+        public int getWriterSchemaVersion() {
+            return writerSchemaVersion;
+        }
+
+        public void setWriterSchemaVersion(int writerSchemaVersion) {
+            this.writerSchemaVersion = writerSchemaVersion;
+        }
+
+        public String getSchemaDir() {
+            return schemaDir;
+        }
+
+        public void setSchemaDir(String schemaDir) {
+            this.schemaDir = schemaDir;
+        }
+    }
+
+    /**
+     * TimescaleDB policies of the events hypertable, applied at startup.
+     */
+    public static class Storage {
+        private int chunkIntervalHours = 24; // applies to chunks created from now on
+        private int compressAfterDays = 7; // 0 = no compression policy
+        private int retentionDays = 90; // 0 = keep events forever
+
+        public int getChunkIntervalHours() {
+            return chunkIntervalHours;
+        }
+
+        public void setChunkIntervalHours(int chunkIntervalHours) {
+            this.chunkIntervalHours = chunkIntervalHours;
+        }
+
+        public int getCompressAfterDays() {
+            return compressAfterDays;
+        }
+
+        public void setCompressAfterDays(int compressAfterDays) {
+            this.compressAfterDays = compressAfterDays;
+        }
+
+        public int getRetentionDays() {
+            return retentionDays;
+        }
+
+        public void setRetentionDays(int retentionDays) {
+            this.retentionDays = retentionDays;
+        }
+    }
+
+    /**
+     * Streaming event export (GET /api/v1/events/export).
+     */
+    public static class Export {
+        private int fetchSize = 5000; // rows per round trip of the server-side cursor
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    /**
+     * Plan check and timeout of tag/metadata filters (EventQueryGuard).
+     */
+    public static class QueryGuard {
+        private double maxScanCost = 10000; // planner cost units; a sequential page read costs 1
+        private long timeoutMs = 5000; // statement_timeout of browse queries; 0 = none
+
+        public double getMaxScanCost() {
+            return maxScanCost;
+        }
+
+        public void setMaxScanCost(double maxScanCost) {
+            this.maxScanCost = maxScanCost;
+        }
+
+        public long getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        public void setTimeoutMs(long timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public void setBatch(Batch batch) {
+        this.batch = batch;
+    }
+
+    public Stream getStream() {
+        return stream;
+    }
+
+    public void setStream(Stream stream) {
+        this.stream = stream;
+    }
+
+    public Ack getAck() {
+        return ack;
+    }
+
+    public void setAck(Ack ack) {
+        this.ack = ack;
+    }
+
+    public Id getId() {
+        return id;
+    }
+
+    public void setId(Id id) {
+        this.id = id;
+    }
+
+    public Admission getAdmission() {
+        return admission;
+    }
+
+    public void setAdmission(Admission admission) {
+        this.admission = admission;
+    }
+
+    public Dedup getDedup() {
+        return dedup;
+    }
+
+    public void setDedup(Dedup dedup) {
+        this.dedup = dedup;
+    }
+
+    public Passthrough getPassthrough() {
+        return passthrough;
+    }
+
+    public void setPassthrough(Passthrough passthrough) {
+        this.passthrough = passthrough;
+    }
+
+    public Consumer getConsumer() {
+        return consumer;
+    }
+
+    public void setConsumer(Consumer consumer) {
+        this.consumer = consumer;
+    }
+
+    public Retry getRetry() {
+        return retry;
+    }
+
+    public void setRetry(Retry retry) {
+        this.retry = retry;
+    }
+
+    public Partitioning getPartitioning() {
+        return partitioning;
+    }
+
+    public void setPartitioning(Partitioning partitioning) {
+        this.partitioning = partitioning;
+    }
+
+    public Scaling getScaling() {
+        return scaling;
+    }
+
+    public void setScaling(Scaling scaling) {
+        this.scaling = scaling;
+    }
+
+    public Serde getSerde() {
+        return serde;
+    }
+
+    public void setSerde(Serde serde) {
+        this.serde = serde;
+    }
+
+    public Storage getStorage() {
+        return storage;
+    }
+
+    public void setStorage(Storage storage) {
+        this.storage = storage;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public void setExport(Export export) {
+        this.export = export;
+    }
+
+    public QueryGuard getQueryGuard() {
+        return queryGuard;
+    }
+
+    public void setQueryGuard(QueryGuard queryGuard) {
+        this.queryGuard = queryGuard;
+    }
+}
@@ -1,14 +1,20 @@
 package com.eventara.ingestion.config;
+import com.eventara.ingestion.serde.AvroEventCodec;
+import com.eventara.ingestion.serde.EventDeserializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
 import org.springframework.kafka.listener.ContainerProperties;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -21,26 +27,60 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private IngestionProperties ingestionProperties;
+
+    @Autowired
+    private DefaultErrorHandler kafkaErrorHandler;
+
+    @Autowired
+    private AvroEventCodec avroEventCodec;
+
     @Bean
     public ConsumerFactory<String, Object> consumerFactory(){
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false); // Manual commit for reliability
-        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 100); // Process 100 records at a time
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, ingestionProperties.getConsumer().getMaxPollRecords());
 
-        return new DefaultKafkaConsumerFactory<>(props);
+        // Bad payloads become null values with the failure in a header instead of failing the poll.
+        // EventDeserializer reads JSON and Avro records alike (see eventara.ingestion.serde).
+        DefaultKafkaConsumerFactory<String, Object> factory = new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new EventDeserializer(avroEventCodec, ingestionProperties.getSerde())));
+        // Exposes the Kafka client metrics (kafka.consumer.*, including records-lag-max) through Micrometer
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory(){
         ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
-        factory.setConcurrency(3);
+        factory.setConcurrency(ingestionProperties.getConsumer().getConcurrency());
+        factory.setCommonErrorHandler(kafkaErrorHandler);
+        factory.getContainerProperties().setAckMode(
+                ContainerProperties.AckMode.MANUAL
+        );
+        return factory;
+    }
+
+    /**
+     * Batch listener factory: the listener receives a whole poll as a list
+     * and acknowledges it once, committing the offsets of every record in it.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> batchKafkaListenerContainerFactory(){
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(ingestionProperties.getConsumer().getConcurrency());
+        factory.setBatchListener(true);
+        factory.setCommonErrorHandler(kafkaErrorHandler);
         factory.getContainerProperties().setAckMode(
                 ContainerProperties.AckMode.MANUAL
         );
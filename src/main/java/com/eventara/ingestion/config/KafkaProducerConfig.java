@@ -1,11 +1,18 @@
 package com.eventara.ingestion.config;
+import com.eventara.ingestion.serde.AvroEventCodec;
+import com.eventara.ingestion.serde.EventSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
@@ -18,24 +25,90 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AvroEventCodec avroEventCodec;
+
+    @Autowired
+    private IngestionProperties ingestionProperties;
+
     @Bean
+    @Primary
     public ProducerFactory<String, Object> producerFactory(){
+        Map<String, Object> configProps = baseProducerProps();
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+
+        return instrumented(new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), eventSerializer()));
+    }
+
+    @Bean
+    @Primary
+    public KafkaTemplate<String, Object> kafkaTemplate(){
+        return new KafkaTemplate<>(producerFactory());
+    }
+
+    /**
+     * Producer used for leader-ack ingestion (acks=1).
+     * acks is a per-producer setting, so this needs its own factory.
+     * Idempotence requires acks=all and is disabled here.
+     */
+    @Bean
+    public ProducerFactory<String, Object> leaderAckProducerFactory(){
+        Map<String, Object> configProps = baseProducerProps();
+        configProps.put(ProducerConfig.ACKS_CONFIG, "1");
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false);
+
+        return instrumented(new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), eventSerializer()));
+    }
+
+    @Bean
+    public KafkaTemplate<String, Object> leaderAckKafkaTemplate(){
+        return new KafkaTemplate<>(leaderAckProducerFactory());
+    }
+
+    /**
+     * Producer for passthrough ingestion: payloads are already JSON bytes,
+     * so they are written as-is instead of going through JsonSerializer.
+     * They stay JSON whatever eventara.ingestion.serde.format says.
+     */
+    @Bean
+    public ProducerFactory<String, byte[]> rawProducerFactory(){
+        Map<String, Object> configProps = baseProducerProps();
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+
+        return instrumented(new DefaultKafkaProducerFactory<>(configProps));
+    }
+
+    @Bean
+    public KafkaTemplate<String, byte[]> rawKafkaTemplate(){
+        return new KafkaTemplate<>(rawProducerFactory());
+    }
+
+    // Events as Avro or JSON per eventara.ingestion.serde.format, any other value as JSON
+    private EventSerializer eventSerializer(){
+        return new EventSerializer(avroEventCodec, ingestionProperties.getSerde());
+    }
+
+    // Exposes the Kafka client metrics (kafka.producer.*) through Micrometer
+    private <V> ProducerFactory<String, V> instrumented(DefaultKafkaProducerFactory<String, V> factory){
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
+    }
+
+    private Map<String, Object> baseProducerProps(){
         Map<String, Object> configProps = new HashMap<>();
 
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.LINGER_MS_CONFIG, 10);
         configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, 16384);
 
-        return new DefaultKafkaProducerFactory<>(configProps);
-    }
-
-    @Bean
-    public KafkaTemplate<String, Object> kafkaTemplate(){
-        return new KafkaTemplate<>(producerFactory());
+        return configProps;
     }
 
 }
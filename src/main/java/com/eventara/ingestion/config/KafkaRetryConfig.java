@@ -0,0 +1,71 @@
+package com.eventara.ingestion.config;
+
+import com.eventara.ingestion.kafka.RetryTopics;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Non-blocking retries for the raw events consumer.
+ *
+ * Failed records are not retried in place (which would stall the partition);
+ * the error handler publishes them to the next retry topic or to the DLQ and
+ * commits their offset. See {@link RetryTopics} for the routing.
+ */
+@Configuration
+public class KafkaRetryConfig {
+
+    @Autowired
+    private IngestionProperties ingestionProperties;
+
+    @Autowired
+    private RetryTopics retryTopics;
+
+    @Bean
+    public KafkaAdmin.NewTopics retryTopicDeclarations() {
+        int partitions = ingestionProperties.getRetry().getTopicPartitions();
+        return new KafkaAdmin.NewTopics(retryTopics.allTopicNames().stream()
+                .map(name -> TopicBuilder.name(name).partitions(partitions).build())
+                .toArray(NewTopic[]::new));
+    }
+
+    /**
+     * Publishes failed records onward. Deserialization failures carry the
+     * original bytes, so they are sent with the byte[] template; everything
+     * else is an Event and goes through the JSON template.
+     */
+    @Bean
+    public DeadLetterPublishingRecoverer deadLetterPublishingRecoverer(
+            KafkaTemplate<String, Object> kafkaTemplate,
+            @Qualifier("rawKafkaTemplate") KafkaTemplate<String, byte[]> rawKafkaTemplate) {
+        Map<Class<?>, KafkaOperations<?, ?>> templates = new LinkedHashMap<>();
+        templates.put(byte[].class, rawKafkaTemplate);
+        templates.put(Object.class, kafkaTemplate);
+
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(templates, retryTopics::destinationFor);
+        recoverer.setHeadersFunction(retryTopics::headersFor);
+        return recoverer;
+    }
+
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler(DeadLetterPublishingRecoverer deadLetterPublishingRecoverer) {
+        if (!ingestionProperties.getRetry().isEnabled()) {
+            // Previous behaviour: retry in place, then log and skip
+            return new DefaultErrorHandler();
+        }
+        // No in-place retries: the first failure moves the record to retry topic 1
+        return new DefaultErrorHandler(deadLetterPublishingRecoverer, new FixedBackOff(0L, 0L));
+    }
+}
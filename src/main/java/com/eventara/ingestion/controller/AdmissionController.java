@@ -0,0 +1,53 @@
+package com.eventara.ingestion.controller;
+
+import com.eventara.common.dto.AdmissionStatsDto;
+import com.eventara.ingestion.admission.AdmissionService;
+import com.eventara.ingestion.config.IngestionProperties;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admission")
+@Tag(name = "Admission Control", description = "Ingestion rate limits per source and globally")
+public class AdmissionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionController.class);
+
+    @Autowired
+    private AdmissionService admissionService;
+
+    @GetMapping("/config")
+    @Operation(summary = "Get current admission limits")
+    public ResponseEntity<IngestionProperties.Admission> getConfig() {
+        return ResponseEntity.ok(admissionService.getConfig());
+    }
+
+    @PutMapping("/config")
+    @Operation(summary = "Replace admission limits", description = "Takes effect immediately; token bucket state is reset")
+    public ResponseEntity<?> updateConfig(@RequestBody IngestionProperties.Admission config) {
+        try {
+            admissionService.updateConfig(config);
+            return ResponseEntity.ok(admissionService.getConfig());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected admission config: {}", e.getMessage());
+            Map<String, String> error = new HashMap<>();
+            error.put("status", "error");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get admitted/shed counters")
+    public ResponseEntity<AdmissionStatsDto> getStats() {
+        return ResponseEntity.ok(admissionService.getStats());
+    }
+}
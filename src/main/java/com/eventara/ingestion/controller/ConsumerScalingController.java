@@ -0,0 +1,27 @@
+package com.eventara.ingestion.controller;
+
+import com.eventara.common.dto.ConsumerScalingStatus;
+import com.eventara.ingestion.kafka.ConsumerAutoscaler;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/consumer")
+@Tag(name = "Consumer Scaling", description = "Lag-driven concurrency of the raw events consumer")
+public class ConsumerScalingController {
+
+    @Autowired
+    private ConsumerAutoscaler consumerAutoscaler;
+
+    @GetMapping("/scaling")
+    @Operation(summary = "Get consumer scaling state",
+            description = "Current concurrency, poll size, lag and per-record time, with the most recent scaling changes")
+    public ResponseEntity<ConsumerScalingStatus> getScaling() {
+        return ResponseEntity.ok(consumerAutoscaler.status());
+    }
+}
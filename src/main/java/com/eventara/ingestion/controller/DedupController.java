@@ -0,0 +1,26 @@
+package com.eventara.ingestion.controller;
+
+import com.eventara.common.dto.DedupStatsDto;
+import com.eventara.ingestion.dedup.EventDedupFilter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/dedup")
+@Tag(name = "Dedup", description = "Consumer duplicate filter statistics")
+public class DedupController {
+
+    @Autowired
+    private EventDedupFilter eventDedupFilter;
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get dedup filter statistics", description = "Lookups, confirmed duplicates and estimated/observed false-positive rates")
+    public ResponseEntity<DedupStatsDto> getStats() {
+        return ResponseEntity.ok(eventDedupFilter.getStats());
+    }
+}
@@ -0,0 +1,50 @@
+package com.eventara.ingestion.controller;
+
+import com.eventara.ingestion.service.DlqReplayService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/dlq")
+@Tag(name = "Dead Letter Queue", description = "Replay of events that exhausted their retries")
+public class DlqController {
+
+    private static final Logger logger = LoggerFactory.getLogger(DlqController.class);
+
+    @Autowired
+    private DlqReplayService dlqReplayService;
+
+    @PostMapping("/replay")
+    @Operation(summary = "Re-inject DLQ records into the raw events topic",
+            description = "Replays up to maxRecords records not replayed before; they restart the retry pipeline from attempt 0")
+    public ResponseEntity<?> replay(@RequestParam(defaultValue = "1000") int maxRecords) {
+        try {
+            return ResponseEntity.ok(dlqReplayService.replay(maxRecords));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return error("Replay interrupted");
+        } catch (Exception e) {
+            logger.error("DLQ replay failed: {}", e.getMessage(), e);
+            return error("Replay failed: " + e.getMessage());
+        }
+    }
+
+    private ResponseEntity<Map<String, String>> error(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("status", "error");
+        error.put("message", message);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+    }
+}
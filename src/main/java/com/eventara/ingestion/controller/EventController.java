@@ -1,24 +1,54 @@
 package com.eventara.ingestion.controller;
+import com.eventara.common.dto.BatchEventResponse;
 import com.eventara.common.dto.EventDto;
+import com.eventara.common.dto.EventField;
 import com.eventara.common.dto.EventRequest;
 import com.eventara.common.dto.EventResponse;
+import com.eventara.common.dto.StreamIngestResponse;
+import com.eventara.common.exception.QueryRejectedException;
+import com.eventara.common.repository.EventBrowseRepository;
+import com.eventara.ingestion.admission.AdmissionDecision;
+import com.eventara.ingestion.admission.AdmissionService;
+import com.eventara.ingestion.config.IngestionProperties;
+import com.eventara.ingestion.model.AckLevel;
+import com.eventara.ingestion.model.entity.Event;
+import com.eventara.ingestion.passthrough.InvalidRawEventException;
+import com.eventara.ingestion.passthrough.RawEvent;
+import com.eventara.ingestion.passthrough.RawEventScanner;
+import com.eventara.ingestion.service.EventExportService;
 import com.eventara.ingestion.service.EventService;
+import com.eventara.ingestion.service.StreamIngestionService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.LoggerFactory;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
+import java.time.Instant;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/api/v1/events")
@@ -27,59 +57,263 @@ public class EventController {
 
     private static final Logger logger = LoggerFactory.getLogger(EventController.class);
 
+    //Optional per-request ack level: none, leader or all
+    public static final String ACK_HEADER = "X-Eventara-Ack";
+
+    //Max page size of GET /browse; keyset pages cost the same at any depth, so it is higher than for page/size
+    private static final int MAX_BROWSE_LIMIT = 1000;
+
     @Autowired
     EventService eventService;
 
+    @Autowired
+    StreamIngestionService streamIngestionService;
+
+    @Autowired
+    IngestionProperties ingestionProperties;
+
+    @Autowired
+    AdmissionService admissionService;
+
+    @Autowired
+    RawEventScanner rawEventScanner;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    EventExportService eventExportService;
+
     @PostMapping
     @Operation(
             summary = "Ingest a new event",
-            description = "Submit an event to Eventara for processing, storage, and analytics"
+            description = "Submit an event to Eventara for processing, storage, and analytics. " +
+                    "Set the X-Eventara-Ack header (none, leader, all) to wait for Kafka to acknowledge the event"
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "202", description = "Event accepted for processing"),
-            @ApiResponse(responseCode = "400", description = "Invalid event data"),
-            @ApiResponse(responseCode = "500", description = "Internal server error")
+            @ApiResponse(responseCode = "202", description = "Event accepted (or acknowledged) for processing"),
+            @ApiResponse(responseCode = "400", description = "Invalid event data or ack level"),
+            @ApiResponse(responseCode = "429", description = "Source or global rate limit exceeded, see Retry-After"),
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+            @ApiResponse(responseCode = "504", description = "Kafka did not acknowledge the event in time")
     })
-    public ResponseEntity<EventResponse> ingestEvent(@Valid @RequestBody EventRequest request){
+    public CompletableFuture<ResponseEntity<EventResponse>> ingestEvent(
+            @Valid @RequestBody EventRequest request,
+            @RequestHeader(value = ACK_HEADER, required = false) String ack
+    ){
         logger.info("Received event: {} from source: {}", request.getEventType(), request.getSource());
 
+        AckLevel ackLevel;
+        try {
+            ackLevel = eventService.resolveAckLevel(parseAckLevel(ack), request.getSource());
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(EventResponse.failed(request.getEventType(), "Invalid " + ACK_HEADER + " value: " + ack)));
+        }
+
+        AdmissionDecision admission = admissionService.admit(request.getSource(), 1);
+        if (!admission.isFullyAdmitted()) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(admission.getRetryAfterSeconds()))
+                    .body(EventResponse.failed(request.getEventType(),
+                            "Rate limit exceeded for source: " + request.getSource())));
+        }
+
+        CompletableFuture<EventResponse> future;
         try{
-            //process the event though service layer
-            EventResponse response = eventService.processEvent(request);
+            //process the event though service layer, durable levels complete when Kafka acks
+            future = eventService.processEvent(request, ackLevel);
+        }catch (Exception e){
+            future = CompletableFuture.failedFuture(e);
+        }
 
-            logger.info("Successfully processed event: {}", response.getEventId());
+        return toResponse(future, request.getEventType());
+    }
 
-            return  ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    @PostMapping(value = "/raw", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "Ingest a new event (passthrough)",
+            description = "Same contract as POST /api/v1/events. When passthrough is enabled the body is validated with a single streaming scan " +
+                    "and forwarded to Kafka as the original bytes (eventId, receivedAt and defaults are spliced in) instead of being re-serialized"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Event accepted (or acknowledged) for processing"),
+            @ApiResponse(responseCode = "400", description = "Invalid event data or ack level"),
+            @ApiResponse(responseCode = "429", description = "Source or global rate limit exceeded, see Retry-After"),
+            @ApiResponse(responseCode = "504", description = "Kafka did not acknowledge the event in time")
+    })
+    public CompletableFuture<ResponseEntity<EventResponse>> ingestRawEvent(
+            @RequestBody byte[] body,
+            @RequestHeader(value = ACK_HEADER, required = false) String ack
+    ){
+        if (!ingestionProperties.getPassthrough().isEnabled()) {
+            //passthrough disabled: bind and validate like the standard endpoint
+            EventRequest request;
+            try {
+                request = objectMapper.readValue(body, EventRequest.class);
+            } catch (IOException e) {
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                        .body(EventResponse.failed(null, "Malformed event: " + e.getMessage())));
+            }
+
+            String violation = eventService.validate(request);
+            if (violation != null) {
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                        .body(EventResponse.failed(request != null ? request.getEventType() : null, violation)));
+            }
+            return ingestEvent(request, ack);
+        }
 
-        }catch (Exception e){
-            logger.error("Failed to process event: {}", e.getMessage(), e);
-            EventResponse errorResponse = EventResponse.failed(
-                    request.getEventType(),
-                    "Failed to process event: " + e.getMessage()
-            );
+        RawEvent event;
+        try {
+            event = rawEventScanner.scan(body);
+        } catch (InvalidRawEventException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(EventResponse.failed(null, e.getMessage())));
+        }
 
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        AckLevel ackLevel;
+        try {
+            ackLevel = eventService.resolveAckLevel(parseAckLevel(ack), event.getSource());
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(EventResponse.failed(event.getEventType(), "Invalid " + ACK_HEADER + " value: " + ack)));
         }
 
+        AdmissionDecision admission = admissionService.admit(event.getSource(), 1);
+        if (!admission.isFullyAdmitted()) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(admission.getRetryAfterSeconds()))
+                    .body(EventResponse.failed(event.getEventType(),
+                            "Rate limit exceeded for source: " + event.getSource())));
+        }
+
+        return toResponse(eventService.processRawEvent(event, ackLevel), event.getEventType());
+    }
+
+    //Map the (possibly still pending) service result to the HTTP response
+    private CompletableFuture<ResponseEntity<EventResponse>> toResponse(CompletableFuture<EventResponse> future,
+                                                                        String eventType) {
+        return future
+                .thenApply(response -> {
+                    logger.info("Successfully processed event: {}", response.getEventId());
+                    return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+                })
+                .exceptionally(ex -> {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    logger.error("Failed to process event: {}", cause.getMessage(), cause);
+
+                    if (cause instanceof TimeoutException) {
+                        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(EventResponse.failed(
+                                eventType, EventService.ackFailureMessage(cause)));
+                    }
+
+                    EventResponse errorResponse = EventResponse.failed(
+                            eventType,
+                            "Failed to process event: " + cause.getMessage()
+                    );
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+                });
     }
 
     @PostMapping("/batch")
     @Operation(
             summary = "Ingest multiple events",
-            description = "Submit a batch of events for processing (Coming in Module 2)"
+            description = "Submit a JSON array of events. Each item is validated independently and the response reports accept/reject per item (same order as the request). " +
+                    "The X-Eventara-Ack header applies to every item"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Batch processed, see per-item results"),
+            @ApiResponse(responseCode = "400", description = "Empty batch, invalid ack level or no valid events"),
+            @ApiResponse(responseCode = "413", description = "Batch exceeds the configured maximum size"),
+            @ApiResponse(responseCode = "429", description = "Every valid item was rate limited, see Retry-After")
+    })
+    public CompletableFuture<ResponseEntity<?>> ingestBatch(
+            @RequestBody List<EventRequest> requests,
+            @RequestHeader(value = ACK_HEADER, required = false) String ack
+    ){
+        int maxSize = ingestionProperties.getBatch().getMaxSize();
+
+        if (requests == null || requests.isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    jsonError(HttpStatus.BAD_REQUEST, "Batch must contain at least one event"));
+        }
+
+        if (requests.size() > maxSize) {
+            logger.warn("Rejected batch of {} events (max {})", requests.size(), maxSize);
+            return CompletableFuture.completedFuture(jsonError(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Batch size " + requests.size() + " exceeds maximum of " + maxSize));
+        }
+
+        AckLevel ackLevel;
+        try {
+            ackLevel = parseAckLevel(ack);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(
+                    jsonError(HttpStatus.BAD_REQUEST, "Invalid " + ACK_HEADER + " value: " + ack));
+        }
+
+        return eventService.processBatch(requests, ackLevel)
+                .thenApply(response -> {
+                    if (response.getAccepted() == 0 && response.getRetryAfterSeconds() != null) {
+                        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .header(HttpHeaders.RETRY_AFTER, String.valueOf(response.getRetryAfterSeconds()))
+                                .body(response);
+                    }
+                    HttpStatus status = response.getAccepted() > 0 ? HttpStatus.ACCEPTED : HttpStatus.BAD_REQUEST;
+                    return ResponseEntity.status(status).body(response);
+                });
+    }
+
+    @PostMapping(value = "/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Ingest a stream of events",
+            description = "Submit newline-delimited JSON (one event per line). The body is parsed incrementally and produced to Kafka as records arrive, so bodies of any size are accepted"
     )
-    public ResponseEntity<String> ingestBatch(@RequestBody String events){
-        return  ResponseEntity
-                .status(HttpStatus.NOT_IMPLEMENTED)
-                .body("Ba/tch ingestion coming in Module 2!");
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Stream processed, see counts and errors"),
+            @ApiResponse(responseCode = "400", description = "No valid events in the stream"),
+            @ApiResponse(responseCode = "429", description = "Every valid record was rate limited, see Retry-After")
+    })
+    public ResponseEntity<StreamIngestResponse> ingestStream(HttpServletRequest request) throws Exception {
+        StreamIngestResponse response = streamIngestionService.ingest(request.getInputStream());
+
+        boolean sent = response.getAccepted() > 0 || response.getPending() > 0;
+        if (!sent && response.getRateLimited() > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(response.getRetryAfterSeconds()))
+                    .body(response);
+        }
+
+        HttpStatus status = sent ? HttpStatus.ACCEPTED : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    //null when the header is absent, IllegalArgumentException when unknown
+    private AckLevel parseAckLevel(String ack) {
+        if (ack == null || ack.isBlank()) {
+            return null;
+        }
+        return AckLevel.parse(ack);
+    }
+
+    private ResponseEntity<?> jsonError(HttpStatus status, String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("status", "error");
+        error.put("message", message);
+
+        return ResponseEntity.status(status).body(error);
     }
 
 
     @GetMapping
-    @Operation(summary = "Get paginated events", description = "Retrieve events with pagination, sorted by timestamp (newest first)")
-    public ResponseEntity<Page<EventDto>> getEvents(
+    @Operation(summary = "Get paginated events", description = "Retrieve events with pagination, sorted by timestamp "
+            + "(newest first). fields= (e.g. eventId,eventType,timestamp) limits the columns read; tags and metadata "
+            + "are only read when listed, or when fields is omitted")
+    public ResponseEntity<?> getEvents(
             @RequestParam int page,
-            @RequestParam int size
+            @RequestParam int size,
+            @RequestParam(required = false) String fields
     ){
         logger.info("GET /events - page={}, size={}", page, size);
 
@@ -88,16 +322,147 @@ public class EventController {
             size = 100;
         }
 
-        Page<EventDto> res = eventService.getEvents(page, size);;
-        return ResponseEntity.ok(res);
+        try {
+            Page<EventDto> res = eventService.getEvents(page, size, EventField.parse(fields));
+            return ResponseEntity.ok(res);
+        } catch (IllegalArgumentException e) {
+            return jsonError(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @GetMapping("/browse")
+    @Operation(summary = "Browse events with a cursor",
+            description = "Keyset-paginated events, newest first, with optional filters on source, eventType, severity, "
+                    + "userId, time range [from, to), tags (tag=key:value, repeatable), metadata containment (a JSON "
+                    + "object) and a metadata jsonpath predicate. Pass the returned nextCursor as after= for the next "
+                    + "page; the total is only counted with includeTotal=true. Tag/metadata filters that cannot use "
+                    + "an index are rejected with 422. fields= limits the columns read, as on GET /events")
+    public ResponseEntity<?> browseEvents(
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) String eventType,
+            @RequestParam(required = false) String severity,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) List<String> tag,
+            @RequestParam(required = false) String metadata,
+            @RequestParam(required = false) String metadataPath,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(required = false) String fields
+    ){
+        try {
+            EventBrowseRepository.Filter filter = eventFilter(source, eventType, severity, userId, from, to, tag, metadata, metadataPath);
+            int pageSize = Math.max(1, Math.min(limit, MAX_BROWSE_LIMIT));
+            return ResponseEntity.ok(eventService.browseEvents(filter, after, pageSize, includeTotal,
+                    EventField.parse(fields)));
+        } catch (IllegalArgumentException e) {
+            return jsonError(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (QueryRejectedException e) {
+            return jsonError(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+        }
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export events",
+            description = "Streams every event matching the filters (same as /browse), newest first, as NDJSON or CSV, "
+                    + "optionally gzipped. Rows are read through a database cursor, so exports of any size use constant memory")
+    public void exportEvents(
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) String eventType,
+            @RequestParam(required = false) String severity,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) List<String> tag,
+            @RequestParam(required = false) String metadata,
+            @RequestParam(required = false) String metadataPath,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response
+    ) throws IOException {
+        EventBrowseRepository.Filter filter;
+        EventExportService.Format exportFormat;
+        try {
+            filter = eventFilter(source, eventType, severity, userId, from, to, tag, metadata, metadataPath);
+            exportFormat = EventExportService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            writeJsonError(response, HttpStatus.BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        String fileName = "events." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(gzip ? "application/gzip" : exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+
+        logger.info("GET /events/export - format={}, gzip={}, source={}, eventType={}, from={}, to={}",
+                exportFormat, gzip, source, eventType, from, to);
+        try {
+            eventExportService.export(filter, exportFormat, gzip, response.getOutputStream());
+        } catch (QueryRejectedException e) {
+            // Thrown before any row is written, so the response can still be replaced
+            response.reset();
+            writeJsonError(response, HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+        }
+    }
+
+    private void writeJsonError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of("status", "error", "message", message));
+    }
+
+    //Filters shared by /browse and /export; IllegalArgumentException for an unknown severity or a malformed tag/metadata
+    private EventBrowseRepository.Filter eventFilter(String source, String eventType, String severity, String userId,
+                                                     Instant from, Instant to, List<String> tags,
+                                                     String metadata, String metadataPath) {
+        EventBrowseRepository.Filter filter = new EventBrowseRepository.Filter();
+        filter.setSource(source);
+        filter.setEventType(eventType);
+        filter.setUserId(userId);
+        filter.setFrom(from);
+        filter.setTo(to);
+        if (severity != null) {
+            filter.setSeverity(Event.Severity.valueOf(severity.trim().toUpperCase()));
+        }
+        if (tags != null && !tags.isEmpty()) {
+            Map<String, String> tagFilter = new LinkedHashMap<>();
+            for (String tag : tags) {
+                int colon = tag.indexOf(':');
+                if (colon <= 0) {
+                    throw new IllegalArgumentException("Invalid tag filter, expected key:value: " + tag);
+                }
+                tagFilter.put(tag.substring(0, colon).trim(), tag.substring(colon + 1).trim());
+            }
+            filter.setTags(tagFilter);
+        }
+        if (metadata != null && !metadata.isBlank()) {
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(metadata);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid metadata filter, expected a JSON object: " + metadata);
+            }
+            if (!node.isObject()) {
+                throw new IllegalArgumentException("Invalid metadata filter, expected a JSON object: " + metadata);
+            }
+            filter.setMetadata(node.toString());
+        }
+        if (metadataPath != null && !metadataPath.isBlank()) {
+            filter.setMetadataPath(metadataPath.trim());
+        }
+        return filter;
     }
 
     @GetMapping("/type/{eventType}")
-    @Operation(summary = "Get events by type")
-    public ResponseEntity<Page<EventDto>> getEventsByType(
+    @Operation(summary = "Get events by type", description = "Same fields= selection as GET /events")
+    public ResponseEntity<?> getEventsByType(
             @PathVariable String eventType,
             @RequestParam int page,
-            @RequestParam int size
+            @RequestParam int size,
+            @RequestParam(required = false) String fields
     ){
 
         // Limiting max page size
@@ -105,9 +470,12 @@ public class EventController {
             size = 100;
         }
 
-        Page<EventDto> res = eventService.getEventsByType(eventType, page, size);
-
-        return ResponseEntity.ok(res);
+        try {
+            Page<EventDto> res = eventService.getEventsByType(eventType, page, size, EventField.parse(fields));
+            return ResponseEntity.ok(res);
+        } catch (IllegalArgumentException e) {
+            return jsonError(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     //get event by id
@@ -0,0 +1,115 @@
+package com.eventara.ingestion.dedup;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size, thread-safe Bloom filter over 64-bit words.
+ *
+ * Bits are set with CAS on an AtomicLongArray, so concurrent consumer threads
+ * never block each other. Callers hash the key once ({@link DedupHash}) and
+ * derive the k bit positions by double hashing.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final LongAdder insertions = new LongAdder();
+
+    private BloomFilter(long bitSize, int hashFunctions) {
+        this.bitSize = bitSize;
+        this.hashFunctions = hashFunctions;
+        this.words = new AtomicLongArray((int) ((bitSize + 63) >>> 6));
+    }
+
+    /**
+     * Size a filter for the expected number of insertions at the target false-positive rate:
+     * m = -n ln(p) / ln(2)^2 bits and k = (m / n) ln(2) hash functions.
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1L, expectedInsertions);
+        double p = Math.min(0.5, Math.max(1e-9, falsePositiveRate));
+
+        long bits = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        bits = Math.max(64L, Math.min(bits, (long) Integer.MAX_VALUE * 64L));
+        int k = (int) Math.max(1, Math.round((double) bits / n * Math.log(2)));
+
+        return new BloomFilter(bits, k);
+    }
+
+    /**
+     * Set the bits of an event id.
+     *
+     * @return true when the id may have been added before
+     */
+    public boolean put(String eventId) {
+        long h1 = DedupHash.h1(eventId);
+        return put(h1, DedupHash.h2(h1));
+    }
+
+    boolean mightContain(long h1, long h2) {
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = position(h1, h2, i, bitSize);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Set the key's bits.
+     *
+     * @return true when every bit was already set, i.e. the key may have been added before
+     */
+    boolean put(long h1, long h2) {
+        boolean allSet = true;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = position(h1, h2, i, bitSize);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+
+            long current = words.get(index);
+            if ((current & mask) != 0) {
+                continue;
+            }
+            allSet = false;
+            while (!words.compareAndSet(index, current, current | mask)) {
+                current = words.get(index);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            }
+        }
+
+        if (!allSet) {
+            insertions.increment();
+        }
+        return allSet;
+    }
+
+    /**
+     * False-positive probability at the current fill: (1 - e^(-kn/m))^k.
+     */
+    double expectedFalsePositiveRate() {
+        double n = insertions.sum();
+        return Math.pow(1 - Math.exp(-hashFunctions * n / bitSize), hashFunctions);
+    }
+
+    long getInsertions() {
+        return insertions.sum();
+    }
+
+    long getBitSize() {
+        return bitSize;
+    }
+
+    int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    static long position(long h1, long h2, int i, long bitSize) {
+        return Long.remainderUnsigned(h1 + i * h2, bitSize);
+    }
+}
@@ -0,0 +1,39 @@
+package com.eventara.ingestion.dedup;
+
+/**
+ * 64-bit hashing of event ids for the Bloom filters.
+ * FNV-1a over the chars, then two MurmurHash3 finalizer mixes give the
+ * pair (h1, h2) used for double hashing.
+ */
+final class DedupHash {
+
+    private DedupHash() {
+    }
+
+    static long h1(String key) {
+        return fmix64(fnv1a(key));
+    }
+
+    // forced odd so consecutive positions never collapse onto one bit
+    static long h2(long h1) {
+        return fmix64(h1 + 0x9E3779B97F4A7C15L) | 1L;
+    }
+
+    private static long fnv1a(String key) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xFF51AFD7ED558CCDL;
+        k ^= k >>> 33;
+        k *= 0xC4CEB9FE1A85EC53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,212 @@
+package com.eventara.ingestion.dedup;
+
+import com.eventara.common.dto.DedupStatsDto;
+import com.eventara.ingestion.config.IngestionProperties;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Screens consumed events for duplicates without a database round trip.
+ *
+ * Recent event ids are kept in two rotating Bloom filter generations (current and
+ * previous), each sized for eventara.ingestion.dedup.expected-insertions per window.
+ * A miss means the id is certainly new and the insert goes ahead directly; a hit
+ * means "maybe seen" and the caller confirms against the database. The unique
+ * index on (event_id, timestamp) remains the final arbiter, so a filter that was
+ * reset (restart, rotation) only costs extra lookups, never correctness.
+ *
+ * With redis-enabled the ids are also checked against a filter shared by all
+ * instances, which catches redeliveries after a partition moves to another consumer.
+ */
+@Service
+public class EventDedupFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventDedupFilter.class);
+
+    @Autowired
+    private IngestionProperties ingestionProperties;
+
+    @Autowired
+    private RedisTemplate<String, String> stringRedisTemplate;
+
+    private volatile Generations generations;
+    private RedisBloomFilter redisFilter;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder maybeDuplicates = new LongAdder();
+    private final LongAdder confirmedDuplicates = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder constraintDuplicates = new LongAdder();
+    private final LongAdder batchDuplicates = new LongAdder();
+    private final LongAdder redisFailures = new LongAdder();
+
+    private static final class Generations {
+        final BloomFilter current;
+        final BloomFilter previous; // null until the first rotation
+        final long startedAtMillis;
+
+        Generations(BloomFilter current, BloomFilter previous, long startedAtMillis) {
+            this.current = current;
+            this.previous = previous;
+            this.startedAtMillis = startedAtMillis;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        IngestionProperties.Dedup config = ingestionProperties.getDedup();
+        if (!config.isEnabled()) {
+            logger.info("Event dedup filter disabled, every event is checked against the database");
+            return;
+        }
+
+        BloomFilter first = newFilter();
+        generations = new Generations(first, null, System.currentTimeMillis());
+
+        if (config.isRedisEnabled()) {
+            redisFilter = new RedisBloomFilter(stringRedisTemplate, first.getBitSize(), first.getHashFunctions(),
+                    TimeUnit.MINUTES.toMillis(config.getWindowMinutes()));
+        }
+
+        logger.info("Event dedup filter: {} bits ({} KB) x2 generations, {} hash functions, window {} min, redis={}",
+                first.getBitSize(), first.getBitSize() / 8 / 1024, first.getHashFunctions(),
+                config.getWindowMinutes(), config.isRedisEnabled());
+    }
+
+    public boolean isEnabled() {
+        return generations != null;
+    }
+
+    /**
+     * Record the event id and report whether it may have been seen before.
+     * Returns true (check the database) when the filter is disabled.
+     */
+    public boolean checkAndPut(String eventId) {
+        if (!isEnabled()) {
+            return true;
+        }
+
+        lookups.increment();
+        long h1 = DedupHash.h1(eventId);
+        long h2 = DedupHash.h2(h1);
+
+        Generations current = rotateIfNeeded();
+        boolean seen = current.previous != null && current.previous.mightContain(h1, h2);
+        // Always add to the current generation so the id survives the next rotation
+        seen |= current.current.put(h1, h2);
+
+        if (redisFilter != null) {
+            try {
+                seen |= redisFilter.checkAndPut(h1, h2);
+            } catch (Exception e) {
+                redisFailures.increment();
+                logger.debug("Redis dedup filter unavailable, using local filter only: {}", e.getMessage());
+            }
+        }
+
+        if (seen) {
+            maybeDuplicates.increment();
+        }
+        return seen;
+    }
+
+    // The database confirmed a filter hit as a real duplicate
+    public void recordConfirmedDuplicate() {
+        confirmedDuplicates.increment();
+    }
+
+    // The database showed a filter hit was not a duplicate
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    // A duplicate slipped past the filter and was rejected by the unique index
+    public void recordConstraintDuplicate() {
+        constraintDuplicates.increment();
+    }
+
+    // The same event id appeared more than once in one consumed batch (resolved before the filter)
+    public void recordBatchDuplicate() {
+        batchDuplicates.increment();
+    }
+
+    /**
+     * Observed false-positive rate: filter hits that were not duplicates,
+     * over all lookups of ids that were not duplicates.
+     */
+    public double getObservedFalsePositiveRate() {
+        long negatives = lookups.sum() - confirmedDuplicates.sum();
+        return negatives > 0 ? (double) falsePositives.sum() / negatives : 0.0;
+    }
+
+    // Theoretical false-positive rate of the current generation at its current fill
+    public double getEstimatedFalsePositiveRate() {
+        Generations current = generations;
+        return current != null ? current.current.expectedFalsePositiveRate() : 0.0;
+    }
+
+    public DedupStatsDto getStats() {
+        DedupStatsDto stats = new DedupStatsDto();
+        stats.setEnabled(isEnabled());
+        stats.setRedisEnabled(redisFilter != null);
+        stats.setLookups(lookups.sum());
+        stats.setMaybeDuplicates(maybeDuplicates.sum());
+        stats.setConfirmedDuplicates(confirmedDuplicates.sum());
+        stats.setFalsePositives(falsePositives.sum());
+        stats.setConstraintDuplicates(constraintDuplicates.sum());
+        stats.setBatchDuplicates(batchDuplicates.sum());
+        stats.setRedisFailures(redisFailures.sum());
+        stats.setObservedFalsePositiveRate(getObservedFalsePositiveRate());
+        stats.setEstimatedFalsePositiveRate(getEstimatedFalsePositiveRate());
+
+        Generations current = generations;
+        if (current != null) {
+            stats.setCurrentInsertions(current.current.getInsertions());
+            stats.setBitSize(current.current.getBitSize());
+            stats.setHashFunctions(current.current.getHashFunctions());
+            stats.setGenerationStartedAt(Instant.ofEpochMilli(current.startedAtMillis));
+        }
+        return stats;
+    }
+
+    /**
+     * Start a new generation when the window has elapsed or the current filter
+     * has reached its sized capacity (beyond that its false-positive rate climbs fast).
+     */
+    private Generations rotateIfNeeded() {
+        Generations current = generations;
+        if (!shouldRotate(current)) {
+            return current;
+        }
+
+        synchronized (this) {
+            current = generations;
+            if (shouldRotate(current)) {
+                logger.info("Rotating event dedup filter after {} insertions", current.current.getInsertions());
+                current = new Generations(newFilter(), current.current, System.currentTimeMillis());
+                generations = current;
+            }
+            return current;
+        }
+    }
+
+    private boolean shouldRotate(Generations current) {
+        IngestionProperties.Dedup config = ingestionProperties.getDedup();
+        long windowMillis = TimeUnit.MINUTES.toMillis(config.getWindowMinutes());
+        return System.currentTimeMillis() - current.startedAtMillis >= windowMillis
+                || current.current.getInsertions() >= config.getExpectedInsertions();
+    }
+
+    private BloomFilter newFilter() {
+        IngestionProperties.Dedup config = ingestionProperties.getDedup();
+        return BloomFilter.create(config.getExpectedInsertions(), config.getFalsePositiveRate());
+    }
+}
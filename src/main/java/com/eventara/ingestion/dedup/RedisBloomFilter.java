@@ -0,0 +1,77 @@
+package com.eventara.ingestion.dedup;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Bloom filter shared by all instances, stored as Redis bitmaps.
+ *
+ * One bitmap per time window ("dedup:bloom:{window}"); a lookup reads the previous
+ * window's bits and sets the current window's bits in a single pipelined round trip.
+ * Keys expire after two windows, so memory stays bounded without a cleanup job.
+ */
+class RedisBloomFilter {
+
+    private static final String KEY_PREFIX = "dedup:bloom:";
+    private static final long MAX_REDIS_BITS = 1L << 32; // Redis bitmap offset limit
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final long windowMillis;
+
+    private volatile long lastExpiredWindow = -1;
+
+    RedisBloomFilter(RedisTemplate<String, String> redisTemplate, long bitSize, int hashFunctions, long windowMillis) {
+        this.redisTemplate = redisTemplate;
+        this.bitSize = Math.min(bitSize, MAX_REDIS_BITS);
+        this.hashFunctions = hashFunctions;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * @return true when the key may have been added by any instance in this or the previous window
+     */
+    boolean checkAndPut(long h1, long h2) {
+        long window = System.currentTimeMillis() / windowMillis;
+        byte[] current = (KEY_PREFIX + window).getBytes(StandardCharsets.UTF_8);
+        byte[] previous = (KEY_PREFIX + (window - 1)).getBytes(StandardCharsets.UTF_8);
+        boolean setExpiry = window != lastExpiredWindow;
+
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            pipeline(connection, current, previous, h1, h2, setExpiry);
+            return null;
+        });
+
+        if (setExpiry) {
+            lastExpiredWindow = window;
+        }
+
+        boolean inPrevious = true;
+        boolean inCurrent = true;
+        for (int i = 0; i < hashFunctions; i++) {
+            inPrevious &= Boolean.TRUE.equals(results.get(i));
+            inCurrent &= Boolean.TRUE.equals(results.get(hashFunctions + i));
+        }
+        return inPrevious || inCurrent;
+    }
+
+    private void pipeline(RedisConnection connection, byte[] current, byte[] previous,
+                          long h1, long h2, boolean setExpiry) {
+        for (int i = 0; i < hashFunctions; i++) {
+            connection.stringCommands().getBit(previous, BloomFilter.position(h1, h2, i, bitSize));
+        }
+        // SETBIT returns the previous bit value
+        for (int i = 0; i < hashFunctions; i++) {
+            connection.stringCommands().setBit(current, BloomFilter.position(h1, h2, i, bitSize), true);
+        }
+        if (setExpiry) {
+            connection.keyCommands().expire(current, Duration.ofMillis(windowMillis * 2).toSeconds());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.eventara.ingestion.id;
+
+/**
+ * Crockford base32 encoding helpers shared by the ID generators.
+ * The alphabet is in ASCII order, so fixed-width encodings sort like the numbers they encode.
+ */
+final class Crockford {
+
+    static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private Crockford() {
+    }
+
+    /**
+     * Encode the low (chars * 5) bits of value into buf[offset .. offset + chars), most significant first.
+     */
+    static void encode(long value, int chars, char[] buf, int offset) {
+        for (int i = offset + chars - 1; i >= offset; i--) {
+            buf[i] = ALPHABET[(int) (value & 0x1F)];
+            value >>>= 5;
+        }
+    }
+}
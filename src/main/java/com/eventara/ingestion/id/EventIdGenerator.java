@@ -0,0 +1,14 @@
+package com.eventara.ingestion.id;
+
+/**
+ * Generates the public eventId assigned to every ingested event.
+ *
+ * Implementations must be thread-safe and produce IDs that sort (as strings)
+ * in generation order, so inserts into the event_id index stay append-mostly.
+ */
+public interface EventIdGenerator {
+
+    String PREFIX = "evt_";
+
+    String nextId();
+}
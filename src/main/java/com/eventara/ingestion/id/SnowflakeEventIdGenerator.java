@@ -0,0 +1,73 @@
+package com.eventara.ingestion.id;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style 64-bit IDs: 41 bits of milliseconds since 2024-01-01,
+ * 10 bits of node ID and a 12 bit per-millisecond sequence.
+ *
+ * The clock and sequence live in one AtomicLong updated with CAS, so there is
+ * no lock and IDs are strictly increasing within a node. When a millisecond's
+ * 4096 sequence values run out, or the wall clock moves backwards, the generator
+ * keeps counting on its logical clock instead of blocking; it catches up with
+ * the wall clock as soon as time passes it again.
+ *
+ * Rendered as "evt_" + 13 Crockford base32 chars (17 chars total).
+ */
+public class SnowflakeEventIdGenerator implements EventIdGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnowflakeEventIdGenerator.class);
+
+    static final long EPOCH_MS = 1704067200000L; // 2024-01-01T00:00:00Z
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final int ENCODED_LENGTH = 13; // ceil(64 / 5)
+
+    private final long nodeBits;
+
+    // (milliseconds since EPOCH_MS << SEQUENCE_BITS) | sequence of the last issued ID
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeEventIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Snowflake node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        logger.info("Snowflake event id generator initialised with node id {}", nodeId);
+    }
+
+    @Override
+    public String nextId() {
+        return nextId(System.currentTimeMillis());
+    }
+
+    /**
+     * @param nowMillis wall clock time in epoch milliseconds
+     */
+    String nextId(long nowMillis) {
+        long now = (nowMillis - EPOCH_MS) << SEQUENCE_BITS;
+        long next;
+        while (true) {
+            long prev = state.get();
+            // A new millisecond restarts the sequence, otherwise increment (overflow carries into the clock)
+            next = now > prev ? now : prev + 1;
+            if (state.compareAndSet(prev, next)) {
+                break;
+            }
+        }
+
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        long id = (millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | sequence;
+
+        char[] buf = new char[PREFIX.length() + ENCODED_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), buf, 0);
+        Crockford.encode(id, ENCODED_LENGTH, buf, PREFIX.length());
+        return new String(buf);
+    }
+}
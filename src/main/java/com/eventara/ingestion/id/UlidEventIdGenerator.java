@@ -0,0 +1,66 @@
+package com.eventara.ingestion.id;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ULID-style IDs: 48 bits of milliseconds followed by 80 random bits,
+ * rendered as "evt_" + 26 Crockford base32 chars (30 chars total).
+ *
+ * Each thread keeps its own last timestamp/random pair, so there is no shared
+ * state at all. Within a thread, IDs generated in the same millisecond increment
+ * the random part (monotonic ULID). Across threads IDs are ordered by millisecond
+ * only, which is enough for index locality. Randomness comes from ThreadLocalRandom;
+ * the IDs are unique, not unguessable.
+ */
+public class UlidEventIdGenerator implements EventIdGenerator {
+
+    private static final int ENCODED_LENGTH = 26;
+
+    private final ThreadLocal<State> threadState = ThreadLocal.withInitial(State::new);
+
+    private static final class State {
+        long millis = -1;
+        long randomHigh; // upper 16 bits of the random part
+        long randomLow;  // lower 64 bits of the random part
+    }
+
+    @Override
+    public String nextId() {
+        return nextId(System.currentTimeMillis());
+    }
+
+    /**
+     * @param now wall clock time in epoch milliseconds
+     */
+    String nextId(long now) {
+        State state = threadState.get();
+
+        if (now > state.millis) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            state.millis = now;
+            state.randomHigh = random.nextLong() & 0xFFFFL;
+            state.randomLow = random.nextLong();
+        } else {
+            // Same millisecond (or clock went back): increment the 80 bit random part
+            state.randomLow++;
+            if (state.randomLow == 0) {
+                state.randomHigh = (state.randomHigh + 1) & 0xFFFFL;
+                if (state.randomHigh == 0) {
+                    state.millis++; // random part exhausted, borrow the next millisecond
+                }
+            }
+        }
+
+        char[] buf = new char[PREFIX.length() + ENCODED_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), buf, 0);
+        int offset = PREFIX.length();
+
+        // 48 bit time -> 10 chars (50 bits, top 2 zero)
+        Crockford.encode(state.millis, 10, buf, offset);
+        // 80 bit random -> 16 chars: high 16 bits + top 24 bits of low in 8 chars, remaining 40 bits in 8 chars
+        Crockford.encode((state.randomHigh << 24) | (state.randomLow >>> 40), 8, buf, offset + 10);
+        Crockford.encode(state.randomLow, 8, buf, offset + 18);
+
+        return new String(buf);
+    }
+}
@@ -0,0 +1,350 @@
+package com.eventara.ingestion.kafka;
+
+import com.eventara.common.dto.ConsumerScalingStatus;
+import com.eventara.ingestion.config.IngestionProperties;
+import com.eventara.instrumentation.PipelineMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adjusts the raw events listener to its backlog.
+ *
+ * Every interval it reads the consumer group lag on the raw topic and the
+ * per-record processing time measured by the consumer. While lag is above
+ * scale-up-lag, concurrency is raised to the number of threads that would
+ * drain it within target-drain-seconds (at most one per partition) and the
+ * poll size is doubled; once lag is below scale-down-lag, both step back down.
+ *
+ * Concurrency and max.poll.records only apply to new consumers, so a change
+ * stops and restarts the container (one rebalance); the cooldown keeps that
+ * from happening more than once per cooldown-seconds. Every change is counted
+ * in eventara.consumer.scaling.changes, logged, and kept in a short history.
+ */
+@Component
+public class ConsumerAutoscaler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsumerAutoscaler.class);
+
+    private static final long ADMIN_TIMEOUT_SECONDS = 10;
+
+    // Kafka's default max.poll.interval.ms; one poll must be processed well within it
+    private static final long MAX_POLL_INTERVAL_MS = 300_000;
+
+    @Value("${eventara.kafka.topics.events-raw}")
+    private String rawEventsTopic;
+
+    @Value("${spring.kafka.consumer.group-id}")
+    private String groupId;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Autowired
+    private KafkaAdmin kafkaAdmin;
+
+    @Autowired
+    private IngestionProperties ingestionProperties;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private AdminClient adminClient;
+
+    private final AtomicInteger concurrency = new AtomicInteger();
+    private final AtomicInteger pollRecords = new AtomicInteger();
+    private final AtomicInteger partitions = new AtomicInteger();
+    private final AtomicLong lag = new AtomicLong();
+    private volatile double recordTimeMs = 0;
+    private volatile Instant lastCheck;
+
+    // Baseline for the per-record processing time, from the consumer timers
+    private double lastProcessingMs = -1;
+    private double lastRecords = 0;
+
+    private volatile long lastChangeMs = 0;
+    private volatile boolean restarting = false;
+    private volatile boolean stoppedByScaler = false; // set from stop until the restart succeeds
+    private final Deque<ConsumerScalingStatus.Change> history = new ArrayDeque<>();
+
+    @PostConstruct
+    public void init() {
+        concurrency.set(ingestionProperties.getConsumer().getConcurrency());
+        pollRecords.set(ingestionProperties.getConsumer().getMaxPollRecords());
+
+        Gauge.builder("eventara.consumer.concurrency", concurrency, AtomicInteger::get)
+                .description("Listener threads of the raw events consumer")
+                .register(meterRegistry);
+        Gauge.builder("eventara.consumer.max.poll.records", pollRecords, AtomicInteger::get)
+                .description("max.poll.records of the raw events consumer")
+                .register(meterRegistry);
+        Gauge.builder("eventara.consumer.lag", lag, AtomicLong::get)
+                .description("Records behind on the raw events topic, across all partitions")
+                .baseUnit("records")
+                .register(meterRegistry);
+        Gauge.builder("eventara.consumer.record.time", this, scaler -> scaler.recordTimeMs)
+                .description("Processing time per record and thread, between two scaling checks")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+    }
+
+    @PreDestroy
+    public void close() {
+        if (adminClient != null) {
+            adminClient.close();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${eventara.ingestion.scaling.interval-ms:15000}",
+            initialDelayString = "${eventara.ingestion.scaling.interval-ms:15000}")
+    public void check() {
+        IngestionProperties.Scaling config = ingestionProperties.getScaling();
+        if (!config.isEnabled() || restarting) {
+            return;
+        }
+        ConcurrentMessageListenerContainer<?, ?> container = activeContainer();
+        if (container == null) {
+            return;
+        }
+        if (!container.isRunning()) {
+            // Only containers this class stopped are restarted, never ones stopped on purpose elsewhere
+            if (stoppedByScaler) {
+                restart(container);
+            }
+            return;
+        }
+
+        try {
+            readLag();
+            updateRecordTime();
+            lastCheck = Instant.now();
+            adjust(container, config);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("Consumer scaling check failed: {}", e.getMessage());
+        }
+    }
+
+    private void adjust(ConcurrentMessageListenerContainer<?, ?> container, IngestionProperties.Scaling config) {
+        int currentConcurrency = container.getConcurrency();
+        int currentPoll = pollRecords.get();
+        long currentLag = lag.get();
+        double perRecordMs = recordTimeMs;
+
+        int targetConcurrency;
+        int targetPoll;
+        String reason;
+        if (currentLag > config.getScaleUpLag()) {
+            // Threads needed to drain the lag within the target time at the measured cost per record
+            int needed = perRecordMs > 0
+                    ? (int) Math.ceil(currentLag * perRecordMs / (config.getTargetDrainSeconds() * 1000.0))
+                    : currentConcurrency + 1;
+            targetConcurrency = Math.max(currentConcurrency + 1, needed);
+            targetPoll = currentPoll * 2;
+            reason = "lag " + currentLag + " above " + config.getScaleUpLag();
+        } else if (currentLag < config.getScaleDownLag()) {
+            targetConcurrency = currentConcurrency - 1;
+            targetPoll = currentPoll / 2;
+            reason = "lag " + currentLag + " below " + config.getScaleDownLag();
+        } else {
+            return;
+        }
+
+        int maxConcurrency = Math.max(config.getMinConcurrency(),
+                Math.min(config.getMaxConcurrency(), partitions.get()));
+        targetConcurrency = clamp(targetConcurrency, config.getMinConcurrency(), maxConcurrency);
+        targetPoll = clamp(targetPoll, config.getMinPollRecords(), maxPollRecords(config, perRecordMs));
+
+        if (targetConcurrency == currentConcurrency && targetPoll == currentPoll) {
+            return;
+        }
+        if (System.currentTimeMillis() - lastChangeMs < config.getCooldownSeconds() * 1000L) {
+            return;
+        }
+
+        ConsumerScalingStatus.Change change = new ConsumerScalingStatus.Change();
+        change.setTimestamp(Instant.now());
+        change.setDirection(targetConcurrency > currentConcurrency
+                || (targetConcurrency == currentConcurrency && targetPoll > currentPoll) ? "up" : "down");
+        change.setReason(reason);
+        change.setFromConcurrency(currentConcurrency);
+        change.setToConcurrency(targetConcurrency);
+        change.setFromPollRecords(currentPoll);
+        change.setToPollRecords(targetPoll);
+        change.setLag(currentLag);
+        change.setRecordTimeMs(perRecordMs);
+        apply(container, change, config.getHistorySize());
+    }
+
+    private void apply(ConcurrentMessageListenerContainer<?, ?> container,
+                       ConsumerScalingStatus.Change change, int historySize) {
+        restarting = true;
+        lastChangeMs = System.currentTimeMillis();
+
+        logger.info("Scaling consumer {}: concurrency {} -> {}, max.poll.records {} -> {} ({}, {} ms/record)",
+                change.getDirection(), change.getFromConcurrency(), change.getToConcurrency(),
+                change.getFromPollRecords(), change.getToPollRecords(), change.getReason(),
+                String.format("%.2f", change.getRecordTimeMs()));
+        Counter.builder("eventara.consumer.scaling.changes")
+                .description("Concurrency or poll size changes of the raw events consumer")
+                .tag("direction", change.getDirection())
+                .register(meterRegistry)
+                .increment();
+        synchronized (history) {
+            history.addFirst(change);
+            while (history.size() > historySize) {
+                history.removeLast();
+            }
+        }
+
+        // Both settings are read when consumers are created, hence the restart
+        stoppedByScaler = true;
+        container.stop(() -> {
+            try {
+                configure(container, change.getToConcurrency(), change.getToPollRecords());
+                container.start();
+                concurrency.set(change.getToConcurrency());
+                pollRecords.set(change.getToPollRecords());
+                stoppedByScaler = false;
+            } catch (Exception e) {
+                logger.error("Failed to restart consumer after scaling, restoring concurrency {} and max.poll.records {}: {}",
+                        change.getFromConcurrency(), change.getFromPollRecords(), e.getMessage(), e);
+                configure(container, change.getFromConcurrency(), change.getFromPollRecords());
+                restart(container);
+            } finally {
+                restarting = false;
+            }
+        });
+    }
+
+    /**
+     * Start a container this class stopped, with the last settings that were applied.
+     * If that fails too, the next check tries again.
+     */
+    private void restart(ConcurrentMessageListenerContainer<?, ?> container) {
+        try {
+            configure(container, concurrency.get(), pollRecords.get());
+            container.start();
+            stoppedByScaler = false;
+            logger.info("Restarted consumer with concurrency {}, max.poll.records {}",
+                    concurrency.get(), pollRecords.get());
+        } catch (Exception e) {
+            logger.error("Failed to restart consumer, retrying on the next check: {}", e.getMessage(), e);
+        }
+    }
+
+    private static void configure(ConcurrentMessageListenerContainer<?, ?> container, int concurrency, int pollRecords) {
+        container.setConcurrency(concurrency);
+        container.getContainerProperties().getKafkaConsumerProperties().setProperty(
+                ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(pollRecords));
+    }
+
+    private void readLag() throws Exception {
+        Map<TopicPartition, OffsetAndMetadata> committed = adminClient.listConsumerGroupOffsets(groupId)
+                .partitionsToOffsetAndMetadata().get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        TopicDescription topic = adminClient.describeTopics(List.of(rawEventsTopic)).allTopicNames()
+                .get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS).get(rawEventsTopic);
+
+        Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+        topic.partitions().forEach(partition ->
+                latest.put(new TopicPartition(rawEventsTopic, partition.partition()), OffsetSpec.latest()));
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffsets =
+                adminClient.listOffsets(latest).all().get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        long total = 0;
+        for (Map.Entry<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> end : endOffsets.entrySet()) {
+            OffsetAndMetadata offset = committed.get(end.getKey());
+            // Partitions without a committed offset yet are not counted
+            if (offset != null) {
+                total += Math.max(0, end.getValue().offset() - offset.offset());
+            }
+        }
+        lag.set(total);
+        partitions.set(topic.partitions().size());
+    }
+
+    private void updateRecordTime() {
+        double processingMs = pipelineMetrics.timer(PipelineMetrics.Stage.CONSUMER_BATCH).totalTime(TimeUnit.MILLISECONDS)
+                + pipelineMetrics.timer(PipelineMetrics.Stage.CONSUMER_PROCESS).totalTime(TimeUnit.MILLISECONDS);
+        double records = pipelineMetrics.consumedRecords();
+
+        // Keep the previous estimate when nothing was consumed since the last check
+        if (lastProcessingMs >= 0 && records > lastRecords) {
+            recordTimeMs = (processingMs - lastProcessingMs) / (records - lastRecords);
+        }
+        lastProcessingMs = processingMs;
+        lastRecords = records;
+    }
+
+    private static int maxPollRecords(IngestionProperties.Scaling config, double perRecordMs) {
+        if (perRecordMs <= 0) {
+            return config.getMaxPollRecords();
+        }
+        int withinPollInterval = (int) Math.min(Integer.MAX_VALUE, MAX_POLL_INTERVAL_MS / 2 / perRecordMs);
+        return Math.max(config.getMinPollRecords(), Math.min(config.getMaxPollRecords(), withinPollInterval));
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private ConcurrentMessageListenerContainer<?, ?> activeContainer() {
+        String id = ingestionProperties.getConsumer().isBatchEnabled()
+                ? EventConsumer.BATCH_LISTENER_ID : EventConsumer.LISTENER_ID;
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(id);
+        return container instanceof ConcurrentMessageListenerContainer<?, ?> concurrent ? concurrent : null;
+    }
+
+    public ConsumerScalingStatus status() {
+        ConsumerScalingStatus status = new ConsumerScalingStatus();
+        status.setEnabled(ingestionProperties.getScaling().isEnabled());
+        status.setListenerId(ingestionProperties.getConsumer().isBatchEnabled()
+                ? EventConsumer.BATCH_LISTENER_ID : EventConsumer.LISTENER_ID);
+        status.setConcurrency(concurrency.get());
+        status.setMaxPollRecords(pollRecords.get());
+        status.setPartitions(partitions.get());
+        status.setLag(lag.get());
+        status.setRecordTimeMs(recordTimeMs);
+        status.setLastCheck(lastCheck);
+        synchronized (history) {
+            status.setHistory(new ArrayList<>(history));
+        }
+        return status;
+    }
+}
@@ -1,29 +1,52 @@
 package com.eventara.ingestion.kafka;
 
 import com.eventara.analytics.service.ComprehensiveMetricsService;
+import com.eventara.common.datasource.DbWorkload;
 import com.eventara.common.dto.EventDto;
+import com.eventara.ingestion.dedup.EventDedupFilter;
 import com.eventara.ingestion.mapper.EventMapper;
 import com.eventara.ingestion.model.entity.Event;
+import com.eventara.common.repository.EventBulkWriter;
 import com.eventara.common.repository.EventRepository;
+import com.eventara.ingestion.config.IngestionProperties;
 import com.eventara.metrics.config.MetricsProperties;
 import com.eventara.metrics.service.DistributedMetricsService;
-import jakarta.transaction.Transactional;
+import com.eventara.instrumentation.PipelineMetrics;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.log.LogAccessor;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.eventara.rule.evaluation.AdaptiveRuleEvaluator;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class EventConsumer {
 
     private static final Logger logger = LoggerFactory.getLogger(EventConsumer.class);
+    private static final LogAccessor logAccessor = new LogAccessor(EventConsumer.class);
+
+    // Listener container ids, for lookups in the KafkaListenerEndpointRegistry
+    public static final String LISTENER_ID = "eventConsumer";
+    public static final String BATCH_LISTENER_ID = "eventBatchConsumer";
 
     @Autowired
     private EventRepository eventRepository;
@@ -31,6 +54,9 @@ public class EventConsumer {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EventMapper eventMapper;
+
     @Autowired
     private ComprehensiveMetricsService comprehensiveMetricsService;
 
@@ -43,6 +69,27 @@ public class EventConsumer {
     @Autowired
     private AdaptiveRuleEvaluator adaptiveRuleEvaluator;
 
+    @Autowired
+    private EventDedupFilter eventDedupFilter;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EventBulkWriter eventBulkWriter;
+
+    @Autowired
+    private IngestionProperties ingestionProperties;
+
+    @Autowired
+    private DeadLetterPublishingRecoverer deadLetterPublishingRecoverer;
+
+    @Autowired
+    private EventProducer eventProducer;
+
     /*
      * Listens to Kafka topic and processes events
      * This method runs continuously in background!
@@ -54,41 +101,67 @@ public class EventConsumer {
      * @param offset Position of message in partition
      * 
      * @param acknowledgment Manual acknowledgment to commit offset
+     *
+     * Only started when eventara.ingestion.consumer.batch-enabled=false
      */
 
-    @KafkaListener(topics = "${eventara.kafka.topics.events-raw}", groupId = "${spring.kafka.consumer.group-id}", containerFactory = "kafkaListenerContainerFactory")
-    @Transactional
+    @KafkaListener(id = LISTENER_ID, idIsGroup = false, topics = "${eventara.kafka.topics.events-raw}", groupId = "${spring.kafka.consumer.group-id}", containerFactory = "kafkaListenerContainerFactory",
+            autoStartup = "#{!${eventara.ingestion.consumer.batch-enabled:true}}")
     public void ConsumeEvent(
             @Payload Event event,
             @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
             @Header(KafkaHeaders.OFFSET) long offset,
+            @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long recordTimestamp,
             Acknowledgment acknowledgment) {
+        long start = System.nanoTime();
+        pipelineMetrics.recordConsumerLag(recordTimestamp);
+        pipelineMetrics.beginEvent();
         try {
 
             logger.info("Received message from Kafka: partition={}, offset={}", partition, offset);
 
+            processEvent(event);
+
+            // Manually acknowledge (commit offset) ... message won't be reprocessed
+            acknowledgment.acknowledge();
+
+        } catch (Exception e) {
+
+            logger.error("Error processing event from Kafka: partition={}, offset={}, error={}",
+                    partition, offset, e.getMessage(), e);
+
+            // Don't acknowledge - the error handler moves the record to the first retry topic
+            // (or the DLQ) so the partition keeps moving
+            throw new RuntimeException("Failed to process event!", e);
+
+        } finally {
+            pipelineMetrics.endEvent();
+            pipelineMetrics.record(PipelineMetrics.Stage.CONSUMER_PROCESS, start);
+        }
+    }
+
+    /**
+     * Dedup, persist and record metrics for one event.
+     * Used by the per-record listener and by the retry topic consumer.
+     * Throws if the event could not be processed.
+     *
+     * The insert only commits once the Redis metrics are written (and the
+     * event is published for the Streams aggregation), so a failure there
+     * rolls the row back and a retry does the whole thing again instead of
+     * skipping the event as a duplicate. In-memory metrics and rule counters
+     * are updated after the commit.
+     */
+    public void processEvent(Event event) {
+        // Inserts and dedup lookups use the ingest pool, apart from dashboard and alerting traffic
+        try (DbWorkload.Scope ignored = DbWorkload.INGEST.enter()) {
             logger.info("Processing event: eventId={}, eventType={}, source={}",
                     event.getEventId(), event.getEventType(), event.getSource());
 
-            // Checking if event already exists (deduplication)
-            if (eventRepository.existsByEventId(event.getEventId())) {
-                logger.warn("Event already exists in database, skipping: eventId={}",
-                        event.getEventId());
-                acknowledgment.acknowledge();
+            EventDto eventDto = transactionTemplate.execute(status -> persistAndRecord(event));
+            if (eventDto == null) {
                 return;
             }
 
-            // Saving to db
-            Event savedEvent = eventRepository.save(event);
-
-            // Sending data to metrics i.e sending to analytics service
-            EventMapper eventMapper = new EventMapper();
-            EventDto eventDto = eventMapper.toDto(savedEvent);
-
-            // Record to distributed metrics (Redis + TimescaleDB) if enabled
-            if (metricsProperties.getDistributed().isEnabled()) {
-                distributedMetricsService.recordEvent(eventDto);
-            }
             // Always record to old service for backward compatibility during migration
             comprehensiveMetricsService.recordEvent(eventDto);
 
@@ -101,20 +174,218 @@ public class EventConsumer {
             adaptiveRuleEvaluator.onEventIngested(eventDto.isError());
 
             logger.info("Successfully saved event to database: eventId={}, dbId={}",
-                    savedEvent.getEventId(), savedEvent.getId());
+                    event.getEventId(), event.getId());
+        }
+    }
 
-            // Manually acknowledge (commit offset) ... message won't be reprocessed
+    /**
+     * Dedup and insert one event and write its distributed metrics, inside the
+     * caller's transaction. Returns null when the event is a duplicate.
+     */
+    private EventDto persistAndRecord(Event event) {
+        // Deduplication: only ids the filter may have seen are checked in the database
+        if (eventDedupFilter.checkAndPut(event.getEventId())) {
+            if (eventRepository.existsByEventIdAndTimestamp(event.getEventId(), event.getTimestamp())) {
+                logger.warn("Event already exists in database, skipping: eventId={}",
+                        event.getEventId());
+                eventDedupFilter.recordConfirmedDuplicate();
+                return null;
+            }
+            eventDedupFilter.recordFalsePositive();
+        }
+
+        // Saving to db (ON CONFLICT on the (event_id, timestamp) unique index is the final arbiter)
+        Event savedEvent = persistEvent(event);
+        if (savedEvent == null) {
+            return null;
+        }
+
+        // Sending data to metrics i.e sending to analytics service
+        EventDto eventDto = eventMapper.toDto(savedEvent);
+
+        // Record to distributed metrics (Redis + TimescaleDB) if enabled
+        if (metricsProperties.getDistributed().isEnabled()) {
+            distributedMetricsService.recordEvent(eventDto);
+        }
+        // With Kafka Streams aggregation, the topology records it from the persisted topic
+        publishPersisted(List.of(savedEvent));
+        return eventDto;
+    }
+
+    /*
+     * Batch mode: receives a whole poll (up to max-poll-records) at once.
+     * Duplicates are resolved in memory and by the INSERT itself, the new events
+     * are inserted in one transaction, metrics are recorded once for the batch
+     * and the poll is acknowledged once.
+     *
+     * Records that could not be deserialized are published to the DLQ here,
+     * after the rest of the batch is saved and before the poll is acknowledged,
+     * so no record is committed without being either processed or dead-lettered.
+     * The insert commits only after the Redis metrics are written and the events
+     * published, so if processing fails nothing of the batch is saved: the error
+     * handler moves every record to the first retry topic (undeserializable ones
+     * to the DLQ), where each one is inserted and recorded again.
+     */
+    @KafkaListener(id = BATCH_LISTENER_ID, idIsGroup = false, topics = "${eventara.kafka.topics.events-raw}", groupId = "${spring.kafka.consumer.group-id}", containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "${eventara.ingestion.consumer.batch-enabled:true}")
+    public void consumeEvents(List<ConsumerRecord<String, Event>> records, Acknowledgment acknowledgment) {
+        long start = System.nanoTime();
+        pipelineMetrics.beginEvent();
+        try (DbWorkload.Scope ignored = DbWorkload.INGEST.enter()) {
+            // Deduplication inside the batch: keep the first occurrence of each id
+            Map<String, Event> events = new LinkedHashMap<>(records.size() * 2);
+            List<ConsumerRecord<String, Event>> undeserializable = new ArrayList<>();
+            for (ConsumerRecord<String, Event> record : records) {
+                pipelineMetrics.recordConsumerLag(record.timestamp());
+                Event event = record.value();
+                if (event == null) {
+                    // Payloads the ErrorHandlingDeserializer could not read arrive as null values
+                    undeserializable.add(record);
+                    continue;
+                }
+                if (events.putIfAbsent(event.getEventId(), event) != null) {
+                    eventDedupFilter.recordBatchDuplicate();
+                }
+            }
+
+            // Deduplication against earlier batches happens in the INSERT itself
+            // (ON CONFLICT DO NOTHING); the filter only classifies the outcome for its stats
+            Set<String> maybeSeen = new HashSet<>();
+            for (String eventId : events.keySet()) {
+                if (eventDedupFilter.checkAndPut(eventId)) {
+                    maybeSeen.add(eventId);
+                }
+            }
+
+            // Insert, Redis metrics and the persisted topic as one unit: the rows commit last
+            List<Event> batch = new ArrayList<>(events.values());
+            List<Event> savedEvents = new ArrayList<>();
+            List<EventDto> eventDtos = transactionTemplate.execute(status -> {
+                savedEvents.addAll(persistEvents(batch));
+                List<EventDto> dtos = new ArrayList<>(savedEvents.size());
+                for (Event savedEvent : savedEvents) {
+                    dtos.add(eventMapper.toDto(savedEvent));
+                }
+                if (metricsProperties.getDistributed().isEnabled()) {
+                    distributedMetricsService.recordEvents(dtos);
+                }
+                publishPersisted(savedEvents);
+                return dtos;
+            });
+            recordDedupOutcome(events.keySet(), maybeSeen, savedEvents);
+
+            // In-memory metrics and rule counters, once for the whole batch
+            int errors = 0;
+            for (EventDto eventDto : eventDtos) {
+                if (eventDto.isError()) {
+                    errors++;
+                }
+            }
+            comprehensiveMetricsService.recordEvents(eventDtos);
+            adaptiveRuleEvaluator.onEventsIngested(eventDtos.size(), errors);
+
+            for (ConsumerRecord<String, Event> record : undeserializable) {
+                deadLetter(record);
+            }
+
+            // One offset commit for the whole poll
             acknowledgment.acknowledge();
 
+            logger.info("Processed batch from Kafka: records={}, saved={}, duplicates={}, dead-lettered={}",
+                    records.size(), savedEvents.size(), records.size() - undeserializable.size() - savedEvents.size(),
+                    undeserializable.size());
+
         } catch (Exception e) {
 
-            logger.error("Error processing event from Kafka: partition={}, offset={}, error={}",
-                    partition, offset, e.getMessage(), e);
+            ConsumerRecord<String, Event> first = records.get(0);
+            logger.error("Error processing batch from Kafka: records={}, first partition={}, offset={}, error={}",
+                    records.size(), first.partition(), first.offset(), e.getMessage(), e);
+
+            // Don't acknowledge - the error handler moves the batch to the first retry topic
+            throw new RuntimeException("Failed to process event batch!", e);
+
+        } finally {
+            pipelineMetrics.endEvents(records.size());
+            pipelineMetrics.record(PipelineMetrics.Stage.CONSUMER_BATCH, start);
+        }
+    }
+
+    /**
+     * Hand newly inserted events to the Kafka Streams bucket aggregation, when
+     * enabled. Waits for the sends and throws if any of them failed; callers
+     * run this before the insert commits, so the rows roll back and the
+     * records are retried rather than missing from the buckets. Events of the
+     * batch whose send did succeed are published again by the retry.
+     */
+    private void publishPersisted(List<Event> savedEvents) {
+        if (!metricsProperties.getStreams().isEnabled() || savedEvents.isEmpty()) {
+            return;
+        }
+        CompletableFuture.allOf(eventProducer.sendPersistedEvents(savedEvents).toArray(CompletableFuture<?>[]::new))
+                .join();
+    }
+
+    /**
+     * Publish an undeserializable record to the DLQ with its original bytes.
+     * Waits for the send, and throws if it fails.
+     */
+    private void deadLetter(ConsumerRecord<String, Event> record) {
+        DeserializationException cause = SerializationUtils.getExceptionFromHeader(record,
+                SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, logAccessor);
+        logger.warn("Event payload could not be deserialized, sending to DLQ: partition={}, offset={}",
+                record.partition(), record.offset());
+        deadLetterPublishingRecoverer.accept(record, cause != null ? cause
+                : new DeserializationException("Event payload could not be deserialized", null, false, null));
+    }
+
+    /**
+     * Insert a batch with multi-row INSERT statements, in the caller's transaction.
+     * Events whose id already exists are skipped by the database.
+     */
+    private List<Event> persistEvents(List<Event> events) {
+        if (events.isEmpty()) {
+            return events;
+        }
 
-            // Don't acknowledge - message will be retried
-            // In production, Ill try to send to dead-letter queue after N retries
-            throw new RuntimeException("Failed to process event!");
+        long insertStart = System.nanoTime();
+        int rowsPerStatement = ingestionProperties.getConsumer().getInsertRowsPerStatement();
+        List<Event> saved = eventBulkWriter.insertIgnoringDuplicates(events, rowsPerStatement);
+        pipelineMetrics.record(PipelineMetrics.Stage.DB_INSERT, insertStart);
+        return saved;
+    }
 
+    private void recordDedupOutcome(Set<String> eventIds, Set<String> maybeSeen, List<Event> savedEvents) {
+        Set<String> savedIds = new HashSet<>(savedEvents.size() * 2);
+        for (Event savedEvent : savedEvents) {
+            savedIds.add(savedEvent.getEventId());
+        }
+        for (String eventId : eventIds) {
+            boolean saved = savedIds.contains(eventId);
+            if (maybeSeen.contains(eventId)) {
+                if (saved) {
+                    eventDedupFilter.recordFalsePositive();
+                } else {
+                    eventDedupFilter.recordConfirmedDuplicate();
+                }
+            } else if (!saved) {
+                eventDedupFilter.recordConstraintDuplicate();
+            }
+        }
+    }
+
+    /**
+     * Insert one event. Returns null when the event id already exists.
+     */
+    private Event persistEvent(Event event) {
+        long insertStart = System.nanoTime();
+        List<Event> saved = eventBulkWriter.insertIgnoringDuplicates(List.of(event), 1);
+        pipelineMetrics.record(PipelineMetrics.Stage.DB_INSERT, insertStart);
+        if (saved.isEmpty()) {
+            logger.warn("Duplicate event rejected by unique index, skipping: eventId={}",
+                    event.getEventId());
+            eventDedupFilter.recordConstraintDuplicate();
+            return null;
         }
+        return event;
     }
 }
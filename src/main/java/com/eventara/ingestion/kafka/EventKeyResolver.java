@@ -0,0 +1,113 @@
+package com.eventara.ingestion.kafka;
+
+import com.eventara.ingestion.config.IngestionProperties;
+import com.eventara.ingestion.config.IngestionProperties.Partitioning.Strategy;
+import com.eventara.ingestion.model.entity.Event;
+import com.eventara.ingestion.passthrough.RawEvent;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Chooses the Kafka record key for an event, and with it the partition
+ * (the default partitioner hashes the key with murmur2).
+ *
+ * Keying by source (the default) sends every event of a source to the same
+ * partition, so its events are consumed in order by one consumer thread, which
+ * then sees all of that source's traffic and can aggregate it locally.
+ * EVENT_TYPE and TAG do the same for other dimensions; COMPOSITE joins several
+ * dimensions into one key. EVENT_ID spreads events evenly with no locality.
+ *
+ * A single very busy key lands on a single partition; use COMPOSITE (e.g.
+ * source + eventType) to split a dominant source.
+ */
+@Component
+public class EventKeyResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventKeyResolver.class);
+
+    private static final char SEPARATOR = '|';
+
+    @Autowired
+    private IngestionProperties ingestionProperties;
+
+    @PostConstruct
+    public void init() {
+        IngestionProperties.Partitioning config = ingestionProperties.getPartitioning();
+        if (usesTag() && (config.getTag() == null || config.getTag().isBlank())) {
+            throw new IllegalStateException(
+                    "eventara.ingestion.partitioning.tag is required when partitioning by tag");
+        }
+        logger.info("Kafka records keyed by {}{}", config.getStrategy(),
+                config.getStrategy() == Strategy.COMPOSITE ? " " + config.getComposite() : "");
+    }
+
+    public String keyFor(Event event) {
+        String tagValue = null;
+        String tag = partitionTag();
+        if (tag != null && event.getTags() != null) {
+            tagValue = event.getTags().get(tag);
+        }
+        return key(event.getEventId(), event.getSource(), event.getEventType(), tagValue);
+    }
+
+    public String keyFor(RawEvent event) {
+        return key(event.getEventId(), event.getSource(), event.getEventType(), event.getPartitionTagValue());
+    }
+
+    /**
+     * Name of the tag that takes part in the key, or null when tags are not used.
+     */
+    public String partitionTag() {
+        return usesTag() ? ingestionProperties.getPartitioning().getTag() : null;
+    }
+
+    private String key(String eventId, String source, String eventType, String tagValue) {
+        IngestionProperties.Partitioning config = ingestionProperties.getPartitioning();
+        switch (config.getStrategy()) {
+            case SOURCE:
+                return source != null ? source : eventId;
+            case EVENT_TYPE:
+                return eventType != null ? eventType : eventId;
+            case TAG:
+                // Events without the tag keep an even spread
+                return tagValue != null ? tagValue : eventId;
+            case COMPOSITE:
+                return compositeKey(config.getComposite(), eventId, source, eventType, tagValue);
+            case EVENT_ID:
+            default:
+                return eventId;
+        }
+    }
+
+    private static String compositeKey(List<Strategy> parts, String eventId, String source,
+                                       String eventType, String tagValue) {
+        StringBuilder key = new StringBuilder(64);
+        for (Strategy part : parts) {
+            if (key.length() > 0) {
+                key.append(SEPARATOR);
+            }
+            String value = switch (part) {
+                case SOURCE -> source;
+                case EVENT_TYPE -> eventType;
+                case TAG -> tagValue;
+                case EVENT_ID -> eventId;
+                case COMPOSITE -> null;
+            };
+            if (value != null) {
+                key.append(value);
+            }
+        }
+        return key.length() > 0 ? key.toString() : eventId;
+    }
+
+    private boolean usesTag() {
+        IngestionProperties.Partitioning config = ingestionProperties.getPartitioning();
+        return config.getStrategy() == Strategy.TAG
+                || (config.getStrategy() == Strategy.COMPOSITE && config.getComposite().contains(Strategy.TAG));
+    }
+}
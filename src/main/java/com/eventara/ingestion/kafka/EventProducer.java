@@ -1,12 +1,21 @@
 package com.eventara.ingestion.kafka;
+import com.eventara.instrumentation.PipelineMetrics;
+import com.eventara.ingestion.model.AckLevel;
 import com.eventara.ingestion.model.entity.Event;
+import com.eventara.ingestion.passthrough.RawEvent;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
 import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 @Service
@@ -16,9 +25,29 @@ public class EventProducer {
     @Autowired
     private KafkaTemplate<String, Object> kafkaTemplate;
 
+    @Autowired
+    @Qualifier("leaderAckKafkaTemplate")
+    private KafkaTemplate<String, Object> leaderAckKafkaTemplate;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Autowired
+    private EventKeyResolver eventKeyResolver;
+
+    @Autowired
+    @Qualifier("rawKafkaTemplate")
+    private KafkaTemplate<String, byte[]> rawKafkaTemplate;
+
+    // Consumers bind by the JsonSerializer type header, so raw payloads carry it too
+    private static final byte[] EVENT_TYPE_ID = Event.class.getName().getBytes(StandardCharsets.UTF_8);
+
     @Value("${eventara.kafka.topics.events-raw}")
     private String topicName;
 
+    @Value("${eventara.kafka.topics.events-persisted}")
+    private String persistedTopicName;
+
 
     /**
      * Send event to Kafka asynchronously
@@ -28,16 +57,31 @@ public class EventProducer {
      */
 
     public CompletableFuture<SendResult<String, Object>> sendEvent(Event event){
-        logger.info("Sending event to Kafka topic '{}': eventId={}, eventType={}",
-                topicName, event.getEventId(), event.getEventType());
+        return sendEvent(event, AckLevel.NONE);
+    }
 
-        // Sending to Kafka with eventId as key (for partitioning)
-        CompletableFuture<SendResult<String, Object>> future = kafkaTemplate
-                .send(topicName, event.getEventId(), event);
+    /**
+     * Send event to Kafka asynchronously using the producer for the given ack level.
+     * The returned future completes when the broker has acknowledged the record
+     * with that level (NONE and ALL share the acks=all producer).
+     */
+    public CompletableFuture<SendResult<String, Object>> sendEvent(Event event, AckLevel ackLevel){
+        logger.info("Sending event to Kafka topic '{}': eventId={}, eventType={}, ack={}",
+                topicName, event.getEventId(), event.getEventType(), ackLevel);
+
+        // The record key (source by default) decides the partition, see EventKeyResolver
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, Object>> future;
+        try {
+            future = templateFor(ackLevel).send(topicName, eventKeyResolver.keyFor(event), event);
+        } catch (Exception e) {
+            future = CompletableFuture.failedFuture(e);
+        }
 
         //callback for success or failure
         future.whenComplete((result, ex) -> {
-            if(ex != null){
+            pipelineMetrics.recordKafkaSend(producerName(ackLevel), start, ex);
+            if(ex == null){
                 logger.info("Successfully sent event to Kafka: eventId={}, partition={}, offset={}",
                         event.getEventId(),
                         result.getRecordMetadata().partition(),
@@ -52,6 +96,118 @@ public class EventProducer {
     }
 
 
+    /**
+     * Send a batch of events to Kafka asynchronously.
+     * All records are handed to the producer before any result is awaited,
+     * so they are pipelined into the same producer batches (linger.ms / batch.size).
+     *
+     * @param events The events to send
+     * @return One future per event, in the same order
+     */
+    public List<CompletableFuture<SendResult<String, Object>>> sendEvents(List<Event> events){
+        return sendEvents(events, AckLevel.NONE);
+    }
+
+    public List<CompletableFuture<SendResult<String, Object>>> sendEvents(List<Event> events, AckLevel ackLevel){
+        logger.info("Sending batch of {} events to Kafka topic '{}', ack={}", events.size(), topicName, ackLevel);
+
+        KafkaTemplate<String, Object> template = templateFor(ackLevel);
+        String producer = producerName(ackLevel);
+
+        List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>(events.size());
+        for (Event event : events) {
+            long start = System.nanoTime();
+            CompletableFuture<SendResult<String, Object>> future;
+            try {
+                future = template.send(topicName, eventKeyResolver.keyFor(event), event);
+            } catch (Exception e) {
+                // e.g. serialization failure or producer buffer exhausted (max.block.ms)
+                future = CompletableFuture.failedFuture(e);
+            }
+
+            future.whenComplete((result, ex) -> {
+                pipelineMetrics.recordKafkaSend(producer, start, ex);
+                if (ex != null) {
+                    logger.error("Failed to send event to Kafka: eventId={}, error={}",
+                            event.getEventId(), ex.getMessage(), ex);
+                }
+            });
+            futures.add(future);
+        }
+
+        return futures;
+    }
+
+
+    /**
+     * Publish events the consumer has just inserted, for the Kafka Streams
+     * bucket aggregation. Keyed by source, so each source's buckets are
+     * aggregated in one place.
+     *
+     * @return One future per event, in the same order
+     */
+    public List<CompletableFuture<SendResult<String, Object>>> sendPersistedEvents(List<Event> events){
+        List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>(events.size());
+        for (Event event : events) {
+            long start = System.nanoTime();
+            String key = event.getSource() != null ? event.getSource() : event.getEventId();
+            CompletableFuture<SendResult<String, Object>> future;
+            try {
+                future = kafkaTemplate.send(persistedTopicName, key, event);
+            } catch (Exception e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+
+            future.whenComplete((result, ex) -> {
+                pipelineMetrics.recordKafkaSend("persisted", start, ex);
+                if (ex != null) {
+                    logger.error("Failed to publish persisted event, its record will be retried: eventId={}, error={}",
+                            event.getEventId(), ex.getMessage(), ex);
+                }
+            });
+            futures.add(future);
+        }
+        return futures;
+    }
+
+
+    /**
+     * Send a passthrough payload (already JSON) without re-serializing it.
+     * Always produced with acks=all, which also satisfies leader-ack requests.
+     */
+    public CompletableFuture<SendResult<String, byte[]>> sendRawEvent(RawEvent event){
+        logger.debug("Sending raw event to Kafka topic '{}': eventId={}", topicName, event.getEventId());
+
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topicName, eventKeyResolver.keyFor(event), event.getPayload());
+        record.headers().add(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, EVENT_TYPE_ID);
+
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, byte[]>> future;
+        try {
+            future = rawKafkaTemplate.send(record);
+        } catch (Exception e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        future.whenComplete((result, ex) -> {
+            pipelineMetrics.recordKafkaSend("raw", start, ex);
+            if (ex != null) {
+                logger.error("Failed to send raw event to Kafka: eventId={}, error={}",
+                        event.getEventId(), ex.getMessage(), ex);
+            }
+        });
+        return future;
+    }
+
+    private KafkaTemplate<String, Object> templateFor(AckLevel ackLevel){
+        return ackLevel == AckLevel.LEADER ? leaderAckKafkaTemplate : kafkaTemplate;
+    }
+
+    private String producerName(AckLevel ackLevel){
+        return ackLevel == AckLevel.LEADER ? "leader-ack" : "default";
+    }
+
+
     /**
      * Send event synchronously (blocks until sent)
      * Use when required to ensure message was sent before continuing
@@ -61,7 +217,7 @@ public class EventProducer {
             logger.info("Sending event synchronously to Kafka: eventId={}", event.getEventId());
 
             SendResult<String, Object> result = kafkaTemplate
-                    .send(topicName, event.getEventId(), event)
+                    .send(topicName, eventKeyResolver.keyFor(event), event)
                     .get(); // This blocks!
 
             logger.info("Event sent successfully: partition={}, offset={}",
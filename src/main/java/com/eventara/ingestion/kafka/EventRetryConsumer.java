@@ -0,0 +1,95 @@
+package com.eventara.ingestion.kafka;
+
+import com.eventara.ingestion.config.IngestionProperties;
+import com.eventara.ingestion.model.entity.Event;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consumes the retry topics of the raw events pipeline.
+ *
+ * Each retry topic gets its own listener container, so waiting for the delay
+ * of one stage never holds back another. A record that is not due yet is
+ * nacked with the remaining delay: the container seeks back to it and pauses
+ * the partition, without blocking the consumer thread or triggering a
+ * rebalance. A record that fails again is moved on by the shared error
+ * handler (next retry topic, then the DLQ).
+ */
+@Service
+public class EventRetryConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventRetryConsumer.class);
+
+    @Value("${spring.kafka.consumer.group-id}")
+    private String groupId;
+
+    @Autowired
+    private ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory;
+
+    @Autowired
+    private EventConsumer eventConsumer;
+
+    @Autowired
+    private RetryTopics retryTopics;
+
+    @Autowired
+    private IngestionProperties ingestionProperties;
+
+    private final List<ConcurrentMessageListenerContainer<String, Object>> containers = new ArrayList<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!ingestionProperties.getRetry().isEnabled()) {
+            return;
+        }
+
+        for (String topic : retryTopics.retryTopicNames()) {
+            ConcurrentMessageListenerContainer<String, Object> container =
+                    kafkaListenerContainerFactory.createContainer(topic);
+            container.getContainerProperties().setGroupId(groupId);
+            container.getContainerProperties().setMessageListener(
+                    (AcknowledgingMessageListener<String, Object>) this::onRetryRecord);
+            container.setConcurrency(1);
+            container.setBeanName("eventRetry-" + topic);
+            container.start();
+            containers.add(container);
+        }
+
+        logger.info("Retry consumers started for topics {}", List.of(retryTopics.retryTopicNames()));
+    }
+
+    private void onRetryRecord(ConsumerRecord<String, Object> record, Acknowledgment acknowledgment) {
+        long wait = RetryTopics.notBefore(record) - System.currentTimeMillis();
+        if (wait > 0) {
+            acknowledgment.nack(Duration.ofMillis(wait));
+            return;
+        }
+
+        Event event = (Event) record.value();
+        logger.info("Retrying event: eventId={}, attempt={}, topic={}",
+                event.getEventId(), RetryTopics.attempt(record), record.topic());
+
+        eventConsumer.processEvent(event);
+        acknowledgment.acknowledge();
+    }
+
+    @PreDestroy
+    public void stop() {
+        containers.forEach(ConcurrentMessageListenerContainer::stop);
+    }
+}
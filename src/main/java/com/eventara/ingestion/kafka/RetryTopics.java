@@ -0,0 +1,138 @@
+package com.eventara.ingestion.kafka;
+
+import com.eventara.ingestion.config.IngestionProperties;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routing for the staged retry pipeline of the raw events topic.
+ *
+ * A record that fails on the main topic goes to {topic}.retry.1, then
+ * {topic}.retry.2 and so on (one topic per configured delay), and finally to
+ * {topic}.dlq. Each hop carries headers with the attempt number, the time
+ * before which it must not be retried, and the failure reason. Payloads that
+ * cannot be deserialized go straight to the DLQ, since retrying cannot help.
+ */
+@Component
+public class RetryTopics {
+
+    public static final String ATTEMPT_HEADER = "eventara-retry-attempt";
+    public static final String NOT_BEFORE_HEADER = "eventara-retry-not-before";
+    public static final String REASON_HEADER = "eventara-failure-reason";
+    public static final String EXCEPTION_HEADER = "eventara-failure-exception";
+
+    private static final int MAX_REASON_LENGTH = 500;
+
+    @Value("${eventara.kafka.topics.events-raw}")
+    private String rawEventsTopic;
+
+    @Autowired
+    private IngestionProperties ingestionProperties;
+
+    public String retryTopic(int attempt) {
+        return rawEventsTopic + ".retry." + attempt;
+    }
+
+    public String dlqTopic() {
+        return rawEventsTopic + ".dlq";
+    }
+
+    public String[] retryTopicNames() {
+        List<Long> delays = ingestionProperties.getRetry().getDelaysMs();
+        String[] topics = new String[delays.size()];
+        for (int i = 0; i < topics.length; i++) {
+            topics[i] = retryTopic(i + 1);
+        }
+        return topics;
+    }
+
+    public List<String> allTopicNames() {
+        List<String> topics = new ArrayList<>(List.of(retryTopicNames()));
+        topics.add(dlqTopic());
+        return topics;
+    }
+
+    public long delayMs(int attempt) {
+        return ingestionProperties.getRetry().getDelaysMs().get(attempt - 1);
+    }
+
+    /**
+     * Where a failed record goes next. Partition -1 lets the producer pick it from the key.
+     */
+    public TopicPartition destinationFor(ConsumerRecord<?, ?> record, Exception ex) {
+        int next = nextAttempt(record, ex);
+        return new TopicPartition(next > 0 ? retryTopic(next) : dlqTopic(), -1);
+    }
+
+    /**
+     * Headers added to the forwarded record (on top of the kafka_dlt-* headers).
+     */
+    public Headers headersFor(ConsumerRecord<?, ?> record, Exception ex) {
+        int next = nextAttempt(record, ex);
+        Throwable cause = rootCause(ex);
+        String reason = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        if (reason.length() > MAX_REASON_LENGTH) {
+            reason = reason.substring(0, MAX_REASON_LENGTH);
+        }
+
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(ATTEMPT_HEADER, bytes(String.valueOf(Math.max(next, attempt(record)))));
+        if (next > 0) {
+            headers.add(NOT_BEFORE_HEADER, bytes(String.valueOf(System.currentTimeMillis() + delayMs(next))));
+        }
+        headers.add(REASON_HEADER, bytes(reason));
+        headers.add(EXCEPTION_HEADER, bytes(cause.getClass().getName()));
+        return headers;
+    }
+
+    /**
+     * Next retry attempt (1-based), or 0 when the record belongs in the DLQ.
+     */
+    private int nextAttempt(ConsumerRecord<?, ?> record, Exception ex) {
+        if (!ingestionProperties.getRetry().isEnabled() || isDeserializationFailure(record, ex)) {
+            return 0;
+        }
+        int next = attempt(record) + 1;
+        return next <= ingestionProperties.getRetry().getDelaysMs().size() ? next : 0;
+    }
+
+    // Retry attempts already made for this record (0 on the main topic)
+    public static int attempt(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(ATTEMPT_HEADER);
+        return header != null ? Integer.parseInt(new String(header.value(), StandardCharsets.UTF_8)) : 0;
+    }
+
+    public static long notBefore(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(NOT_BEFORE_HEADER);
+        return header != null ? Long.parseLong(new String(header.value(), StandardCharsets.UTF_8)) : 0L;
+    }
+
+    private static boolean isDeserializationFailure(ConsumerRecord<?, ?> record, Exception ex) {
+        return record.headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) != null
+                || rootCause(ex) instanceof DeserializationException;
+    }
+
+    private static Throwable rootCause(Throwable ex) {
+        Throwable cause = ex;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -2,12 +2,17 @@ package com.eventara.ingestion.mapper;
 import com.eventara.common.dto.EventDto;
 import com.eventara.common.dto.EventRequest;
 import com.eventara.common.dto.EventResponse;
+import com.eventara.ingestion.id.EventIdGenerator;
 import com.eventara.ingestion.model.entity.Event;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
 public class EventMapper {
 
+    @Autowired
+    private EventIdGenerator eventIdGenerator;
+
     //convert Event to  Dto ()
     public EventDto toDto(Event entity){
         EventDto eventDto = new EventDto();
@@ -31,6 +36,7 @@ public class EventMapper {
     //converting Request DTO to entity
     public Event toEntity(EventRequest request){
         Event entity = new Event();
+        entity.setEventId(eventIdGenerator.nextId());
 
         //mapping required field
         entity.setEventType(request.getEventType());
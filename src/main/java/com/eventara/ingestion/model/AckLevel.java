@@ -0,0 +1,39 @@
+package com.eventara.ingestion.model;
+
+import java.util.Locale;
+
+/**
+ * How long the HTTP response waits for Kafka before answering.
+ *
+ * NONE   - respond as soon as the event is queued to the producer (fire-and-forget)
+ * LEADER - respond once the partition leader has written the record (acks=1)
+ * ALL    - respond once all in-sync replicas have the record (acks=all)
+ */
+public enum AckLevel {
+    NONE, LEADER, ALL;
+
+    /**
+     * Lenient parser for header/config values.
+     * Accepts the enum names plus the Kafka-style aliases 0, 1 and -1.
+     */
+    public static AckLevel parse(String value) {
+        String normalized = value.trim().toUpperCase(Locale.ROOT);
+        switch (normalized) {
+            case "0":
+            case "FIRE-AND-FORGET":
+            case "FIRE_AND_FORGET":
+                return NONE;
+            case "1":
+                return LEADER;
+            case "-1":
+            case "DURABLE":
+                return ALL;
+            default:
+                return AckLevel.valueOf(normalized);
+        }
+    }
+
+    public boolean isDurable() {
+        return this != NONE;
+    }
+}
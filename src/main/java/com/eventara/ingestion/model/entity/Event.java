@@ -5,14 +5,16 @@ import org.hibernate.type.SqlTypes;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 @Entity
+// Hypertable on timestamp (V9): unique keys include it, hence (id, timestamp) and (event_id, timestamp)
 @Table(name = "events", indexes = {
-        @Index(name = "idx_event_type", columnList = "event-type"),
-        @Index(name = "idx_timestamp", columnList = "timestamp"),
-        @Index(name = "idx_user_id", columnList = "user_id"),
-        @Index(name = "idx_source", columnList = "source"),
+        @Index(name = "idx_events_timestamp_id", columnList = "timestamp DESC, id DESC"),
+        @Index(name = "idx_events_event_type_timestamp_id", columnList = "event_type, timestamp DESC, id DESC"),
+        @Index(name = "idx_events_source_timestamp_id", columnList = "source, timestamp DESC, id DESC"),
+        @Index(name = "idx_events_severity_timestamp_id", columnList = "severity, timestamp DESC, id DESC"),
+        @Index(name = "idx_events_user_id_timestamp_id", columnList = "user_id, timestamp DESC, id DESC"),
+        @Index(name = "idx_events_event_id_timestamp", columnList = "event_id, timestamp", unique = true),
 })
 public class Event {
 
@@ -20,7 +22,7 @@ public class Event {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
 
-    @Column(name = "event_id", unique = true, nullable = false, length = 50)
+    @Column(name = "event_id", nullable = false, length = 50)
     private String eventId;
 
     @Column(name = "event_type", nullable = false, length = 100)
@@ -59,8 +61,8 @@ public class Event {
         INFO, WARNING, ERROR, CRITICAL
     }
 
+    //eventId is assigned by EventMapper through the configured EventIdGenerator
     public Event() {
-        this.eventId = "evt_" + UUID.randomUUID().toString().substring(0, 8);
         this.receivedAt = Instant.now();
         this.severity = Severity.INFO;
     }
@@ -0,0 +1,11 @@
+package com.eventara.ingestion.passthrough;
+
+/**
+ * The raw payload cannot be forwarded as-is (malformed JSON or a field the consumer could not bind).
+ */
+public class InvalidRawEventException extends RuntimeException {
+
+    public InvalidRawEventException(String message) {
+        super(message);
+    }
+}
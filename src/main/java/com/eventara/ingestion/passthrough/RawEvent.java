@@ -0,0 +1,42 @@
+package com.eventara.ingestion.passthrough;
+
+/**
+ * A client payload prepared for passthrough: the original JSON bytes with the
+ * server-assigned fields spliced in, plus the few fields the ingest path needs.
+ */
+public class RawEvent {
+
+    private final byte[] payload;
+    private final String eventId;
+    private final String eventType;
+    private final String source;
+    private final String partitionTagValue; // value of the partitioning tag, if any
+
+    RawEvent(byte[] payload, String eventId, String eventType, String source, String partitionTagValue) {
+        this.payload = payload;
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.source = source;
+        this.partitionTagValue = partitionTagValue;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getPartitionTagValue() {
+        return partitionTagValue;
+    }
+}
@@ -0,0 +1,220 @@
+package com.eventara.ingestion.passthrough;
+
+import com.eventara.ingestion.id.EventIdGenerator;
+import com.eventara.ingestion.kafka.EventKeyResolver;
+import com.eventara.ingestion.model.entity.Event;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Validates a single-event JSON body with one streaming pass (no tree, no POJO)
+ * and splices the server-assigned fields in front of the closing brace.
+ *
+ * The checks mirror what EventRequest binding + EventMapper enforce, and what the
+ * consumer's JsonDeserializer needs to bind the payload as an {@link Event}:
+ * - eventType and source are required non-blank strings
+ * - timestamp, when present, is an ISO-8601 instant; when missing it is injected
+ * - severity is normalised (upper case, unknown values become INFO) and re-injected
+ * - tags must be an object of scalar values, metadata an object
+ * - eventId and receivedAt are always injected; client values are overridden
+ *
+ * Duplicate keys in the body are rejected, so the checks above always see the
+ * value the consumer binds. Injection relies on Jackson's default "last value
+ * wins" for the keys appended here.
+ */
+@Component
+public class RawEventScanner {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EventIdGenerator eventIdGenerator;
+
+    @Autowired
+    private EventKeyResolver eventKeyResolver;
+
+    public RawEvent scan(byte[] body) {
+        if (body == null || body.length == 0) {
+            throw new InvalidRawEventException("Request body is empty");
+        }
+
+        JsonFactory factory = objectMapper.getFactory();
+        String eventType = null;
+        String source = null;
+        boolean hasTimestamp = false;
+        boolean hasId = false;
+        String severity = null;
+        boolean hasFields = false;
+        String partitionTag = eventKeyResolver.partitionTag();
+        String partitionTagValue = null;
+        long closingBrace;
+
+        try (JsonParser parser = factory.createParser(body)) {
+            parser.enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new InvalidRawEventException("Event must be a JSON object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                hasFields = true;
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                switch (field) {
+                    case "eventType":
+                        eventType = requireText(parser, value, field);
+                        break;
+                    case "source":
+                        source = requireText(parser, value, field);
+                        break;
+                    case "timestamp":
+                        hasTimestamp = checkTimestamp(parser, value);
+                        break;
+                    case "severity":
+                        severity = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                        if (value != JsonToken.VALUE_STRING && value != JsonToken.VALUE_NULL) {
+                            throw new InvalidRawEventException("severity must be a string");
+                        }
+                        break;
+                    case "userId":
+                    case "sessionId":
+                        if (value.isStructStart()) {
+                            throw new InvalidRawEventException(field + " must be a string");
+                        }
+                        break;
+                    case "tags":
+                        partitionTagValue = checkTags(parser, value, partitionTag);
+                        break;
+                    case "metadata":
+                        if (value != JsonToken.START_OBJECT && value != JsonToken.VALUE_NULL) {
+                            throw new InvalidRawEventException("metadata must be an object");
+                        }
+                        parser.skipChildren();
+                        break;
+                    case "id":
+                        // database id: never taken from the client, reset below
+                        if (value != JsonToken.VALUE_NUMBER_INT && value != JsonToken.VALUE_NULL) {
+                            throw new InvalidRawEventException("id is reserved");
+                        }
+                        hasId = true;
+                        break;
+                    default:
+                        // eventId, receivedAt (overridden) and unknown fields (ignored by the consumer)
+                        parser.skipChildren();
+                }
+            }
+
+            if (parser.currentToken() != JsonToken.END_OBJECT) {
+                throw new InvalidRawEventException("Malformed JSON object");
+            }
+            closingBrace = parser.currentTokenLocation().getByteOffset();
+
+            if (parser.nextToken() != null) {
+                throw new InvalidRawEventException("Only a single JSON object is allowed");
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidRawEventException("Malformed JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new InvalidRawEventException("Unreadable request body: " + e.getMessage());
+        }
+
+        if (eventType == null) {
+            throw new InvalidRawEventException("eventType: eventType is required (e.g., 'payment.failed')");
+        }
+        if (source == null) {
+            throw new InvalidRawEventException("source: source is required (e.g:, 'payment-service')");
+        }
+
+        Instant now = Instant.now();
+        String eventId = eventIdGenerator.nextId();
+
+        StringBuilder injected = new StringBuilder(128);
+        injected.append(hasFields ? "," : "")
+                .append("\"eventId\":\"").append(eventId).append('"')
+                .append(",\"receivedAt\":\"").append(now).append('"')
+                .append(",\"severity\":\"").append(normalizeSeverity(severity)).append('"');
+        if (!hasTimestamp) {
+            injected.append(",\"timestamp\":\"").append(now).append('"');
+        }
+        if (hasId) {
+            injected.append(",\"id\":0");
+        }
+        injected.append('}');
+
+        byte[] suffix = injected.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] payload = new byte[(int) closingBrace + suffix.length];
+        System.arraycopy(body, 0, payload, 0, (int) closingBrace);
+        System.arraycopy(suffix, 0, payload, (int) closingBrace, suffix.length);
+
+        return new RawEvent(payload, eventId, eventType, source, partitionTagValue);
+    }
+
+    private String requireText(JsonParser parser, JsonToken value, String field) throws IOException {
+        if (value != JsonToken.VALUE_STRING || parser.getText().isBlank()) {
+            throw new InvalidRawEventException(field + " must be a non-blank string");
+        }
+        return parser.getText();
+    }
+
+    // null counts as missing (EventRequest defaults it to now)
+    private boolean checkTimestamp(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return false;
+        }
+        if (value != JsonToken.VALUE_STRING) {
+            throw new InvalidRawEventException("timestamp must be an ISO-8601 string (e.g., 2024-01-01T00:00:00Z)");
+        }
+        try {
+            Instant.parse(parser.getText());
+        } catch (DateTimeParseException e) {
+            throw new InvalidRawEventException("timestamp must be an ISO-8601 string (e.g., 2024-01-01T00:00:00Z)");
+        }
+        return true;
+    }
+
+    // Returns the value of the partitioning tag when present
+    private String checkTags(JsonParser parser, JsonToken value, String partitionTag) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value != JsonToken.START_OBJECT) {
+            throw new InvalidRawEventException("tags must be an object");
+        }
+        String partitionTagValue = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken tagValue = parser.nextToken();
+            if (tagValue.isStructStart()) {
+                throw new InvalidRawEventException("tags values must be strings");
+            }
+            if (name.equals(partitionTag) && tagValue != JsonToken.VALUE_NULL) {
+                partitionTagValue = parser.getText();
+            }
+        }
+        return partitionTagValue;
+    }
+
+    // Same rule as EventMapper.toEntity
+    private String normalizeSeverity(String severity) {
+        if (severity == null) {
+            return Event.Severity.INFO.name();
+        }
+        try {
+            return Event.Severity.valueOf(severity.toUpperCase(Locale.ROOT)).name();
+        } catch (IllegalArgumentException e) {
+            return Event.Severity.INFO.name();
+        }
+    }
+}
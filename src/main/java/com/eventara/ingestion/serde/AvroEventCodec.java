@@ -0,0 +1,180 @@
+package com.eventara.ingestion.serde;
+
+import com.eventara.ingestion.model.entity.Event;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Avro encoding of Event payloads.
+ *
+ * Wire format: a 0x0 magic byte, the writer schema version as a 4-byte big
+ * endian int, then the Avro binary record. JSON payloads start with '{' (or
+ * whitespace), so the first byte tells both encodings apart.
+ *
+ * Records are GenericRecords built from the registered schemas rather than
+ * generated classes: fields missing from the writer schema are skipped on
+ * encode and take their default on decode. Metadata is free-form, so it is
+ * carried as a JSON string.
+ */
+@Component
+public class AvroEventCodec {
+
+    public static final byte MAGIC_BYTE = 0x0;
+    private static final int HEADER_SIZE = 5;
+
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {};
+
+    @Autowired
+    private EventSchemaRegistry schemaRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Readers resolving one writer version against the latest schema, built once per version
+    private final Map<Integer, GenericDatumReader<GenericRecord>> readers = new ConcurrentHashMap<>();
+
+    public static boolean isAvro(byte[] data) {
+        return data != null && data.length >= HEADER_SIZE && data[0] == MAGIC_BYTE;
+    }
+
+    public byte[] encode(Event event) {
+        Schema schema = schemaRegistry.writerSchema();
+        GenericRecord record = new GenericData.Record(schema);
+        put(record, "eventId", event.getEventId());
+        put(record, "eventType", event.getEventType());
+        put(record, "timestamp", toMicros(event.getTimestamp()));
+        put(record, "source", event.getSource());
+        put(record, "userId", event.getUserId());
+        put(record, "sessionId", event.getSessionId());
+        if (schema.getField("severity") != null) {
+            Event.Severity severity = event.getSeverity() != null ? event.getSeverity() : Event.Severity.INFO;
+            record.put("severity", new GenericData.EnumSymbol(schema.getField("severity").schema(), severity.name()));
+        }
+        put(record, "tags", event.getTags() != null ? event.getTags() : Map.of());
+        put(record, "metadata", metadataJson(event.getMetadata()));
+        put(record, "receivedAt", toMicros(event.getReceivedAt()));
+
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            out.write(MAGIC_BYTE);
+            out.write(ByteBuffer.allocate(4).putInt(schemaRegistry.writerVersion()).array());
+            BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+            new GenericDatumWriter<GenericRecord>(schema).write(record, encoder);
+            encoder.flush();
+            return out.toByteArray();
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Failed to encode event " + event.getEventId() + " as Avro", e);
+        }
+    }
+
+    public Event decode(byte[] data) {
+        if (!isAvro(data)) {
+            throw new SerializationException("Payload is not Avro (missing magic byte)");
+        }
+        int version = ByteBuffer.wrap(data, 1, 4).getInt();
+
+        GenericRecord record;
+        try {
+            GenericDatumReader<GenericRecord> reader = readers.computeIfAbsent(version,
+                    v -> new GenericDatumReader<>(schemaRegistry.schema(v), schemaRegistry.readerSchema()));
+            BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(data, HEADER_SIZE, data.length - HEADER_SIZE, null);
+            record = reader.read(null, decoder);
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Failed to decode Avro event (schema v" + version + ")", e);
+        }
+
+        Event event = new Event();
+        event.setEventId(string(record, "eventId"));
+        event.setEventType(string(record, "eventType"));
+        event.setTimestamp(fromMicros(record, "timestamp"));
+        event.setSource(string(record, "source"));
+        event.setUserId(string(record, "userId"));
+        event.setSessionId(string(record, "sessionId"));
+        String severity = string(record, "severity");
+        if (severity != null) {
+            event.setSeverity(Event.Severity.valueOf(severity));
+        }
+        Object tags = field(record, "tags");
+        if (tags instanceof Map<?, ?> map) {
+            Map<String, String> values = new HashMap<>(map.size());
+            map.forEach((key, value) -> values.put(key.toString(), value != null ? value.toString() : null));
+            event.setTags(values);
+        }
+        event.setMetadata(metadata(string(record, "metadata")));
+        Instant receivedAt = fromMicros(record, "receivedAt");
+        if (receivedAt != null) {
+            event.setReceivedAt(receivedAt);
+        }
+        return event;
+    }
+
+    private static void put(GenericRecord record, String field, Object value) {
+        // Older writer versions may not have every field
+        if (record.getSchema().getField(field) != null) {
+            record.put(field, value);
+        }
+    }
+
+    private static Object field(GenericRecord record, String field) {
+        return record.getSchema().getField(field) != null ? record.get(field) : null;
+    }
+
+    // Avro strings and enum symbols come back as Utf8 / EnumSymbol
+    private static String string(GenericRecord record, String field) {
+        Object value = field(record, field);
+        return value != null ? value.toString() : null;
+    }
+
+    private static Long toMicros(Instant instant) {
+        return instant != null ? ChronoUnit.MICROS.between(Instant.EPOCH, instant) : null;
+    }
+
+    private static Instant fromMicros(GenericRecord record, String field) {
+        Object value = field(record, field);
+        return value instanceof Long micros ? Instant.EPOCH.plus(micros, ChronoUnit.MICROS) : null;
+    }
+
+    private String metadataJson(Map<String, Object> metadata) {
+        if (metadata == null || metadata.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            throw new SerializationException("Failed to serialize event metadata", e);
+        }
+    }
+
+    private Map<String, Object> metadata(String json) {
+        if (json == null) {
+            return new HashMap<>();
+        }
+        try {
+            return objectMapper.readValue(json, METADATA_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new SerializationException("Failed to read event metadata", e);
+        }
+    }
+}
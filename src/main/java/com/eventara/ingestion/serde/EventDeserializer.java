@@ -0,0 +1,58 @@
+package com.eventara.ingestion.serde;
+
+import com.eventara.ingestion.config.IngestionProperties;
+import com.eventara.ingestion.model.entity.Event;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+/**
+ * Value deserializer of the raw events consumers. Detects the encoding of
+ * each record from its first byte, so JSON and Avro records can be mixed on
+ * the topic while producers switch over. JSON is rejected once
+ * eventara.ingestion.serde.accept-json is false.
+ */
+public class EventDeserializer implements Deserializer<Object> {
+
+    private final AvroEventCodec codec;
+    private final IngestionProperties.Serde config;
+    private final JsonDeserializer<Event> jsonDeserializer;
+
+    public EventDeserializer(AvroEventCodec codec, IngestionProperties.Serde config) {
+        this.codec = codec;
+        this.config = config;
+        // Type comes from the __TypeId__ header, as with the class-configured JsonDeserializer
+        this.jsonDeserializer = new JsonDeserializer<>(Event.class).trustedPackages("*");
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        if (AvroEventCodec.isAvro(data)) {
+            return codec.decode(data);
+        }
+        checkJsonAccepted(topic);
+        return jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (AvroEventCodec.isAvro(data)) {
+            return codec.decode(data);
+        }
+        checkJsonAccepted(topic);
+        return jsonDeserializer.deserialize(topic, headers, data);
+    }
+
+    private void checkJsonAccepted(String topic) {
+        if (!config.isAcceptJson()) {
+            throw new SerializationException("JSON payload on " + topic
+                    + " while eventara.ingestion.serde.accept-json=false");
+        }
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
@@ -0,0 +1,153 @@
+package com.eventara.ingestion.serde;
+
+import com.eventara.ingestion.config.IngestionProperties;
+import jakarta.annotation.PostConstruct;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaCompatibility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * File-based registry of the Avro schemas of Event payloads.
+ *
+ * Each version is a file named event-v{N}.avsc, bundled under avro/ on the
+ * classpath or placed in eventara.ingestion.serde.schema-dir. Records carry
+ * the version they were written with, so readers can resolve any registered
+ * writer schema against the latest one.
+ *
+ * Evolution rules, checked at startup:
+ * - a version never changes once registered (same number, same schema)
+ * - the latest version can read every older one (backward, transitive)
+ * - each version can be read by the one before it (forward), so consumers
+ *   that are one version behind keep working during a rollout
+ * In practice: only add or remove fields that have a default.
+ */
+@Component
+public class EventSchemaRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventSchemaRegistry.class);
+
+    private static final Pattern FILE_NAME = Pattern.compile("event-v(\\d+)\\.avsc");
+
+    @Autowired
+    private IngestionProperties ingestionProperties;
+
+    private final TreeMap<Integer, Schema> schemas = new TreeMap<>();
+    private int writerVersion;
+
+    @PostConstruct
+    public void init() throws IOException {
+        // Passthrough ingestion publishes the request body as JSON bytes
+        if (ingestionProperties.getPassthrough().isEnabled() && !ingestionProperties.getSerde().isAcceptJson()) {
+            throw new IllegalStateException("eventara.ingestion.passthrough.enabled requires "
+                    + "eventara.ingestion.serde.accept-json=true");
+        }
+
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        load(resolver.getResources("classpath*:avro/event-v*.avsc"));
+        String schemaDir = ingestionProperties.getSerde().getSchemaDir();
+        if (schemaDir != null && !schemaDir.isBlank()) {
+            load(resolver.getResources("file:" + schemaDir + "/event-v*.avsc"));
+        }
+        if (schemas.isEmpty()) {
+            throw new IllegalStateException("No Avro schema found for Event payloads (avro/event-v{N}.avsc)");
+        }
+
+        checkCompatibility();
+
+        int configured = ingestionProperties.getSerde().getWriterSchemaVersion();
+        writerVersion = configured > 0 ? configured : schemas.lastKey();
+        if (!schemas.containsKey(writerVersion)) {
+            throw new IllegalStateException("Writer schema version " + writerVersion
+                    + " is not registered; known versions: " + schemas.keySet());
+        }
+
+        logger.info("Event schema registry: versions {}, writing v{}, reading with v{}",
+                schemas.keySet(), writerVersion, schemas.lastKey());
+    }
+
+    private void load(Resource[] resources) throws IOException {
+        for (Resource resource : resources) {
+            Matcher matcher = FILE_NAME.matcher(resource.getFilename() != null ? resource.getFilename() : "");
+            if (!matcher.matches()) {
+                continue;
+            }
+            int version = Integer.parseInt(matcher.group(1));
+            Schema schema;
+            try (InputStream in = resource.getInputStream()) {
+                schema = new Schema.Parser().parse(in);
+            }
+
+            Schema existing = schemas.putIfAbsent(version, schema);
+            if (existing != null && !existing.equals(schema)) {
+                throw new IllegalStateException("Event schema v" + version + " is registered twice with different "
+                        + "definitions (" + resource.getDescription() + "); registered versions are immutable");
+            }
+        }
+    }
+
+    private void checkCompatibility() {
+        Schema latest = schemas.lastEntry().getValue();
+        List<String> violations = new ArrayList<>();
+
+        Integer previousVersion = null;
+        for (Map.Entry<Integer, Schema> entry : schemas.entrySet()) {
+            if (!compatible(latest, entry.getValue())) {
+                violations.add("v" + schemas.lastKey() + " cannot read v" + entry.getKey());
+            }
+            if (previousVersion != null && !compatible(schemas.get(previousVersion), entry.getValue())) {
+                violations.add("v" + previousVersion + " cannot read v" + entry.getKey());
+            }
+            previousVersion = entry.getKey();
+        }
+
+        if (!violations.isEmpty()) {
+            throw new IllegalStateException("Incompatible Event schema versions: " + violations);
+        }
+    }
+
+    private static boolean compatible(Schema reader, Schema writer) {
+        return SchemaCompatibility.checkReaderWriterCompatibility(reader, writer).getType()
+                == SchemaCompatibility.SchemaCompatibilityType.COMPATIBLE;
+    }
+
+    public int writerVersion() {
+        return writerVersion;
+    }
+
+    public Schema writerSchema() {
+        return schemas.get(writerVersion);
+    }
+
+    /**
+     * Schema records are decoded into: the latest registered version.
+     */
+    public Schema readerSchema() {
+        return schemas.lastEntry().getValue();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the version is not registered
+     */
+    public Schema schema(int version) {
+        Schema schema = schemas.get(version);
+        if (schema == null) {
+            throw new IllegalArgumentException("Unknown Event schema version " + version
+                    + "; known versions: " + schemas.keySet());
+        }
+        return schema;
+    }
+}
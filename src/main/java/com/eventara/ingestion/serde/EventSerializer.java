@@ -0,0 +1,45 @@
+package com.eventara.ingestion.serde;
+
+import com.eventara.ingestion.config.IngestionProperties;
+import com.eventara.ingestion.model.entity.Event;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+/**
+ * Value serializer of the JSON producers. Writes Events as Avro when
+ * eventara.ingestion.serde.format=avro; everything else (and every value in
+ * json mode) goes through JsonSerializer as before.
+ */
+public class EventSerializer implements Serializer<Object> {
+
+    private final AvroEventCodec codec;
+    private final IngestionProperties.Serde config;
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+
+    public EventSerializer(AvroEventCodec codec, IngestionProperties.Serde config) {
+        this.codec = codec;
+        this.config = config;
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data instanceof Event event && config.getFormat() == IngestionProperties.Serde.Format.AVRO) {
+            return codec.encode(event);
+        }
+        return jsonSerializer.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data instanceof Event event && config.getFormat() == IngestionProperties.Serde.Format.AVRO) {
+            return codec.encode(event);
+        }
+        return jsonSerializer.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+}
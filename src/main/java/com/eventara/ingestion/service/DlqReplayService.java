@@ -0,0 +1,166 @@
+package com.eventara.ingestion.service;
+
+import com.eventara.common.dto.DlqReplayResponse;
+import com.eventara.ingestion.config.IngestionProperties;
+import com.eventara.ingestion.kafka.RetryTopics;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Re-injects dead-lettered records into the raw events topic, e.g. after the
+ * bug or outage that caused them has been fixed.
+ *
+ * Records are copied byte-for-byte (the original __TypeId__ header is kept),
+ * without the retry and kafka_dlt-* headers, so they start the pipeline again
+ * from attempt 0. Progress is tracked with a dedicated consumer group: each
+ * DLQ record is replayed once, and offsets are only committed after the
+ * replayed records were acknowledged by Kafka.
+ */
+@Service
+public class DlqReplayService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DlqReplayService.class);
+
+    private static final long SEND_TIMEOUT_SECONDS = 30;
+
+    @Value("${eventara.kafka.topics.events-raw}")
+    private String rawEventsTopic;
+
+    @Value("${spring.kafka.consumer.group-id}")
+    private String groupId;
+
+    @Autowired
+    private ConsumerFactory<String, Object> consumerFactory;
+
+    @Autowired
+    @Qualifier("rawKafkaTemplate")
+    private KafkaTemplate<String, byte[]> rawKafkaTemplate;
+
+    @Autowired
+    private RetryTopics retryTopics;
+
+    @Autowired
+    private IngestionProperties ingestionProperties;
+
+    public synchronized DlqReplayResponse replay(int maxRecords)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        int limit = Math.max(1, Math.min(maxRecords, ingestionProperties.getRetry().getReplayMaxRecords()));
+        String dlqTopic = retryTopics.dlqTopic();
+
+        DlqReplayResponse response = new DlqReplayResponse();
+        response.setDlqTopic(dlqTopic);
+        response.setTargetTopic(rawEventsTopic);
+
+        try (Consumer<String, byte[]> consumer = new KafkaConsumer<>(replayConsumerConfig(limit))) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            consumer.partitionsFor(dlqTopic).forEach(info -> partitions.add(new TopicPartition(dlqTopic, info.partition())));
+            consumer.assign(partitions);
+
+            long replayed = 0;
+            while (replayed < limit) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofSeconds(1));
+                if (records.isEmpty()) {
+                    break;
+                }
+
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                List<CompletableFuture<?>> sends = new ArrayList<>(records.count());
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    if (replayed >= limit) {
+                        break;
+                    }
+                    sends.add(rawKafkaTemplate.send(toReplayRecord(record)));
+                    offsets.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                    response.getReplayedByException().merge(failureException(record), 1L, Long::sum);
+                    replayed++;
+                }
+
+                CompletableFuture.allOf(sends.toArray(new CompletableFuture[0]))
+                        .get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                consumer.commitSync(offsets);
+            }
+
+            response.setReplayed(replayed);
+            response.setRemaining(remaining(consumer, partitions));
+        }
+
+        logger.info("Replayed {} records from {} to {}, {} remaining",
+                response.getReplayed(), dlqTopic, rawEventsTopic, response.getRemaining());
+        return response;
+    }
+
+    private Map<String, Object> replayConsumerConfig(int limit) {
+        Map<String, Object> config = new HashMap<>(consumerFactory.getConfigurationProperties());
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId + "-dlq-replay");
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        config.remove(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Math.min(limit, 500));
+        return config;
+    }
+
+    private ProducerRecord<String, byte[]> toReplayRecord(ConsumerRecord<String, byte[]> record) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith("kafka_dlt-") && !header.key().startsWith("eventara-")) {
+                headers.add(header);
+            }
+        }
+        return new ProducerRecord<>(rawEventsTopic, null, record.key(), record.value(), headers);
+    }
+
+    private static String failureException(ConsumerRecord<String, byte[]> record) {
+        Header header = record.headers().lastHeader(RetryTopics.EXCEPTION_HEADER);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : "unknown";
+    }
+
+    private static long remaining(Consumer<String, byte[]> consumer, List<TopicPartition> partitions) {
+        Set<TopicPartition> partitionSet = new HashSet<>(partitions);
+        Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitionSet);
+        Map<TopicPartition, Long> beginningOffsets = consumer.beginningOffsets(partitionSet);
+        Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(partitionSet);
+
+        long remaining = 0;
+        for (TopicPartition partition : partitions) {
+            OffsetAndMetadata offset = committed.get(partition);
+            long position = offset != null ? offset.offset() : beginningOffsets.getOrDefault(partition, 0L);
+            remaining += Math.max(0, endOffsets.getOrDefault(partition, 0L) - position);
+        }
+        return remaining;
+    }
+}
@@ -0,0 +1,204 @@
+package com.eventara.ingestion.service;
+
+import com.eventara.common.repository.EventBrowseRepository;
+import com.eventara.ingestion.config.IngestionProperties;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams events matching a filter into an output stream as NDJSON or CSV.
+ *
+ * Rows go from the database cursor straight to the (optionally gzipped)
+ * stream, one at a time, so memory use does not depend on the result size.
+ * Tags and metadata are copied as the JSON text stored in the database.
+ */
+@Service
+public class EventExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventExportService.class);
+
+    private static final String[] CSV_COLUMNS = {"event_id", "event_type", "timestamp", "source", "user_id",
+            "session_id", "severity", "tags", "metadata", "received_at"};
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * @throws IllegalArgumentException for an unknown format
+         */
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown export format: " + value + " (ndjson or csv)");
+            }
+        }
+    }
+
+    @Autowired
+    private EventBrowseRepository eventBrowseRepository;
+
+    @Autowired
+    private IngestionProperties ingestionProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Write every matching event to out, newest first.
+     *
+     * @return the number of events written
+     * @throws com.eventara.common.exception.QueryRejectedException before
+     *         anything is written, for a tag/metadata filter that would scan
+     */
+    public long export(EventBrowseRepository.Filter filter, Format format, boolean gzip, OutputStream out)
+            throws IOException {
+        eventBrowseRepository.checkExport(filter);
+        long start = System.currentTimeMillis();
+        long[] rows = new long[1];
+
+        OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+        try {
+            if (format == Format.NDJSON) {
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(target)) {
+                    generator.setRootValueSeparator(new SerializedString("\n"));
+                    stream(filter, rs -> {
+                        writeJson(generator, rs);
+                        rows[0]++;
+                    });
+                    if (rows[0] > 0) {
+                        generator.writeRaw('\n');
+                    }
+                }
+            } else {
+                try (Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024)) {
+                    writer.write(String.join(",", CSV_COLUMNS));
+                    writer.write('\n');
+                    stream(filter, rs -> {
+                        writeCsv(writer, rs);
+                        rows[0]++;
+                    });
+                }
+            }
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the cursor has been closed with the transaction
+            throw e.getCause();
+        }
+
+        logger.info("Exported {} events as {}{} in {} ms", rows[0], format, gzip ? " (gzip)" : "",
+                System.currentTimeMillis() - start);
+        return rows[0];
+    }
+
+    private void stream(EventBrowseRepository.Filter filter, RowWriter writer) {
+        eventBrowseRepository.stream(filter, ingestionProperties.getExport().getFetchSize(), rs -> {
+            try {
+                writer.write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void writeJson(JsonGenerator generator, ResultSet rs) throws IOException, SQLException {
+        generator.writeStartObject();
+        generator.writeStringField("eventId", rs.getString("event_id"));
+        generator.writeStringField("eventType", rs.getString("event_type"));
+        generator.writeStringField("timestamp", iso(rs.getTimestamp("timestamp")));
+        generator.writeStringField("source", rs.getString("source"));
+        generator.writeStringField("userId", rs.getString("user_id"));
+        generator.writeStringField("sessionId", rs.getString("session_id"));
+        generator.writeStringField("severity", rs.getString("severity"));
+        writeRawJsonField(generator, "tags", rs.getString("tags"));
+        writeRawJsonField(generator, "metadata", rs.getString("metadata"));
+        generator.writeStringField("receivedAt", iso(rs.getTimestamp("received_at")));
+        generator.writeEndObject();
+    }
+
+    private static void writeRawJsonField(JsonGenerator generator, String name, String json) throws IOException {
+        generator.writeFieldName(name);
+        if (json == null) {
+            generator.writeNull();
+        } else {
+            generator.writeRawValue(json);
+        }
+    }
+
+    private static void writeCsv(Writer writer, ResultSet rs) throws IOException, SQLException {
+        writer.write(csv(rs.getString("event_id")));
+        writer.write(',');
+        writer.write(csv(rs.getString("event_type")));
+        writer.write(',');
+        writer.write(csv(iso(rs.getTimestamp("timestamp"))));
+        writer.write(',');
+        writer.write(csv(rs.getString("source")));
+        writer.write(',');
+        writer.write(csv(rs.getString("user_id")));
+        writer.write(',');
+        writer.write(csv(rs.getString("session_id")));
+        writer.write(',');
+        writer.write(csv(rs.getString("severity")));
+        writer.write(',');
+        writer.write(csv(rs.getString("tags")));
+        writer.write(',');
+        writer.write(csv(rs.getString("metadata")));
+        writer.write(',');
+        writer.write(csv(iso(rs.getTimestamp("received_at"))));
+        writer.write('\n');
+    }
+
+    // RFC 4180: quote fields with separators, quotes or line breaks; null is an empty field
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String iso(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant().toString() : null;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws IOException, SQLException;
+    }
+}
@@ -1,18 +1,45 @@
 package com.eventara.ingestion.service;
+import com.eventara.ingestion.admission.AdmissionService;
+import com.eventara.ingestion.config.IngestionProperties;
 import com.eventara.ingestion.kafka.EventProducer;
 import com.eventara.ingestion.mapper.EventMapper;
+import com.eventara.common.dto.BatchEventResponse;
 import com.eventara.common.dto.EventDto;
+import com.eventara.common.dto.EventField;
+import com.eventara.common.dto.EventPageResponse;
 import com.eventara.common.dto.EventRequest;
 import com.eventara.common.dto.EventResponse;
+import com.eventara.ingestion.model.AckLevel;
 import com.eventara.ingestion.model.entity.Event;
+import com.eventara.ingestion.passthrough.RawEvent;
+import com.eventara.common.repository.EventBrowseRepository;
 import com.eventara.common.repository.EventRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 
 @Component
@@ -26,9 +53,21 @@ public class EventService {
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private EventBrowseRepository eventBrowseRepository;
+
     @Autowired
     private EventProducer eventProducer;  // ← NEW: Kafka Producer
 
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private IngestionProperties ingestionProperties;
+
+    @Autowired
+    private AdmissionService admissionService;
+
     public EventResponse processEvent(EventRequest request){
         logger.info("Processing event: {}", request.getEventType());
 
@@ -55,32 +94,281 @@ public class EventService {
         return response;
     }
 
-    //Get paginated events
-    public Page<EventDto> getEvents(int page, int size){
+    /**
+     * Resolve the ack level for an event.
+     * An explicit per-request level wins, then the per-source override, then the default.
+     */
+    public AckLevel resolveAckLevel(AckLevel requested, String source){
+        if (requested != null) {
+            return requested;
+        }
+
+        IngestionProperties.Ack config = ingestionProperties.getAck();
+        if (source != null) {
+            AckLevel perSource = config.getPerSource().get(source);
+            if (perSource != null) {
+                return perSource;
+            }
+        }
+        return config.getDefaultLevel();
+    }
+
+    /**
+     * Process an event with the given ack level.
+     * NONE completes immediately (same as processEvent). Durable levels complete
+     * when Kafka acknowledges the record, without holding a thread while waiting;
+     * the future fails with a TimeoutException after eventara.ingestion.ack.timeout-ms.
+     */
+    public CompletableFuture<EventResponse> processEvent(EventRequest request, AckLevel ackLevel){
+        if (!ackLevel.isDurable()) {
+            return CompletableFuture.completedFuture(processEvent(request));
+        }
+
+        logger.info("Processing event: {} (ack={})", request.getEventType(), ackLevel);
+
+        Event entity = eventMapper.toEntity(request);
+
+        // Timeout is applied to the derived future so the producer's own future is left untouched
+        return eventProducer.sendEvent(entity, ackLevel)
+                .thenApply(result -> EventResponse.acknowledged(
+                        entity.getEventId(),
+                        entity.getEventType(),
+                        result.getRecordMetadata().partition(),
+                        result.getRecordMetadata().offset()))
+                .orTimeout(ingestionProperties.getAck().getTimeoutMs(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Process a passthrough event: the prepared payload is forwarded to Kafka as bytes.
+     * Completion follows the same ack-level rules as processEvent.
+     */
+    public CompletableFuture<EventResponse> processRawEvent(RawEvent event, AckLevel ackLevel){
+        CompletableFuture<SendResult<String, byte[]>> future = eventProducer.sendRawEvent(event);
+
+        if (!ackLevel.isDurable()) {
+            if (future.isCompletedExceptionally()) {
+                // propagate a synchronous send failure (buffer full, producer closed)
+                return future.thenApply(result -> null);
+            }
+            return CompletableFuture.completedFuture(EventResponse.accepted(event.getEventId(), event.getEventType()));
+        }
+
+        return future
+                .thenApply(result -> EventResponse.acknowledged(
+                        event.getEventId(),
+                        event.getEventType(),
+                        result.getRecordMetadata().partition(),
+                        result.getRecordMetadata().offset()))
+                .orTimeout(ingestionProperties.getAck().getTimeoutMs(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Process a batch of events.
+     * Every item is validated and admission-checked independently; admitted items are handed to Kafka
+     * as pipelined sends, grouped by ack level. The returned future completes
+     * once every durable item is acknowledged (or failed / timed out).
+     * The result list is index-aligned with the request.
+     */
+    public CompletableFuture<BatchEventResponse> processBatch(List<EventRequest> requests, AckLevel requestedAck){
+        logger.info("Processing batch of {} events", requests.size());
+
+        EventResponse[] results = new EventResponse[requests.size()];
+        Map<AckLevel, List<Integer>> indexesByLevel = new EnumMap<>(AckLevel.class);
+        Event[] entities = new Event[requests.size()];
+
+        List<Integer> validIndexes = new ArrayList<>(requests.size());
+        List<String> validSources = new ArrayList<>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            EventRequest request = requests.get(i);
+
+            String violation = validate(request);
+            if (violation != null) {
+                results[i] = EventResponse.failed(request != null ? request.getEventType() : null, violation);
+                continue;
+            }
+
+            validIndexes.add(i);
+            validSources.add(request.getSource());
+        }
+
+        // Admission control: over-quota items are rejected individually
+        AdmissionService.BatchAdmission admission = admissionService.admitEach(validSources);
+
+        for (int v = 0; v < validIndexes.size(); v++) {
+            int i = validIndexes.get(v);
+            EventRequest request = requests.get(i);
+
+            if (!admission.isAdmitted(v)) {
+                results[i] = EventResponse.failed(request.getEventType(),
+                        "Rate limit exceeded for source: " + request.getSource());
+                continue;
+            }
+
+            Event entity = eventMapper.toEntity(request);
+            results[i] = EventResponse.accepted(entity.getEventId(), entity.getEventType());
+            entities[i] = entity;
+            indexesByLevel.computeIfAbsent(resolveAckLevel(requestedAck, request.getSource()), l -> new ArrayList<>())
+                    .add(i);
+        }
+
+        long timeoutMs = ingestionProperties.getAck().getTimeoutMs();
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+
+        for (Map.Entry<AckLevel, List<Integer>> group : indexesByLevel.entrySet()) {
+            AckLevel ackLevel = group.getKey();
+            List<Integer> indexes = group.getValue();
+
+            List<Event> groupEntities = new ArrayList<>(indexes.size());
+            for (int index : indexes) {
+                groupEntities.add(entities[index]);
+            }
+
+            List<CompletableFuture<SendResult<String, Object>>> futures = eventProducer.sendEvents(groupEntities, ackLevel);
+
+            for (int j = 0; j < futures.size(); j++) {
+                CompletableFuture<SendResult<String, Object>> future = futures.get(j);
+                int index = indexes.get(j);
+                Event entity = entities[index];
+
+                // Sends that failed synchronously (buffer exhausted, serialization) are reported per item
+                if (future.isCompletedExceptionally()) {
+                    results[index] = EventResponse.failed(entity.getEventType(), "Failed to queue event to Kafka");
+                    continue;
+                }
+
+                if (ackLevel.isDurable()) {
+                    // copy() so the timeout does not complete the producer's own future
+                    pending.add(future.copy()
+                            .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                            .handle((result, ex) -> {
+                                results[index] = ex == null
+                                        ? EventResponse.acknowledged(entity.getEventId(), entity.getEventType(),
+                                                result.getRecordMetadata().partition(),
+                                                result.getRecordMetadata().offset())
+                                        : EventResponse.failed(entity.getEventType(), ackFailureMessage(ex));
+                                return null;
+                            }));
+                }
+            }
+        }
+
+        return CompletableFuture.allOf(pending.toArray(new CompletableFuture[0]))
+                .thenApply(done -> {
+                    BatchEventResponse response = new BatchEventResponse(Arrays.asList(results));
+                    if (admission.getSummary().getShed() > 0) {
+                        response.setRetryAfterSeconds(admission.getSummary().getRetryAfterSeconds());
+                    }
+                    logger.info("Batch sent to Kafka: accepted={}, rejected={}, awaited acks={}",
+                            response.getAccepted(), response.getRejected(), pending.size());
+                    return response;
+                });
+    }
+
+    /**
+     * Message reported when a durable send did not get its acknowledgement.
+     * A timeout does not mean the record was lost, only that the outcome is unknown.
+     */
+    public static String ackFailureMessage(Throwable ex){
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof TimeoutException) {
+            return "Timed out waiting for Kafka acknowledgement, delivery status unknown";
+        }
+        return "Failed to send event to Kafka: " + cause.getMessage();
+    }
+
+    //Validate a single batch item, returns null when valid
+    public String validate(EventRequest request){
+        if (request == null) {
+            return "Event must not be null";
+        }
+
+        Set<ConstraintViolation<EventRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    //Get paginated events, with only the given fields set
+    @Transactional(readOnly = true)
+    public Page<EventDto> getEvents(int page, int size, Set<EventField> fields){
         logger.info("Fetching events: page={}, size={}", page, size);
 
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Event> events = eventRepository.findAllByOrderByTimestampDesc(pageable);
+        return eventPage(new EventBrowseRepository.Filter(), page, size, fields);
+    }
+
+    /**
+     * Keyset-paginated browsing: events matching the filter, newest first,
+     * continuing after the cursor ("timestamp,id" of the last event of the
+     * previous page). One extra row is read to tell whether more follow.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public EventPageResponse browseEvents(EventBrowseRepository.Filter filter, String after,
+                                          int limit, boolean includeTotal, Set<EventField> fields) {
+        if (after != null && !after.isBlank()) {
+            parseCursor(after, filter);
+        }
+
+        List<EventBrowseRepository.Row> rows = eventBrowseRepository.find(filter, limit + 1, fields);
+        boolean hasMore = rows.size() > limit;
+        List<EventBrowseRepository.Row> page = hasMore ? rows.subList(0, limit) : rows;
 
-        return events.map(eventMapper::toDto);
+        EventPageResponse response = new EventPageResponse();
+        response.setEvents(page.stream().map(EventBrowseRepository.Row::getEvent).collect(Collectors.toList()));
+        response.setLimit(limit);
+        response.setHasMore(hasMore);
+        if (hasMore) {
+            EventBrowseRepository.Row last = page.get(page.size() - 1);
+            response.setNextCursor(last.getTimestamp() + "," + last.getId());
+        }
+        if (includeTotal) {
+            response.setTotal(eventBrowseRepository.count(filter));
+        }
+        return response;
+    }
+
+    private static void parseCursor(String cursor, EventBrowseRepository.Filter filter) {
+        int comma = cursor.lastIndexOf(',');
+        if (comma <= 0) {
+            throw new IllegalArgumentException("Invalid cursor, expected <timestamp>,<id>: " + cursor);
+        }
+        try {
+            filter.setAfterTimestamp(Instant.parse(cursor.substring(0, comma).trim()));
+            filter.setAfterId(Long.parseLong(cursor.substring(comma + 1).trim()));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor, expected <timestamp>,<id>: " + cursor);
+        }
     }
 
-    //Get paginated events by type
-    public Page<EventDto> getEventsByType(String eventType, int page, int size) {
+    //Get paginated events by type, with only the given fields set
+    @Transactional(readOnly = true)
+    public Page<EventDto> getEventsByType(String eventType, int page, int size, Set<EventField> fields) {
         logger.info("Fetching events by type: eventType={}, page={}, size={}",
                 eventType, page, size);
 
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Event> events = eventRepository.findByEventTypeOrderByTimestampDesc(
-                eventType, pageable
-        );
-
-        Page<EventDto> res = events.map(eventMapper::toDto);
+        EventBrowseRepository.Filter filter = new EventBrowseRepository.Filter();
+        filter.setEventType(eventType);
+        return eventPage(filter, page, size, fields);
+    }
 
-        return res;
+    // Like Spring Data pages: the total is only counted when the page does not reveal it
+    private Page<EventDto> eventPage(EventBrowseRepository.Filter filter, int page, int size, Set<EventField> fields) {
+        Pageable pageable = PageRequest.of(page, size);
+        List<EventDto> events = eventBrowseRepository.findPage(filter, pageable.getOffset(), size, fields).stream()
+                .map(EventBrowseRepository.Row::getEvent)
+                .collect(Collectors.toList());
+        return PageableExecutionUtils.getPage(events, pageable, () -> eventBrowseRepository.count(filter));
     }
 
     //Get single event by eventId
+    @Transactional(readOnly = true)
     public EventDto getEventById(String eventId) {
         logger.info("Fetching event by id: eventId={}", eventId);
 
@@ -0,0 +1,232 @@
+package com.eventara.ingestion.service;
+import com.eventara.common.dto.EventRequest;
+import com.eventara.common.dto.StreamIngestResponse;
+import com.eventara.ingestion.admission.AdmissionService;
+import com.eventara.ingestion.config.IngestionProperties;
+import com.eventara.ingestion.kafka.EventProducer;
+import com.eventara.ingestion.mapper.EventMapper;
+import com.eventara.ingestion.model.entity.Event;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingests newline-delimited JSON (NDJSON) event streams.
+ *
+ * The body is parsed incrementally with Jackson's streaming parser and
+ * records are produced to Kafka as they arrive, in small pipelined chunks.
+ * A per-request semaphore caps the number of unacknowledged records: when
+ * the producer falls behind, the reader blocks, which in turn applies TCP
+ * backpressure to the client instead of buffering the body on the heap.
+ *
+ * Records still unacknowledged after drain-timeout-ms are reported as
+ * pending: the response is final once returned, and acknowledgements that
+ * arrive later no longer touch it.
+ */
+@Service
+public class StreamIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamIngestionService.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EventMapper eventMapper;
+
+    @Autowired
+    private EventProducer eventProducer;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private IngestionProperties ingestionProperties;
+
+    @Autowired
+    private AdmissionService admissionService;
+
+    public StreamIngestResponse ingest(InputStream body) throws IOException, InterruptedException {
+        IngestionProperties.Stream config = ingestionProperties.getStream();
+        int maxInFlight = Math.max(1, config.getMaxInFlight());
+        int chunkSize = Math.max(1, Math.min(config.getChunkSize(), maxInFlight));
+
+        StreamIngestResponse response = new StreamIngestResponse();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Acks acks = new Acks();
+        long records = 0;
+        long rejected = 0;
+        long sent = 0;
+
+        List<Event> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkRecords = new ArrayList<>(chunkSize);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body);
+             MappingIterator<EventRequest> iterator = objectMapper.readerFor(EventRequest.class).readValues(parser)) {
+
+            while (true) {
+                EventRequest request;
+                try {
+                    if (!iterator.hasNextValue()) {
+                        break;
+                    }
+                    records++;
+                    request = iterator.nextValue();
+                } catch (JsonParseException e) {
+                    // Malformed JSON: the record boundary is lost, so stop reading here
+                    rejected++;
+                    addError(acks, response, records, "Malformed JSON: " + e.getOriginalMessage(), config);
+                    response.setAborted(true);
+                    break;
+                } catch (JsonMappingException e) {
+                    // Well-formed but not an EventRequest: the iterator resyncs to the next record
+                    rejected++;
+                    addError(acks, response, records, "Invalid event: " + e.getOriginalMessage(), config);
+                    continue;
+                }
+
+                String violation = eventService.validate(request);
+                if (violation != null) {
+                    rejected++;
+                    addError(acks, response, records, violation, config);
+                    continue;
+                }
+
+                chunk.add(eventMapper.toEntity(request));
+                chunkRecords.add(records);
+
+                if (chunk.size() >= chunkSize) {
+                    sent += flush(chunk, chunkRecords, inFlight, acks, response, config);
+                }
+            }
+
+            sent += flush(chunk, chunkRecords, inFlight, acks, response, config);
+        } finally {
+            // Wait for outstanding sends so the reported counts are final
+            if (!inFlight.tryAcquire(maxInFlight, config.getDrainTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Timed out waiting for {} in-flight stream records to be acknowledged; reporting them as pending",
+                        maxInFlight - inFlight.availablePermits());
+            }
+        }
+
+        synchronized (acks) {
+            // From here on, late callbacks leave the response alone
+            acks.completed = true;
+            response.setRecords(records);
+            response.setRejected(rejected + response.getRateLimited() + acks.failed);
+            response.setAccepted(acks.acknowledged);
+            response.setPending(sent - acks.acknowledged - acks.failed);
+        }
+
+        logger.info("Stream ingestion finished: records={}, accepted={}, rejected={}, pending={}, aborted={}",
+                response.getRecords(), response.getAccepted(), response.getRejected(), response.getPending(),
+                response.isAborted());
+
+        return response;
+    }
+
+    /**
+     * Hand the current chunk to the producer. Blocks while the request has
+     * too many unacknowledged records in flight. Records over the admission
+     * limits are dropped from the chunk and reported as rate limited.
+     */
+    private int flush(List<Event> chunk, List<Long> chunkRecords, Semaphore inFlight, Acks acks,
+                      StreamIngestResponse response, IngestionProperties.Stream config) throws InterruptedException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        List<String> sources = new ArrayList<>(chunk.size());
+        for (Event event : chunk) {
+            sources.add(event.getSource());
+        }
+
+        AdmissionService.BatchAdmission admission = admissionService.admitEach(sources);
+        if (admission.getSummary().getShed() > 0) {
+            List<Event> admitted = new ArrayList<>(chunk.size());
+            List<Long> admittedRecords = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                if (admission.isAdmitted(i)) {
+                    admitted.add(chunk.get(i));
+                    admittedRecords.add(chunkRecords.get(i));
+                } else {
+                    addError(acks, response, chunkRecords.get(i),
+                            "Rate limit exceeded for source: " + chunk.get(i).getSource(), config);
+                }
+            }
+
+            response.setRateLimited(response.getRateLimited() + admission.getSummary().getShed());
+            response.setRetryAfterSeconds(Math.max(
+                    response.getRetryAfterSeconds() != null ? response.getRetryAfterSeconds() : 0,
+                    admission.getSummary().getRetryAfterSeconds()));
+
+            chunk.clear();
+            chunk.addAll(admitted);
+            chunkRecords.clear();
+            chunkRecords.addAll(admittedRecords);
+
+            if (chunk.isEmpty()) {
+                return 0;
+            }
+        }
+
+        int size = chunk.size();
+        inFlight.acquire(size);
+
+        List<CompletableFuture<SendResult<String, Object>>> futures = eventProducer.sendEvents(chunk);
+        for (int i = 0; i < futures.size(); i++) {
+            long record = chunkRecords.get(i);
+            futures.get(i).whenComplete((result, ex) -> {
+                synchronized (acks) {
+                    if (!acks.completed) {
+                        if (ex != null) {
+                            acks.failed++;
+                            addError(acks, response, record, "Failed to send event to Kafka", config);
+                        } else {
+                            acks.acknowledged++;
+                        }
+                    }
+                }
+                inFlight.release();
+            });
+        }
+
+        chunk.clear();
+        chunkRecords.clear();
+        return size;
+    }
+
+    private void addError(Acks acks, StreamIngestResponse response, long record, String message,
+                          IngestionProperties.Stream config) {
+        synchronized (acks) {
+            if (!acks.completed && response.getErrors().size() < config.getMaxReportedErrors()) {
+                response.getErrors().add(new StreamIngestResponse.RecordError(record, message));
+            }
+        }
+    }
+
+    /**
+     * Producer acknowledgements of one request. Guards the response's error
+     * list too, since send callbacks report into it from producer threads.
+     */
+    private static class Acks {
+        private long acknowledged;
+        private long failed;
+        private boolean completed;
+    }
+}
@@ -0,0 +1,16 @@
+package com.eventara.instrumentation;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate hook that counts SQL statements for {@link PipelineMetrics}.
+ * Registered through spring.jpa.properties.hibernate.session_factory.statement_inspector.
+ */
+public class CountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        PipelineMetrics.countDbCall();
+        return sql;
+    }
+}
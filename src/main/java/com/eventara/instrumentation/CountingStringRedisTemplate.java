@@ -0,0 +1,23 @@
+package com.eventara.instrumentation;
+
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * StringRedisTemplate that counts Redis round trips for {@link PipelineMetrics}.
+ * Every template operation (opsForHash, opsForZSet, expire, pipelines, scripts)
+ * funnels through execute(RedisCallback, ...); a pipeline counts as one round trip.
+ */
+public class CountingStringRedisTemplate extends StringRedisTemplate {
+
+    public CountingStringRedisTemplate(RedisConnectionFactory connectionFactory) {
+        super(connectionFactory);
+    }
+
+    @Override
+    public <T> T execute(RedisCallback<T> action, boolean exposeConnection, boolean pipeline) {
+        PipelineMetrics.countRedisCall();
+        return super.execute(action, exposeConnection, pipeline);
+    }
+}
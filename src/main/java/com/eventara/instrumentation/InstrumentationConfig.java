@@ -0,0 +1,94 @@
+package com.eventara.instrumentation;
+
+import com.eventara.ingestion.admission.AdmissionService;
+import com.eventara.ingestion.dedup.EventDedupFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+
+@Configuration
+public class InstrumentationConfig {
+
+    /**
+     * Replaces the auto-configured StringRedisTemplate so Redis round trips can be counted per event.
+     */
+    @Bean
+    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
+        return new CountingStringRedisTemplate(connectionFactory);
+    }
+
+    /**
+     * Admission control and dedup filter counters.
+     */
+    @Bean
+    public MeterBinder ingestionMeterBinder(AdmissionService admissionService, EventDedupFilter dedupFilter) {
+        return registry -> {
+            FunctionCounter.builder("eventara.admission.admitted", admissionService, AdmissionService::getAdmittedTotal)
+                    .description("Events admitted by ingestion admission control")
+                    .register(registry);
+            FunctionCounter.builder("eventara.admission.shed", admissionService, AdmissionService::getShedTotal)
+                    .description("Events rejected by ingestion admission control")
+                    .register(registry);
+
+            FunctionCounter.builder("eventara.dedup.lookups", dedupFilter, f -> f.getStats().getLookups())
+                    .description("Event ids checked against the dedup filter")
+                    .register(registry);
+            FunctionCounter.builder("eventara.dedup.duplicates", dedupFilter, f -> f.getStats().getConfirmedDuplicates())
+                    .description("Filter hits confirmed as duplicates by the database")
+                    .register(registry);
+            FunctionCounter.builder("eventara.dedup.false.positives", dedupFilter, f -> f.getStats().getFalsePositives())
+                    .description("Filter hits that were not duplicates")
+                    .register(registry);
+            FunctionCounter.builder("eventara.dedup.constraint.duplicates", dedupFilter,
+                            f -> f.getStats().getConstraintDuplicates())
+                    .description("Duplicates that passed the filter and were rejected by the unique index")
+                    .register(registry);
+
+            Gauge.builder("eventara.dedup.false.positive.rate", dedupFilter, EventDedupFilter::getObservedFalsePositiveRate)
+                    .description("Observed false-positive rate of the dedup filter")
+                    .tag("kind", "observed")
+                    .register(registry);
+            Gauge.builder("eventara.dedup.false.positive.rate", dedupFilter, EventDedupFilter::getEstimatedFalsePositiveRate)
+                    .description("Theoretical false-positive rate of the current filter generation")
+                    .tag("kind", "estimated")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Utilization of each connection pool (DataSourceConfig); Hikari's own
+     * hikaricp.* meters carry the raw counts.
+     */
+    @Bean
+    public MeterBinder dataSourcePoolMeterBinder(List<HikariDataSource> pools) {
+        return registry -> {
+            for (HikariDataSource pool : pools) {
+                Gauge.builder("eventara.db.pool.utilization", pool, InstrumentationConfig::poolUtilization)
+                        .description("Share of the pool's maximum connections in use")
+                        .tag("pool", pool.getPoolName())
+                        .register(registry);
+                Gauge.builder("eventara.db.pool.pending", pool, p -> {
+                            HikariPoolMXBean mxBean = p.getHikariPoolMXBean();
+                            return mxBean != null ? mxBean.getThreadsAwaitingConnection() : 0;
+                        })
+                        .description("Threads waiting for a connection from the pool")
+                        .tag("pool", pool.getPoolName())
+                        .register(registry);
+            }
+        };
+    }
+
+    // 0 until the pool has opened its first connection
+    private static double poolUtilization(HikariDataSource pool) {
+        HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+        return mxBean != null ? (double) mxBean.getActiveConnections() / pool.getMaximumPoolSize() : 0;
+    }
+}
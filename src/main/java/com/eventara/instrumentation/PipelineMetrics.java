@@ -0,0 +1,179 @@
+package com.eventara.instrumentation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation for the event pipeline, from Kafka send to notification delivery.
+ *
+ * Every stage is a Timer with a percentile histogram, so Prometheus can compute
+ * quantiles across instances. HTTP accept latency comes from the standard
+ * http.server.requests timer (histogram enabled in application.properties).
+ *
+ * Redis and DB calls are counted per consumed event: the consumer opens a scope with
+ * {@link #beginEvent()}, the counting RedisTemplate, the Hibernate statement inspector
+ * and the JDBC bulk writer bump thread-local counters, and {@link #endEvent()} records
+ * them as distributions.
+ */
+@Component
+public class PipelineMetrics {
+
+    public enum Stage {
+        CONSUMER_PROCESS("eventara.pipeline.consumer.process", "Time to process one consumed event end to end"),
+        CONSUMER_BATCH("eventara.pipeline.consumer.batch", "Time to process one consumed poll end to end"),
+        DB_INSERT("eventara.pipeline.db.insert", "Time to insert consumed events into Postgres"),
+        REDIS_RECORD("eventara.pipeline.redis.record", "Time to record an event into Redis metric buckets"),
+        RULE_TICK("eventara.pipeline.rules.tick", "Duration of one adaptive rule evaluation tick"),
+        ALERT_PERSIST("eventara.pipeline.alert.persist", "Time to persist a triggered alert");
+
+        private final String metricName;
+        private final String description;
+
+        Stage(String metricName, String description) {
+            this.metricName = metricName;
+            this.description = description;
+        }
+    }
+
+    // [0] = Redis round trips, [1] = SQL statements for the event being consumed on this thread
+    private static final ThreadLocal<long[]> EVENT_CALLS = new ThreadLocal<>();
+
+    private final MeterRegistry registry;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<String, Timer> taggedTimers = new ConcurrentHashMap<>();
+    private final Timer consumerLag;
+    private final Counter consumedRecords;
+    private final DistributionSummary redisCallsPerEvent;
+    private final DistributionSummary dbCallsPerEvent;
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, histogramTimer(stage.metricName, stage.description).register(registry));
+        }
+
+        this.consumerLag = histogramTimer("eventara.pipeline.consumer.lag",
+                "Time from the Kafka record timestamp to the consumer picking it up")
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(registry);
+
+        this.consumedRecords = Counter.builder("eventara.pipeline.consumer.records")
+                .description("Records processed by the raw events consumer")
+                .register(registry);
+
+        this.redisCallsPerEvent = DistributionSummary.builder("eventara.pipeline.redis.calls")
+                .description("Redis round trips per consumed event")
+                .baseUnit("calls")
+                .register(registry);
+
+        this.dbCallsPerEvent = DistributionSummary.builder("eventara.pipeline.db.calls")
+                .description("SQL statements per consumed event")
+                .baseUnit("calls")
+                .register(registry);
+    }
+
+    public Timer timer(Stage stage) {
+        return stageTimers.get(stage);
+    }
+
+    public void record(Stage stage, long startNanos) {
+        stageTimers.get(stage).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Kafka send latency (send call to broker acknowledgement), per producer and outcome.
+     */
+    public void recordKafkaSend(String producer, long startNanos, Throwable ex) {
+        String outcome = ex == null ? "success" : "failure";
+        taggedTimers.computeIfAbsent("kafka:" + producer + ":" + outcome, k ->
+                histogramTimer("eventara.pipeline.kafka.send", "Time from producer send to broker acknowledgement")
+                        .tag("producer", producer)
+                        .tag("outcome", outcome)
+                        .register(registry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordNotificationDelivery(String channelType, String status, long startNanos) {
+        taggedTimers.computeIfAbsent("notification:" + channelType + ":" + status, k ->
+                histogramTimer("eventara.pipeline.notification.delivery", "Time to deliver a notification to one channel")
+                        .tag("channel_type", channelType)
+                        .tag("status", status)
+                        .register(registry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param recordTimestampMs the Kafka record timestamp (producer create time)
+     */
+    public void recordConsumerLag(long recordTimestampMs) {
+        long lag = System.currentTimeMillis() - recordTimestampMs;
+        if (lag >= 0) {
+            consumerLag.record(lag, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public double consumedRecords() {
+        return consumedRecords.count();
+    }
+
+    // ===== Per-event call counting =====
+
+    public void beginEvent() {
+        EVENT_CALLS.set(new long[2]);
+    }
+
+    public void endEvent() {
+        endEvents(1);
+    }
+
+    /**
+     * Close a scope opened for a whole batch; the calls are recorded per event.
+     */
+    public void endEvents(int events) {
+        consumedRecords.increment(events);
+        long[] calls = EVENT_CALLS.get();
+        if (calls == null) {
+            return;
+        }
+        EVENT_CALLS.remove();
+        if (events > 0) {
+            redisCallsPerEvent.record((double) calls[0] / events);
+            dbCallsPerEvent.record((double) calls[1] / events);
+        }
+    }
+
+    static void countRedisCall() {
+        long[] calls = EVENT_CALLS.get();
+        if (calls != null) {
+            calls[0]++;
+        }
+    }
+
+    /**
+     * Count one SQL statement issued outside Hibernate, e.g. through JdbcTemplate.
+     */
+    public static void countDbCall() {
+        long[] calls = EVENT_CALLS.get();
+        if (calls != null) {
+            calls[1]++;
+        }
+    }
+
+    private static Timer.Builder histogramTimer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(30));
+    }
+}
@@ -14,6 +14,10 @@ public class MetricsProperties {
     private Distributed distributed = new Distributed();
     private Bucket bucket = new Bucket();
     private Rollup rollup = new Rollup();
+    private Streams streams = new Streams();
+    private Backfill backfill = new Backfill();
+    private Redis redis = new Redis();
+    private Preaggregation preaggregation = new Preaggregation();
 
     public static class Distributed {
         private boolean enabled = false;
@@ -69,6 +73,157 @@ public class MetricsProperties {
         }
     }
 
+    /**
+     * Bucket aggregation in Kafka Streams instead of per-batch Redis writes.
+     */
+    public static class Streams {
+        private boolean enabled = false;
+        // How long a bucket stays open for late records after it ends
+        private int graceSeconds = 5;
+        private int threads = 2;
+        private String stateDir = "/tmp/eventara-streams";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getGraceSeconds() {
+            return graceSeconds;
+        }
+
+        public void setGraceSeconds(int graceSeconds) {
+            this.graceSeconds = graceSeconds;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public String getStateDir() {
+            return stateDir;
+        }
+
+        public void setStateDir(String stateDir) {
+            this.stateDir = stateDir;
+        }
+    }
+
+    /**
+     * Rebuilding metric buckets from Kafka or the events table.
+     */
+    public static class Backfill {
+        private int threads = 8; // Kafka partitions or event time slices read in parallel
+        private int kafkaPollRecords = 5000;
+        private int dbFetchSize = 10000;
+        private int redisBucketsPerWrite = 500; // buckets per Redis pipeline
+        private double dedupFalsePositiveRate = 1e-6; // chance of skipping a Kafka event as already read
+        private int dedupMaxMb = 64; // per partition; above it the false-positive rate goes up instead
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getKafkaPollRecords() {
+            return kafkaPollRecords;
+        }
+
+        public void setKafkaPollRecords(int kafkaPollRecords) {
+            this.kafkaPollRecords = kafkaPollRecords;
+        }
+
+        public int getDbFetchSize() {
+            return dbFetchSize;
+        }
+
+        public void setDbFetchSize(int dbFetchSize) {
+            this.dbFetchSize = dbFetchSize;
+        }
+
+        public int getRedisBucketsPerWrite() {
+            return redisBucketsPerWrite;
+        }
+
+        public void setRedisBucketsPerWrite(int redisBucketsPerWrite) {
+            this.redisBucketsPerWrite = redisBucketsPerWrite;
+        }
+
+        public double getDedupFalsePositiveRate() {
+            return dedupFalsePositiveRate;
+        }
+
+        public void setDedupFalsePositiveRate(double dedupFalsePositiveRate) {
+            this.dedupFalsePositiveRate = dedupFalsePositiveRate;
+        }
+
+        public int getDedupMaxMb() {
+            return dedupMaxMb;
+        }
+
+        public void setDedupMaxMb(int dedupMaxMb) {
+            this.dedupMaxMb = dedupMaxMb;
+        }
+    }
+
+    /**
+     * How events are written to the Redis buckets.
+     */
+    public static class Redis {
+        private boolean scriptEnabled = true; // one Lua script per event; false = one command per operation
+
+        public boolean isScriptEnabled() {
+            return scriptEnabled;
+        }
+
+        public void setScriptEnabled(boolean scriptEnabled) {
+            this.scriptEnabled = scriptEnabled;
+        }
+    }
+
+    /**
+     * In-process aggregation of the Redis bucket updates (MetricsPreAggregator).
+     */
+    public static class Preaggregation {
+        private boolean enabled = true;
+        private long flushIntervalMs = 500; // upper bound on how stale Redis counters are
+        private long flushEvents = 5000; // flush early once this many events are pending
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public long getFlushEvents() {
+            return flushEvents;
+        }
+
+        public void setFlushEvents(long flushEvents) {
+            this.flushEvents = flushEvents;
+        }
+    }
+
     public Distributed getDistributed() {
         return distributed;
     }
@@ -93,6 +248,38 @@ public class MetricsProperties {
         this.rollup = rollup;
     }
 
+    public Streams getStreams() {
+        return streams;
+    }
+
+    public void setStreams(Streams streams) {
+        this.streams = streams;
+    }
+
+    public Backfill getBackfill() {
+        return backfill;
+    }
+
+    public void setBackfill(Backfill backfill) {
+        this.backfill = backfill;
+    }
+
+    public Redis getRedis() {
+        return redis;
+    }
+
+    public void setRedis(Redis redis) {
+        this.redis = redis;
+    }
+
+    public Preaggregation getPreaggregation() {
+        return preaggregation;
+    }
+
+    public void setPreaggregation(Preaggregation preaggregation) {
+        this.preaggregation = preaggregation;
+    }
+
     // Convenience methods
     public long getBucketSizeMs() {
         return bucket.sizeSeconds * 1000L;
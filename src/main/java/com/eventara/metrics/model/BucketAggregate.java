@@ -0,0 +1,204 @@
+package com.eventara.metrics.model;
+
+import com.eventara.common.dto.EventDto;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Aggregate of one time bucket, built by the Kafka Streams metrics topology
+ * and by the metrics backfill.
+ *
+ * Holds the same breakdowns as the Redis bucket keys (totals, per source, per
+ * event type, per severity), so a closed bucket can be written to Redis in one
+ * round trip. One aggregate covers the events of one record key, i.e. one
+ * partition-local slice of the bucket; slices add up in Redis.
+ */
+public class BucketAggregate {
+
+    private long bucketStart;
+    private Counts totals = Counts.withSketch();
+    private Map<String, Counts> bySource = new HashMap<>();
+    private Map<String, Counts> byType = new HashMap<>();
+    private Map<String, Long> bySeverity = new HashMap<>();
+
+    /**
+     * Fold one event in, the same way RedisMetricsService.addToDelta does.
+     */
+    public BucketAggregate add(EventDto event) {
+        boolean error = event.isError();
+        long latency = event.getProcessingLatencyMs();
+
+        totals.add(error, latency);
+        if (event.getSource() != null) {
+            bySource.computeIfAbsent(event.getSource(), s -> new Counts()).add(error, latency);
+        }
+        if (event.getEventType() != null) {
+            byType.computeIfAbsent(event.getEventType(), t -> Counts.withSketch()).add(error, latency);
+        }
+        if (event.getSeverity() != null) {
+            bySeverity.merge(event.getSeverity(), 1L, Long::sum);
+        }
+        return this;
+    }
+
+    /**
+     * Add another aggregate of the same bucket into this one.
+     */
+    public BucketAggregate merge(BucketAggregate other) {
+        totals.merge(other.totals);
+        other.bySource.forEach((source, counts) -> bySource.merge(source, counts, Counts::merge));
+        other.byType.forEach((type, counts) -> byType.merge(type, counts, Counts::merge));
+        other.bySeverity.forEach((severity, count) -> bySeverity.merge(severity, count, Long::sum));
+        return this;
+    }
+
+    public long getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(long bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public Counts getTotals() {
+        return totals;
+    }
+
+    public void setTotals(Counts totals) {
+        this.totals = totals;
+    }
+
+    public Map<String, Counts> getBySource() {
+        return bySource;
+    }
+
+    public void setBySource(Map<String, Counts> bySource) {
+        this.bySource = bySource;
+    }
+
+    public Map<String, Counts> getByType() {
+        return byType;
+    }
+
+    public void setByType(Map<String, Counts> byType) {
+        this.byType = byType;
+    }
+
+    public Map<String, Long> getBySeverity() {
+        return bySeverity;
+    }
+
+    public void setBySeverity(Map<String, Long> bySeverity) {
+        this.bySeverity = bySeverity;
+    }
+
+    /**
+     * Counters of one breakdown. Latency sketches are only kept where Redis
+     * stores percentiles (totals and event types).
+     */
+    public static class Counts {
+        private long events = 0;
+        private long errors = 0;
+        private long latencySum = 0;
+        private long latencyCount = 0;
+        private Long latencyMin;
+        private Long latencyMax;
+        private LatencySketch latencies;
+
+        static Counts withSketch() {
+            Counts counts = new Counts();
+            counts.latencies = new LatencySketch();
+            return counts;
+        }
+
+        void add(boolean error, long latency) {
+            events++;
+            if (error) {
+                errors++;
+            }
+            if (latency > 0) {
+                latencySum += latency;
+                latencyCount++;
+                latencyMin = latencyMin == null ? latency : Math.min(latencyMin, latency);
+                latencyMax = latencyMax == null ? latency : Math.max(latencyMax, latency);
+                if (latencies != null) {
+                    latencies.add(latency);
+                }
+            }
+        }
+
+        Counts merge(Counts other) {
+            events += other.events;
+            errors += other.errors;
+            latencySum += other.latencySum;
+            latencyCount += other.latencyCount;
+            if (other.latencyMin != null) {
+                latencyMin = latencyMin == null ? other.latencyMin : Math.min(latencyMin, other.latencyMin);
+                latencyMax = latencyMax == null ? other.latencyMax : Math.max(latencyMax, other.latencyMax);
+            }
+            if (latencies == null) {
+                latencies = other.latencies;
+            } else {
+                latencies.merge(other.latencies);
+            }
+            return this;
+        }
+
+        public long getEvents() {
+            return events;
+        }
+
+        public void setEvents(long events) {
+            this.events = events;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public void setErrors(long errors) {
+            this.errors = errors;
+        }
+
+        public long getLatencySum() {
+            return latencySum;
+        }
+
+        public void setLatencySum(long latencySum) {
+            this.latencySum = latencySum;
+        }
+
+        public long getLatencyCount() {
+            return latencyCount;
+        }
+
+        public void setLatencyCount(long latencyCount) {
+            this.latencyCount = latencyCount;
+        }
+
+        public Long getLatencyMin() {
+            return latencyMin;
+        }
+
+        public void setLatencyMin(Long latencyMin) {
+            this.latencyMin = latencyMin;
+        }
+
+        public Long getLatencyMax() {
+            return latencyMax;
+        }
+
+        public void setLatencyMax(Long latencyMax) {
+            this.latencyMax = latencyMax;
+        }
+
+        public LatencySketch getLatencies() {
+            return latencies;
+        }
+
+        public void setLatencies(LatencySketch latencies) {
+            this.latencies = latencies;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.eventara.metrics.model;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe counterpart of MetricsDelta, filled by every consumer thread
+ * of the instance and drained periodically by MetricsPreAggregator.
+ *
+ * Counters are LongAdders that only grow; a drain moves what they gained
+ * since the previous drain into a MetricsDelta. An update racing with a
+ * drain is therefore never lost, just carried to the next one. Latencies are
+ * kept as the bins of LatencySketch, so the sorted sets get one member per
+ * bin instead of one per distinct value.
+ *
+ * drainTo must not be called concurrently with itself.
+ */
+public class ConcurrentMetricsDelta implements MetricsSink {
+
+    // key -> (hash field -> counter)
+    private final Map<String, Map<String, Counter>> hashIncrements = new ConcurrentHashMap<>();
+
+    // sorted set key -> bin representatives not drained yet
+    private final Map<String, Set<Long>> latencies = new ConcurrentHashMap<>();
+
+    // hash key -> min/max latency
+    private final Map<String, Range> latencyRanges = new ConcurrentHashMap<>();
+
+    private final LongAdder events = new LongAdder();
+    private long drainedEvents = 0;
+
+    @Override
+    public void increment(String key, String field, long delta) {
+        hashIncrements.computeIfAbsent(key, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(field, f -> new Counter())
+                .total.add(delta);
+    }
+
+    @Override
+    public void addLatency(String key, long latency) {
+        latencies.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(LatencySketch.representative(latency));
+    }
+
+    @Override
+    public void observeLatencyRange(String key, long latency) {
+        Range range = latencyRanges.computeIfAbsent(key, k -> new Range());
+        range.min.accumulate(latency);
+        range.max.accumulate(latency);
+    }
+
+    @Override
+    public void countEvent() {
+        events.increment();
+    }
+
+    /**
+     * Events counted since the previous drain.
+     */
+    public long getPendingEvents() {
+        return events.sum() - drainedEvents;
+    }
+
+    /**
+     * Add everything that changed since the previous drain to delta.
+     *
+     * @return the number of events drained
+     */
+    public long drainTo(MetricsDelta delta) {
+        for (Map.Entry<String, Map<String, Counter>> hash : hashIncrements.entrySet()) {
+            for (Map.Entry<String, Counter> field : hash.getValue().entrySet()) {
+                Counter counter = field.getValue();
+                long total = counter.total.sum();
+                if (total != counter.drained) {
+                    delta.increment(hash.getKey(), field.getKey(), total - counter.drained);
+                    counter.drained = total;
+                }
+            }
+        }
+
+        for (Map.Entry<String, Set<Long>> zset : latencies.entrySet()) {
+            Iterator<Long> pending = zset.getValue().iterator();
+            while (pending.hasNext()) {
+                delta.addLatency(zset.getKey(), pending.next());
+                pending.remove();
+            }
+        }
+
+        for (Map.Entry<String, Range> entry : latencyRanges.entrySet()) {
+            Range range = entry.getValue();
+            long min = range.min.get();
+            long max = range.max.get();
+            // Redis only widens the range, so a side that did not move needs no update
+            if (min < range.drainedMin) {
+                delta.observeLatencyRange(entry.getKey(), min);
+                range.drainedMin = min;
+            }
+            if (max > range.drainedMax) {
+                delta.observeLatencyRange(entry.getKey(), max);
+                range.drainedMax = max;
+            }
+        }
+
+        long total = events.sum();
+        long drained = total - drainedEvents;
+        drainedEvents = total;
+        return drained;
+    }
+
+    private static class Counter {
+        private final LongAdder total = new LongAdder();
+        private long drained = 0;
+    }
+
+    private static class Range {
+        private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+        private long drainedMin = Long.MAX_VALUE;
+        private long drainedMax = Long.MIN_VALUE;
+    }
+}
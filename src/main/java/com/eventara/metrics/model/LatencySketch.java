@@ -0,0 +1,112 @@
+package com.eventara.metrics.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mergeable latency histogram with logarithmic bins (relative error ~1%).
+ *
+ * A bucket's latencies are kept as one counter per bin instead of one value
+ * per event, so the state stays small however many events the bucket has,
+ * and two sketches can be merged by adding their counters.
+ */
+public class LatencySketch {
+
+    private static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    // bin index -> number of values in the bin
+    private TreeMap<Integer, Long> bins = new TreeMap<>();
+    private long count = 0;
+
+    public void add(long latency) {
+        if (latency <= 0) {
+            return;
+        }
+        bins.merge(index(latency), 1L, Long::sum);
+        count++;
+    }
+
+    /**
+     * Add count values to one bin, e.g. a bin of the events_latency_* continuous
+     * aggregates, which bucket latencies with the same gamma.
+     */
+    public void addBin(int index, long binCount) {
+        if (binCount <= 0) {
+            return;
+        }
+        bins.merge(index, binCount, Long::sum);
+        count += binCount;
+    }
+
+    public void merge(LatencySketch other) {
+        if (other == null) {
+            return;
+        }
+        other.bins.forEach((index, binCount) -> bins.merge(index, binCount, Long::sum));
+        count += other.count;
+    }
+
+    /**
+     * Approximate quantile (0..1), or null when the sketch is empty.
+     */
+    public Long quantile(double q) {
+        if (count == 0) {
+            return null;
+        }
+        long rank = (long) (q * (count - 1));
+        long seen = 0;
+        for (Map.Entry<Integer, Long> bin : bins.entrySet()) {
+            seen += bin.getValue();
+            if (seen > rank) {
+                return value(bin.getKey());
+            }
+        }
+        return value(bins.lastKey());
+    }
+
+    /**
+     * One representative latency per non-empty bin, in ascending order.
+     */
+    public List<Long> representativeValues() {
+        List<Long> values = new ArrayList<>(bins.size());
+        for (Integer index : bins.keySet()) {
+            values.add(value(index));
+        }
+        return values;
+    }
+
+    /**
+     * The value latency is reported as: the representative of its bin.
+     */
+    public static long representative(long latency) {
+        return value(index(latency));
+    }
+
+    private static int index(long latency) {
+        return (int) Math.ceil(Math.log(latency) / LOG_GAMMA);
+    }
+
+    private static long value(int index) {
+        return Math.max(1L, Math.round(2 * Math.pow(GAMMA, index) / (GAMMA + 1)));
+    }
+
+    public TreeMap<Integer, Long> getBins() {
+        return bins;
+    }
+
+    public void setBins(TreeMap<Integer, Long> bins) {
+        this.bins = bins;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
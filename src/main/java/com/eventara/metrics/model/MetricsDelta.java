@@ -0,0 +1,110 @@
+package com.eventara.metrics.model;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pending changes to the Redis metric keys, aggregated in memory so that a
+ * whole batch of events can be written in one pipelined round trip.
+ *
+ * Not thread-safe: build it on one thread, then hand it to
+ * RedisMetricsService.applyDelta.
+ */
+public class MetricsDelta implements MetricsSink {
+
+    // key -> (hash field -> increment)
+    private final Map<String, Map<String, Long>> hashIncrements = new LinkedHashMap<>();
+
+    // sorted set key -> latency members
+    private final Map<String, Set<Long>> latencies = new HashMap<>();
+
+    // hash key -> {min, max} latency observed in this delta
+    private final Map<String, long[]> latencyRanges = new HashMap<>();
+
+    // keys deleted before anything else is written (rebuilding a bucket)
+    private final Set<String> deletes = new LinkedHashSet<>();
+
+    // key -> (hash field -> value) set after the increments
+    private final Map<String, Map<String, String>> hashValues = new LinkedHashMap<>();
+
+    private long events = 0;
+
+    @Override
+    public void increment(String key, String field, long delta) {
+        hashIncrements.computeIfAbsent(key, k -> new HashMap<>()).merge(field, delta, Long::sum);
+    }
+
+    @Override
+    public void addLatency(String key, long latency) {
+        latencies.computeIfAbsent(key, k -> new HashSet<>()).add(latency);
+    }
+
+    @Override
+    public void observeLatencyRange(String key, long latency) {
+        long[] range = latencyRanges.get(key);
+        if (range == null) {
+            latencyRanges.put(key, new long[] { latency, latency });
+        } else {
+            range[0] = Math.min(range[0], latency);
+            range[1] = Math.max(range[1], latency);
+        }
+    }
+
+    public void delete(String key) {
+        deletes.add(key);
+    }
+
+    public void put(String key, String field, String value) {
+        hashValues.computeIfAbsent(key, k -> new HashMap<>()).put(field, value);
+    }
+
+    @Override
+    public void countEvent() {
+        events++;
+    }
+
+    /**
+     * Drop everything but the latency ranges, once those writes went out. A
+     * retry of the delta then only re-sends the min/max updates, which are
+     * idempotent, instead of counting the increments twice.
+     */
+    public void clearPipelinedWrites() {
+        hashIncrements.clear();
+        latencies.clear();
+        deletes.clear();
+        hashValues.clear();
+    }
+
+    public boolean isEmpty() {
+        return hashIncrements.isEmpty() && latencies.isEmpty() && deletes.isEmpty() && hashValues.isEmpty()
+                && latencyRanges.isEmpty();
+    }
+
+    public Map<String, Map<String, Long>> getHashIncrements() {
+        return hashIncrements;
+    }
+
+    public Map<String, Set<Long>> getLatencies() {
+        return latencies;
+    }
+
+    public Map<String, long[]> getLatencyRanges() {
+        return latencyRanges;
+    }
+
+    public Set<String> getDeletes() {
+        return deletes;
+    }
+
+    public Map<String, Map<String, String>> getHashValues() {
+        return hashValues;
+    }
+
+    public long getEvents() {
+        return events;
+    }
+}
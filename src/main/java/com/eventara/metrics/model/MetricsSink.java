@@ -0,0 +1,17 @@
+package com.eventara.metrics.model;
+
+/**
+ * Target of RedisMetricsService.addToDelta: the updates of the Redis metric
+ * keys, collected for one batch (MetricsDelta) or continuously by the
+ * pre-aggregator (ConcurrentMetricsDelta).
+ */
+public interface MetricsSink {
+
+    void increment(String key, String field, long delta);
+
+    void addLatency(String key, long latency);
+
+    void observeLatencyRange(String key, long latency);
+
+    void countEvent();
+}
@@ -38,6 +38,9 @@ public class DistributedMetricsService {
     @Autowired
     private RedisMetricsService redisMetrics;
 
+    @Autowired
+    private MetricsPreAggregator preAggregator;
+
     @Autowired
     private TimescaleMetricsService timescaleMetrics;
 
@@ -52,17 +55,47 @@ public class DistributedMetricsService {
 
     /**
      * Record an event to distributed storage.
-     * Writes ONLY to Redis when distributed mode is enabled.
+     * Writes ONLY to Redis when distributed mode is enabled; with pre-aggregation
+     * the write happens on the next flush.
      */
-    public synchronized void recordEvent(EventDto event) {
-        if (metricsProperties.getDistributed().isEnabled()) {
-            // Write to Redis only - Redis handles everything with TTL
-            redisMetrics.recordEvent(event);
+    public void recordEvent(EventDto event) {
+        if (writesToRedis()) {
+            if (metricsProperties.getPreaggregation().isEnabled()) {
+                preAggregator.record(event);
+            } else {
+                // Write to Redis only - Redis handles everything with TTL
+                redisMetrics.recordEvent(event);
+            }
         }
         logger.debug("Event recorded to Redis: type={}, source={}",
                 event.getEventType(), event.getSource());
     }
 
+    /**
+     * Record a batch of events to distributed storage.
+     * The batch is aggregated in memory and written to Redis in one pipelined round trip.
+     */
+    public void recordEvents(List<EventDto> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (writesToRedis()) {
+            if (metricsProperties.getPreaggregation().isEnabled()) {
+                for (EventDto event : events) {
+                    preAggregator.record(event);
+                }
+            } else {
+                redisMetrics.recordEvents(events);
+            }
+        }
+        logger.debug("Recorded batch of {} events to Redis", events.size());
+    }
+
+    // With Kafka Streams aggregation, buckets are written by the topology instead
+    private boolean writesToRedis() {
+        return metricsProperties.getDistributed().isEnabled() && !metricsProperties.getStreams().isEnabled();
+    }
+
     /**
      * Get comprehensive metrics - READS FROM REDIS when distributed is enabled.
      * Data automatically expires based on Redis TTL (default 1 hour).
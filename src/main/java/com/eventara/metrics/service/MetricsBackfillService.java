@@ -0,0 +1,585 @@
+package com.eventara.metrics.service;
+
+import com.eventara.common.dto.EventDto;
+import com.eventara.common.dto.MetricsBackfillRequest;
+import com.eventara.common.dto.MetricsBackfillStatus;
+import com.eventara.common.repository.StreamingQueries;
+import com.eventara.ingestion.dedup.BloomFilter;
+import com.eventara.ingestion.mapper.EventMapper;
+import com.eventara.ingestion.serde.AvroEventCodec;
+import com.eventara.metrics.config.MetricsProperties;
+import com.eventara.metrics.model.BucketAggregate;
+import com.eventara.metrics.model.LatencySketch;
+import com.eventara.metrics.model.MetricsBucket;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rebuilds metric buckets from the raw events topic or the events table, e.g.
+ * after a Redis flush or a bucket size change.
+ *
+ * Events only go through aggregation: nothing is persisted or evaluated
+ * against rules. Kafka records are deduplicated by event id within each
+ * partition, since DLQ replays, producer retries and redeliveries put the same
+ * event on the raw topic more than once (with the same key, so on the same
+ * partition) while the events table holds it once. The ids seen are kept
+ * in a Bloom filter sized for the partition's offset range (at most
+ * dedup-max-mb), so a rare false positive skips an event rather than memory
+ * growing with the replay. Each worker (one per Kafka partition, or one per
+ * event time slice of the table) folds its events into its own buckets by
+ * event time, without locks or Redis round trips; the workers' buckets are
+ * merged once at the end and bulk-written: whole Redis buckets (within
+ * retention) are overwritten in pipelines, and the metrics_buckets rows of the
+ * rebuilt buckets are replaced in one transaction.
+ *
+ * Only buckets that received events are rewritten, each one whole. from/to are
+ * widened to bucket boundaries so no bucket is only partly read, and Kafka
+ * events whose event time falls outside them are dropped (counted as
+ * skipped), so late or early records cannot overwrite a bucket outside the
+ * range with a partial count. A replay should still cover every event of its
+ * buckets (e.g. a Kafka range whose records are all still retained). One job
+ * runs at a time.
+ */
+@Service
+public class MetricsBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsBackfillService.class);
+
+    // Give up on a partition after this many empty polls before its end offset
+    private static final int MAX_EMPTY_POLLS = 10;
+
+    private static final int PROGRESS_REPORT_ROWS = 10000;
+
+    private static final String EVENTS_SQL = """
+            SELECT timestamp, received_at, source, event_type, severity, metadata ->> 'latency' AS latency
+            FROM events
+            WHERE timestamp >= ? AND timestamp < ?
+            """;
+
+    @Value("${eventara.kafka.topics.events-raw}")
+    private String rawEventsTopic;
+
+    @Autowired
+    private MetricsProperties metricsProperties;
+
+    @Autowired
+    private RedisMetricsService redisMetricsService;
+
+    @Autowired
+    private TimescaleMetricsService timescaleMetricsService;
+
+    @Autowired
+    private ConsumerFactory<String, Object> consumerFactory;
+
+    @Autowired
+    private StreamingQueries streamingQueries;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AvroEventCodec avroEventCodec;
+
+    @Autowired
+    private EventMapper eventMapper;
+
+    private volatile Job current;
+
+    /**
+     * Start a backfill in the background.
+     *
+     * @throws IllegalArgumentException if the request is invalid
+     * @throws IllegalStateException if a backfill is already running
+     */
+    public synchronized MetricsBackfillStatus start(MetricsBackfillRequest request) {
+        if (current != null && current.isActive()) {
+            throw new IllegalStateException("Backfill " + current.id + " is still running");
+        }
+        validate(request);
+
+        long bucketSizeMs = metricsProperties.getBucketSizeMs();
+        Instant from = request.getFrom() != null
+                ? Instant.ofEpochMilli(Math.floorDiv(request.getFrom().toEpochMilli(), bucketSizeMs) * bucketSizeMs)
+                : null;
+        Instant to = request.getTo() != null
+                ? Instant.ofEpochMilli(-Math.floorDiv(-request.getTo().toEpochMilli(), bucketSizeMs) * bucketSizeMs)
+                : null;
+
+        Job job = new Job(UUID.randomUUID().toString(), request, from, to);
+        current = job;
+        Thread runner = new Thread(() -> run(job), "metrics-backfill");
+        runner.setDaemon(true);
+        runner.start();
+
+        logger.info("Metrics backfill {} started: source={}, from={}, to={}",
+                job.id, request.getSource(), from, to);
+        return job.toStatus();
+    }
+
+    /**
+     * Status of the current or last job, or null if none ran since startup.
+     */
+    public MetricsBackfillStatus status() {
+        Job job = current;
+        return job != null ? job.toStatus() : null;
+    }
+
+    public boolean cancel() {
+        Job job = current;
+        if (job == null || !job.isActive()) {
+            return false;
+        }
+        job.cancelled = true;
+        return true;
+    }
+
+    private void validate(MetricsBackfillRequest request) {
+        if (request.getSource() == null) {
+            throw new IllegalArgumentException("source is required (KAFKA or DATABASE)");
+        }
+        if (request.getSource() == MetricsBackfillRequest.Source.DATABASE
+                && (request.getFrom() == null || request.getTo() == null)) {
+            throw new IllegalArgumentException("from and to are required for a DATABASE backfill");
+        }
+        if (request.getFrom() != null && request.getTo() != null && !request.getFrom().isBefore(request.getTo())) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (!request.isRedis() && !request.isTimescale()) {
+            throw new IllegalArgumentException("Nothing to rebuild: redis and timescale are both false");
+        }
+    }
+
+    private void run(Job job) {
+        ExecutorService workers = null;
+        try {
+            List<Callable<Map<Long, BucketAggregate>>> tasks =
+                    job.request.getSource() == MetricsBackfillRequest.Source.KAFKA ? kafkaTasks(job) : databaseTasks(job);
+            job.workers = tasks.size();
+
+            AtomicInteger threadCount = new AtomicInteger();
+            workers = Executors.newFixedThreadPool(
+                    Math.max(1, Math.min(tasks.size(), metricsProperties.getBackfill().getThreads())),
+                    runnable -> new Thread(runnable, "metrics-backfill-" + threadCount.incrementAndGet()));
+
+            // Each worker aggregated on its own; merge once, in bucket order
+            TreeMap<Long, BucketAggregate> buckets = new TreeMap<>();
+            for (Future<Map<Long, BucketAggregate>> result : workers.invokeAll(tasks)) {
+                result.get().forEach((bucketStart, bucket) -> buckets.merge(bucketStart, bucket, BucketAggregate::merge));
+            }
+
+            if (job.cancelled) {
+                job.state = MetricsBackfillStatus.State.CANCELLED;
+                return;
+            }
+
+            job.state = MetricsBackfillStatus.State.WRITING;
+            job.buckets = buckets.size();
+            write(job, buckets);
+            job.state = MetricsBackfillStatus.State.COMPLETED;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.error = "Interrupted";
+            job.state = MetricsBackfillStatus.State.FAILED;
+        } catch (Exception e) {
+            logger.error("Metrics backfill {} failed: {}", job.id, e.getMessage(), e);
+            job.error = e.getMessage();
+            job.state = MetricsBackfillStatus.State.FAILED;
+        } finally {
+            job.finishedAt = Instant.now();
+            if (workers != null) {
+                workers.shutdownNow();
+            }
+            MetricsBackfillStatus status = job.toStatus();
+            logger.info("Metrics backfill {} {}: events={}, skipped={}, buckets={}, {} events/s",
+                    job.id, status.getState(), status.getEventsRead(), status.getEventsSkipped(),
+                    status.getBuckets(), String.format("%.0f", status.getEventsPerSecond()));
+        }
+    }
+
+    // ===== Kafka =====
+
+    private List<Callable<Map<Long, BucketAggregate>>> kafkaTasks(Job job) {
+        MetricsBackfillRequest request = job.request;
+        List<Callable<Map<Long, BucketAggregate>>> tasks = new ArrayList<>();
+
+        try (Consumer<String, byte[]> consumer = new KafkaConsumer<>(consumerConfig())) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            consumer.partitionsFor(rawEventsTopic).forEach(info -> partitions.add(new TopicPartition(rawEventsTopic, info.partition())));
+
+            Map<TopicPartition, Long> beginning = consumer.beginningOffsets(partitions);
+            Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+            Map<TopicPartition, Long> starts = resolveOffsets(consumer, partitions, request.getStartOffsets(),
+                    job.from, beginning, end, beginning);
+            Map<TopicPartition, Long> ends = resolveOffsets(consumer, partitions, request.getEndOffsets(),
+                    job.to, beginning, end, end);
+
+            long expected = 0;
+            for (TopicPartition partition : partitions) {
+                long startOffset = starts.get(partition);
+                long endOffset = ends.get(partition);
+                if (endOffset > startOffset) {
+                    expected += endOffset - startOffset;
+                    tasks.add(() -> replayPartition(job, partition, startOffset, endOffset));
+                }
+            }
+            job.expectedEvents = expected;
+        }
+        return tasks;
+    }
+
+    /**
+     * Offsets per partition: explicit offsets first, then the first offset at or
+     * after the timestamp (the end offset if there is none), then the default.
+     */
+    private static Map<TopicPartition, Long> resolveOffsets(Consumer<String, byte[]> consumer,
+                                                            List<TopicPartition> partitions,
+                                                            Map<Integer, Long> explicit, Instant timestamp,
+                                                            Map<TopicPartition, Long> beginning,
+                                                            Map<TopicPartition, Long> end,
+                                                            Map<TopicPartition, Long> defaults) {
+        Map<TopicPartition, OffsetAndTimestamp> byTime = null;
+        if (timestamp != null) {
+            Map<TopicPartition, Long> query = new HashMap<>();
+            partitions.forEach(partition -> query.put(partition, timestamp.toEpochMilli()));
+            byTime = consumer.offsetsForTimes(query);
+        }
+
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            long offset;
+            if (explicit != null && explicit.containsKey(partition.partition())) {
+                offset = explicit.get(partition.partition());
+            } else if (byTime != null) {
+                OffsetAndTimestamp found = byTime.get(partition);
+                offset = found != null ? found.offset() : end.get(partition);
+            } else {
+                offset = defaults.get(partition);
+            }
+            offsets.put(partition, Math.max(beginning.get(partition), Math.min(end.get(partition), offset)));
+        }
+        return offsets;
+    }
+
+    private Map<Long, BucketAggregate> replayPartition(Job job, TopicPartition partition, long startOffset, long endOffset) {
+        Map<Long, BucketAggregate> buckets = new HashMap<>();
+        BloomFilter seen = dedupFilter(partition, endOffset - startOffset);
+
+        try (Consumer<String, byte[]> consumer = new KafkaConsumer<>(consumerConfig())) {
+            consumer.assign(List.of(partition));
+            consumer.seek(partition, startOffset);
+
+            int emptyPolls = 0;
+            while (consumer.position(partition) < endOffset && !job.cancelled) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofSeconds(1));
+                if (records.isEmpty()) {
+                    if (++emptyPolls >= MAX_EMPTY_POLLS) {
+                        logger.warn("Backfill stopped reading {} at offset {} of {}: no more records",
+                                partition, consumer.position(partition), endOffset);
+                        break;
+                    }
+                    continue;
+                }
+                emptyPolls = 0;
+
+                long read = 0;
+                long skipped = 0;
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    if (record.offset() >= endOffset) {
+                        break;
+                    }
+                    EventDto event = parse(record.value());
+                    if (event == null || !job.covers(event.getTimestamp())
+                            || (event.getEventId() != null && seen.put(event.getEventId()))) {
+                        skipped++;
+                    } else {
+                        aggregate(buckets, event);
+                        read++;
+                    }
+                }
+                job.eventsRead.add(read);
+                job.eventsSkipped.add(skipped);
+            }
+        }
+        return buckets;
+    }
+
+    private BloomFilter dedupFilter(TopicPartition partition, long records) {
+        MetricsProperties.Backfill config = metricsProperties.getBackfill();
+        long maxBits = config.getDedupMaxMb() * 8L * 1024 * 1024;
+        // Largest filter allowed: keep the size and accept a higher false-positive rate
+        double floorRate = Math.exp(-(double) maxBits * Math.log(2) * Math.log(2) / Math.max(1, records));
+        double rate = Math.max(config.getDedupFalsePositiveRate(), floorRate);
+        if (rate > config.getDedupFalsePositiveRate()) {
+            logger.warn("Backfill dedup filter of {} capped at {} MB for {} records: false-positive rate {}",
+                    partition, config.getDedupMaxMb(), records, String.format("%.2g", rate));
+        }
+        return BloomFilter.create(records, rate);
+    }
+
+    private Map<String, Object> consumerConfig() {
+        Map<String, Object> config = new HashMap<>(consumerFactory.getConfigurationProperties());
+        // Partitions are assigned directly and no offsets are committed
+        config.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, metricsProperties.getBackfill().getKafkaPollRecords());
+        config.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, 8 * 1024 * 1024);
+        return config;
+    }
+
+    // Only the fields used by the metrics are read; unreadable payloads are skipped
+    private EventDto parse(byte[] value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            EventDto event = AvroEventCodec.isAvro(value)
+                    ? eventMapper.toDto(avroEventCodec.decode(value))
+                    : objectMapper.readValue(value, EventDto.class);
+            return event.getTimestamp() != null ? event : null;
+        } catch (IOException | SerializationException e) {
+            return null;
+        }
+    }
+
+    // ===== Events table =====
+
+    private List<Callable<Map<Long, BucketAggregate>>> databaseTasks(Job job) {
+        Instant from = job.from;
+        Instant to = job.to;
+        int slices = Math.max(1, metricsProperties.getBackfill().getThreads());
+        long sliceMs = Math.max(1, (to.toEpochMilli() - from.toEpochMilli() + slices - 1) / slices);
+
+        List<Callable<Map<Long, BucketAggregate>>> tasks = new ArrayList<>();
+        for (long sliceStart = from.toEpochMilli(); sliceStart < to.toEpochMilli(); sliceStart += sliceMs) {
+            Instant start = Instant.ofEpochMilli(sliceStart);
+            Instant end = Instant.ofEpochMilli(Math.min(to.toEpochMilli(), sliceStart + sliceMs));
+            tasks.add(() -> readEvents(job, start, end));
+        }
+        return tasks;
+    }
+
+    private Map<Long, BucketAggregate> readEvents(Job job, Instant from, Instant to) {
+        Map<Long, BucketAggregate> buckets = new HashMap<>();
+
+        int fetchSize = metricsProperties.getBackfill().getDbFetchSize();
+        long[] pending = new long[1];
+        try {
+            streamingQueries.stream(fetchSize, streaming -> streaming.query(EVENTS_SQL, rs -> {
+                if (job.cancelled) {
+                    throw new BackfillCancelledException();
+                }
+                EventDto event = new EventDto();
+                event.setTimestamp(rs.getTimestamp("timestamp").toInstant());
+                event.setReceivedAt(rs.getTimestamp("received_at").toInstant());
+                event.setSource(rs.getString("source"));
+                event.setEventType(rs.getString("event_type"));
+                event.setSeverity(rs.getString("severity"));
+                String latency = rs.getString("latency");
+                if (latency != null) {
+                    event.setMetadata(Map.<String, Object>of("latency", latency));
+                }
+                aggregate(buckets, event);
+
+                if (++pending[0] == PROGRESS_REPORT_ROWS) {
+                    job.eventsRead.add(pending[0]);
+                    pending[0] = 0;
+                }
+            }, Timestamp.from(from), Timestamp.from(to)));
+        } catch (BackfillCancelledException e) {
+            // The job is marked cancelled once all workers have returned
+        }
+
+        job.eventsRead.add(pending[0]);
+        return buckets;
+    }
+
+    // ===== Aggregation and writes =====
+
+    private void aggregate(Map<Long, BucketAggregate> buckets, EventDto event) {
+        long bucketSizeMs = metricsProperties.getBucketSizeMs();
+        long bucketStart = (event.getTimestamp().toEpochMilli() / bucketSizeMs) * bucketSizeMs;
+        buckets.computeIfAbsent(bucketStart, start -> {
+            BucketAggregate bucket = new BucketAggregate();
+            bucket.setBucketStart(start);
+            return bucket;
+        }).add(event);
+    }
+
+    private void write(Job job, TreeMap<Long, BucketAggregate> buckets) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        long bucketSizeMs = metricsProperties.getBucketSizeMs();
+
+        if (job.request.isRedis()) {
+            // Older buckets would never be read from Redis again
+            long oldest = System.currentTimeMillis() - metricsProperties.getRedisRetentionMs();
+            int perWrite = Math.max(1, metricsProperties.getBackfill().getRedisBucketsPerWrite());
+            List<BucketAggregate> chunk = new ArrayList<>(perWrite);
+            for (BucketAggregate bucket : buckets.tailMap(oldest, true).values()) {
+                chunk.add(bucket);
+                if (chunk.size() == perWrite) {
+                    redisMetricsService.replaceBuckets(chunk);
+                    job.redisBuckets += chunk.size();
+                    chunk = new ArrayList<>(perWrite);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                redisMetricsService.replaceBuckets(chunk);
+                job.redisBuckets += chunk.size();
+            }
+        }
+
+        if (job.request.isTimescale()) {
+            List<MetricsBucket> rows = new ArrayList<>(buckets.size());
+            for (BucketAggregate bucket : buckets.values()) {
+                rows.add(toMetricsBucket(bucket, bucketSizeMs));
+            }
+            timescaleMetricsService.replaceBuckets(rows);
+            job.timescaleBuckets = rows.size();
+        }
+    }
+
+    private static MetricsBucket toMetricsBucket(BucketAggregate aggregate, long bucketSizeMs) {
+        Instant start = Instant.ofEpochMilli(aggregate.getBucketStart());
+        MetricsBucket bucket = new MetricsBucket(start, start.plusMillis(bucketSizeMs));
+
+        BucketAggregate.Counts totals = aggregate.getTotals();
+        bucket.setTotalEvents(totals.getEvents());
+        bucket.setTotalErrors(totals.getErrors());
+        bucket.setLatencySum(totals.getLatencySum());
+        bucket.setLatencyCount(totals.getLatencyCount());
+        bucket.setLatencyMin(totals.getLatencyMin());
+        bucket.setLatencyMax(totals.getLatencyMax());
+        LatencySketch latencies = totals.getLatencies();
+        if (latencies != null && latencies.getCount() > 0) {
+            bucket.setLatencyP50(latencies.quantile(0.50).doubleValue());
+            bucket.setLatencyP95(latencies.quantile(0.95).doubleValue());
+            bucket.setLatencyP99(latencies.quantile(0.99).doubleValue());
+        }
+
+        aggregate.getBySource().forEach((source, counts) -> {
+            MetricsBucket.SourceMetrics metrics = new MetricsBucket.SourceMetrics();
+            metrics.setEvents(counts.getEvents());
+            metrics.setErrors(counts.getErrors());
+            metrics.setLatencySum(counts.getLatencySum());
+            metrics.setLatencyCount(counts.getLatencyCount());
+            bucket.getBySource().put(source, metrics);
+        });
+        aggregate.getByType().forEach((type, counts) -> {
+            MetricsBucket.TypeMetrics metrics = new MetricsBucket.TypeMetrics();
+            metrics.setCount(counts.getEvents());
+            metrics.setLatencySum(counts.getLatencySum());
+            metrics.setLatencyCount(counts.getLatencyCount());
+            bucket.getByEventType().put(type, metrics);
+        });
+        bucket.getBySeverity().putAll(aggregate.getBySeverity());
+        return bucket;
+    }
+
+    private static class BackfillCancelledException extends RuntimeException {
+        BackfillCancelledException() {
+            super("Backfill cancelled");
+        }
+    }
+
+    private static class Job {
+        private final String id;
+        private final MetricsBackfillRequest request;
+        private final Instant from; // request range widened to bucket boundaries, null if open
+        private final Instant to;
+        private final Instant startedAt = Instant.now();
+        private final LongAdder eventsRead = new LongAdder();
+        private final LongAdder eventsSkipped = new LongAdder();
+        private volatile MetricsBackfillStatus.State state = MetricsBackfillStatus.State.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile int workers;
+        private volatile Long expectedEvents;
+        private volatile long buckets;
+        private volatile long redisBuckets;
+        private volatile long timescaleBuckets;
+        private volatile String error;
+        private volatile boolean cancelled;
+
+        Job(String id, MetricsBackfillRequest request, Instant from, Instant to) {
+            this.id = id;
+            this.request = request;
+            this.from = from;
+            this.to = to;
+        }
+
+        boolean covers(Instant eventTime) {
+            return (from == null || !eventTime.isBefore(from)) && (to == null || eventTime.isBefore(to));
+        }
+
+        boolean isActive() {
+            return state == MetricsBackfillStatus.State.RUNNING || state == MetricsBackfillStatus.State.WRITING;
+        }
+
+        MetricsBackfillStatus toStatus() {
+            MetricsBackfillStatus status = new MetricsBackfillStatus();
+            status.setJobId(id);
+            status.setState(state);
+            status.setSource(request.getSource());
+            status.setStartedAt(startedAt);
+            status.setFinishedAt(finishedAt);
+            status.setWorkers(workers);
+
+            long read = eventsRead.sum();
+            long skipped = eventsSkipped.sum();
+            status.setEventsRead(read);
+            status.setEventsSkipped(skipped);
+            status.setExpectedEvents(expectedEvents);
+            if (expectedEvents != null && expectedEvents > 0) {
+                status.setProgressPercent(Math.min(100.0, (read + skipped) * 100.0 / expectedEvents));
+            } else if (state == MetricsBackfillStatus.State.COMPLETED) {
+                status.setProgressPercent(100.0);
+            }
+
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            double seconds = Math.max(0.001, Duration.between(startedAt, end).toMillis() / 1000.0);
+            status.setEventsPerSecond(read / seconds);
+
+            status.setBuckets(buckets);
+            status.setRedisBuckets(redisBuckets);
+            status.setTimescaleBuckets(timescaleBuckets);
+            status.setError(error);
+            return status;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.eventara.metrics.service;
+
+import com.eventara.common.dto.EventDto;
+import com.eventara.instrumentation.PipelineMetrics;
+import com.eventara.metrics.config.MetricsProperties;
+import com.eventara.metrics.model.ConcurrentMetricsDelta;
+import com.eventara.metrics.model.MetricsDelta;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Aggregates the Redis metric updates of all consumer threads in process and
+ * writes them out periodically.
+ *
+ * Each event only bumps in-memory counters of its bucket (see
+ * ConcurrentMetricsDelta). Every flush-interval-ms, or as soon as
+ * flush-events events are pending, everything that changed is written with
+ * RedisMetricsService.applyDelta: one HINCRBY per key and field, whatever the
+ * number of events behind it. Redis load then follows the number of distinct
+ * sources and types rather than the event rate.
+ *
+ * Readers see counters up to one flush interval late. A flush Redis rejects
+ * is kept and merged into the next one, so an outage delays counters rather
+ * than losing them. Pending updates are flushed on shutdown; a crash loses at
+ * most what was not flushed yet (the events themselves are in the database).
+ */
+@Component
+public class MetricsPreAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsPreAggregator.class);
+
+    @Autowired
+    private RedisMetricsService redisMetrics;
+
+    @Autowired
+    private MetricsProperties metricsProperties;
+
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // bucket start -> updates of that bucket
+    private final Map<Long, ConcurrentMetricsDelta> buckets = new ConcurrentHashMap<>();
+
+    private final LongAdder pending = new LongAdder();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Last delta Redis rejected, sent again with the next flush (guarded by flushLock)
+    private MetricsDelta unflushed;
+    private volatile long unflushedEvents = 0;
+    private volatile long lastFlushMs = System.currentTimeMillis();
+    private Counter failedFlushes;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("eventara.metrics.preaggregation.pending", this,
+                        aggregator -> aggregator.pending.sum() + aggregator.unflushedEvents)
+                .description("Events aggregated in memory and not yet written to Redis")
+                .baseUnit("events")
+                .register(meterRegistry);
+        Gauge.builder("eventara.metrics.preaggregation.flush.lag", this,
+                        aggregator -> System.currentTimeMillis() - aggregator.lastFlushMs)
+                .description("Time since the last successful flush of pre-aggregated metrics to Redis")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        failedFlushes = Counter.builder("eventara.metrics.preaggregation.flush.failures")
+                .description("Flushes of pre-aggregated metrics that Redis rejected")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Add an event to its bucket; flushes inline once flush-events are pending.
+     */
+    public void record(EventDto event) {
+        long bucketSizeMs = metricsProperties.getBucketSizeMs();
+        long bucketStart = (System.currentTimeMillis() / bucketSizeMs) * bucketSizeMs;
+        redisMetrics.addToDelta(buckets.computeIfAbsent(bucketStart, b -> new ConcurrentMetricsDelta()),
+                bucketStart, event);
+        pending.increment();
+
+        // One consumer thread flushes; the others keep aggregating
+        if (pending.sum() >= metricsProperties.getPreaggregation().getFlushEvents() && flushLock.tryLock()) {
+            try {
+                flushLocked();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${eventara.metrics.preaggregation.flush-interval-ms:500}")
+    public void flush() {
+        if (buckets.isEmpty() && unflushed == null) {
+            lastFlushMs = System.currentTimeMillis();
+            return;
+        }
+        flushLock.lock();
+        try {
+            flushLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+        logger.info("Flushed pre-aggregated metrics on shutdown");
+    }
+
+    private void flushLocked() {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        long bucketSizeMs = metricsProperties.getBucketSizeMs();
+        MetricsDelta delta = unflushed != null ? unflushed : new MetricsDelta();
+        long events = unflushedEvents;
+
+        Iterator<Map.Entry<Long, ConcurrentMetricsDelta>> it = buckets.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, ConcurrentMetricsDelta> bucket = it.next();
+            // A bucket closed for a whole bucket length gets no more events: drain it one last time
+            if (bucket.getKey() + 2 * bucketSizeMs <= now) {
+                it.remove();
+            }
+            events += bucket.getValue().drainTo(delta);
+        }
+        pending.add(unflushedEvents - events);
+
+        try {
+            redisMetrics.applyDelta(delta);
+            unflushed = null;
+            unflushedEvents = 0;
+            lastFlushMs = now;
+            logger.debug("Flushed {} pre-aggregated events to Redis", events);
+        } catch (Exception e) {
+            // Keep the updates: the next flush merges newer ones into them and tries again
+            unflushed = delta;
+            unflushedEvents = events;
+            failedFlushes.increment();
+            logger.error("Failed to flush {} pre-aggregated events to Redis, retrying with the next flush: {}",
+                    events, e.getMessage(), e);
+        } finally {
+            pipelineMetrics.record(PipelineMetrics.Stage.REDIS_RECORD, start);
+        }
+    }
+}
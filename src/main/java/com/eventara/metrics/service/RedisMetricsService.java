@@ -1,14 +1,23 @@
 package com.eventara.metrics.service;
 
 import com.eventara.common.dto.EventDto;
+import com.eventara.instrumentation.PipelineMetrics;
 import com.eventara.metrics.config.MetricsProperties;
+import com.eventara.metrics.model.BucketAggregate;
 import com.eventara.metrics.model.MetricsBucket;
+import com.eventara.metrics.model.MetricsDelta;
+import com.eventara.metrics.model.MetricsSink;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
@@ -33,6 +42,7 @@ public class RedisMetricsService {
 
     private static final String BUCKET_PREFIX = "metrics:bucket:";
     private static final String LATENCIES_PREFIX = "metrics:latencies:";
+    private static final String APPLIED_PREFIX = "metrics:applied:";
     private static final String TYPE_PREFIX = ":type:";
     private static final String FIELD_EVENTS = "events";
     private static final String FIELD_ERRORS = "errors";
@@ -41,97 +51,445 @@ public class RedisMetricsService {
     private static final String FIELD_LATENCY_MIN = "latency_min";
     private static final String FIELD_LATENCY_MAX = "latency_max";
 
+    // Loaded by SHA (EVALSHA) and sent in full only when the server does not have them yet
+    private static final RedisScript<Long> RECORD_EVENT_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/record_event.lua"), Long.class);
+    private static final RedisScript<Long> LATENCY_RANGE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/latency_range.lua"), Long.class);
+    private static final RedisScript<Long> APPLY_DELTA_ONCE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/apply_delta_once.lua"), Long.class);
+
     @Autowired
     private RedisTemplate<String, String> stringRedisTemplate;
 
     @Autowired
     private MetricsProperties metricsProperties;
 
+    @Autowired
+    private PipelineMetrics pipelineMetrics;
+
     /**
      * Record an event in the current time bucket.
-     * Uses atomic Redis operations for thread-safety across instances.
+     * By default one Lua script call does every update of the event; with
+     * eventara.metrics.redis.script-enabled=false each update is its own command.
      */
     public void recordEvent(EventDto event) {
+        long start = System.nanoTime();
         try {
             long now = System.currentTimeMillis();
             long bucketStart = getBucketStart(now);
-            String bucketKey = BUCKET_PREFIX + bucketStart;
 
             long ttlSeconds = metricsProperties.getBucket().getRedisRetentionMinutes() * 60;
 
-            // Atomic increment for total events
-            stringRedisTemplate.opsForHash().increment(bucketKey, FIELD_EVENTS, 1);
+            if (metricsProperties.getRedis().isScriptEnabled()) {
+                recordEventScripted(event, bucketStart, ttlSeconds);
+            } else {
+                recordEventCommands(event, bucketStart, ttlSeconds);
+            }
+
+            logger.debug("Recorded event in bucket {}: type={}, source={}",
+                    bucketStart, event.getEventType(), event.getSource());
+
+        } catch (Exception e) {
+            logger.error("Failed to record event to Redis: {}", e.getMessage(), e);
+        } finally {
+            pipelineMetrics.record(PipelineMetrics.Stage.REDIS_RECORD, start);
+        }
+    }
+
+    /**
+     * One EVALSHA (EVAL the first time a Redis server sees the script); the
+     * script is atomic, so min/max cannot race with other instances.
+     * Only keys the event has are passed, with presence flags in ARGV, so
+     * KEYS holds real key names only (cluster slot routing, ACL key patterns).
+     */
+    private void recordEventScripted(EventDto event, long bucketStart, long ttlSeconds) {
+        String bucketKey = BUCKET_PREFIX + bucketStart;
+        String source = event.getSource();
+        String type = event.getEventType();
+        String severity = event.getSeverity();
+
+        List<String> keys = new ArrayList<>(6);
+        keys.add(bucketKey);
+        keys.add(LATENCIES_PREFIX + bucketStart);
+        if (source != null) {
+            keys.add(bucketKey + ":source:" + source);
+        }
+        if (type != null) {
+            keys.add(bucketKey + TYPE_PREFIX + type);
+            keys.add(LATENCIES_PREFIX + bucketStart + TYPE_PREFIX + type);
+        }
+        if (severity != null) {
+            keys.add(bucketKey + ":severity");
+        }
+
+        stringRedisTemplate.execute(RECORD_EVENT_SCRIPT, keys,
+                String.valueOf(ttlSeconds),
+                event.isError() ? "1" : "0",
+                String.valueOf(Math.max(0, event.getProcessingLatencyMs())),
+                severity != null ? severity : "",
+                source != null ? "1" : "0",
+                type != null ? "1" : "0",
+                severity != null ? "1" : "0");
+    }
+
+    /**
+     * The previous path, one command per update (about 20 round trips for an
+     * event with latency); kept for comparison.
+     */
+    private void recordEventCommands(EventDto event, long bucketStart, long ttlSeconds) {
+        String bucketKey = BUCKET_PREFIX + bucketStart;
+
+        // Atomic increment for total events
+        stringRedisTemplate.opsForHash().increment(bucketKey, FIELD_EVENTS, 1);
 
-            // Track errors
+        // Track errors
+        if (event.isError()) {
+            stringRedisTemplate.opsForHash().increment(bucketKey, FIELD_ERRORS, 1);
+        }
+
+        // Track latency
+        long latency = event.getProcessingLatencyMs();
+        if (latency > 0) {
+            stringRedisTemplate.opsForHash().increment(bucketKey, FIELD_LATENCY_SUM, latency);
+            stringRedisTemplate.opsForHash().increment(bucketKey, FIELD_LATENCY_COUNT, 1);
+
+            // Update min/max
+            updateMinMax(bucketKey, latency);
+
+            // Add to sorted set for percentile calculation
+            String latencyKey = LATENCIES_PREFIX + bucketStart;
+            stringRedisTemplate.opsForZSet().add(latencyKey, String.valueOf(latency), latency);
+            stringRedisTemplate.expire(latencyKey, ttlSeconds, TimeUnit.SECONDS);
+        }
+
+        // Track by source
+        if (event.getSource() != null) {
+            String sourceKey = bucketKey + ":source:" + event.getSource();
+            stringRedisTemplate.opsForHash().increment(sourceKey, FIELD_EVENTS, 1);
             if (event.isError()) {
-                stringRedisTemplate.opsForHash().increment(bucketKey, FIELD_ERRORS, 1);
+                stringRedisTemplate.opsForHash().increment(sourceKey, FIELD_ERRORS, 1);
+            }
+            if (latency > 0) {
+                stringRedisTemplate.opsForHash().increment(sourceKey, FIELD_LATENCY_SUM, latency);
+                stringRedisTemplate.opsForHash().increment(sourceKey, FIELD_LATENCY_COUNT, 1);
             }
+            stringRedisTemplate.expire(sourceKey, ttlSeconds, TimeUnit.SECONDS);
+        }
 
-            // Track latency
-            long latency = event.getProcessingLatencyMs();
+        // Track by event type
+        if (event.getEventType() != null) {
+            String typeKey = bucketKey + TYPE_PREFIX + event.getEventType();
+            stringRedisTemplate.opsForHash().increment(typeKey, FIELD_EVENTS, 1);
+            if (event.isError()) {
+                stringRedisTemplate.opsForHash().increment(typeKey, FIELD_ERRORS, 1);
+            }
             if (latency > 0) {
-                stringRedisTemplate.opsForHash().increment(bucketKey, FIELD_LATENCY_SUM, latency);
-                stringRedisTemplate.opsForHash().increment(bucketKey, FIELD_LATENCY_COUNT, 1);
+                stringRedisTemplate.opsForHash().increment(typeKey, FIELD_LATENCY_SUM, latency);
+                stringRedisTemplate.opsForHash().increment(typeKey, FIELD_LATENCY_COUNT, 1);
 
-                // Update min/max
-                updateMinMax(bucketKey, latency);
+                updateMinMax(typeKey, latency);
 
-                // Add to sorted set for percentile calculation
-                String latencyKey = LATENCIES_PREFIX + bucketStart;
-                stringRedisTemplate.opsForZSet().add(latencyKey, String.valueOf(latency), latency);
-                stringRedisTemplate.expire(latencyKey, ttlSeconds, TimeUnit.SECONDS);
+                String typeLatencyKey = LATENCIES_PREFIX + bucketStart + TYPE_PREFIX + event.getEventType();
+                stringRedisTemplate.opsForZSet().add(typeLatencyKey, String.valueOf(latency), latency);
+                stringRedisTemplate.expire(typeLatencyKey, ttlSeconds, TimeUnit.SECONDS);
             }
+            stringRedisTemplate.expire(typeKey, ttlSeconds, TimeUnit.SECONDS);
+        }
 
-            // Track by source
-            if (event.getSource() != null) {
-                String sourceKey = bucketKey + ":source:" + event.getSource();
-                stringRedisTemplate.opsForHash().increment(sourceKey, FIELD_EVENTS, 1);
-                if (event.isError()) {
-                    stringRedisTemplate.opsForHash().increment(sourceKey, FIELD_ERRORS, 1);
-                }
-                if (latency > 0) {
-                    stringRedisTemplate.opsForHash().increment(sourceKey, FIELD_LATENCY_SUM, latency);
-                    stringRedisTemplate.opsForHash().increment(sourceKey, FIELD_LATENCY_COUNT, 1);
-                }
-                stringRedisTemplate.expire(sourceKey, ttlSeconds, TimeUnit.SECONDS);
+        // Track by severity
+        if (event.getSeverity() != null) {
+            String severityKey = bucketKey + ":severity";
+            stringRedisTemplate.opsForHash().increment(severityKey, event.getSeverity(), 1);
+            stringRedisTemplate.expire(severityKey, ttlSeconds, TimeUnit.SECONDS);
+        }
+
+        // Set TTL on main bucket
+        stringRedisTemplate.expire(bucketKey, ttlSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Record a batch of events.
+     * The batch is folded into a single delta (one increment per key and field)
+     * and written in one pipelined round trip instead of ~15 commands per event.
+     */
+    public void recordEvents(List<EventDto> events) {
+        long start = System.nanoTime();
+        try {
+            long bucketStart = getBucketStart(System.currentTimeMillis());
+            MetricsDelta delta = new MetricsDelta();
+            for (EventDto event : events) {
+                addToDelta(delta, bucketStart, event);
             }
+            applyDelta(delta);
 
-            // Track by event type
-            if (event.getEventType() != null) {
-                String typeKey = bucketKey + TYPE_PREFIX + event.getEventType();
-                stringRedisTemplate.opsForHash().increment(typeKey, FIELD_EVENTS, 1);
-                if (event.isError()) {
-                    stringRedisTemplate.opsForHash().increment(typeKey, FIELD_ERRORS, 1);
-                }
-                if (latency > 0) {
-                    stringRedisTemplate.opsForHash().increment(typeKey, FIELD_LATENCY_SUM, latency);
-                    stringRedisTemplate.opsForHash().increment(typeKey, FIELD_LATENCY_COUNT, 1);
+            logger.debug("Recorded {} events in bucket {}", events.size(), bucketStart);
+
+        } catch (Exception e) {
+            logger.error("Failed to record event batch to Redis: {}", e.getMessage(), e);
+        } finally {
+            pipelineMetrics.record(PipelineMetrics.Stage.REDIS_RECORD, start);
+        }
+    }
 
-                    updateMinMax(typeKey, latency);
+    /**
+     * Fold one event into a delta (a batch, or the pre-aggregator's running
+     * totals), using the same keys and fields as recordEvent.
+     */
+    public void addToDelta(MetricsSink delta, long bucketStart, EventDto event) {
+        String bucketKey = BUCKET_PREFIX + bucketStart;
+        boolean error = event.isError();
+        long latency = event.getProcessingLatencyMs();
 
-                    String typeLatencyKey = LATENCIES_PREFIX + bucketStart + TYPE_PREFIX + event.getEventType();
-                    stringRedisTemplate.opsForZSet().add(typeLatencyKey, String.valueOf(latency), latency);
-                    stringRedisTemplate.expire(typeLatencyKey, ttlSeconds, TimeUnit.SECONDS);
-                }
-                stringRedisTemplate.expire(typeKey, ttlSeconds, TimeUnit.SECONDS);
+        delta.countEvent();
+        delta.increment(bucketKey, FIELD_EVENTS, 1);
+        if (error) {
+            delta.increment(bucketKey, FIELD_ERRORS, 1);
+        }
+        if (latency > 0) {
+            delta.increment(bucketKey, FIELD_LATENCY_SUM, latency);
+            delta.increment(bucketKey, FIELD_LATENCY_COUNT, 1);
+            delta.observeLatencyRange(bucketKey, latency);
+            delta.addLatency(LATENCIES_PREFIX + bucketStart, latency);
+        }
+
+        if (event.getSource() != null) {
+            String sourceKey = bucketKey + ":source:" + event.getSource();
+            delta.increment(sourceKey, FIELD_EVENTS, 1);
+            if (error) {
+                delta.increment(sourceKey, FIELD_ERRORS, 1);
             }
+            if (latency > 0) {
+                delta.increment(sourceKey, FIELD_LATENCY_SUM, latency);
+                delta.increment(sourceKey, FIELD_LATENCY_COUNT, 1);
+            }
+        }
 
-            // Track by severity
-            if (event.getSeverity() != null) {
-                String severityKey = bucketKey + ":severity";
-                stringRedisTemplate.opsForHash().increment(severityKey, event.getSeverity(), 1);
-                stringRedisTemplate.expire(severityKey, ttlSeconds, TimeUnit.SECONDS);
+        if (event.getEventType() != null) {
+            String typeKey = bucketKey + TYPE_PREFIX + event.getEventType();
+            delta.increment(typeKey, FIELD_EVENTS, 1);
+            if (error) {
+                delta.increment(typeKey, FIELD_ERRORS, 1);
+            }
+            if (latency > 0) {
+                delta.increment(typeKey, FIELD_LATENCY_SUM, latency);
+                delta.increment(typeKey, FIELD_LATENCY_COUNT, 1);
+                delta.observeLatencyRange(typeKey, latency);
+                delta.addLatency(LATENCIES_PREFIX + bucketStart + TYPE_PREFIX + event.getEventType(), latency);
             }
+        }
 
-            // Set TTL on main bucket
-            stringRedisTemplate.expire(bucketKey, ttlSeconds, TimeUnit.SECONDS);
+        if (event.getSeverity() != null) {
+            delta.increment(bucketKey + ":severity", event.getSeverity(), 1);
+        }
+    }
 
-            logger.debug("Recorded event in bucket {}: type={}, source={}",
-                    bucketStart, event.getEventType(), event.getSource());
+    /**
+     * Record a closed bucket computed by the Kafka Streams topology.
+     * The aggregate is written with the same keys and fields as recordEvent, in
+     * one script call; latency sorted sets get one member per sketch bin.
+     *
+     * Streams may emit a window again after a crash (at-least-once), so the
+     * write is applied at most once per windowKey: a marker key is set in the
+     * same atomic script, and a window that already has one is skipped.
+     */
+    public void recordBucket(String windowKey, BucketAggregate bucket) {
+        long start = System.nanoTime();
+        try {
+            MetricsDelta delta = new MetricsDelta();
+            addBucketToDelta(delta, bucket, false);
+            if (applyDeltaOnce(APPLIED_PREFIX + windowKey, delta)) {
+                logger.debug("Recorded closed bucket {}: events={}", windowKey, bucket.getTotals().getEvents());
+            } else {
+                logger.info("Closed bucket {} was already recorded, skipping", windowKey);
+            }
 
         } catch (Exception e) {
-            logger.error("Failed to record event to Redis: {}", e.getMessage(), e);
+            logger.error("Failed to record bucket to Redis: {}", e.getMessage(), e);
+        } finally {
+            pipelineMetrics.record(PipelineMetrics.Stage.REDIS_RECORD, start);
+        }
+    }
+
+    /**
+     * Overwrite whole buckets (metrics backfill): the keys of each bucket are
+     * deleted and rewritten from the aggregate in one pipeline.
+     */
+    public void replaceBuckets(List<BucketAggregate> buckets) {
+        MetricsDelta delta = new MetricsDelta();
+        for (BucketAggregate bucket : buckets) {
+            addBucketToDelta(delta, bucket, true);
+        }
+        applyDelta(delta);
+    }
+
+    private void addBucketToDelta(MetricsDelta delta, BucketAggregate bucket, boolean replace) {
+        long bucketStart = bucket.getBucketStart();
+        String bucketKey = BUCKET_PREFIX + bucketStart;
+
+        addCountsToDelta(delta, bucketKey, LATENCIES_PREFIX + bucketStart, bucket.getTotals(), replace);
+        for (Map.Entry<String, BucketAggregate.Counts> source : bucket.getBySource().entrySet()) {
+            addCountsToDelta(delta, bucketKey + ":source:" + source.getKey(), null, source.getValue(), replace);
+        }
+        for (Map.Entry<String, BucketAggregate.Counts> type : bucket.getByType().entrySet()) {
+            addCountsToDelta(delta, bucketKey + TYPE_PREFIX + type.getKey(),
+                    LATENCIES_PREFIX + bucketStart + TYPE_PREFIX + type.getKey(), type.getValue(), replace);
+        }
+        if (replace) {
+            delta.delete(bucketKey + ":severity");
+        }
+        for (Map.Entry<String, Long> severity : bucket.getBySeverity().entrySet()) {
+            delta.increment(bucketKey + ":severity", severity.getKey(), severity.getValue());
+        }
+    }
+
+    private void addCountsToDelta(MetricsDelta delta, String hashKey, String latencyKey,
+                                  BucketAggregate.Counts counts, boolean replace) {
+        if (replace) {
+            delta.delete(hashKey);
+            if (latencyKey != null) {
+                delta.delete(latencyKey);
+            }
+        }
+        delta.increment(hashKey, FIELD_EVENTS, counts.getEvents());
+        if (counts.getErrors() > 0) {
+            delta.increment(hashKey, FIELD_ERRORS, counts.getErrors());
         }
+        if (counts.getLatencyCount() > 0) {
+            delta.increment(hashKey, FIELD_LATENCY_SUM, counts.getLatencySum());
+            delta.increment(hashKey, FIELD_LATENCY_COUNT, counts.getLatencyCount());
+        }
+        if (latencyKey == null) {
+            // Source hashes carry no min/max or percentiles (same as recordEvent)
+            return;
+        }
+        if (counts.getLatencyMin() != null) {
+            if (replace) {
+                // The key was just deleted, so there is nothing to compare against
+                delta.put(hashKey, FIELD_LATENCY_MIN, String.valueOf(counts.getLatencyMin()));
+                delta.put(hashKey, FIELD_LATENCY_MAX, String.valueOf(counts.getLatencyMax()));
+            } else {
+                delta.observeLatencyRange(hashKey, counts.getLatencyMin());
+                delta.observeLatencyRange(hashKey, counts.getLatencyMax());
+            }
+        }
+        if (counts.getLatencies() != null) {
+            for (Long latency : counts.getLatencies().representativeValues()) {
+                delta.addLatency(latencyKey, latency);
+            }
+        }
+    }
+
+    /**
+     * Write a delta to Redis: hash increments, latency sorted sets and TTLs in
+     * one pipeline, then min/max once per key. What the pipeline wrote is
+     * removed from the delta, so a failed delta can be applied again.
+     */
+    public void applyDelta(MetricsDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        long ttlSeconds = metricsProperties.getBucket().getRedisRetentionMinutes() * 60;
+
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            pipelineDelta(connection, delta, ttlSeconds);
+            return null;
+        });
+        delta.clearPipelinedWrites();
+
+        // Min/max need a read, so they are applied per key rather than per event
+        if (delta.getLatencyRanges().isEmpty()) {
+            return;
+        }
+        if (!metricsProperties.getRedis().isScriptEnabled()) {
+            for (Map.Entry<String, long[]> range : delta.getLatencyRanges().entrySet()) {
+                updateMinMax(range.getKey(), range.getValue()[0]);
+                updateMinMax(range.getKey(), range.getValue()[1]);
+            }
+            return;
+        }
+        List<String> keys = new ArrayList<>(delta.getLatencyRanges().size());
+        List<String> args = new ArrayList<>(delta.getLatencyRanges().size() * 2);
+        for (Map.Entry<String, long[]> range : delta.getLatencyRanges().entrySet()) {
+            keys.add(range.getKey());
+            args.add(String.valueOf(range.getValue()[0]));
+            args.add(String.valueOf(range.getValue()[1]));
+        }
+        stringRedisTemplate.execute(LATENCY_RANGE_SCRIPT, keys, args.toArray());
+    }
+
+    /**
+     * Apply the increments, latencies and min/max of a delta in one script
+     * call, unless markerKey already exists.
+     *
+     * @return false when the delta had already been applied
+     */
+    private boolean applyDeltaOnce(String markerKey, MetricsDelta delta) {
+        long ttlSeconds = metricsProperties.getBucket().getRedisRetentionMinutes() * 60;
+        List<String> keys = new ArrayList<>();
+        keys.add(markerKey);
+        Map<String, Integer> keyIndexes = new HashMap<>();
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(ttlSeconds));
+
+        for (Map.Entry<String, Map<String, Long>> hash : delta.getHashIncrements().entrySet()) {
+            String index = keyIndex(hash.getKey(), keys, keyIndexes);
+            for (Map.Entry<String, Long> field : hash.getValue().entrySet()) {
+                Collections.addAll(args, "h", index, field.getKey(), String.valueOf(field.getValue()));
+            }
+        }
+        for (Map.Entry<String, Set<Long>> zset : delta.getLatencies().entrySet()) {
+            String index = keyIndex(zset.getKey(), keys, keyIndexes);
+            for (Long latency : zset.getValue()) {
+                Collections.addAll(args, "z", index, String.valueOf(latency), String.valueOf(latency));
+            }
+        }
+        for (Map.Entry<String, long[]> range : delta.getLatencyRanges().entrySet()) {
+            Collections.addAll(args, "r", keyIndex(range.getKey(), keys, keyIndexes),
+                    String.valueOf(range.getValue()[0]), String.valueOf(range.getValue()[1]));
+        }
+
+        Long applied = stringRedisTemplate.execute(APPLY_DELTA_ONCE_SCRIPT, keys, args.toArray());
+        return applied != null && applied == 1L;
+    }
+
+    // 1-based position of key in the script's KEYS
+    private static String keyIndex(String key, List<String> keys, Map<String, Integer> keyIndexes) {
+        return String.valueOf(keyIndexes.computeIfAbsent(key, k -> {
+            keys.add(k);
+            return keys.size();
+        }));
+    }
+
+    private void pipelineDelta(RedisConnection connection, MetricsDelta delta, long ttlSeconds) {
+        for (String key : delta.getDeletes()) {
+            connection.keyCommands().del(bytes(key));
+        }
+        for (Map.Entry<String, Map<String, Long>> hash : delta.getHashIncrements().entrySet()) {
+            byte[] key = bytes(hash.getKey());
+            for (Map.Entry<String, Long> field : hash.getValue().entrySet()) {
+                connection.hashCommands().hIncrBy(key, bytes(field.getKey()), field.getValue());
+            }
+            connection.keyCommands().expire(key, ttlSeconds);
+        }
+        for (Map.Entry<String, Map<String, String>> hash : delta.getHashValues().entrySet()) {
+            byte[] key = bytes(hash.getKey());
+            for (Map.Entry<String, String> field : hash.getValue().entrySet()) {
+                connection.hashCommands().hSet(key, bytes(field.getKey()), bytes(field.getValue()));
+            }
+            connection.keyCommands().expire(key, ttlSeconds);
+        }
+        for (Map.Entry<String, Set<Long>> zset : delta.getLatencies().entrySet()) {
+            byte[] key = bytes(zset.getKey());
+            for (Long latency : zset.getValue()) {
+                connection.zSetCommands().zAdd(key, latency, bytes(String.valueOf(latency)));
+            }
+            connection.keyCommands().expire(key, ttlSeconds);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
     }
 
     /**
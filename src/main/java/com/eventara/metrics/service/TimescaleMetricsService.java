@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -24,6 +25,17 @@ public class TimescaleMetricsService {
 
     private static final Logger logger = LoggerFactory.getLogger(TimescaleMetricsService.class);
 
+    private static final String INSERT_SQL = """
+            INSERT INTO metrics_buckets (
+                bucket_start, bucket_end, total_events, total_errors,
+                latency_sum, latency_count, latency_p50, latency_p95, latency_p99,
+                latency_min, latency_max, by_source, by_event_type, by_severity
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?::jsonb, ?::jsonb)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
@@ -35,18 +47,9 @@ public class TimescaleMetricsService {
             return;
         }
 
-        String sql = """
-                INSERT INTO metrics_buckets (
-                    bucket_start, bucket_end, total_events, total_errors,
-                    latency_sum, latency_count, latency_p50, latency_p95, latency_p99,
-                    latency_min, latency_max, by_source, by_event_type, by_severity
-                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?::jsonb, ?::jsonb)
-                ON CONFLICT DO NOTHING
-                """;
-
         for (MetricsBucket bucket : buckets) {
             try {
-                jdbcTemplate.update(sql,
+                jdbcTemplate.update(INSERT_SQL,
                         Timestamp.from(bucket.getBucketStart()),
                         Timestamp.from(bucket.getBucketEnd()),
                         bucket.getTotalEvents(),
@@ -69,6 +72,44 @@ public class TimescaleMetricsService {
         logger.info("Inserted {} metric buckets to TimescaleDB", buckets.size());
     }
 
+    /**
+     * Replace the rows of the given buckets with them (metrics backfill).
+     * Only rows with the same bucket_start are deleted, so buckets in between
+     * that were not rebuilt are kept. Delete and batch insert run in one transaction.
+     */
+    @Transactional
+    public void replaceBuckets(List<MetricsBucket> buckets) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        Timestamp[] starts = new Timestamp[buckets.size()];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = Timestamp.from(buckets.get(i).getBucketStart());
+        }
+        int deleted = jdbcTemplate.update("DELETE FROM metrics_buckets WHERE bucket_start = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("timestamptz", starts)));
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, buckets, INSERT_BATCH_SIZE, (ps, bucket) -> {
+            ps.setTimestamp(1, Timestamp.from(bucket.getBucketStart()));
+            ps.setTimestamp(2, Timestamp.from(bucket.getBucketEnd()));
+            ps.setLong(3, bucket.getTotalEvents());
+            ps.setLong(4, bucket.getTotalErrors());
+            ps.setLong(5, bucket.getLatencySum());
+            ps.setLong(6, bucket.getLatencyCount());
+            ps.setObject(7, bucket.getLatencyP50());
+            ps.setObject(8, bucket.getLatencyP95());
+            ps.setObject(9, bucket.getLatencyP99());
+            ps.setObject(10, bucket.getLatencyMin());
+            ps.setObject(11, bucket.getLatencyMax());
+            ps.setString(12, toJsonb(bucket.getBySource()));
+            ps.setString(13, toJsonb(bucket.getByEventType()));
+            ps.setString(14, toJsonb(bucket.getBySeverity()));
+        });
+
+        logger.info("Replaced {} metric buckets with {} in TimescaleDB ({} to {})", deleted, buckets.size(),
+                buckets.get(0).getBucketStart(), buckets.get(buckets.size() - 1).getBucketStart());
+    }
+
     /**
      * Get aggregated metrics for a time window.
      */
@@ -14,6 +14,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -21,12 +22,14 @@ import java.util.List;
 
 /**
  * REST Controller for viewing notification logs
+ * Read-only, so its queries run on the read pool
  */
 @RestController
 @RequestMapping("/api/v1/notifications/logs")
 @RequiredArgsConstructor
 @Slf4j
 @Tag(name = "Notification Logs", description = "APIs for viewing notification delivery history")
+@Transactional(readOnly = true)
 public class NotificationLogController {
 
     private final NotificationLogRepository logRepository;
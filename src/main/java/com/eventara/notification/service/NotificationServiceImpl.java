@@ -1,5 +1,6 @@
 package com.eventara.notification.service;
 
+import com.eventara.instrumentation.PipelineMetrics;
 import com.eventara.notification.dto.NotificationMessage;
 import com.eventara.notification.dto.response.NotificationResult;
 import com.eventara.notification.entity.NotificationChannel;
@@ -32,6 +33,7 @@ public class NotificationServiceImpl implements NotificationService {
     private final NotificationChannelRepository channelRepository;
     private final NotificationLogRepository logRepository;
     private final WebhookNotificationHandler webhookHandler;
+    private final PipelineMetrics pipelineMetrics;
 
     @Override
     @Async("notificationExecutor")
@@ -79,7 +81,10 @@ public class NotificationServiceImpl implements NotificationService {
                 }
 
                 // Send notification
+                long start = System.nanoTime();
                 NotificationResult result = sendToChannel(message, channel);
+                pipelineMetrics.recordNotificationDelivery(channel.getChannelType().name(),
+                        result.getStatus() != null ? result.getStatus().name() : "UNKNOWN", start);
                 results.add(result);
 
                 // Log the notification
@@ -1,6 +1,7 @@
 package com.eventara.rule.evaluation;
 
 import com.eventara.alert.service.AlertTriggerHandler;
+import com.eventara.instrumentation.PipelineMetrics;
 import com.eventara.metrics.config.MetricsProperties;
 import com.eventara.metrics.model.MetricsBucket;
 import com.eventara.metrics.service.RedisMetricsService;
@@ -55,6 +56,7 @@ public class AdaptiveRuleEvaluator {
     private final MetricsProperties metricsProperties;
     private final StringRedisTemplate stringRedisTemplate;
     private final HandlerRegistry handlerRegistry;
+    private final PipelineMetrics pipelineMetrics;
 
     // --- State ---
 
@@ -120,6 +122,20 @@ public class AdaptiveRuleEvaluator {
         dirtyFlag.set(true);
     }
 
+    /**
+     * Batch variant of {@link #onEventIngested(boolean)}, called once per consumed batch.
+     * 
+     * @param count      Number of events ingested
+     * @param errorCount Number of those that were errors
+     */
+    public void onEventsIngested(int count, int errorCount) {
+        if (!config.isEnabled() || count == 0)
+            return;
+
+        rateMonitor.recordEvents(count, errorCount);
+        dirtyFlag.set(true);
+    }
+
     /**
      * The heartbeat of the system.
      * Runs frequently (every 100ms) but only does work when needed.
@@ -152,7 +168,9 @@ public class AdaptiveRuleEvaluator {
             // --- It's time to evaluate! ---
             lastEvaluationTime = now;
             evaluated = true;
+            long tickStart = System.nanoTime();
             evaluateAllRulesGrouped();
+            pipelineMetrics.record(PipelineMetrics.Stage.RULE_TICK, tickStart);
 
         } catch (Exception e) {
             log.error("Error during adaptive rule evaluation", e);
@@ -74,6 +74,20 @@ public class EventRateMonitor {
         }
     }
 
+    /**
+     * Record several event arrivals at once.
+     * Called from EventConsumer once per consumed batch.
+     * 
+     * @param events number of events
+     * @param errors number of those that are error events
+     */
+    public void recordEvents(long events, long errors) {
+        eventCounter.addAndGet(events);
+        if (errors > 0) {
+            errorCounter.addAndGet(errors);
+        }
+    }
+
     /**
      * Record an event arrival (simple version).
      * Called when error status is not known or not relevant.
@@ -0,0 +1,121 @@
+-- =============================================================================
+-- V10: Stored event latency and continuous aggregates of the events table
+-- latency_ms (received_at - timestamp) is written by EventBulkWriter, so rule
+-- metrics no longer compute it per row. Existing rows are not rewritten (that
+-- would lock and rewrite the whole hypertable inside this migration): their
+-- latency_ms stays NULL and readers fall back to received_at - timestamp.
+-- The aggregates below hold per-minute
+-- and per-hour counts, error counts, latency totals and latency histograms by
+-- source and event type; MetricsCalculator reads them instead of the events.
+-- =============================================================================
+
+ALTER TABLE events ADD COLUMN IF NOT EXISTS latency_ms DOUBLE PRECISION;
+
+COMMENT ON COLUMN events.latency_ms IS 'received_at - timestamp in milliseconds, set at insert; NULL for rows inserted before V10';
+
+-- =============================================================================
+-- Continuous Aggregate: 1-minute counts and latency totals
+-- =============================================================================
+CREATE MATERIALIZED VIEW IF NOT EXISTS events_1m
+WITH (timescaledb.continuous, timescaledb.materialized_only = false) AS
+SELECT
+    time_bucket('1 minute', timestamp) AS minute,
+    source,
+    event_type,
+    COUNT(*) AS events,
+    SUM(CASE WHEN severity IN ('ERROR', 'CRITICAL') THEN 1 ELSE 0 END) AS errors,
+    SUM(COALESCE(latency_ms, EXTRACT(EPOCH FROM (received_at - timestamp)) * 1000)) AS latency_sum,
+    COUNT(COALESCE(latency_ms, EXTRACT(EPOCH FROM (received_at - timestamp)) * 1000)) AS latency_count,
+    MIN(COALESCE(latency_ms, EXTRACT(EPOCH FROM (received_at - timestamp)) * 1000)) AS latency_min,
+    MAX(COALESCE(latency_ms, EXTRACT(EPOCH FROM (received_at - timestamp)) * 1000)) AS latency_max
+FROM events
+GROUP BY minute, source, event_type
+WITH NO DATA;
+
+-- =============================================================================
+-- Continuous Aggregate: 1-minute latency histograms
+-- Logarithmic bins with ~1% relative error, the same bins as LatencySketch:
+-- bin = ceil(ln(latency) / ln(1.01 / 0.99)). Summing bin counts over any
+-- set of rows gives the histogram of that set, so percentiles stay mergeable.
+-- =============================================================================
+CREATE MATERIALIZED VIEW IF NOT EXISTS events_latency_1m
+WITH (timescaledb.continuous, timescaledb.materialized_only = false) AS
+SELECT
+    time_bucket('1 minute', timestamp) AS minute,
+    source,
+    event_type,
+    CEIL(LN(COALESCE(latency_ms, EXTRACT(EPOCH FROM (received_at - timestamp)) * 1000)) / LN(1.01 / 0.99))::INT AS bin,
+    COUNT(*) AS events
+FROM events
+WHERE COALESCE(latency_ms, EXTRACT(EPOCH FROM (received_at - timestamp)) * 1000) > 0
+GROUP BY minute, source, event_type, bin
+WITH NO DATA;
+
+-- =============================================================================
+-- Hierarchical Continuous Aggregates: 1-hour rollups of the minute views
+-- =============================================================================
+CREATE MATERIALIZED VIEW IF NOT EXISTS events_1h
+WITH (timescaledb.continuous, timescaledb.materialized_only = false) AS
+SELECT
+    time_bucket('1 hour', minute) AS hour,
+    source,
+    event_type,
+    SUM(events) AS events,
+    SUM(errors) AS errors,
+    SUM(latency_sum) AS latency_sum,
+    SUM(latency_count) AS latency_count,
+    MIN(latency_min) AS latency_min,
+    MAX(latency_max) AS latency_max
+FROM events_1m
+GROUP BY hour, source, event_type
+WITH NO DATA;
+
+CREATE MATERIALIZED VIEW IF NOT EXISTS events_latency_1h
+WITH (timescaledb.continuous, timescaledb.materialized_only = false) AS
+SELECT
+    time_bucket('1 hour', minute) AS hour,
+    source,
+    event_type,
+    bin,
+    SUM(events) AS events
+FROM events_latency_1m
+GROUP BY hour, source, event_type, bin
+WITH NO DATA;
+
+-- =============================================================================
+-- Refresh policies
+-- Recent buckets are read through real-time aggregation (materialized_only =
+-- false), so the policies only bound how much raw data a query has to scan.
+-- =============================================================================
+SELECT add_continuous_aggregate_policy('events_1m',
+    start_offset => INTERVAL '1 day',
+    end_offset => INTERVAL '1 minute',
+    schedule_interval => INTERVAL '1 minute',
+    if_not_exists => TRUE
+);
+
+SELECT add_continuous_aggregate_policy('events_latency_1m',
+    start_offset => INTERVAL '1 day',
+    end_offset => INTERVAL '1 minute',
+    schedule_interval => INTERVAL '1 minute',
+    if_not_exists => TRUE
+);
+
+SELECT add_continuous_aggregate_policy('events_1h',
+    start_offset => INTERVAL '3 days',
+    end_offset => INTERVAL '1 hour',
+    schedule_interval => INTERVAL '15 minutes',
+    if_not_exists => TRUE
+);
+
+SELECT add_continuous_aggregate_policy('events_latency_1h',
+    start_offset => INTERVAL '3 days',
+    end_offset => INTERVAL '1 hour',
+    schedule_interval => INTERVAL '15 minutes',
+    if_not_exists => TRUE
+);
+
+COMMENT ON MATERIALIZED VIEW events_1m IS 'Per-minute event counts, errors and latency totals by source and event type';
+COMMENT ON MATERIALIZED VIEW events_latency_1m IS 'Per-minute latency histograms (LatencySketch bins) by source and event type';
+COMMENT ON MATERIALIZED VIEW events_1h IS 'Hourly rollup of events_1m';
+COMMENT ON MATERIALIZED VIEW events_latency_1h IS 'Hourly rollup of events_latency_1m';
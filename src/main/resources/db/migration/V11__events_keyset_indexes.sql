@@ -0,0 +1,18 @@
+-- =============================================================================
+-- V11: Indexes for keyset pagination of events (GET /api/v1/events/browse)
+-- Pages are ordered by (timestamp, id) descending, so every filter column gets
+-- a (column, timestamp DESC, id DESC) index: a page is one range scan of
+-- limit rows at any depth. They replace the (column, timestamp DESC) indexes
+-- of V9, which they cover.
+-- =============================================================================
+
+DROP INDEX IF EXISTS idx_timestamp;
+DROP INDEX IF EXISTS idx_events_event_type_timestamp;
+DROP INDEX IF EXISTS idx_events_source_timestamp;
+DROP INDEX IF EXISTS idx_events_user_id_timestamp;
+
+CREATE INDEX IF NOT EXISTS idx_events_timestamp_id ON events (timestamp DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_events_event_type_timestamp_id ON events (event_type, timestamp DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_events_source_timestamp_id ON events (source, timestamp DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_events_severity_timestamp_id ON events (severity, timestamp DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_events_user_id_timestamp_id ON events (user_id, timestamp DESC, id DESC) WHERE user_id IS NOT NULL;
@@ -0,0 +1,10 @@
+-- =============================================================================
+-- V12: GIN indexes for tag and metadata filters of events
+-- jsonb_path_ops indexes are smaller and faster than the default jsonb_ops
+-- and support containment (tags @> '{"region":"eu"}') and jsonpath
+-- predicates (metadata @@ '$.plan == "pro"'), which is what the browse and
+-- export filters use. Key-existence operators (?, ?|, ?&) are not supported.
+-- =============================================================================
+
+CREATE INDEX IF NOT EXISTS idx_events_tags_gin ON events USING GIN (tags jsonb_path_ops);
+CREATE INDEX IF NOT EXISTS idx_events_metadata_gin ON events USING GIN (metadata jsonb_path_ops);
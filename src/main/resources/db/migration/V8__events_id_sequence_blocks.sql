@@ -0,0 +1,9 @@
+-- =============================================================================
+-- V8: Reserve event ids in blocks for bulk inserts
+-- One nextval() on events_id_seq now reserves 1000 ids, which EventBulkWriter
+-- assigns client-side to multi-row INSERTs. Single-row inserts (column default)
+-- still work; they simply take the first id of a block.
+-- =============================================================================
+ALTER SEQUENCE events_id_seq INCREMENT BY 1000;
+
+COMMENT ON SEQUENCE events_id_seq IS 'Event ids, reserved in blocks of increment_by by EventBulkWriter';
@@ -0,0 +1,60 @@
+-- =============================================================================
+-- V9: Convert the events table into a TimescaleDB hypertable
+-- Partitioned on timestamp in daily chunks, so inserts only touch the indexes
+-- of the current chunk and time-range queries only scan the chunks they cover.
+-- Compression and retention policies are (re)applied at startup from
+-- eventara.ingestion.storage.* (EventStoragePolicies); the values below are
+-- the defaults for databases migrated without the application running.
+-- =============================================================================
+
+CREATE EXTENSION IF NOT EXISTS timescaledb CASCADE;
+
+-- Unique indexes of a hypertable must include the partitioning column
+ALTER TABLE events DROP CONSTRAINT IF EXISTS events_pkey;
+ALTER TABLE events DROP CONSTRAINT IF EXISTS events_event_id_key;
+ALTER TABLE events ADD PRIMARY KEY (id, timestamp);
+
+-- Redeliveries carry the same event_id and timestamp, so duplicates still conflict
+CREATE UNIQUE INDEX IF NOT EXISTS idx_events_event_id_timestamp ON events (event_id, timestamp);
+
+-- =============================================================================
+-- Convert to hypertable (existing rows are moved into chunks)
+-- idx_timestamp from V1 already covers the time column
+-- =============================================================================
+SELECT create_hypertable('events', 'timestamp',
+    chunk_time_interval => INTERVAL '1 day',
+    create_default_indexes => FALSE,
+    migrate_data => TRUE,
+    if_not_exists => TRUE
+);
+
+-- =============================================================================
+-- Indexes: filter column first, then time, so per-type/source/user lookups
+-- ordered by time read one index range per chunk
+-- =============================================================================
+DROP INDEX IF EXISTS idx_event_type;
+DROP INDEX IF EXISTS idx_source;
+DROP INDEX IF EXISTS idx_user_id;
+CREATE INDEX IF NOT EXISTS idx_events_event_type_timestamp ON events (event_type, timestamp DESC);
+CREATE INDEX IF NOT EXISTS idx_events_source_timestamp ON events (source, timestamp DESC);
+CREATE INDEX IF NOT EXISTS idx_events_user_id_timestamp ON events (user_id, timestamp DESC) WHERE user_id IS NOT NULL;
+
+-- =============================================================================
+-- Compression
+-- Rows of one source and event type are stored together, newest first
+-- =============================================================================
+ALTER TABLE events SET (
+    timescaledb.compress,
+    timescaledb.compress_segmentby = 'source, event_type',
+    timescaledb.compress_orderby = 'timestamp DESC, id DESC'
+);
+
+SELECT add_compression_policy('events', INTERVAL '7 days', if_not_exists => TRUE);
+
+-- =============================================================================
+-- Retention Policy
+-- =============================================================================
+SELECT add_retention_policy('events', INTERVAL '90 days', if_not_exists => TRUE);
+
+COMMENT ON TABLE events IS 'Stores event data with JSONB columns for flexible metadata and tags (hypertable on timestamp)';
+COMMENT ON INDEX idx_events_event_id_timestamp IS 'Deduplication key: event_id is unique per timestamp';
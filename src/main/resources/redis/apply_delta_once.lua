@@ -0,0 +1,41 @@
+-- Applies a closed bucket of the Kafka Streams topology at most once
+-- (RedisMetricsService.recordBucket). The marker key records that the window
+-- was applied; a window emitted again after a Streams restart finds it and
+-- changes nothing. Marker and updates are written atomically.
+--
+-- KEYS: 1 marker, 2.. hashes and sorted sets of the bucket
+-- ARGV: 1 TTL seconds, then one operation per 4 arguments:
+--       'h', key index, field, increment   HINCRBY
+--       'z', key index, score, member      ZADD
+--       'r', key index, min, max           widen latency_min / latency_max
+
+local ttl = tonumber(ARGV[1])
+
+if not redis.call('SET', KEYS[1], '1', 'NX', 'EX', ttl) then
+    return 0
+end
+
+for i = 2, #ARGV, 4 do
+    local op = ARGV[i]
+    local key = KEYS[tonumber(ARGV[i + 1])]
+    if op == 'h' then
+        redis.call('HINCRBY', key, ARGV[i + 2], ARGV[i + 3])
+    elseif op == 'z' then
+        redis.call('ZADD', key, ARGV[i + 2], ARGV[i + 3])
+    elseif op == 'r' then
+        local current_min = tonumber(redis.call('HGET', key, 'latency_min'))
+        if not current_min or tonumber(ARGV[i + 2]) < current_min then
+            redis.call('HSET', key, 'latency_min', ARGV[i + 2])
+        end
+        local current_max = tonumber(redis.call('HGET', key, 'latency_max'))
+        if not current_max or tonumber(ARGV[i + 3]) > current_max then
+            redis.call('HSET', key, 'latency_max', ARGV[i + 3])
+        end
+    end
+end
+
+for i = 2, #KEYS do
+    redis.call('EXPIRE', KEYS[i], ttl)
+end
+
+return 1
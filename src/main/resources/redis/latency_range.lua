@@ -0,0 +1,20 @@
+-- Widens the latency_min / latency_max fields of several hashes atomically
+-- (RedisMetricsService.applyDelta): one round trip for every key of a delta.
+--
+-- KEYS: hashes to update
+-- ARGV: min and max for each key, in key order
+
+for i, key in ipairs(KEYS) do
+    local min = ARGV[2 * i - 1]
+    local max = ARGV[2 * i]
+    local current_min = tonumber(redis.call('HGET', key, 'latency_min'))
+    if not current_min or tonumber(min) < current_min then
+        redis.call('HSET', key, 'latency_min', min)
+    end
+    local current_max = tonumber(redis.call('HGET', key, 'latency_max'))
+    if not current_max or tonumber(max) > current_max then
+        redis.call('HSET', key, 'latency_max', max)
+    end
+end
+
+return #KEYS
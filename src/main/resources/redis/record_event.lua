@@ -0,0 +1,73 @@
+-- Records one event in its metrics bucket (RedisMetricsService.recordEvent)
+-- with the same keys and fields as the command-per-operation path, in one
+-- round trip. Scripts run atomically, so the min/max read-compare-write
+-- cannot interleave with another instance.
+--
+-- KEYS: bucket hash, bucket latencies, then only the keys the event has, in
+--       this order: source hash, type hash + type latencies, severity hash
+-- ARGV: 1 TTL seconds, 2 error (1 or 0), 3 latency ms (0 = none), 4 severity,
+--       5 / 6 / 7 has source / type / severity (1 or 0)
+
+local ttl = tonumber(ARGV[1])
+local is_error = ARGV[2] == '1'
+local latency = tonumber(ARGV[3])
+local has_source = ARGV[5] == '1'
+local has_type = ARGV[6] == '1'
+local has_severity = ARGV[7] == '1'
+
+local function count(key)
+    redis.call('HINCRBY', key, 'events', 1)
+    if is_error then
+        redis.call('HINCRBY', key, 'errors', 1)
+    end
+    if latency > 0 then
+        redis.call('HINCRBY', key, 'latency_sum', latency)
+        redis.call('HINCRBY', key, 'latency_count', 1)
+    end
+    redis.call('EXPIRE', key, ttl)
+end
+
+local function latency_range(key)
+    local min = tonumber(redis.call('HGET', key, 'latency_min'))
+    if not min or latency < min then
+        redis.call('HSET', key, 'latency_min', ARGV[3])
+    end
+    local max = tonumber(redis.call('HGET', key, 'latency_max'))
+    if not max or latency > max then
+        redis.call('HSET', key, 'latency_max', ARGV[3])
+    end
+end
+
+local function add_latency(key)
+    redis.call('ZADD', key, latency, ARGV[3])
+    redis.call('EXPIRE', key, ttl)
+end
+
+count(KEYS[1])
+if latency > 0 then
+    latency_range(KEYS[1])
+    add_latency(KEYS[2])
+end
+
+local next_key = 3
+
+if has_source then
+    count(KEYS[next_key])
+    next_key = next_key + 1
+end
+
+if has_type then
+    count(KEYS[next_key])
+    if latency > 0 then
+        latency_range(KEYS[next_key])
+        add_latency(KEYS[next_key + 1])
+    end
+    next_key = next_key + 2
+end
+
+if has_severity then
+    redis.call('HINCRBY', KEYS[next_key], ARGV[4], 1)
+    redis.call('EXPIRE', KEYS[next_key], ttl)
+end
+
+return 1
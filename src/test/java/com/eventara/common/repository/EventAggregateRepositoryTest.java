@@ -0,0 +1,50 @@
+package com.eventara.common.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class EventAggregateRepositoryTest {
+
+    @Test
+    void splitsRangeIntoHoursMinutesAndPartialMinutes() {
+        Object[] args = EventAggregateRepository.rangeArgs(
+                Instant.parse("2026-01-01T09:58:30Z"), Instant.parse("2026-01-01T12:03:15Z"));
+
+        assertArrayEquals(ts("10:00:00", "12:00:00",   // events_1h
+                "09:59:00", "10:00:00", "12:00:00", "12:03:00", // events_1m
+                "09:58:30", "09:59:00", "12:03:00", "12:03:15"), args); // events
+    }
+
+    @Test
+    void includesTheCurrentPartialMinute() {
+        Object[] args = EventAggregateRepository.rangeArgs(
+                Instant.parse("2026-01-01T12:00:20Z"), Instant.parse("2026-01-01T12:01:20Z"));
+
+        // No whole minute: the last minute comes from the events, up to the end of the range
+        assertArrayEquals(ts("12:00:20", "12:00:20",
+                "12:00:20", "12:00:20", "12:00:20", "12:00:20",
+                "12:00:20", "12:01:20", "12:01:20", "12:01:20"), args);
+    }
+
+    @Test
+    void readsWholeMinutesWithoutHours() {
+        Object[] args = EventAggregateRepository.rangeArgs(
+                Instant.parse("2026-01-01T12:00:00Z"), Instant.parse("2026-01-01T12:05:10Z"));
+
+        assertArrayEquals(ts("12:00:00", "12:00:00",
+                "12:00:00", "12:00:00", "12:00:00", "12:05:00",
+                "12:00:00", "12:00:00", "12:05:00", "12:05:10"), args);
+    }
+
+    private static Object[] ts(String... times) {
+        Object[] timestamps = new Object[times.length];
+        for (int i = 0; i < times.length; i++) {
+            timestamps[i] = Timestamp.from(Instant.parse("2026-01-01T" + times[i] + "Z"));
+        }
+        return timestamps;
+    }
+}
@@ -0,0 +1,66 @@
+package com.eventara.common.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EventQueryGuardTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void collectsTheFilteringScanOfEveryChunk() throws Exception {
+        StringBuilder chunks = new StringBuilder();
+        for (int i = 1; i <= 90; i++) {
+            if (i > 1) {
+                chunks.append(',');
+            }
+            chunks.append("{\"Node Type\": \"Seq Scan\", \"Relation Name\": \"_hyper_1_").append(i)
+                    .append("_chunk\", \"Total Cost\": 5000.0, \"Filter\": \"(metadata @? '$.amount ? (@ > 10)')\"}");
+        }
+        JsonNode plan = objectMapper.readTree(
+                "{\"Node Type\": \"Limit\", \"Total Cost\": 450100.0, \"Plans\": [{\"Node Type\": \"Append\","
+                        + " \"Total Cost\": 450000.0, \"Plans\": [" + chunks + "]}]}");
+
+        List<JsonNode> scans = new ArrayList<>();
+        EventQueryGuard.collectFilteringScans(plan, scans);
+
+        assertEquals(90, scans.size());
+        assertEquals(450_000.0, scans.stream().mapToDouble(scan -> scan.path("Total Cost").asDouble()).sum());
+    }
+
+    @Test
+    void ignoresIndexedAndUnrelatedScans() throws Exception {
+        JsonNode plan = objectMapper.readTree("""
+                {"Node Type": "Append", "Total Cost": 900.0, "Plans": [
+                  {"Node Type": "Bitmap Heap Scan", "Total Cost": 400.0,
+                   "Recheck Cond": "(tags @> '{\\"env\\": \\"prod\\"}')"},
+                  {"Node Type": "Seq Scan", "Total Cost": 500.0, "Filter": "(source = 'checkout')"}
+                ]}
+                """);
+
+        List<JsonNode> scans = new ArrayList<>();
+        EventQueryGuard.collectFilteringScans(plan, scans);
+
+        assertEquals(0, scans.size());
+    }
+
+    @Test
+    void doesNotCountChildrenOfAFilteringNodeTwice() throws Exception {
+        JsonNode plan = objectMapper.readTree("""
+                {"Node Type": "Subquery Scan", "Total Cost": 800.0, "Filter": "(tags ->> 'env' ~ 'pro.*')",
+                 "Plans": [{"Node Type": "Seq Scan", "Total Cost": 700.0, "Filter": "(metadata ? 'amount')"}]}
+                """);
+
+        List<JsonNode> scans = new ArrayList<>();
+        EventQueryGuard.collectFilteringScans(plan, scans);
+
+        assertEquals(1, scans.size());
+        assertEquals(800.0, scans.get(0).path("Total Cost").asDouble());
+    }
+}
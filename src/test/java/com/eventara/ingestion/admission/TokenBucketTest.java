@@ -0,0 +1,130 @@
+package com.eventara.ingestion.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void grantsBurstThenNothing() {
+        TokenBucket bucket = new TokenBucket(100, 10);
+        long now = System.nanoTime();
+
+        assertEquals(4, bucket.tryAcquireUpTo(4, now));
+        assertEquals(6, bucket.tryAcquireUpTo(50, now));
+        assertEquals(0, bucket.tryAcquireUpTo(1, now));
+    }
+
+    @Test
+    void refillsAtRate() {
+        TokenBucket bucket = new TokenBucket(100, 10); // one token every 10 ms
+        long now = System.nanoTime();
+        bucket.tryAcquireUpTo(10, now);
+
+        assertEquals(0, bucket.tryAcquireUpTo(1, now + SECOND / 200));
+        assertEquals(1, bucket.tryAcquireUpTo(5, now + SECOND / 100));
+        assertEquals(5, bucket.tryAcquireUpTo(5, now + SECOND / 100 * 6));
+    }
+
+    @Test
+    void idleTimeDoesNotExceedBurst() {
+        TokenBucket bucket = new TokenBucket(100, 10);
+        long now = System.nanoTime();
+
+        assertEquals(10, bucket.tryAcquireUpTo(1000, now + 60 * SECOND));
+        assertEquals(0, bucket.tryAcquireUpTo(1, now + 60 * SECOND));
+    }
+
+    @Test
+    void reportsWaitUntilNextToken() {
+        TokenBucket bucket = new TokenBucket(100, 10);
+        long now = System.nanoTime();
+
+        assertEquals(0, bucket.nanosUntilAvailable(now));
+        bucket.tryAcquireUpTo(10, now);
+        assertEquals(SECOND / 100, bucket.nanosUntilAvailable(now));
+        assertEquals(0, bucket.nanosUntilAvailable(now + SECOND / 100));
+    }
+
+    @Test
+    void treatsBurstBelowOneAsOne() {
+        TokenBucket bucket = new TokenBucket(10, 0);
+        long now = System.nanoTime();
+
+        assertEquals(1, bucket.tryAcquireUpTo(5, now));
+        assertEquals(0, bucket.tryAcquireUpTo(5, now));
+    }
+
+    @Test
+    void releasedTokensCanBeAcquiredAgain() {
+        TokenBucket bucket = new TokenBucket(100, 10);
+        long now = System.nanoTime();
+        bucket.tryAcquireUpTo(10, now);
+
+        assertEquals(4, bucket.release(4, now));
+        assertEquals(4, bucket.tryAcquireUpTo(10, now));
+        assertEquals(0, bucket.tryAcquireUpTo(1, now));
+    }
+
+    @Test
+    void releaseNeverExceedsBurst() {
+        TokenBucket bucket = new TokenBucket(100, 10);
+        long now = System.nanoTime();
+        bucket.tryAcquireUpTo(3, now);
+
+        assertEquals(3, bucket.release(50, now));
+        assertEquals(0, bucket.release(1, now));
+        assertEquals(10, bucket.tryAcquireUpTo(50, now));
+    }
+
+    @Test
+    void stripedReleaseRefundsEveryStripe() {
+        StripedTokenBucket bucket = new StripedTokenBucket(100, 20, 4);
+        long now = System.nanoTime();
+        assertEquals(20, bucket.tryAcquireUpTo(20, now));
+
+        bucket.release(20, now);
+        assertEquals(20, bucket.tryAcquireUpTo(50, now));
+    }
+
+    @Test
+    void neverOverGrantsUnderContention() throws Exception {
+        TokenBucket bucket = new TokenBucket(1, 1000); // no refill worth mentioning during the test
+        long now = System.nanoTime();
+        AtomicLong granted = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    granted.addAndGet(bucket.tryAcquireUpTo(3, now));
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1000, granted.get());
+        assertTrue(bucket.nanosUntilAvailable(now) > 0);
+    }
+}
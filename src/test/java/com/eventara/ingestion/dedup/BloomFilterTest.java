@@ -0,0 +1,79 @@
+package com.eventara.ingestion.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void sizesForExpectedInsertions() {
+        BloomFilter filter = BloomFilter.create(1_000_000, 0.01);
+
+        // m = -n ln(p) / ln(2)^2 ~ 9.59 bits per key, k = (m / n) ln(2) ~ 7
+        assertEquals(9_585_059L, filter.getBitSize());
+        assertEquals(7, filter.getHashFunctions());
+    }
+
+    @Test
+    void hasNoFalseNegatives() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            put(filter, "evt_" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(mightContain(filter, "evt_" + i), "evt_" + i);
+        }
+    }
+
+    @Test
+    void putReportsWhetherKeyWasSeen() {
+        BloomFilter filter = BloomFilter.create(1000, 0.01);
+
+        assertFalse(put(filter, "evt_a"));
+        assertTrue(put(filter, "evt_a"));
+        assertFalse(put(filter, "evt_b"));
+        assertEquals(2, filter.getInsertions());
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            put(filter, "evt_" + i);
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (mightContain(filter, "other_" + i)) {
+                falsePositives++;
+            }
+        }
+
+        double rate = (double) falsePositives / probes;
+        assertTrue(rate < 0.02, "false-positive rate " + rate);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.002);
+    }
+
+    @Test
+    void keepsPositionsInRange() {
+        long bitSize = 1000;
+        for (int i = 0; i < 20; i++) {
+            long position = BloomFilter.position(Long.MIN_VALUE + 7, Long.MAX_VALUE, i, bitSize);
+            assertTrue(position >= 0 && position < bitSize, "position " + position);
+        }
+    }
+
+    private static boolean put(BloomFilter filter, String key) {
+        return filter.put(key);
+    }
+
+    private static boolean mightContain(BloomFilter filter, String key) {
+        long h1 = DedupHash.h1(key);
+        return filter.mightContain(h1, DedupHash.h2(h1));
+    }
+}
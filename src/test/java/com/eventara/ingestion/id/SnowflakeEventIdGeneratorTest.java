@@ -0,0 +1,131 @@
+package com.eventara.ingestion.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnowflakeEventIdGeneratorTest {
+
+    private static final long NOW = 1767225600000L; // 2026-01-01T00:00:00Z
+    private static final int SEQUENCES_PER_MS = 1 << SnowflakeEventIdGenerator.SEQUENCE_BITS;
+
+    @Test
+    void ordersIdsWithinOneMillisecond() {
+        SnowflakeEventIdGenerator generator = new SnowflakeEventIdGenerator(7);
+
+        String previous = generator.nextId(NOW);
+        assertEquals(17, previous.length());
+        assertTrue(previous.startsWith(EventIdGenerator.PREFIX));
+        for (int i = 1; i < SEQUENCES_PER_MS; i++) {
+            String id = generator.nextId(NOW);
+            assertTrue(id.compareTo(previous) > 0, id + " <= " + previous);
+            assertEquals(NOW, millis(id));
+            assertEquals(i, sequence(id));
+            previous = id;
+        }
+    }
+
+    @Test
+    void sequenceOverflowCarriesIntoNextMillisecond() {
+        SnowflakeEventIdGenerator generator = new SnowflakeEventIdGenerator(7);
+        String last = null;
+        for (int i = 0; i < SEQUENCES_PER_MS; i++) {
+            last = generator.nextId(NOW);
+        }
+
+        String overflow = generator.nextId(NOW);
+
+        assertTrue(overflow.compareTo(last) > 0);
+        assertEquals(NOW + 1, millis(overflow));
+        assertEquals(0, sequence(overflow));
+        // The wall clock reaching the borrowed millisecond continues its sequence
+        assertEquals(1, sequence(generator.nextId(NOW + 1)));
+    }
+
+    @Test
+    void clockRollbackKeepsIdsIncreasing() {
+        SnowflakeEventIdGenerator generator = new SnowflakeEventIdGenerator(7);
+        String before = generator.nextId(NOW);
+
+        String afterRollback = generator.nextId(NOW - 5_000);
+
+        assertTrue(afterRollback.compareTo(before) > 0);
+        assertEquals(NOW, millis(afterRollback));
+        assertEquals(1, sequence(afterRollback));
+
+        String caughtUp = generator.nextId(NOW + 1);
+        assertEquals(NOW + 1, millis(caughtUp));
+        assertEquals(0, sequence(caughtUp));
+    }
+
+    @Test
+    void nodesNeverCollide() {
+        String a = new SnowflakeEventIdGenerator(1).nextId(NOW);
+        String b = new SnowflakeEventIdGenerator(2).nextId(NOW);
+
+        assertTrue(b.compareTo(a) > 0);
+        assertEquals(millis(a), millis(b));
+    }
+
+    @Test
+    void rejectsNodeIdOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeEventIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeEventIdGenerator(SnowflakeEventIdGenerator.MAX_NODE_ID + 1));
+    }
+
+    @Test
+    void uniqueUnderContention() throws Exception {
+        SnowflakeEventIdGenerator generator = new SnowflakeEventIdGenerator(7);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 10_000; i++) {
+                    ids.add(generator.nextId());
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(80_000, ids.size());
+    }
+
+    private static long decode(String id) {
+        long value = 0;
+        for (char c : id.substring(EventIdGenerator.PREFIX.length()).toCharArray()) {
+            value = (value << 5) | new String(Crockford.ALPHABET).indexOf(c);
+        }
+        return value;
+    }
+
+    private static long millis(String id) {
+        return (decode(id) >>> (SnowflakeEventIdGenerator.NODE_BITS + SnowflakeEventIdGenerator.SEQUENCE_BITS))
+                + SnowflakeEventIdGenerator.EPOCH_MS;
+    }
+
+    private static long sequence(String id) {
+        return decode(id) & (SEQUENCES_PER_MS - 1);
+    }
+}
@@ -0,0 +1,62 @@
+package com.eventara.ingestion.id;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UlidEventIdGeneratorTest {
+
+    private static final long NOW = 1767225600000L; // 2026-01-01T00:00:00Z
+
+    @Test
+    void ordersIdsWithinOneMillisecond() {
+        UlidEventIdGenerator generator = new UlidEventIdGenerator();
+
+        String previous = generator.nextId(NOW);
+        assertEquals(30, previous.length());
+        assertTrue(previous.startsWith(EventIdGenerator.PREFIX));
+        for (int i = 0; i < 10_000; i++) {
+            String id = generator.nextId(NOW);
+            assertTrue(id.compareTo(previous) > 0, id + " <= " + previous);
+            assertEquals(NOW, millis(id));
+            previous = id;
+        }
+    }
+
+    @Test
+    void newMillisecondStartsFreshRandomPart() {
+        UlidEventIdGenerator generator = new UlidEventIdGenerator();
+        String first = generator.nextId(NOW);
+
+        String next = generator.nextId(NOW + 1);
+
+        assertTrue(next.compareTo(first) > 0);
+        assertEquals(NOW + 1, millis(next));
+        assertNotEquals(random(first), random(next));
+    }
+
+    @Test
+    void clockRollbackKeepsIdsIncreasing() {
+        UlidEventIdGenerator generator = new UlidEventIdGenerator();
+        String before = generator.nextId(NOW);
+
+        String afterRollback = generator.nextId(NOW - 5_000);
+
+        assertTrue(afterRollback.compareTo(before) > 0);
+        assertEquals(NOW, millis(afterRollback));
+    }
+
+    private static long millis(String id) {
+        long value = 0;
+        for (char c : id.substring(EventIdGenerator.PREFIX.length(), EventIdGenerator.PREFIX.length() + 10).toCharArray()) {
+            value = (value << 5) | new String(Crockford.ALPHABET).indexOf(c);
+        }
+        return value;
+    }
+
+    private static String random(String id) {
+        return id.substring(EventIdGenerator.PREFIX.length() + 10);
+    }
+}
@@ -0,0 +1,205 @@
+package com.eventara.ingestion.kafka;
+
+import com.eventara.analytics.service.ComprehensiveMetricsService;
+import com.eventara.common.repository.EventBulkWriter;
+import com.eventara.common.repository.EventRepository;
+import com.eventara.ingestion.config.IngestionProperties;
+import com.eventara.ingestion.dedup.EventDedupFilter;
+import com.eventara.ingestion.mapper.EventMapper;
+import com.eventara.ingestion.model.entity.Event;
+import com.eventara.instrumentation.PipelineMetrics;
+import com.eventara.metrics.config.MetricsProperties;
+import com.eventara.metrics.service.DistributedMetricsService;
+import com.eventara.rule.evaluation.AdaptiveRuleEvaluator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EventConsumerTest {
+
+    private final EventsTable table = new EventsTable();
+    private final DistributedMetricsService distributedMetrics = mock(DistributedMetricsService.class);
+    private final ComprehensiveMetricsService comprehensiveMetrics = mock(ComprehensiveMetricsService.class);
+    private final AdaptiveRuleEvaluator ruleEvaluator = mock(AdaptiveRuleEvaluator.class);
+    private final EventProducer eventProducer = mock(EventProducer.class);
+    private final MetricsProperties metricsProperties = new MetricsProperties();
+    private EventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        EventRepository repository = mock(EventRepository.class);
+        when(repository.existsByEventIdAndTimestamp(any(), any()))
+                .thenAnswer(inv -> table.committed.contains(inv.<String>getArgument(0)));
+
+        EventBulkWriter bulkWriter = mock(EventBulkWriter.class);
+        when(bulkWriter.insertIgnoringDuplicates(anyList(), anyInt()))
+                .thenAnswer(inv -> table.insert(inv.getArgument(0)));
+
+        Set<String> filterSeen = new HashSet<>();
+        EventDedupFilter dedupFilter = mock(EventDedupFilter.class);
+        when(dedupFilter.checkAndPut(any())).thenAnswer(inv -> !filterSeen.add(inv.getArgument(0)));
+
+        metricsProperties.getDistributed().setEnabled(true);
+        metricsProperties.getStreams().setEnabled(false);
+
+        consumer = new EventConsumer();
+        ReflectionTestUtils.setField(consumer, "eventRepository", repository);
+        ReflectionTestUtils.setField(consumer, "eventBulkWriter", bulkWriter);
+        ReflectionTestUtils.setField(consumer, "eventDedupFilter", dedupFilter);
+        ReflectionTestUtils.setField(consumer, "eventMapper", new EventMapper());
+        ReflectionTestUtils.setField(consumer, "metricsProperties", metricsProperties);
+        ReflectionTestUtils.setField(consumer, "ingestionProperties", new IngestionProperties());
+        ReflectionTestUtils.setField(consumer, "pipelineMetrics", new PipelineMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(consumer, "transactionTemplate", new TransactionTemplate(table));
+        ReflectionTestUtils.setField(consumer, "distributedMetricsService", distributedMetrics);
+        ReflectionTestUtils.setField(consumer, "comprehensiveMetricsService", comprehensiveMetrics);
+        ReflectionTestUtils.setField(consumer, "adaptiveRuleEvaluator", ruleEvaluator);
+        ReflectionTestUtils.setField(consumer, "eventProducer", eventProducer);
+    }
+
+    @Test
+    void retryAfterRedisFailureStillRecordsMetrics() {
+        Event event = event("evt_1", Event.Severity.ERROR);
+        doThrow(new RedisConnectionFailureException("timeout"))
+                .doNothing()
+                .when(distributedMetrics).recordEvent(any());
+
+        assertThrows(RedisConnectionFailureException.class, () -> consumer.processEvent(event));
+        assertTrue(table.committed.isEmpty(), "insert must roll back when metrics fail");
+
+        // Retry topic consumer
+        consumer.processEvent(event);
+
+        assertEquals(Set.of("evt_1"), table.committed);
+        verify(distributedMetrics, times(2)).recordEvent(any());
+        verify(comprehensiveMetrics, times(1)).recordEvent(any());
+        verify(ruleEvaluator, times(1)).onEventIngested(true);
+    }
+
+    @Test
+    void batchRetryAfterRedisFailureStillRecordsMetrics() {
+        List<ConsumerRecord<String, Event>> records = List.of(
+                new ConsumerRecord<>("eventara.events.raw", 0, 0L, "a", event("evt_1", Event.Severity.INFO)),
+                new ConsumerRecord<>("eventara.events.raw", 0, 1L, "a", event("evt_2", Event.Severity.ERROR)));
+        doThrow(new RedisConnectionFailureException("timeout")).when(distributedMetrics).recordEvents(anyList());
+        doNothing().when(distributedMetrics).recordEvent(any());
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+
+        assertThrows(RuntimeException.class, () -> consumer.consumeEvents(records, acknowledgment));
+        verify(acknowledgment, never()).acknowledge();
+        assertTrue(table.committed.isEmpty(), "batch insert must roll back when metrics fail");
+
+        // The error handler moves every record to the retry topic, consumed one at a time
+        for (ConsumerRecord<String, Event> record : records) {
+            consumer.processEvent(record.value());
+        }
+
+        assertEquals(Set.of("evt_1", "evt_2"), table.committed);
+        verify(distributedMetrics, times(2)).recordEvent(any());
+        verify(ruleEvaluator, times(1)).onEventIngested(true);
+        verify(ruleEvaluator, times(1)).onEventIngested(false);
+    }
+
+    @Test
+    void committedEventIsSkippedOnRedelivery() {
+        Event event = event("evt_1", Event.Severity.INFO);
+
+        consumer.processEvent(event);
+        consumer.processEvent(event);
+
+        verify(distributedMetrics, times(1)).recordEvent(any());
+        verify(comprehensiveMetrics, times(1)).recordEvent(any());
+    }
+
+    @Test
+    void failedPersistedPublishRollsBackTheInsert() {
+        metricsProperties.getStreams().setEnabled(true);
+        Event event = event("evt_1", Event.Severity.INFO);
+        when(eventProducer.sendPersistedEvents(anyList()))
+                .thenReturn(List.of(CompletableFuture.failedFuture(new TimeoutException("send timed out"))))
+                .thenReturn(List.of(CompletableFuture.completedFuture(null)));
+
+        assertThrows(CompletionException.class, () -> consumer.processEvent(event));
+        assertTrue(table.committed.isEmpty(), "insert must roll back when the publish fails");
+
+        consumer.processEvent(event);
+
+        assertEquals(Set.of("evt_1"), table.committed);
+        verify(eventProducer, times(2)).sendPersistedEvents(anyList());
+    }
+
+    private static Event event(String eventId, Event.Severity severity) {
+        Event event = new Event();
+        event.setEventId(eventId);
+        event.setEventType("payment.failed");
+        event.setSource("checkout");
+        event.setSeverity(severity);
+        event.setTimestamp(Instant.parse("2026-01-01T00:00:00Z"));
+        event.setReceivedAt(Instant.parse("2026-01-01T00:00:01Z"));
+        return event;
+    }
+
+    // Stand-in for the events table: inserted ids only become visible once the transaction commits
+    private static final class EventsTable implements PlatformTransactionManager {
+        final Set<String> committed = new HashSet<>();
+        final Set<String> pending = new HashSet<>();
+
+        List<Event> insert(List<Event> events) {
+            List<Event> inserted = new ArrayList<>();
+            for (Event event : events) {
+                if (!committed.contains(event.getEventId()) && pending.add(event.getEventId())) {
+                    inserted.add(event);
+                }
+            }
+            return inserted;
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            committed.addAll(pending);
+            pending.clear();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            pending.clear();
+        }
+    }
+}
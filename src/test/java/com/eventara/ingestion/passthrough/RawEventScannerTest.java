@@ -0,0 +1,177 @@
+package com.eventara.ingestion.passthrough;
+
+import com.eventara.ingestion.id.EventIdGenerator;
+import com.eventara.ingestion.kafka.EventKeyResolver;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RawEventScannerTest {
+
+    private static final String EVENT_ID = "evt_0123456789abcdef";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EventKeyResolver eventKeyResolver = mock(EventKeyResolver.class);
+    private final RawEventScanner scanner = new RawEventScanner();
+
+    @BeforeEach
+    void setUp() {
+        EventIdGenerator eventIdGenerator = () -> EVENT_ID;
+        ReflectionTestUtils.setField(scanner, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(scanner, "eventIdGenerator", eventIdGenerator);
+        ReflectionTestUtils.setField(scanner, "eventKeyResolver", eventKeyResolver);
+        when(eventKeyResolver.partitionTag()).thenReturn("region");
+    }
+
+    @Test
+    void injectsServerFields() throws Exception {
+        RawEvent event = scanner.scan(bytes("{\"eventType\":\"payment.failed\",\"source\":\"payments\"}"));
+
+        JsonNode payload = payload(event);
+        assertEquals(EVENT_ID, event.getEventId());
+        assertEquals(EVENT_ID, payload.get("eventId").asText());
+        assertEquals("INFO", payload.get("severity").asText());
+        Instant receivedAt = Instant.parse(payload.get("receivedAt").asText());
+        assertEquals(receivedAt, Instant.parse(payload.get("timestamp").asText()));
+        assertFalse(payload.has("id"));
+    }
+
+    @Test
+    void keepsClientTimestampAndOverridesServerFields() throws Exception {
+        RawEvent event = scanner.scan(bytes("{\"eventType\":\"login\",\"source\":\"auth\","
+                + "\"timestamp\":\"2024-01-01T00:00:00Z\",\"eventId\":\"client\",\"receivedAt\":\"client\","
+                + "\"severity\":\"warning\",\"id\":42}"));
+
+        // Duplicates only come from the injection, which Jackson resolves to the last value
+        JsonNode payload = payload(event);
+        assertEquals("2024-01-01T00:00:00Z", payload.get("timestamp").asText());
+        assertEquals(EVENT_ID, payload.get("eventId").asText());
+        Instant.parse(payload.get("receivedAt").asText());
+        assertEquals("WARNING", payload.get("severity").asText());
+        assertEquals(0, payload.get("id").asLong());
+    }
+
+    @Test
+    void normalizesUnknownSeverityToInfo() throws Exception {
+        RawEvent event = scanner.scan(bytes("{\"eventType\":\"a\",\"source\":\"b\",\"severity\":\"fatal\"}"));
+
+        assertEquals("INFO", payload(event).get("severity").asText());
+    }
+
+    @Test
+    void splicesBeforeTrailingWhitespace() throws Exception {
+        RawEvent event = scanner.scan(bytes("{ \"eventType\" : \"a\" ,\n \"source\" : \"b\" \n}\n  "));
+
+        JsonNode payload = payload(event);
+        assertEquals("a", payload.get("eventType").asText());
+        assertEquals(EVENT_ID, payload.get("eventId").asText());
+    }
+
+    @Test
+    void decodesEscapedQuotesAndUnicode() throws Exception {
+        RawEvent event = scanner.scan(bytes("{\"eventType\":\"say \\\"hi\\\"\",\"source\":\"caf\\u00e9 \u2713\","
+                + "\"userId\":\"}\\\\\"}"));
+
+        assertEquals("say \"hi\"", event.getEventType());
+        assertEquals("caf\u00e9 \u2713", event.getSource());
+        JsonNode payload = payload(event);
+        assertEquals("say \"hi\"", payload.get("eventType").asText());
+        assertEquals("caf\u00e9 \u2713", payload.get("source").asText());
+        assertEquals("}\\", payload.get("userId").asText());
+    }
+
+    @Test
+    void keepsNestedMetadata() throws Exception {
+        RawEvent event = scanner.scan(bytes("{\"eventType\":\"a\",\"source\":\"b\","
+                + "\"metadata\":{\"order\":{\"items\":[{\"sku\":\"x\",\"qty\":2}],\"note\":\"}\"}},"
+                + "\"tags\":{\"env\":\"prod\",\"retries\":3}}"));
+
+        JsonNode payload = payload(event);
+        assertEquals(2, payload.at("/metadata/order/items/0/qty").asInt());
+        assertEquals("}", payload.at("/metadata/order/note").asText());
+        assertEquals("prod", payload.at("/tags/env").asText());
+        assertEquals(EVENT_ID, payload.get("eventId").asText());
+    }
+
+    @Test
+    void rejectsNestedTagValues() {
+        assertRejected("{\"eventType\":\"a\",\"source\":\"b\",\"tags\":{\"env\":{\"name\":\"prod\"}}}");
+        assertRejected("{\"eventType\":\"a\",\"source\":\"b\",\"tags\":{\"env\":[\"prod\"]}}");
+        assertRejected("{\"eventType\":\"a\",\"source\":\"b\",\"tags\":[\"prod\"]}");
+        assertRejected("{\"eventType\":\"a\",\"source\":\"b\",\"metadata\":\"text\"}");
+    }
+
+    @Test
+    void capturesPartitionTag() {
+        RawEvent tagged = scanner.scan(bytes("{\"eventType\":\"a\",\"source\":\"b\","
+                + "\"tags\":{\"env\":\"prod\",\"region\":\"eu-west-1\"}}"));
+        RawEvent untagged = scanner.scan(bytes("{\"eventType\":\"a\",\"source\":\"b\",\"tags\":{\"env\":\"prod\"}}"));
+        RawEvent nullTag = scanner.scan(bytes("{\"eventType\":\"a\",\"source\":\"b\",\"tags\":{\"region\":null}}"));
+
+        assertEquals("eu-west-1", tagged.getPartitionTagValue());
+        assertNull(untagged.getPartitionTagValue());
+        assertNull(nullTag.getPartitionTagValue());
+    }
+
+    @Test
+    void ignoresTagsWhenNotPartitioningByTag() {
+        when(eventKeyResolver.partitionTag()).thenReturn(null);
+
+        RawEvent event = scanner.scan(bytes("{\"eventType\":\"a\",\"source\":\"b\",\"tags\":{\"region\":\"eu\"}}"));
+
+        assertNull(event.getPartitionTagValue());
+    }
+
+    @Test
+    void rejectsDuplicateKeys() {
+        assertRejected("{\"eventType\":\"a\",\"source\":\"b\",\"eventType\":\"c\"}");
+        assertRejected("{\"eventType\":\"a\",\"source\":\"b\",\"tags\":{\"region\":\"eu\",\"region\":\"us\"}}");
+        assertRejected("{\"eventType\":\"a\",\"source\":\"b\",\"metadata\":{\"k\":1,\"k\":2}}");
+    }
+
+    @Test
+    void rejectsTrailingContent() {
+        assertRejected("{\"eventType\":\"a\",\"source\":\"b\"} x");
+        assertRejected("{\"eventType\":\"a\",\"source\":\"b\"}{\"eventType\":\"a\",\"source\":\"b\"}");
+        assertRejected("{\"eventType\":\"a\",\"source\":\"b\"},");
+    }
+
+    @Test
+    void rejectsInvalidEvents() {
+        assertRejected("");
+        assertRejected("[]");
+        assertRejected("{\"eventType\":\"a\",\"source\":\"b\"");
+        assertRejected("{\"source\":\"b\"}");
+        assertRejected("{\"eventType\":\" \",\"source\":\"b\"}");
+        assertRejected("{\"eventType\":\"a\",\"source\":1}");
+        assertRejected("{\"eventType\":\"a\",\"source\":\"b\",\"timestamp\":\"yesterday\"}");
+        assertRejected("{\"eventType\":\"a\",\"source\":\"b\",\"id\":\"x\"}");
+    }
+
+    private void assertRejected(String body) {
+        InvalidRawEventException e = assertThrows(InvalidRawEventException.class, () -> scanner.scan(bytes(body)),
+                body);
+        assertTrue(e.getMessage() != null && !e.getMessage().isBlank());
+    }
+
+    private JsonNode payload(RawEvent event) throws Exception {
+        return objectMapper.readTree(event.getPayload());
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
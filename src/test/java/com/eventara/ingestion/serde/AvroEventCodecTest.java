@@ -0,0 +1,122 @@
+package com.eventara.ingestion.serde;
+
+import com.eventara.ingestion.model.entity.Event;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
+class AvroEventCodecTest {
+
+    @TempDir
+    Path schemaDir;
+
+    @Test
+    void roundTripsEvent() throws IOException {
+        AvroEventCodec codec = codec(EventSchemaRegistryTest.registry(schemaDir, 0));
+        Event event = event();
+
+        byte[] data = codec.encode(event);
+        Event decoded = codec.decode(data);
+
+        assertTrue(AvroEventCodec.isAvro(data));
+        assertEquals(1, ByteBuffer.wrap(data, 1, 4).getInt());
+        assertEquals(event.getEventId(), decoded.getEventId());
+        assertEquals(event.getEventType(), decoded.getEventType());
+        assertEquals(event.getTimestamp(), decoded.getTimestamp());
+        assertEquals(event.getSource(), decoded.getSource());
+        assertEquals(event.getUserId(), decoded.getUserId());
+        assertEquals(event.getSessionId(), decoded.getSessionId());
+        assertEquals(event.getSeverity(), decoded.getSeverity());
+        assertEquals(event.getTags(), decoded.getTags());
+        assertEquals(event.getMetadata(), decoded.getMetadata());
+        assertEquals(event.getReceivedAt(), decoded.getReceivedAt());
+    }
+
+    @Test
+    void latestReaderReadsOlderWriter() throws IOException {
+        Files.writeString(schemaDir.resolve("event-v2.avsc"), EventSchemaRegistryTest.V2);
+        AvroEventCodec v1Writer = codec(EventSchemaRegistryTest.registry(schemaDir, 1));
+        AvroEventCodec v2Reader = codec(EventSchemaRegistryTest.registry(schemaDir, 0));
+
+        Event decoded = v2Reader.decode(v1Writer.encode(event()));
+
+        assertEquals("evt_1", decoded.getEventId());
+        assertEquals(Event.Severity.ERROR, decoded.getSeverity());
+        // sessionId is not in the v2 reader schema
+        assertNull(decoded.getSessionId());
+    }
+
+    @Test
+    void previousReaderReadsNewerWriter() throws IOException {
+        Files.writeString(schemaDir.resolve("event-v2.avsc"), EventSchemaRegistryTest.V2);
+        AvroEventCodec v2Writer = codec(EventSchemaRegistryTest.registry(schemaDir, 0));
+        // A consumer one version behind: knows v2 but still reads with v1
+        EventSchemaRegistry registry = spy(EventSchemaRegistryTest.registry(schemaDir, 0));
+        doReturn(registry.schema(1)).when(registry).readerSchema();
+        AvroEventCodec v1Reader = codec(registry);
+
+        Event decoded = v1Reader.decode(v2Writer.encode(event()));
+
+        assertEquals("evt_1", decoded.getEventId());
+        assertEquals("user_1", decoded.getUserId());
+        assertEquals(Map.of("region", "eu"), decoded.getTags());
+        // v2 records have no sessionId; the v1 reader fills in its default
+        assertNull(decoded.getSessionId());
+    }
+
+    @Test
+    void rejectsUnknownWriterVersion() throws IOException {
+        AvroEventCodec codec = codec(EventSchemaRegistryTest.registry(schemaDir, 0));
+        byte[] data = codec.encode(event());
+        ByteBuffer.wrap(data).putInt(1, 7);
+
+        assertThrows(SerializationException.class, () -> codec.decode(data));
+    }
+
+    @Test
+    void detectsEncodingFromFirstByte() {
+        assertTrue(AvroEventCodec.isAvro(new byte[] {0, 0, 0, 0, 1, 2}));
+        assertFalse(AvroEventCodec.isAvro("{\"eventId\":\"evt_1\"}".getBytes()));
+        assertFalse(AvroEventCodec.isAvro(new byte[] {0, 0, 0}));
+        assertFalse(AvroEventCodec.isAvro(null));
+    }
+
+    static AvroEventCodec codec(EventSchemaRegistry registry) {
+        AvroEventCodec codec = new AvroEventCodec();
+        ReflectionTestUtils.setField(codec, "schemaRegistry", registry);
+        ReflectionTestUtils.setField(codec, "objectMapper", new ObjectMapper());
+        return codec;
+    }
+
+    static Event event() {
+        Event event = new Event();
+        event.setEventId("evt_1");
+        event.setEventType("payment.failed");
+        event.setTimestamp(Instant.parse("2026-01-01T00:00:00.123456Z"));
+        event.setSource("checkout");
+        event.setUserId("user_1");
+        event.setSessionId("session_1");
+        event.setSeverity(Event.Severity.ERROR);
+        event.setTags(Map.of("region", "eu"));
+        event.setMetadata(Map.of("amount", 42, "currency", "EUR"));
+        event.setReceivedAt(Instant.parse("2026-01-01T00:00:01Z"));
+        return event;
+    }
+}
@@ -0,0 +1,58 @@
+package com.eventara.ingestion.serde;
+
+import com.eventara.ingestion.config.IngestionProperties;
+import com.eventara.ingestion.model.entity.Event;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EventDeserializerTest {
+
+    private static final String TOPIC = "eventara.events.raw";
+    private static final byte[] JSON = ("  {\"eventId\":\"evt_1\",\"eventType\":\"payment.failed\","
+            + "\"timestamp\":\"2026-01-01T00:00:00Z\",\"source\":\"checkout\"}").getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path schemaDir;
+
+    private final IngestionProperties.Serde config = new IngestionProperties.Serde();
+    private AvroEventCodec codec;
+    private EventDeserializer deserializer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        codec = AvroEventCodecTest.codec(EventSchemaRegistryTest.registry(schemaDir, 0));
+        deserializer = new EventDeserializer(codec, config);
+    }
+
+    @Test
+    void readsAvroAndJsonOnTheSameTopic() {
+        Event avro = assertInstanceOf(Event.class,
+                deserializer.deserialize(TOPIC, new RecordHeaders(), codec.encode(AvroEventCodecTest.event())));
+        Event json = assertInstanceOf(Event.class, deserializer.deserialize(TOPIC, new RecordHeaders(), JSON));
+
+        assertEquals(Event.Severity.ERROR, avro.getSeverity());
+        assertEquals("evt_1", json.getEventId());
+        assertEquals("checkout", json.getSource());
+    }
+
+    @Test
+    void rejectsJsonWhenNotAccepted() {
+        config.setAcceptJson(false);
+
+        assertThrows(SerializationException.class, () -> deserializer.deserialize(TOPIC, JSON));
+        assertThrows(SerializationException.class, () -> deserializer.deserialize(TOPIC, new RecordHeaders(), JSON));
+        // Avro is always accepted
+        assertInstanceOf(Event.class, deserializer.deserialize(TOPIC, codec.encode(AvroEventCodecTest.event())));
+    }
+}
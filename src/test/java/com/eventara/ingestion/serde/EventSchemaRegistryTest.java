@@ -0,0 +1,99 @@
+package com.eventara.ingestion.serde;
+
+import com.eventara.ingestion.config.IngestionProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventSchemaRegistryTest {
+
+    // v1 without sessionId, plus region; both fields have a default
+    static final String V2 = """
+            {
+              "type": "record", "name": "Event", "namespace": "com.eventara.avro",
+              "fields": [
+                { "name": "eventId", "type": "string" },
+                { "name": "eventType", "type": "string" },
+                { "name": "timestamp", "type": { "type": "long", "logicalType": "timestamp-micros" } },
+                { "name": "source", "type": "string" },
+                { "name": "userId", "type": ["null", "string"], "default": null },
+                { "name": "severity", "type": { "type": "enum", "name": "Severity",
+                    "symbols": ["INFO", "WARNING", "ERROR", "CRITICAL"], "default": "INFO" }, "default": "INFO" },
+                { "name": "tags", "type": { "type": "map", "values": "string" }, "default": {} },
+                { "name": "metadata", "type": ["null", "string"], "default": null },
+                { "name": "receivedAt", "type": { "type": "long", "logicalType": "timestamp-micros" } },
+                { "name": "region", "type": ["null", "string"], "default": null }
+              ]
+            }
+            """;
+
+    @TempDir
+    Path schemaDir;
+
+    @Test
+    void writesAndReadsWithLatestVersionByDefault() throws IOException {
+        Files.writeString(schemaDir.resolve("event-v2.avsc"), V2);
+
+        EventSchemaRegistry registry = registry(schemaDir, 0);
+
+        assertEquals(2, registry.writerVersion());
+        assertEquals(registry.schema(2), registry.writerSchema());
+        assertEquals(registry.schema(2), registry.readerSchema());
+        assertTrue(registry.schema(1).getField("sessionId") != null);
+    }
+
+    @Test
+    void pinsWriterVersion() throws IOException {
+        Files.writeString(schemaDir.resolve("event-v2.avsc"), V2);
+
+        EventSchemaRegistry registry = registry(schemaDir, 1);
+
+        assertEquals(1, registry.writerVersion());
+        assertEquals(registry.schema(2), registry.readerSchema());
+    }
+
+    @Test
+    void rejectsVersionThatCannotReadOlderRecords() throws IOException {
+        // A field without a default cannot be filled in from v1 records
+        Files.writeString(schemaDir.resolve("event-v2.avsc"), V2.replace(
+                "{ \"name\": \"region\", \"type\": [\"null\", \"string\"], \"default\": null }",
+                "{ \"name\": \"region\", \"type\": \"string\" }"));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> registry(schemaDir, 0));
+
+        assertTrue(e.getMessage().contains("v2 cannot read v1"), e.getMessage());
+    }
+
+    @Test
+    void rejectsChangedDefinitionOfRegisteredVersion() throws IOException {
+        Files.writeString(schemaDir.resolve("event-v1.avsc"), V2);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> registry(schemaDir, 0));
+
+        assertTrue(e.getMessage().contains("registered twice"), e.getMessage());
+    }
+
+    @Test
+    void rejectsUnknownWriterVersion() {
+        assertThrows(IllegalStateException.class, () -> registry(schemaDir, 3));
+    }
+
+    static EventSchemaRegistry registry(Path schemaDir, int writerVersion) throws IOException {
+        IngestionProperties properties = new IngestionProperties();
+        properties.getSerde().setSchemaDir(schemaDir.toString());
+        properties.getSerde().setWriterSchemaVersion(writerVersion);
+
+        EventSchemaRegistry registry = new EventSchemaRegistry();
+        ReflectionTestUtils.setField(registry, "ingestionProperties", properties);
+        registry.init();
+        return registry;
+    }
+}
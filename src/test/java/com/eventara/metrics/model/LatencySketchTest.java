@@ -0,0 +1,122 @@
+package com.eventara.metrics.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencySketchTest {
+
+    private static final double RELATIVE_ACCURACY = 0.01;
+
+    @Test
+    void emptySketchHasNoQuantiles() {
+        LatencySketch sketch = new LatencySketch();
+
+        assertNull(sketch.quantile(0.5));
+        assertEquals(0, sketch.getCount());
+    }
+
+    @Test
+    void ignoresNonPositiveLatencies() {
+        LatencySketch sketch = new LatencySketch();
+        sketch.add(0);
+        sketch.add(-5);
+        sketch.addBin(3, 0);
+
+        assertEquals(0, sketch.getCount());
+        assertTrue(sketch.getBins().isEmpty());
+    }
+
+    @Test
+    void quantilesAreWithinRelativeAccuracy() {
+        SplittableRandom random = new SplittableRandom(42);
+        long[] values = new long[50_000];
+        LatencySketch sketch = new LatencySketch();
+        for (int i = 0; i < values.length; i++) {
+            // log-uniform between 100 ms and ~100 s
+            values[i] = Math.round(Math.exp(random.nextDouble(Math.log(100), Math.log(100_000))));
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double q : new double[] {0.0, 0.5, 0.9, 0.95, 0.99, 1.0}) {
+            long exact = values[(int) (q * (values.length - 1))];
+            assertWithinAccuracy(exact, sketch.quantile(q));
+        }
+        assertEquals(values.length, sketch.getCount());
+    }
+
+    @Test
+    void mergeEqualsAddingEverything() {
+        LatencySketch left = new LatencySketch();
+        LatencySketch right = new LatencySketch();
+        LatencySketch all = new LatencySketch();
+        for (long latency = 1; latency <= 5000; latency += 7) {
+            (latency % 2 == 0 ? left : right).add(latency);
+            all.add(latency);
+        }
+
+        left.merge(right);
+        left.merge(null);
+
+        assertEquals(all.getBins(), left.getBins());
+        assertEquals(all.getCount(), left.getCount());
+        assertEquals(all.quantile(0.99), left.quantile(0.99));
+    }
+
+    @Test
+    void addBinMatchesAddedValues() {
+        LatencySketch added = new LatencySketch();
+        for (int i = 0; i < 5; i++) {
+            added.add(250);
+        }
+        int bin = added.getBins().firstKey();
+
+        LatencySketch fromBin = new LatencySketch();
+        fromBin.addBin(bin, 5);
+
+        assertEquals(added.getBins(), fromBin.getBins());
+        assertEquals(added.quantile(0.5), fromBin.quantile(0.5));
+    }
+
+    @Test
+    void representativeIsTheValueReportedForTheBin() {
+        for (long latency : new long[] {1, 2, 17, 100, 999, 12_345, 3_600_000}) {
+            LatencySketch sketch = new LatencySketch();
+            sketch.add(latency);
+
+            long representative = LatencySketch.representative(latency);
+            assertEquals(representative, (long) sketch.quantile(0.5));
+            assertEquals(List.of(representative), sketch.representativeValues());
+            if (latency >= 100) {
+                assertWithinAccuracy(latency, representative);
+            }
+        }
+    }
+
+    @Test
+    void representativeValuesAreAscendingAndDistinct() {
+        LatencySketch sketch = new LatencySketch();
+        for (long latency : new long[] {5000, 100, 101, 100, 20_000, 750}) {
+            sketch.add(latency);
+        }
+
+        List<Long> values = sketch.representativeValues();
+        for (int i = 1; i < values.size(); i++) {
+            assertTrue(values.get(i - 1) < values.get(i), values.toString());
+        }
+        assertEquals(sketch.getBins().size(), values.size());
+    }
+
+    // Bin rounding to whole milliseconds adds at most 1 ms on top of the relative error
+    private static void assertWithinAccuracy(long exact, long approximate) {
+        assertTrue(Math.abs(approximate - exact) <= exact * RELATIVE_ACCURACY + 1,
+                "expected ~" + exact + ", got " + approximate);
+    }
+}
@@ -0,0 +1,104 @@
+package com.eventara.metrics.service;
+
+import com.eventara.common.dto.EventDto;
+import com.eventara.instrumentation.PipelineMetrics;
+import com.eventara.metrics.config.MetricsProperties;
+import com.eventara.metrics.model.MetricsDelta;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+
+class MetricsPreAggregatorTest {
+
+    private final RedisMetricsService redisMetrics = mock(RedisMetricsService.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Long> flushedEvents = new ArrayList<>();
+    private MetricsPreAggregator aggregator;
+    private boolean redisDown;
+
+    @BeforeEach
+    void setUp() {
+        doCallRealMethod().when(redisMetrics).addToDelta(any(), anyLong(), any());
+        doAnswer(inv -> {
+            if (redisDown) {
+                throw new RedisConnectionFailureException("timeout");
+            }
+            MetricsDelta delta = inv.getArgument(0);
+            if (delta.isEmpty()) {
+                return null;
+            }
+            long events = 0;
+            for (Map.Entry<String, Map<String, Long>> hash : delta.getHashIncrements().entrySet()) {
+                if (hash.getKey().matches("metrics:bucket:\\d+")) {
+                    events += hash.getValue().getOrDefault("events", 0L);
+                }
+            }
+            flushedEvents.add(events);
+            return null;
+        }).when(redisMetrics).applyDelta(any());
+
+        aggregator = new MetricsPreAggregator();
+        ReflectionTestUtils.setField(aggregator, "redisMetrics", redisMetrics);
+        ReflectionTestUtils.setField(aggregator, "metricsProperties", new MetricsProperties());
+        ReflectionTestUtils.setField(aggregator, "pipelineMetrics", new PipelineMetrics(meterRegistry));
+        ReflectionTestUtils.setField(aggregator, "meterRegistry", meterRegistry);
+        aggregator.init();
+    }
+
+    @Test
+    void failedFlushIsSentWithTheNextOne() {
+        redisDown = true;
+        aggregator.record(event());
+        aggregator.record(event());
+        aggregator.flush();
+        assertEquals(2.0, pendingGauge());
+
+        redisDown = false;
+        aggregator.record(event());
+        aggregator.flush();
+
+        assertEquals(List.of(3L), flushedEvents);
+        assertEquals(0.0, pendingGauge());
+    }
+
+    @Test
+    void keepsRetryingWhileRedisIsDown() {
+        redisDown = true;
+        aggregator.record(event());
+        aggregator.flush();
+        aggregator.flush();
+
+        redisDown = false;
+        aggregator.flush();
+        aggregator.flush();
+
+        assertEquals(List.of(1L), flushedEvents);
+    }
+
+    private double pendingGauge() {
+        return meterRegistry.get("eventara.metrics.preaggregation.pending").gauge().value();
+    }
+
+    private static EventDto event() {
+        EventDto event = new EventDto();
+        event.setEventId("evt_1");
+        event.setEventType("payment.failed");
+        event.setSource("checkout");
+        event.setSeverity("ERROR");
+        return event;
+    }
+}